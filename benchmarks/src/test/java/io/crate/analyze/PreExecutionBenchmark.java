@@ -66,6 +66,7 @@ public class PreExecutionBenchmark {
     private SQLExecutor e;
     private Statement selectStatement;
     private Analysis selectAnalysis;
+    private Statement insertMultipleValuesStatement;
     private PlannerContext plannerContext;
 
     @Setup
@@ -81,6 +82,15 @@ public class PreExecutionBenchmark {
         selectAnalysis =
             e.analyzer.boundAnalyze(selectStatement, new TransactionContext(SessionContext.systemSessionContext()), ParameterContext.EMPTY);
         plannerContext = e.getPlannerContext(clusterService.state(), new Random(dummySeed));
+
+        StringBuilder insertMultipleValues = new StringBuilder("insert into users (id, name, date) values ");
+        for (int i = 0; i < 1000; i++) {
+            if (i > 0) {
+                insertMultipleValues.append(", ");
+            }
+            insertMultipleValues.append("(").append(i).append(", 'Arthur").append(i).append("', '2017-03-13')");
+        }
+        insertMultipleValuesStatement = SqlParser.createStatement(insertMultipleValues.toString());
     }
 
     @TearDown
@@ -125,6 +135,10 @@ public class PreExecutionBenchmark {
         return e.plan("insert into users (id, name, text, date) values (1, 'Arthur', 'So long and thanks for all the fish', '2017-03-13')");
     }
 
+    @Benchmark
+    public Analysis measureAnalyzeInsertFromMultipleValues() {
+        return e.analyzer.boundAnalyze(insertMultipleValuesStatement, new TransactionContext(SessionContext.systemSessionContext()), ParameterContext.EMPTY);
+    }
 
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
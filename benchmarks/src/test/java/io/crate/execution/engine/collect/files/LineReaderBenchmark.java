@@ -0,0 +1,92 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading the lines of a file as bytes with {@link LineReader} to
+ * decoding them into Strings and encoding them again, as COPY FROM did before.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class LineReaderBenchmark {
+
+    private File tempFile;
+
+    @Setup
+    public void createTempFile() throws IOException {
+        tempFile = File.createTempFile("temp", null);
+        try (OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < 100_000; i++) {
+                writer.write("{\"id\": " + i + ", \"name\": \"Trillian\", \"details\": {\"age\": 33, \"city\": \"Zürich\"}}\n");
+            }
+        }
+    }
+
+    @Benchmark
+    public void measureBufferedReaderLines(Blackhole blackhole) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new FileInputStream(tempFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                blackhole.consume(line.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Benchmark
+    public void measureLineReaderLines(Blackhole blackhole) throws IOException {
+        try (LineReader reader = new LineReader(new FileInputStream(tempFile))) {
+            while (reader.readLine()) {
+                int offset = reader.lineOffset();
+                blackhole.consume(Arrays.copyOfRange(reader.lineBuffer(), offset, offset + reader.lineLength()));
+            }
+        }
+    }
+
+    @TearDown
+    public void cleanup() {
+        tempFile.deleteOnExit();
+    }
+}
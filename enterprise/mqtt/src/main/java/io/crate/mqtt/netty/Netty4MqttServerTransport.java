@@ -57,6 +57,7 @@ import org.elasticsearch.common.transport.PortsRange;
 import org.elasticsearch.common.transport.TransportAddress;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.http.BindHttpException;
+import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.BindTransportException;
 
 import java.io.IOException;
@@ -117,7 +118,8 @@ public class Netty4MqttServerTransport extends AbstractLifecycleComponent {
                                      SQLOperations sqlOperations,
                                      UserManager userManager,
                                      IngestionService ingestionService,
-                                     SslContextProvider sslContextProvider) {
+                                     SslContextProvider sslContextProvider,
+                                     ThreadPool threadPool) {
         super(settings);
         this.networkService = networkService;
         logger = Loggers.getLogger("mqtt", settings);
@@ -128,7 +130,7 @@ public class Netty4MqttServerTransport extends AbstractLifecycleComponent {
         port = MQTT_PORT_SETTING.setting().get(settings);
         defaultIdleTimeout = MQTT_TIMEOUT_SETTING.setting().get(settings);
         mqttMessageLogger = new MqttMessageLogger(settings);
-        mqttIngestService = new MqttIngestService(functions, sqlOperations, userManager, ingestionService);
+        mqttIngestService = new MqttIngestService(functions, sqlOperations, userManager, ingestionService, threadPool);
         this.sslContextProvider = sslContextProvider;
     }
 
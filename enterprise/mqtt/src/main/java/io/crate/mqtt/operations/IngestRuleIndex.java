@@ -0,0 +1,255 @@
+/*
+ * This file is part of a module with proprietary Enterprise Features.
+ *
+ * Licensed to Crate.io Inc. ("Crate.io") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ *
+ * To use this file, Crate.io must have given you permission to enable and
+ * use such Enterprise Features and you must have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  If you enable or use the Enterprise
+ * Features, you represent and warrant that you have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  Your use of the Enterprise Features
+ * if governed by the terms and conditions of your Enterprise or Subscription
+ * Agreement with Crate.io.
+ */
+
+package io.crate.mqtt.operations;
+
+import io.crate.data.Row;
+import io.crate.expression.InputFactory;
+import io.crate.expression.RowFilter;
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.operator.EqOperator;
+import io.crate.expression.operator.LikeOperator;
+import io.crate.expression.scalar.cast.CastFunctionResolver;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.rule.ingest.IngestRule;
+import org.elasticsearch.common.lucene.BytesRefs;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Index of the {@link IngestRule}s used to find the rules matching a message.
+ *
+ * Rules with a condition on the topic of the form {@code topic = 'literal'} or {@code topic LIKE 'prefix%'} are
+ * indexed by the topic (or topic prefix), so only the rules which can match the topic of a message are evaluated.
+ * Only the remaining part of the condition of those rules is evaluated against the message.
+ * All other rules are evaluated for every message.
+ */
+final class IngestRuleIndex {
+
+    private static final Predicate<Row> ALWAYS_TRUE = (r) -> true;
+
+    private final Map<String, List<RuleMatcher>> rulesByTopic;
+    private final PrefixNode rulesByTopicPrefix;
+    private final List<RuleMatcher> unindexedRules;
+
+    private IngestRuleIndex(Map<String, List<RuleMatcher>> rulesByTopic,
+                            PrefixNode rulesByTopicPrefix,
+                            List<RuleMatcher> unindexedRules) {
+        this.rulesByTopic = rulesByTopic;
+        this.rulesByTopicPrefix = rulesByTopicPrefix;
+        this.unindexedRules = unindexedRules;
+    }
+
+    /**
+     * @param topic the topic of the message, which must also be contained in {@code row}
+     * @param row the message fields the rule conditions are evaluated against
+     */
+    List<IngestRule> matchingRules(String topic, Row row) {
+        List<IngestRule> matchingRules = new ArrayList<>();
+        List<RuleMatcher> topicRules = rulesByTopic.get(topic);
+        if (topicRules != null) {
+            addMatches(topicRules, row, matchingRules);
+        }
+        PrefixNode node = rulesByTopicPrefix;
+        addMatches(node.rules, row, matchingRules);
+        for (int i = 0; i < topic.length(); i++) {
+            node = node.children.get(topic.charAt(i));
+            if (node == null) {
+                break;
+            }
+            addMatches(node.rules, row, matchingRules);
+        }
+        addMatches(unindexedRules, row, matchingRules);
+        return matchingRules;
+    }
+
+    private static void addMatches(List<RuleMatcher> ruleMatchers, Row row, List<IngestRule> matchingRules) {
+        //noinspection ForLoopReplaceableByForEach // avoids iterator allocation - invoked per message
+        for (int i = 0; i < ruleMatchers.size(); i++) {
+            RuleMatcher ruleMatcher = ruleMatchers.get(i);
+            if (ruleMatcher.condition.test(row)) {
+                matchingRules.add(ruleMatcher.rule);
+            }
+        }
+    }
+
+    static class Builder {
+
+        private final InputFactory inputFactory;
+        private final int topicColumnIndex;
+        private final Map<String, List<RuleMatcher>> rulesByTopic = new HashMap<>();
+        private final PrefixNode rulesByTopicPrefix = new PrefixNode();
+        private final List<RuleMatcher> unindexedRules = new ArrayList<>();
+
+        /**
+         * @param topicColumnIndex the index of the {@link InputColumn} referring to the topic of a message
+         */
+        Builder(InputFactory inputFactory, int topicColumnIndex) {
+            this.inputFactory = inputFactory;
+            this.topicColumnIndex = topicColumnIndex;
+        }
+
+        /**
+         * @param condition the analyzed condition of the rule, or null if the rule matches every message
+         */
+        Builder add(IngestRule rule, @Nullable Symbol condition) {
+            if (condition == null) {
+                unindexedRules.add(new RuleMatcher(rule, ALWAYS_TRUE));
+                return this;
+            }
+            List<Symbol> conjuncts = AndOperator.split(condition);
+            for (int i = 0; i < conjuncts.size(); i++) {
+                Symbol conjunct = conjuncts.get(i);
+                String topic = topicEqualityValue(conjunct);
+                String topicPrefix = topic == null ? topicLikePrefix(conjunct) : null;
+                if (topic != null || topicPrefix != null) {
+                    List<Symbol> remainingConjuncts = new ArrayList<>(conjuncts);
+                    remainingConjuncts.remove(i);
+                    RuleMatcher ruleMatcher = new RuleMatcher(rule, createPredicate(remainingConjuncts));
+                    if (topic != null) {
+                        rulesByTopic.computeIfAbsent(topic, k -> new ArrayList<>()).add(ruleMatcher);
+                    } else {
+                        rulesByTopicPrefix.add(topicPrefix, ruleMatcher);
+                    }
+                    return this;
+                }
+            }
+            unindexedRules.add(new RuleMatcher(rule, RowFilter.create(inputFactory, condition)));
+            return this;
+        }
+
+        IngestRuleIndex build() {
+            return new IngestRuleIndex(rulesByTopic, rulesByTopicPrefix, unindexedRules);
+        }
+
+        private Predicate<Row> createPredicate(List<Symbol> conjuncts) {
+            if (conjuncts.isEmpty()) {
+                return ALWAYS_TRUE;
+            }
+            return RowFilter.create(inputFactory, AndOperator.join(conjuncts));
+        }
+
+        /**
+         * @return the value of {@code topic = 'value'}, or null if the symbol isn't such a comparison
+         */
+        @Nullable
+        private String topicEqualityValue(Symbol symbol) {
+            if (isFunction(symbol, EqOperator.NAME) == false) {
+                return null;
+            }
+            List<Symbol> args = ((Function) symbol).arguments();
+            if (isTopic(args.get(0))) {
+                return stringLiteralValue(args.get(1));
+            }
+            if (isTopic(args.get(1))) {
+                return stringLiteralValue(args.get(0));
+            }
+            return null;
+        }
+
+        /**
+         * @return the prefix of {@code topic LIKE 'prefix%'}, or null if the symbol isn't such a comparison
+         */
+        @Nullable
+        private String topicLikePrefix(Symbol symbol) {
+            if (isFunction(symbol, LikeOperator.NAME) == false) {
+                return null;
+            }
+            List<Symbol> args = ((Function) symbol).arguments();
+            if (isTopic(args.get(0)) == false) {
+                return null;
+            }
+            String pattern = stringLiteralValue(args.get(1));
+            if (pattern == null) {
+                return null;
+            }
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c == '%' && i == pattern.length() - 1) {
+                    return pattern.substring(0, i);
+                }
+                if (c == '%' || c == '_' || c == LikeOperator.DEFAULT_ESCAPE) {
+                    return null;
+                }
+            }
+            // patterns without wildcards aren't indexed
+            return null;
+        }
+
+        private boolean isTopic(Symbol symbol) {
+            if (CastFunctionResolver.isCastFunction(symbol)) {
+                // the message fields are untyped, so the topic is compared as cast to string
+                Function cast = (Function) symbol;
+                if (cast.info().ident().name().equals(CastFunctionResolver.FunctionNames.TO_STRING) == false) {
+                    return false;
+                }
+                symbol = cast.arguments().get(0);
+            }
+            return symbol instanceof InputColumn && ((InputColumn) symbol).index() == topicColumnIndex;
+        }
+
+        private static boolean isFunction(Symbol symbol, String name) {
+            return symbol instanceof Function && ((Function) symbol).info().ident().name().equals(name);
+        }
+
+        @Nullable
+        private static String stringLiteralValue(Symbol symbol) {
+            if (symbol instanceof Literal) {
+                Object value = ((Literal) symbol).value();
+                return value == null ? null : BytesRefs.toString(value);
+            }
+            return null;
+        }
+    }
+
+    private static final class RuleMatcher {
+
+        private final IngestRule rule;
+        private final Predicate<Row> condition;
+
+        RuleMatcher(IngestRule rule, Predicate<Row> condition) {
+            this.rule = rule;
+            this.condition = condition;
+        }
+    }
+
+    /**
+     * Node of a trie over the topic prefixes, holding the rules of the prefix ending at this node.
+     */
+    private static final class PrefixNode {
+
+        private final Map<Character, PrefixNode> children = new HashMap<>();
+        private final List<RuleMatcher> rules = new ArrayList<>();
+
+        void add(String prefix, RuleMatcher ruleMatcher) {
+            PrefixNode node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), k -> new PrefixNode());
+            }
+            node.rules.add(ruleMatcher);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * This file is part of a module with proprietary Enterprise Features.
+ *
+ * Licensed to Crate.io Inc. ("Crate.io") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ *
+ * To use this file, Crate.io must have given you permission to enable and
+ * use such Enterprise Features and you must have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  If you enable or use the Enterprise
+ * Features, you represent and warrant that you have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  Your use of the Enterprise Features
+ * if governed by the terms and conditions of your Enterprise or Subscription
+ * Agreement with Crate.io.
+ */
+
+package io.crate.mqtt.operations;
+
+import io.crate.action.sql.ResultReceiver;
+import io.crate.action.sql.Session;
+import io.crate.data.Row;
+import io.crate.data.Row1;
+import io.crate.protocols.postgres.ClientInterrupted;
+import io.crate.types.DataType;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Collects the arguments of the inserts into one target table and executes them as a single bulk operation once
+ * {@link #MAX_BATCH_SIZE} inserts are pending or {@link #MAX_BATCH_DELAY} passed since the first insert of the
+ * batch was added.
+ *
+ * The statement is parsed once per batch and every insert is bound against it, so analysis and planning happen
+ * once per batch instead of once per message.
+ * Inserts which fail as part of the bulk operation are retried on their own, which also surfaces the actual failure
+ * (e.g. a document that already exists) to the caller.
+ */
+final class InsertBatcher {
+
+    static final int MAX_BATCH_SIZE = 1000;
+    static final TimeValue MAX_BATCH_DELAY = TimeValue.timeValueMillis(10);
+
+    private final String statement;
+    private final List<DataType> paramTypes;
+    private final Supplier<Session> sessionSupplier;
+    private final ThreadPool threadPool;
+
+    private List<PendingInsert> pending = new ArrayList<>();
+
+    InsertBatcher(String statement,
+                  List<DataType> paramTypes,
+                  Supplier<Session> sessionSupplier,
+                  ThreadPool threadPool) {
+        this.statement = statement;
+        this.paramTypes = paramTypes;
+        this.sessionSupplier = sessionSupplier;
+        this.threadPool = threadPool;
+    }
+
+    /**
+     * Adds an insert to the current batch.
+     *
+     * @return a future which completes with the row count of the insert once the batch containing it was executed.
+     */
+    CompletableFuture<Long> add(List<Object> args) {
+        PendingInsert insert = new PendingInsert(args);
+        List<PendingInsert> batch = null;
+        synchronized (this) {
+            pending.add(insert);
+            if (pending.size() >= MAX_BATCH_SIZE) {
+                batch = pending;
+                pending = new ArrayList<>();
+            } else if (pending.size() == 1) {
+                List<PendingInsert> scheduledBatch = pending;
+                threadPool.schedule(MAX_BATCH_DELAY, ThreadPool.Names.GENERIC, () -> flush(scheduledBatch));
+            }
+        }
+        if (batch != null) {
+            execute(batch);
+        }
+        return insert.result;
+    }
+
+    private void flush(List<PendingInsert> scheduledBatch) {
+        synchronized (this) {
+            if (pending != scheduledBatch) {
+                // already executed because it reached the maximum size
+                return;
+            }
+            pending = new ArrayList<>();
+        }
+        execute(scheduledBatch);
+    }
+
+    private void execute(List<PendingInsert> batch) {
+        if (batch.size() == 1) {
+            executeSingle(batch.get(0));
+            return;
+        }
+        try (Session session = sessionSupplier.get()) {
+            session.parse(Session.UNNAMED, statement, paramTypes);
+            for (PendingInsert insert : batch) {
+                session.bind(Session.UNNAMED, Session.UNNAMED, insert.args, null);
+                session.execute(Session.UNNAMED, 0, bulkItemReceiver(insert));
+            }
+            session.sync();
+        } catch (Throwable t) {
+            for (PendingInsert insert : batch) {
+                insert.result.completeExceptionally(t);
+            }
+        }
+    }
+
+    private void executeSingle(PendingInsert insert) {
+        try (Session session = sessionSupplier.get()) {
+            session.parse(Session.UNNAMED, statement, paramTypes);
+            session.bind(Session.UNNAMED, Session.UNNAMED, insert.args, null);
+            session.execute(Session.UNNAMED, 0, new RowCountReceiver(insert.result));
+            session.sync();
+        } catch (Throwable t) {
+            insert.result.completeExceptionally(t);
+        }
+    }
+
+    /**
+     * The bulk operation only reports {@link Row1#ERROR} or a row count of 0 for failed items, so those are
+     * retried on their own to either succeed or fail with the actual cause.
+     */
+    private ResultReceiver<Long> bulkItemReceiver(PendingInsert insert) {
+        CompletableFuture<Long> bulkResult = new CompletableFuture<>();
+        bulkResult.whenComplete((rowCount, t) -> {
+            if (t == null && rowCount != null && rowCount > 0) {
+                insert.result.complete(rowCount);
+            } else {
+                executeSingle(insert);
+            }
+        });
+        return new RowCountReceiver(bulkResult);
+    }
+
+    private static final class PendingInsert {
+
+        private final List<Object> args;
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+
+        PendingInsert(List<Object> args) {
+            this.args = args;
+        }
+    }
+
+    /**
+     * Receives the row count of a single insert; failures are passed on as they are.
+     */
+    private static final class RowCountReceiver implements ResultReceiver<Long> {
+
+        private final CompletableFuture<Long> result;
+        private Long rowCount = null;
+
+        RowCountReceiver(CompletableFuture<Long> result) {
+            this.result = result;
+        }
+
+        @Override
+        public void setNextRow(Row row) {
+            rowCount = (Long) row.get(0);
+        }
+
+        @Override
+        public void batchFinished() {
+        }
+
+        @Override
+        public void allFinished(boolean interrupted) {
+            if (interrupted) {
+                result.completeExceptionally(new ClientInterrupted());
+            } else {
+                result.complete(rowCount);
+            }
+        }
+
+        @Override
+        public void fail(@Nonnull Throwable t) {
+            result.completeExceptionally(t);
+        }
+
+        @Override
+        public CompletableFuture<Long> completionFuture() {
+            return result;
+        }
+    }
+}
@@ -19,22 +19,17 @@
 package io.crate.mqtt.operations;
 
 import com.google.common.collect.ImmutableMap;
-import io.crate.action.sql.BaseResultReceiver;
 import io.crate.action.sql.Option;
-import io.crate.action.sql.SQLActionException;
 import io.crate.action.sql.SQLOperations;
-import io.crate.action.sql.Session;
 import io.crate.analyze.expressions.ExpressionAnalysisContext;
 import io.crate.analyze.expressions.ExpressionAnalyzer;
 import io.crate.analyze.relations.FieldProvider;
 import io.crate.auth.user.User;
 import io.crate.auth.user.UserLookup;
-import io.crate.data.Row;
 import io.crate.data.RowN;
 import io.crate.exceptions.Exceptions;
 import io.crate.exceptions.SQLExceptions;
 import io.crate.expression.InputFactory;
-import io.crate.expression.RowFilter;
 import io.crate.expression.symbol.InputColumn;
 import io.crate.expression.symbol.Symbol;
 import io.crate.ingestion.IngestRuleListener;
@@ -52,25 +47,24 @@ import io.crate.types.DataTypes;
 import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.mqtt.MqttPublishMessage;
 import org.apache.logging.log4j.Logger;
-import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
 import org.elasticsearch.common.xcontent.json.JsonXContent;
 import org.elasticsearch.index.engine.VersionConflictEngineException;
+import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.netty4.Netty4Utils;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
-import java.util.function.Predicate;
 
 /**
  * MQTT ingestion implementation. Handles mqtt messages by extracting the {@link MqttIngestService#MQTT_FIELDS_ORDER}
@@ -82,29 +76,32 @@ public class MqttIngestService implements IngestRuleListener {
 
     private static final Logger LOGGER = Loggers.getLogger(MqttIngestService.class);
     public static final String SOURCE_IDENT = "mqtt";
+    private static final QualifiedName TOPIC_FIELD = new QualifiedName("topic");
     private static final Map<QualifiedName, Integer> MQTT_FIELDS_ORDER = ImmutableMap.of(new QualifiedName("client_id"), 0,
         new QualifiedName("packet_id"), 1,
-        new QualifiedName("topic"), 2,
+        TOPIC_FIELD, 2,
         new QualifiedName("ts"), 3,
         new QualifiedName("payload"), 4);
     private static final List<DataType> FIELD_TYPES = Arrays.asList(DataTypes.STRING, DataTypes.INTEGER, DataTypes.STRING, DataTypes.OBJECT);
-    private static final Predicate<Row> ALWAYS_TRUE = (r) -> true;
 
     private final ExpressionAnalyzer expressionAnalyzer;
     private final InputFactory inputFactory;
     private final SQLOperations sqlOperations;
     private final IngestionService ingestionService;
     private final User crateUser;
-    private final AtomicReference<Set<Tuple<Predicate<Row>, IngestRule>>> predicateAndIngestRulesReference =
-        new AtomicReference<>(new HashSet<>());
+    private final AtomicReference<IngestRuleIndex> ingestRuleIndexReference;
     private final ExpressionAnalysisContext expressionAnalysisContext;
+    private final ThreadPool threadPool;
+    private final Map<String, InsertBatcher> insertBatchers = new ConcurrentHashMap<>();
     private boolean isInitialized;
 
     public MqttIngestService(Functions functions,
                              SQLOperations sqlOperations,
                              UserLookup userLookup,
-                             IngestionService ingestionService) {
+                             IngestionService ingestionService,
+                             ThreadPool threadPool) {
         this.sqlOperations = sqlOperations;
+        this.threadPool = threadPool;
         this.inputFactory = new InputFactory(functions);
         this.expressionAnalysisContext = new ExpressionAnalysisContext();
         FieldProvider<Symbol> mqttSourceFieldsProvider = new FieldProvider<Symbol>() {
@@ -120,6 +117,7 @@ public class MqttIngestService implements IngestRuleListener {
             mqttSourceFieldsProvider,
             null);
         this.ingestionService = ingestionService;
+        this.ingestRuleIndexReference = new AtomicReference<>(newIngestRuleIndexBuilder().build());
         this.crateUser = userLookup.findUser("crate");
     }
 
@@ -149,7 +147,8 @@ public class MqttIngestService implements IngestRuleListener {
 
     /**
      * Parse the payload of the provided mqtt message and find which {@link IngestRule}s match the message properties.
-     * For every matched rule, execute the insert into the rule's target table.
+     * For every matched rule, add the insert into the rule's target table to the {@link InsertBatcher} of that
+     * table, which executes the inserts of many messages as one bulk operation.
      * If we encounter exceptions whilst executing the rules we try to send the ackCallback that failure that's not a
      * "row already exists" (because, in case of messages with the isDup flag set to true, we will send the PUBACK reply
      * to the message).
@@ -167,67 +166,46 @@ public class MqttIngestService implements IngestRuleListener {
             return;
         }
 
-        Set<Tuple<Predicate<Row>, IngestRule>> predicateAndIngestRules = predicateAndIngestRulesReference.get();
         int packetId = msg.variableHeader().packetId();
+        String topic = msg.variableHeader().topicName();
         Object[] args = new Object[]{clientId,
             packetId,
-            msg.variableHeader().topicName(),
+            topic,
             payload};
         List<Object> argsAsList = Arrays.asList(args);
 
-        boolean messageMatchedRule = false;
-        boolean callbackNotified = false;
-        Session session = sqlOperations.createSession(Schemas.DOC_SCHEMA_NAME, crateUser, Option.NONE, 1);
-        List<CompletableFuture<?>> insertOperationsFuture = new ArrayList<>(predicateAndIngestRules.size());
-        for (Tuple<Predicate<Row>, IngestRule> entry : predicateAndIngestRules) {
-            if (entry.v1().test(new RowN(args))) {
-                messageMatchedRule = true;
-                IngestRule ingestRule = entry.v2();
-
-                try {
-                    session.parse(ingestRule.getName(), "insert into " + RelationName.fromIndexName(ingestRule.getTargetTable()).fqn() +
-                                                        " (\"client_id\", \"packet_id\", \"topic\", \"ts\", \"payload\") " +
-                                                        "values (?, ?, ?, CURRENT_TIMESTAMP, ?)", FIELD_TYPES);
-                    session.bind(Session.UNNAMED, ingestRule.getName(), argsAsList, null);
-                    BaseResultReceiver resultReceiver = new BaseResultReceiver();
-                    insertOperationsFuture.add(resultReceiver.completionFuture().exceptionally(t -> {
-                        if (SQLExceptions.isDocumentAlreadyExistsException(t)) {
-                            if (msg.fixedHeader().isDup()) {
-                                // we are dealing with QoS1, so redeliveries and duplicate insert exceptions are
-                                // normal in case of a duplicate message - indicated by the isDup flag
-                                return null;
-                            }
-                        }
-
-                        Exceptions.rethrowUnchecked(t);
+        List<IngestRule> matchingRules = ingestRuleIndexReference.get().matchingRules(topic, new RowN(args));
+        List<CompletableFuture<?>> insertOperationsFuture = new ArrayList<>(matchingRules.size());
+        for (IngestRule ingestRule : matchingRules) {
+            InsertBatcher insertBatcher =
+                insertBatchers.computeIfAbsent(ingestRule.getTargetTable(), this::createInsertBatcher);
+            insertOperationsFuture.add(insertBatcher.add(argsAsList).exceptionally(t -> {
+                if (SQLExceptions.isDocumentAlreadyExistsException(t)) {
+                    if (msg.fixedHeader().isDup()) {
+                        // we are dealing with QoS1, so redeliveries and duplicate insert exceptions are
+                        // normal in case of a duplicate message - indicated by the isDup flag
                         return null;
-                    }));
-                    session.execute(Session.UNNAMED, 0, resultReceiver);
-                    session.sync();
-                } catch (SQLActionException e) {
-                    ackCallback.accept(null, e);
-                    callbackNotified = true;
-                    break;
+                    }
                 }
-            }
-        }
-        session.close();
-
-        if (callbackNotified == false) {
-            CompletableFuture<Void> allResultsComplete =
-                CompletableFuture.allOf(insertOperationsFuture.toArray(new CompletableFuture[0]));
-
-            allResultsComplete.whenComplete((r, t) -> {
-                if (t != null) {
-                    // the actual cause is wrapped in a CompletionException by CompletableFuture#allOf
-                    ackCallback.accept(null, t.getCause());
-                } else {
-                    ackCallback.accept(r, null);
-                }
-            });
+
+                Exceptions.rethrowUnchecked(t);
+                return null;
+            }));
         }
 
-        if (messageMatchedRule == false) {
+        CompletableFuture<Void> allResultsComplete =
+            CompletableFuture.allOf(insertOperationsFuture.toArray(new CompletableFuture[0]));
+
+        allResultsComplete.whenComplete((r, t) -> {
+            if (t != null) {
+                // the actual cause is wrapped in a CompletionException by CompletableFuture#allOf
+                ackCallback.accept(null, t.getCause());
+            } else {
+                ackCallback.accept(r, null);
+            }
+        });
+
+        if (matchingRules.isEmpty()) {
             LOGGER.warn("Message with client_id {} and packet_id {} did not match any rule. The message will not be " +
                         "acknowledged", clientId, packetId);
         }
@@ -236,19 +214,33 @@ public class MqttIngestService implements IngestRuleListener {
         }
     }
 
+    private InsertBatcher createInsertBatcher(String targetTable) {
+        String statement = "insert into " + RelationName.fromIndexName(targetTable).fqn() +
+                           " (\"client_id\", \"packet_id\", \"topic\", \"ts\", \"payload\") " +
+                           "values (?, ?, ?, CURRENT_TIMESTAMP, ?)";
+        return new InsertBatcher(
+            statement,
+            FIELD_TYPES,
+            () -> sqlOperations.createSession(Schemas.DOC_SCHEMA_NAME, crateUser, Option.NONE, 1),
+            threadPool);
+    }
+
+    private IngestRuleIndex.Builder newIngestRuleIndexBuilder() {
+        return new IngestRuleIndex.Builder(inputFactory, MQTT_FIELDS_ORDER.get(TOPIC_FIELD));
+    }
+
     @Override
     public void applyRules(Set<IngestRule> rules) {
-        Set<Tuple<Predicate<Row>, IngestRule>> newRules = new HashSet<>(rules.size());
+        IngestRuleIndex.Builder ingestRuleIndexBuilder = newIngestRuleIndexBuilder();
         for (IngestRule rule : rules) {
             if (rule.getCondition().trim().isEmpty() == false) {
                 Symbol conditionSymbol = expressionAnalyzer.convert(SqlParser.createExpression(rule.getCondition()),
                     expressionAnalysisContext);
-                Predicate<Row> conditionPredicate = RowFilter.create(inputFactory, conditionSymbol);
-                newRules.add(new Tuple<>(conditionPredicate, rule));
+                ingestRuleIndexBuilder.add(rule, conditionSymbol);
             } else {
-                newRules.add(new Tuple<>(ALWAYS_TRUE, rule));
+                ingestRuleIndexBuilder.add(rule, null);
             }
         }
-        predicateAndIngestRulesReference.set(newRules);
+        ingestRuleIndexReference.set(ingestRuleIndexBuilder.build());
     }
 }
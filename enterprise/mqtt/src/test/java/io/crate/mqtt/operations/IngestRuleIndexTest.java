@@ -0,0 +1,115 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+
+package io.crate.mqtt.operations;
+
+import io.crate.analyze.expressions.ExpressionAnalysisContext;
+import io.crate.analyze.expressions.ExpressionAnalyzer;
+import io.crate.analyze.relations.FieldProvider;
+import io.crate.data.RowN;
+import io.crate.expression.InputFactory;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.Functions;
+import io.crate.metadata.TransactionContext;
+import io.crate.metadata.rule.ingest.IngestRule;
+import io.crate.sql.parser.SqlParser;
+import io.crate.test.integration.CrateUnitTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static io.crate.testing.TestingHelpers.getFunctions;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+
+public class IngestRuleIndexTest extends CrateUnitTest {
+
+    private ExpressionAnalyzer expressionAnalyzer;
+    private IngestRuleIndex.Builder builder;
+
+    @Before
+    public void setUpAnalyzer() {
+        Functions functions = getFunctions();
+        FieldProvider<Symbol> fieldProvider = (qualifiedName, path, operation) ->
+            new InputColumn(qualifiedName.toString().equals("topic") ? 0 : 1);
+        expressionAnalyzer = new ExpressionAnalyzer(
+            functions, TransactionContext.systemTransactionContext(), null, fieldProvider, null);
+        builder = new IngestRuleIndex.Builder(new InputFactory(functions), 0);
+    }
+
+    private void addRule(String name, String condition) {
+        Symbol conditionSymbol = expressionAnalyzer.convert(
+            SqlParser.createExpression(condition), new ExpressionAnalysisContext());
+        builder.add(new IngestRule(name, "doc.t", condition), conditionSymbol);
+    }
+
+    private static List<String> matchingRuleNames(IngestRuleIndex index, String topic, Object value) {
+        return index.matchingRules(topic, new RowN(new Object[]{topic, value})).stream()
+            .map(IngestRule::getName)
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testRulesAreMatchedByTopicAndPrefix() {
+        addRule("eq", "topic = 'sensors/1'");
+        addRule("eq_reversed", "'sensors/2' = topic");
+        addRule("prefix", "topic like 'sensors/%'");
+        addRule("all", "topic like '%'");
+        addRule("wildcard", "topic like 'sensors/_'");
+        builder.add(new IngestRule("no_condition", "doc.t", ""), null);
+        IngestRuleIndex index = builder.build();
+
+        assertThat(matchingRuleNames(index, "sensors/1", 1),
+            containsInAnyOrder("eq", "prefix", "all", "wildcard", "no_condition"));
+        assertThat(matchingRuleNames(index, "sensors/2", 1),
+            containsInAnyOrder("eq_reversed", "prefix", "all", "wildcard", "no_condition"));
+        assertThat(matchingRuleNames(index, "sensors/10", 1),
+            containsInAnyOrder("prefix", "all", "no_condition"));
+        assertThat(matchingRuleNames(index, "sensor", 1),
+            containsInAnyOrder("all", "no_condition"));
+    }
+
+    @Test
+    public void testRemainingConditionOfIndexedRulesIsEvaluated() {
+        addRule("eq_and_value", "topic = 'sensors/1' and value > 10");
+        addRule("prefix_and_value", "value > 20 and topic like 'sensors/%'");
+        addRule("value_or_topic", "value > 30 or topic = 'sensors/1'");
+        IngestRuleIndex index = builder.build();
+
+        assertThat(matchingRuleNames(index, "sensors/1", 5), containsInAnyOrder("value_or_topic"));
+        assertThat(matchingRuleNames(index, "sensors/1", 15), containsInAnyOrder("eq_and_value", "value_or_topic"));
+        assertThat(matchingRuleNames(index, "sensors/1", 25),
+            containsInAnyOrder("eq_and_value", "prefix_and_value", "value_or_topic"));
+        assertThat(matchingRuleNames(index, "other", 25), empty());
+        assertThat(matchingRuleNames(index, "other", 35), containsInAnyOrder("value_or_topic"));
+    }
+
+    @Test
+    public void testEmptyIndexMatchesNothing() {
+        IngestRuleIndex index = builder.build();
+        assertThat(matchingRuleNames(index, "sensors/1", 1), empty());
+    }
+}
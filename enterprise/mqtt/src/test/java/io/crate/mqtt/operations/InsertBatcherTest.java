@@ -0,0 +1,151 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+
+package io.crate.mqtt.operations;
+
+import io.crate.action.sql.ResultReceiver;
+import io.crate.action.sql.Session;
+import io.crate.data.Row1;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.DataTypes;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class InsertBatcherTest extends CrateUnitTest {
+
+    private static final String STATEMENT = "insert into t (x) values (?)";
+
+    private Session session;
+    private ThreadPool threadPool;
+    private InsertBatcher insertBatcher;
+
+    @Before
+    public void setUpBatcher() {
+        session = mock(Session.class);
+        doAnswer(invocation -> {
+            ResultReceiver resultReceiver = (ResultReceiver) invocation.getArguments()[2];
+            resultReceiver.setNextRow(new Row1(1L));
+            resultReceiver.allFinished(false);
+            return null;
+        }).when(session).execute(anyString(), anyInt(), any(ResultReceiver.class));
+        threadPool = mock(ThreadPool.class);
+        insertBatcher = new InsertBatcher(
+            STATEMENT, Collections.singletonList(DataTypes.INTEGER), () -> session, threadPool);
+    }
+
+    @Test
+    public void testInsertsAreExecutedAsOneBulkOperationAfterDelay() throws Exception {
+        List<CompletableFuture<Long>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(insertBatcher.add(Collections.singletonList(i)));
+        }
+        for (CompletableFuture<Long> result : results) {
+            assertThat(result.isDone(), is(false));
+        }
+
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(threadPool, times(1))
+            .schedule(eq(InsertBatcher.MAX_BATCH_DELAY), eq(ThreadPool.Names.GENERIC), flush.capture());
+        flush.getValue().run();
+
+        verify(session, times(1)).parse(Session.UNNAMED, STATEMENT, Collections.singletonList(DataTypes.INTEGER));
+        verify(session, times(3)).bind(eq(Session.UNNAMED), eq(Session.UNNAMED), any(List.class), any());
+        verify(session, times(1)).sync();
+        for (CompletableFuture<Long> result : results) {
+            assertThat(result.get(), is(1L));
+        }
+    }
+
+    @Test
+    public void testBatchIsExecutedOnceMaxSizeIsReached() throws Exception {
+        List<CompletableFuture<Long>> results = new ArrayList<>();
+        for (int i = 0; i < InsertBatcher.MAX_BATCH_SIZE; i++) {
+            results.add(insertBatcher.add(Collections.singletonList(i)));
+        }
+        verify(session, times(1)).sync();
+        for (CompletableFuture<Long> result : results) {
+            assertThat(result.get(), is(1L));
+        }
+
+        // the scheduled flush of the already executed batch must not execute anything
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(threadPool, times(1)).schedule(any(TimeValue.class), anyString(), flush.capture());
+        flush.getValue().run();
+        verify(session, times(1)).sync();
+    }
+
+    @Test
+    public void testFailedBulkItemIsRetriedOnItsOwnAndFailsWithActualCause() throws Exception {
+        Session bulkSession = mock(Session.class);
+        List<ResultReceiver> bulkReceivers = new ArrayList<>();
+        doAnswer(invocation -> {
+            bulkReceivers.add((ResultReceiver) invocation.getArguments()[2]);
+            return null;
+        }).when(bulkSession).execute(anyString(), anyInt(), any(ResultReceiver.class));
+        IllegalStateException failure = new IllegalStateException("document already exists");
+        Session retrySession = mock(Session.class);
+        doAnswer(invocation -> {
+            ((ResultReceiver) invocation.getArguments()[2]).fail(failure);
+            return null;
+        }).when(retrySession).execute(anyString(), anyInt(), any(ResultReceiver.class));
+        Iterator<Session> sessions = Arrays.asList(bulkSession, retrySession).iterator();
+        insertBatcher = new InsertBatcher(
+            STATEMENT, Collections.singletonList(DataTypes.INTEGER), sessions::next, threadPool);
+
+        CompletableFuture<Long> first = insertBatcher.add(Collections.singletonList(1));
+        CompletableFuture<Long> second = insertBatcher.add(Collections.singletonList(1));
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(threadPool, times(1)).schedule(any(TimeValue.class), anyString(), flush.capture());
+        flush.getValue().run();
+
+        bulkReceivers.get(0).setNextRow(new Row1(1L));
+        bulkReceivers.get(0).allFinished(false);
+        bulkReceivers.get(1).setNextRow(new Row1(Row1.ERROR));
+        bulkReceivers.get(1).allFinished(false);
+
+        assertThat(first.get(), is(1L));
+        verify(retrySession, times(1)).sync();
+        expectedException.expectCause(is(failure));
+        second.get();
+    }
+}
@@ -28,6 +28,7 @@ import io.crate.metadata.Functions;
 import io.crate.auth.user.UserLookup;
 import io.crate.test.integration.CrateUnitTest;
 import io.netty.handler.codec.mqtt.MqttPublishMessage;
+import org.elasticsearch.threadpool.ThreadPool;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -40,7 +41,8 @@ public class MqttIngestServiceTest extends CrateUnitTest {
     @Before
     public void setupMqttIngestService() {
         mqttIngestService = new MqttIngestService(
-            mock(Functions.class), mock(SQLOperations.class), mock(UserLookup.class), mock(IngestionService.class)
+            mock(Functions.class), mock(SQLOperations.class), mock(UserLookup.class), mock(IngestionService.class),
+            mock(ThreadPool.class)
         );
     }
 
@@ -25,6 +25,7 @@ import io.crate.analyze.AlterTableAnalyzedStatement;
 import io.crate.analyze.AlterTableOpenCloseAnalyzedStatement;
 import io.crate.analyze.AlterTableRenameAnalyzedStatement;
 import io.crate.analyze.AlterUserAnalyzedStatement;
+import io.crate.analyze.AnalyzeStmt;
 import io.crate.analyze.AnalyzedBegin;
 import io.crate.analyze.AnalyzedCommit;
 import io.crate.analyze.AnalyzedDeleteStatement;
@@ -491,6 +492,24 @@ class StatementPrivilegeValidator implements StatementAuthorizedValidator {
             }
             return null;
         }
+
+        @Override
+        public Void visitAnalyzeStmt(AnalyzeStmt analyzeStmt, User user) {
+            if (analyzeStmt.table() == null) {
+                Privileges.ensureUserHasPrivilege(
+                    Privilege.Type.DDL,
+                    Privilege.Clazz.CLUSTER,
+                    null,
+                    user);
+            } else {
+                Privileges.ensureUserHasPrivilege(
+                    Privilege.Type.DDL,
+                    Privilege.Clazz.TABLE,
+                    analyzeStmt.table().ident().toString(),
+                    user);
+            }
+            return null;
+        }
     }
 
     private static class RelationContext {
@@ -25,6 +25,7 @@ package io.crate.sql;
 import com.google.common.collect.Iterables;
 import io.crate.sql.tree.AliasedRelation;
 import io.crate.sql.tree.AllColumns;
+import io.crate.sql.tree.AnalyzeStatement;
 import io.crate.sql.tree.Assignment;
 import io.crate.sql.tree.AstVisitor;
 import io.crate.sql.tree.ClusteredBy;
@@ -143,6 +144,16 @@ public final class SqlFormatter {
             return null;
         }
 
+        @Override
+        public Void visitAnalyzeStatement(AnalyzeStatement node, Integer indent) {
+            append(indent, "ANALYZE");
+            if (node.table().isPresent()) {
+                builder.append(" ");
+                process(node.table().get(), indent);
+            }
+            return null;
+        }
+
         @Override
         protected Void visitExplain(Explain node, Integer indent) {
             append(indent, "EXPLAIN");
@@ -517,6 +517,10 @@ public abstract class AstVisitor<R, C> {
         return visitStatement(node, context);
     }
 
+    public R visitAnalyzeStatement(AnalyzeStatement node, C context) {
+        return visitStatement(node, context);
+    }
+
     public R visitDeallocateStatement(DeallocateStatement node, C context) {
         return visitStatement(node, context);
     }
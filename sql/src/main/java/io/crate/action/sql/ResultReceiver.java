@@ -26,6 +26,8 @@ import io.crate.concurrent.CompletionListenable;
 import io.crate.data.Row;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Used via {@link RowConsumerToResultReceiver} to receive results from the execution of a plan
@@ -34,6 +36,17 @@ public interface ResultReceiver<T> extends CompletionListenable<T> {
 
     void setNextRow(Row row);
 
+    /**
+     * Called after {@link #setNextRow(Row)} to check if the receiver can take more rows.
+     *
+     * @return null if more rows can be pushed right away. Otherwise a future which completes once the receiver is
+     *         able to take more rows; no rows should be pushed until then.
+     */
+    @Nullable
+    default CompletableFuture<?> backpressure() {
+        return null;
+    }
+
     void batchFinished();
 
     /**
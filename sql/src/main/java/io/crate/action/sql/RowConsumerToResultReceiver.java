@@ -26,19 +26,29 @@ import io.crate.data.RowConsumer;
 import io.crate.data.BatchIterator;
 import io.crate.data.Row;
 import io.crate.exceptions.SQLExceptions;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 
 import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 public class RowConsumerToResultReceiver implements RowConsumer {
 
+    private final Executor executor;
     private ResultReceiver resultReceiver;
     private int maxRows;
     private long rowCount = 0;
     private BatchIterator<Row> activeIt;
 
-    public RowConsumerToResultReceiver(ResultReceiver resultReceiver, int maxRows) {
+    /**
+     * @param executor used to resume the consumption once the {@link ResultReceiver#backpressure()} is released.
+     *                 It's released by the network thread, which must not be blocked by consuming the iterator.
+     */
+    public RowConsumerToResultReceiver(ResultReceiver resultReceiver, int maxRows, Executor executor) {
         this.resultReceiver = resultReceiver;
         this.maxRows = maxRows;
+        this.executor = executor;
     }
 
     @Override
@@ -65,6 +75,11 @@ public class RowConsumerToResultReceiver implements RowConsumer {
                     resultReceiver.batchFinished();
                     return; // resumed via postgres protocol, close is done later
                 }
+                CompletableFuture<?> backpressure = resultReceiver.backpressure();
+                if (backpressure != null && !backpressure.isDone()) {
+                    backpressure.whenComplete((r, f) -> resumeOnExecutor(iterator));
+                    return;
+                }
             }
             allLoaded = iterator.allLoaded();
         } catch (Throwable t) {
@@ -87,6 +102,14 @@ public class RowConsumerToResultReceiver implements RowConsumer {
         }
     }
 
+    private void resumeOnExecutor(BatchIterator<Row> iterator) {
+        try {
+            executor.execute(() -> consumeIt(iterator));
+        } catch (EsRejectedExecutionException | RejectedExecutionException e) {
+            consumeIt(iterator);
+        }
+    }
+
     /**
      * If this consumer suspended itself (due to {@code maxRows} being > 0, it will close the BatchIterator
      * and finish the ResultReceiver with interrupted=true.
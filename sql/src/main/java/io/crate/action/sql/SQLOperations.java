@@ -53,6 +53,7 @@ public class SQLOperations {
 
     private final Analyzer analyzer;
     private final Planner planner;
+    private final StatementCache statementCache;
     private final Provider<DependencyCarrier> executorProvider;
     private final JobsLogs jobsLogs;
     private final ClusterService clusterService;
@@ -63,6 +64,7 @@ public class SQLOperations {
     @Inject
     public SQLOperations(Analyzer analyzer,
                          Planner planner,
+                         StatementCache statementCache,
                          Provider<DependencyCarrier> executorProvider,
                          JobsLogs jobsLogs,
                          Settings settings,
@@ -70,6 +72,7 @@ public class SQLOperations {
                          Provider<UserManager> userManagerProvider) {
         this.analyzer = analyzer;
         this.planner = planner;
+        this.statementCache = statementCache;
         this.executorProvider = executorProvider;
         this.jobsLogs = jobsLogs;
         this.clusterService = clusterService;
@@ -84,6 +87,7 @@ public class SQLOperations {
         return new Session(
             analyzer,
             planner,
+            statementCache,
             jobsLogs,
             isReadOnly,
             executorProvider.get(),
@@ -58,6 +58,7 @@ import org.apache.logging.log4j.Logger;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.common.Randomness;
 import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.threadpool.ThreadPool;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -124,18 +125,21 @@ public class Session implements AutoCloseable {
 
     private final Analyzer analyzer;
     private final Planner planner;
+    private final StatementCache statementCache;
     private final JobsLogs jobsLogs;
     private final boolean isReadOnly;
     private final ParameterTypeExtractor parameterTypeExtractor;
 
     public Session(Analyzer analyzer,
                    Planner planner,
+                   StatementCache statementCache,
                    JobsLogs jobsLogs,
                    boolean isReadOnly,
                    DependencyCarrier executor,
                    SessionContext sessionContext) {
         this.analyzer = analyzer;
         this.planner = planner;
+        this.statementCache = statementCache;
         this.jobsLogs = jobsLogs;
         this.isReadOnly = isReadOnly;
         this.executor = executor;
@@ -186,7 +190,9 @@ public class Session implements AutoCloseable {
         }
         StatementClassifier.Classification classification = StatementClassifier.classify(plan);
         jobsLogs.logExecutionStart(jobId, statement, sessionContext.user(), classification);
-        resultReceiver.completionFuture().whenComplete(new JobsLogsUpdateListener(jobId, jobsLogs));
+        resultReceiver.completionFuture()
+            .whenComplete(new JobsLogsUpdateListener(jobId, jobsLogs))
+            .whenComplete((result, t) -> planner.onStatementCompleted(analyzedStatement));
 
         if (!analyzedStatement.isWriteOperation()) {
             resultReceiver = new RetryOnFailureResultReceiver(
@@ -202,13 +208,15 @@ public class Session implements AutoCloseable {
                     newJobId,
                     analyzedStatement,
                     routingProvider,
-                    new RowConsumerToResultReceiver(retryResultReceiver, 0),
+                    new RowConsumerToResultReceiver(
+                        retryResultReceiver, 0, executor.threadPool().executor(ThreadPool.Names.SEARCH)),
                     params,
                     txnCtx
                 )
             );
         }
-        RowConsumerToResultReceiver consumer = new RowConsumerToResultReceiver(resultReceiver, 0);
+        RowConsumerToResultReceiver consumer = new RowConsumerToResultReceiver(
+            resultReceiver, 0, executor.threadPool().executor(ThreadPool.Names.SEARCH));
         plan.execute(executor, plannerContext, consumer, params, SubQueryResults.EMPTY);
     }
 
@@ -240,7 +248,7 @@ public class Session implements AutoCloseable {
     private Portal getOrCreatePortal(String portalName) {
         Portal portal = portals.get(portalName);
         if (portal == null) {
-            portal = new SimplePortal(portalName, analyzer, executor, isReadOnly, sessionContext);
+            portal = new SimplePortal(portalName, analyzer, statementCache, executor, isReadOnly, sessionContext);
             portals.put(portalName, portal);
         }
         return portal;
@@ -263,15 +271,18 @@ public class Session implements AutoCloseable {
             LOGGER.debug("method=parse stmtName={} query={} paramTypes={}", statementName, query, paramTypes);
         }
 
-        Statement statement;
-        try {
-            statement = SqlParser.createStatement(query);
-        } catch (Throwable t) {
-            if ("".equals(query)) {
-                statement = EMPTY_STMT;
-            } else {
-                jobsLogs.logPreExecutionFailure(UUID.randomUUID(), query, SQLExceptions.messageOf(t), sessionContext.user());
-                throw SQLExceptions.createSQLActionException(t, sessionContext);
+        Statement statement = statementCache.getParsedStatement(query);
+        if (statement == null) {
+            try {
+                statement = SqlParser.createStatement(query);
+                statementCache.putParsedStatement(query, statement);
+            } catch (Throwable t) {
+                if ("".equals(query)) {
+                    statement = EMPTY_STMT;
+                } else {
+                    jobsLogs.logPreExecutionFailure(UUID.randomUUID(), query, SQLExceptions.messageOf(t), sessionContext.user());
+                    throw SQLExceptions.createSQLActionException(t, sessionContext);
+                }
             }
         }
         preparedStatements.put(statementName, new PreparedStmt(statement, query, paramTypes));
@@ -45,6 +45,7 @@ public class SessionContext implements StatementAuthorizedValidator, ExceptionAu
     private String defaultSchema;
     private boolean semiJoinsRewriteEnabled = false;
     private boolean hashJoinEnabled = true;
+    private boolean subQueryCacheEnabled = false;
 
     /**
      * Creates a new SessionContext suitable to use as system SessionContext
@@ -113,6 +114,14 @@ public class SessionContext implements StatementAuthorizedValidator, ExceptionAu
         this.hashJoinEnabled = hashJoinEnabled;
     }
 
+    public boolean isSubQueryCacheEnabled() {
+        return subQueryCacheEnabled;
+    }
+
+    public void setSubQueryCacheEnabled(boolean subQueryCacheEnabled) {
+        this.subQueryCacheEnabled = subQueryCacheEnabled;
+    }
+
     public User user() {
         return user;
     }
@@ -135,5 +144,6 @@ public class SessionContext implements StatementAuthorizedValidator, ExceptionAu
         resetSchema();
         semiJoinsRewriteEnabled = false;
         hashJoinEnabled = true;
+        subQueryCacheEnabled = false;
     }
 }
@@ -0,0 +1,199 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.action.sql;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableSet;
+import io.crate.analyze.AnalyzedStatement;
+import io.crate.planner.Plan;
+import io.crate.sql.tree.Query;
+import io.crate.sql.tree.Statement;
+import io.crate.types.DataType;
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.elasticsearch.cluster.ClusterStateListener;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Node-wide cache of parsed statements, and of analyzed statements together with their plans.
+ *
+ * <p>
+ * Plans are cached per statement text, parameter types and all session properties which influence the analysis
+ * or planning, so that they can be shared between sessions. Cached analyzed statements must be treated as
+ * read-only; they must not be planned again as planning may modify them.
+ * </p>
+ *
+ * The cache is cleared whenever the cluster metadata changes, as the metadata contains the schemas, tables,
+ * partitions and privileges the analysis and plans are based on.
+ */
+@Singleton
+public class StatementCache implements ClusterStateListener {
+
+    public static final Setting<Integer> STATEMENT_CACHE_SIZE_SETTING = Setting.intSetting(
+        "node.sql.statement_cache.size",
+        1000,
+        0,
+        Setting.Property.NodeScope);
+
+    private final boolean enabled;
+    private final Cache<String, Statement> parsedStatements;
+    private final Cache<Key, CachedPlan> plans;
+
+    @Inject
+    public StatementCache(Settings settings, ClusterService clusterService) {
+        this(STATEMENT_CACHE_SIZE_SETTING.get(settings));
+        clusterService.addListener(this);
+    }
+
+    @VisibleForTesting
+    public StatementCache(int maxSize) {
+        enabled = maxSize > 0;
+        parsedStatements = CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .build();
+        plans = CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * @return true if the cache is enabled and the plan of the statement can be cached and re-used for different
+     *         parameter values
+     */
+    public boolean supportsPlanCaching(Statement statement) {
+        return enabled && statement instanceof Query;
+    }
+
+    @Nullable
+    Statement getParsedStatement(String query) {
+        return enabled ? parsedStatements.getIfPresent(query) : null;
+    }
+
+    void putParsedStatement(String query, Statement statement) {
+        if (enabled) {
+            parsedStatements.put(query, statement);
+        }
+    }
+
+    @Nullable
+    public CachedPlan getPlan(Key key) {
+        return plans.getIfPresent(key);
+    }
+
+    public void putPlan(Key key, AnalyzedStatement analyzedStatement, Plan plan) {
+        plans.put(key, new CachedPlan(analyzedStatement, plan));
+    }
+
+    public StatementCacheStats stats() {
+        CacheStats stats = plans.stats();
+        return new StatementCacheStats(plans.size(), stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+
+    @Override
+    public void clusterChanged(ClusterChangedEvent event) {
+        if (event.metaDataChanged()) {
+            parsedStatements.invalidateAll();
+            plans.invalidateAll();
+        }
+    }
+
+    public static final class CachedPlan {
+
+        private final AnalyzedStatement analyzedStatement;
+        private final Plan plan;
+
+        private CachedPlan(AnalyzedStatement analyzedStatement, Plan plan) {
+            this.analyzedStatement = analyzedStatement;
+            this.plan = plan;
+        }
+
+        public AnalyzedStatement analyzedStatement() {
+            return analyzedStatement;
+        }
+
+        public Plan plan() {
+            return plan;
+        }
+    }
+
+    public static final class Key {
+
+        private final String query;
+        private final List<DataType> paramTypes;
+        @Nullable
+        private final String defaultSchema;
+        private final String userName;
+        private final Set<Option> options;
+        private final int defaultLimit;
+        private final boolean hashJoinEnabled;
+        private final boolean semiJoinsRewriteEnabled;
+
+        public Key(String query, List<DataType> paramTypes, SessionContext sessionContext) {
+            this.query = query;
+            this.paramTypes = paramTypes;
+            this.defaultSchema = sessionContext.defaultSchema();
+            this.userName = sessionContext.user().name();
+            this.options = ImmutableSet.copyOf(sessionContext.options());
+            this.defaultLimit = sessionContext.defaultLimit();
+            this.hashJoinEnabled = sessionContext.isHashJoinEnabled();
+            this.semiJoinsRewriteEnabled = sessionContext.getSemiJoinsRewriteEnabled();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return defaultLimit == key.defaultLimit &&
+                   hashJoinEnabled == key.hashJoinEnabled &&
+                   semiJoinsRewriteEnabled == key.semiJoinsRewriteEnabled &&
+                   query.equals(key.query) &&
+                   paramTypes.equals(key.paramTypes) &&
+                   Objects.equals(defaultSchema, key.defaultSchema) &&
+                   userName.equals(key.userName) &&
+                   options.equals(key.options);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(
+                query, paramTypes, defaultSchema, userName, options, defaultLimit, hashJoinEnabled, semiJoinsRewriteEnabled);
+        }
+    }
+}
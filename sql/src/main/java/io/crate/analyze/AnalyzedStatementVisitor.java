@@ -230,4 +230,8 @@ public class AnalyzedStatementVisitor<C, R> {
     public R visitDropView(DropViewStmt dropViewStmt, C context) {
         return visitAnalyzedStatement(dropViewStmt, context);
     }
+
+    public R visitAnalyzeStmt(AnalyzeStmt analyzeStmt, C context) {
+        return visitAnalyzedStatement(analyzeStmt, context);
+    }
 }
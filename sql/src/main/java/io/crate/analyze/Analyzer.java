@@ -39,6 +39,7 @@ import io.crate.sql.tree.AlterTableOpenClose;
 import io.crate.sql.tree.AlterTableRename;
 import io.crate.sql.tree.AlterTableReroute;
 import io.crate.sql.tree.AlterUser;
+import io.crate.sql.tree.AnalyzeStatement;
 import io.crate.sql.tree.AstVisitor;
 import io.crate.sql.tree.BeginStatement;
 import io.crate.sql.tree.CommitStatement;
@@ -135,6 +136,7 @@ public class Analyzer {
     private final CreateUserAnalyzer createUserAnalyzer;
     private final AlterUserAnalyzer alterUserAnalyzer;
     private final CreateViewAnalyzer createViewAnalyzer;
+    private final AnalyzeTableAnalyzer analyzeTableAnalyzer;
 
     /**
      * @param relationAnalyzer is injected because we also need to inject it in
@@ -184,6 +186,7 @@ public class Analyzer {
         this.createAnalyzerStatementAnalyzer = new CreateAnalyzerStatementAnalyzer(fulltextAnalyzerResolver);
         this.refreshTableAnalyzer = new RefreshTableAnalyzer(schemas);
         this.optimizeTableAnalyzer = new OptimizeTableAnalyzer(schemas);
+        this.analyzeTableAnalyzer = new AnalyzeTableAnalyzer(schemas);
         this.alterTableAnalyzer = new AlterTableAnalyzer(schemas);
         this.alterBlobTableAnalyzer = new AlterBlobTableAnalyzer(schemas);
         this.alterTableAddColumnAnalyzer = new AlterTableAddColumnAnalyzer(schemas, fulltextAnalyzerResolver, functions);
@@ -328,6 +331,11 @@ public class Analyzer {
             return optimizeTableAnalyzer.analyze(node, context);
         }
 
+        @Override
+        public AnalyzedStatement visitAnalyzeStatement(AnalyzeStatement node, Analysis context) {
+            return analyzeTableAnalyzer.analyze(node, context);
+        }
+
         @Override
         public AnalyzedStatement visitAlterTable(AlterTable node, Analysis context) {
             return alterTableAnalyzer.analyze(
@@ -29,12 +29,14 @@ import io.crate.analyze.relations.DocTableRelation;
 import io.crate.analyze.relations.ExcludedFieldProvider;
 import io.crate.analyze.relations.FieldProvider;
 import io.crate.analyze.relations.NameFieldProvider;
+import io.crate.expression.InputFactory;
 import io.crate.expression.eval.EvaluatingNormalizer;
 import io.crate.expression.symbol.Field;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.RefReplacer;
 import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.SymbolType;
+import io.crate.expression.symbol.SymbolVisitors;
 import io.crate.expression.symbol.format.SymbolFormatter;
 import io.crate.core.StringUtils;
 import io.crate.core.collections.StringObjectMaps;
@@ -74,6 +76,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 import static io.crate.analyze.InsertFromSubQueryAnalyzer.getUpdateAssignments;
 import static io.crate.analyze.InsertFromSubQueryAnalyzer.resolveTargetColumns;
@@ -107,8 +110,15 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
         }
     }
 
+    private static final Predicate<Symbol> IS_NON_DETERMINISTIC_FUNCTION =
+        s -> s instanceof io.crate.expression.symbol.Function
+             && !((io.crate.expression.symbol.Function) s).info().isDeterministic();
+
+    private final InputFactory inputFactory;
+
     InsertFromValuesAnalyzer(Functions functions, Schemas schemas) {
         super(functions, schemas);
+        this.inputFactory = new InputFactory(functions);
     }
 
 
@@ -206,6 +216,7 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
         }
         ReferenceToLiteralConverter refToLiteral = new ReferenceToLiteralConverter(
             statement.columns(), allReferencedReferences);
+        List<Input<?>> generatedExpressions = compileGeneratedExpressions(tableInfo, refToLiteral);
 
         EvaluatingNormalizer normalizer = new EvaluatingNormalizer(
             functions,
@@ -222,6 +233,8 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
         );
         ExpressionAnalysisContext expressionAnalysisContext = new ExpressionAnalysisContext();
         analyzeColumns(statement.tableInfo(), statement.columns());
+        Function<List<BytesRef>, String> idFunction =
+            Id.compileWithNullValidation(tableInfo.primaryKey(), tableInfo.clusteredBy());
         for (ValuesList valuesList : node.valuesLists()) {
             analyzeValues(
                 tableRelation,
@@ -235,7 +248,9 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
                 duplicateKeyContext.getAssignments(),
                 statement,
                 analysis.parameterContext(),
-                refToLiteral);
+                refToLiteral,
+                generatedExpressions,
+                idFunction);
         }
         return statement;
     }
@@ -281,14 +296,13 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
                                List<Assignment> onDuplicateKeyAssignments,
                                InsertFromValuesAnalyzedStatement statement,
                                ParameterContext parameterContext,
-                               ReferenceToLiteralConverter refToLiteral) {
+                               ReferenceToLiteralConverter refToLiteral,
+                               List<Input<?>> generatedExpressions,
+                               Function<List<BytesRef>, String> idFunction) {
         validateValuesSize(node.values(), statement, tableRelation);
 
         try {
-            DocTableInfo tableInfo = statement.tableInfo();
-            int numPks = tableInfo.primaryKey().size();
-            Function<List<BytesRef>, String> idFunction =
-                Id.compileWithNullValidation(tableInfo.primaryKey(), tableInfo.clusteredBy());
+            int numPks = statement.tableInfo().primaryKey().size();
             if (parameterContext.numBulkParams() > 0) {
                 for (int i = 0; i < parameterContext.numBulkParams(); i++) {
                     parameterContext.setBulkIdx(i);
@@ -304,6 +318,7 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
                         onDuplicateKeyAssignments,
                         statement,
                         refToLiteral,
+                        generatedExpressions,
                         numPks,
                         idFunction,
                         i
@@ -322,6 +337,7 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
                     onDuplicateKeyAssignments,
                     statement,
                     refToLiteral,
+                    generatedExpressions,
                     numPks,
                     idFunction,
                     -1
@@ -343,6 +359,7 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
                            List<Assignment> onDuplicateKeyAssignments,
                            InsertFromValuesAnalyzedStatement context,
                            ReferenceToLiteralConverter refToLiteral,
+                           List<Input<?>> generatedExpressions,
                            int numPrimaryKeys,
                            Function<List<BytesRef>, String> idFunction,
                            int bulkIdx) throws IOException {
@@ -359,9 +376,11 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
             Reference column = context.columns().get(i);
             final ColumnIdent columnIdent = column.column();
             Expression expression = node.values().get(i);
-            Symbol valuesSymbol = normalizer.normalize(
-                expressionAnalyzer.convert(expression, expressionAnalysisContext),
-                transactionContext);
+            Symbol valuesSymbol = expressionAnalyzer.convert(expression, expressionAnalysisContext);
+            if (!(valuesSymbol instanceof Literal)) {
+                // literals and parameters are already converted to literals and don't need to be normalized
+                valuesSymbol = normalizer.normalize(valuesSymbol, transactionContext);
+            }
 
             // implicit type conversion
             Object value;
@@ -443,6 +462,7 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
             normalizer,
             transactionContext,
             refToLiteral,
+            generatedExpressions,
             primaryKeyValues,
             insertValues,
             routingValue);
@@ -522,6 +542,7 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
         private final DocTableRelation tableRelation;
         private final InsertFromValuesAnalyzedStatement analyzedStatement;
         private final ReferenceToLiteralConverter refToLiteral;
+        private final List<Input<?>> generatedExpressions;
         private final TransactionContext transactionContext;
         private final BytesRef[] primaryKeyValues;
         private final EvaluatingNormalizer normalizer;
@@ -535,6 +556,7 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
                                            EvaluatingNormalizer normalizer,
                                            TransactionContext transactionContext,
                                            ReferenceToLiteralConverter refToLiteral,
+                                           List<Input<?>> generatedExpressions,
                                            BytesRef[] primaryKeyValues,
                                            Object[] insertValues,
                                            @Nullable String routingValue) {
@@ -545,18 +567,48 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
             this.insertValues = insertValues;
             this.routingValue = routingValue;
             this.refToLiteral = refToLiteral;
+            this.generatedExpressions = generatedExpressions;
             this.normalizer = normalizer;
             refToLiteral.values(insertValues);
         }
     }
 
+    /**
+     * Compiles the deterministic generated column expressions once per statement. The compiled expressions read the
+     * values of the current row from {@code refToLiteral}.
+     * Non-deterministic expressions result in a null entry; they are normalized per row instead.
+     */
+    private List<Input<?>> compileGeneratedExpressions(DocTableInfo tableInfo,
+                                                       ReferenceToLiteralConverter refToLiteral) {
+        List<GeneratedReference> generatedColumns = tableInfo.generatedColumns();
+        List<Input<?>> generatedExpressions = new ArrayList<>(generatedColumns.size());
+        InputFactory.Context<Input<?>> ctx = inputFactory.ctxForRefs(ref -> () -> refToLiteral.value(ref));
+        for (GeneratedReference reference : generatedColumns) {
+            Symbol expression = reference.generatedExpression();
+            if (SymbolVisitors.any(IS_NON_DETERMINISTIC_FUNCTION, expression)) {
+                generatedExpressions.add(null);
+            } else {
+                generatedExpressions.add(ctx.add(expression));
+            }
+        }
+        return generatedExpressions;
+    }
+
     private void processGeneratedExpressions(GeneratedExpressionContext context) {
         List<ColumnIdent> primaryKey = context.analyzedStatement.tableInfo().primaryKey();
-        for (GeneratedReference reference : context.tableRelation.tableInfo().generatedColumns()) {
-            Symbol valueSymbol = RefReplacer.replaceRefs(reference.generatedExpression(), context.refToLiteral);
-            valueSymbol = context.normalizer.normalize(valueSymbol, context.transactionContext);
-            if (valueSymbol.symbolType() == SymbolType.LITERAL) {
-                Object value = ((Input) valueSymbol).value();
+        List<GeneratedReference> generatedColumns = context.tableRelation.tableInfo().generatedColumns();
+        for (int i = 0; i < generatedColumns.size(); i++) {
+            GeneratedReference reference = generatedColumns.get(i);
+            Input<?> generatedExpression = context.generatedExpressions.get(i);
+            if (generatedExpression == null) {
+                Symbol valueSymbol = RefReplacer.replaceRefs(reference.generatedExpression(), context.refToLiteral);
+                valueSymbol = context.normalizer.normalize(valueSymbol, context.transactionContext);
+                if (valueSymbol.symbolType() == SymbolType.LITERAL) {
+                    generatedExpression = (Input) valueSymbol;
+                }
+            }
+            if (generatedExpression != null) {
+                Object value = generatedExpression.value();
                 if (primaryKey.contains(reference.column())) {
                     int idx = primaryKey.indexOf(reference.column());
                     addPrimaryKeyValue(idx, value, context.primaryKeyValues);
@@ -48,15 +48,33 @@ public final class MultiPhaseExecutor {
                                                              Row params) {
         List<CompletableFuture<?>> dependencyFutures = new ArrayList<>(dependencies.size());
         IdentityHashMap<SelectSymbol, Object> valueBySubQuery = new IdentityHashMap<>();
+        SubQueryResultCache cache = plannerContext.transactionContext().sessionContext().isSubQueryCacheEnabled()
+            ? executor.subQueryResultCache()
+            : null;
         for (Map.Entry<LogicalPlan, SelectSymbol> entry : dependencies.entrySet()) {
             LogicalPlan depPlan = entry.getKey();
             SelectSymbol selectSymbol = entry.getValue();
 
+            SubQueryResultCache.Key cacheKey = cache == null ? null : cache.createKey(selectSymbol, params);
+            if (cacheKey != null) {
+                SubQueryResultCache.CachedResult cachedResult = cache.get(cacheKey);
+                if (cachedResult != null) {
+                    synchronized (valueBySubQuery) {
+                        valueBySubQuery.put(selectSymbol, cachedResult.value());
+                    }
+                    continue;
+                }
+            }
+            long cacheGeneration = cache == null ? 0L : cache.generation();
+
             CollectingRowConsumer<?, ?> rowConsumer = getConsumer(selectSymbol.getResultType());
             depPlan.execute(
                 executor, PlannerContext.forSubPlan(plannerContext), rowConsumer, params, SubQueryResults.EMPTY);
 
             dependencyFutures.add(rowConsumer.resultFuture().thenAccept(val -> {
+                if (cacheKey != null) {
+                    cache.put(cacheKey, val, cacheGeneration);
+                }
                 synchronized (valueBySubQuery) {
                     valueBySubQuery.put(selectSymbol, val);
                 }
@@ -0,0 +1,364 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.crate.analyze.AbstractInsertAnalyzedStatement;
+import io.crate.analyze.AnalyzedDeleteStatement;
+import io.crate.analyze.AnalyzedStatement;
+import io.crate.analyze.AnalyzedUpdateStatement;
+import io.crate.analyze.CopyFromAnalyzedStatement;
+import io.crate.analyze.InsertFromSubQueryAnalyzedStatement;
+import io.crate.analyze.MultiSourceSelect;
+import io.crate.analyze.QueriedSelectRelation;
+import io.crate.analyze.QueriedTable;
+import io.crate.analyze.RefreshTableAnalyzedStatement;
+import io.crate.analyze.SQLPrinter;
+import io.crate.analyze.relations.AnalyzedRelation;
+import io.crate.analyze.relations.AnalyzedRelationVisitor;
+import io.crate.analyze.relations.AnalyzedView;
+import io.crate.analyze.relations.DocTableRelation;
+import io.crate.analyze.relations.JoinPair;
+import io.crate.analyze.relations.OrderedLimitedRelation;
+import io.crate.analyze.relations.QueriedRelation;
+import io.crate.analyze.relations.UnionSelect;
+import io.crate.data.Row;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.SelectSymbol;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.SymbolVisitors;
+import io.crate.expression.symbol.format.SymbolPrinter;
+import io.crate.metadata.Functions;
+import io.crate.metadata.RelationName;
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.elasticsearch.cluster.ClusterStateListener;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node-wide, short-lived cache for the results of uncorrelated sub-queries.
+ *
+ * <p>
+ * Results are cached by the normalized SQL of the sub-query together with the parameters of the statement.
+ * Only sub-queries on user tables which don't contain any non-deterministic functions are cached.
+ * Whether a session uses the cache is controlled by the {@code enable_subquery_cache} session setting.
+ * </p>
+ *
+ * Entries expire after {@link #SUBQUERY_CACHE_TTL_SETTING}. In addition entries are invalidated if a statement
+ * writing to or refreshing one of their tables is planned on this node and again once it has completed, and the
+ * whole cache is cleared on cluster metadata changes. Writes issued through other nodes only become visible once
+ * the entries expire.
+ */
+@Singleton
+public class SubQueryResultCache implements ClusterStateListener {
+
+    public static final Setting<Integer> SUBQUERY_CACHE_SIZE_SETTING = Setting.intSetting(
+        "node.sql.subquery_cache.size",
+        1000,
+        0,
+        Setting.Property.NodeScope);
+
+    public static final Setting<TimeValue> SUBQUERY_CACHE_TTL_SETTING = Setting.timeSetting(
+        "node.sql.subquery_cache.ttl",
+        TimeValue.timeValueSeconds(10),
+        TimeValue.timeValueMillis(0),
+        Setting.Property.NodeScope);
+
+    private final Cache<Key, CachedResult> results;
+    private final SQLPrinter sqlPrinter;
+
+    /**
+     * Incremented on every invalidation, used to discard results of sub-queries which were
+     * executed concurrently to an invalidation.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Inject
+    public SubQueryResultCache(Settings settings, ClusterService clusterService, Functions functions) {
+        this(SUBQUERY_CACHE_SIZE_SETTING.get(settings), SUBQUERY_CACHE_TTL_SETTING.get(settings), functions);
+        clusterService.addListener(this);
+    }
+
+    @VisibleForTesting
+    public SubQueryResultCache(int maxSize, TimeValue ttl, Functions functions) {
+        results = CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl.millis(), TimeUnit.MILLISECONDS)
+            .build();
+        sqlPrinter = new SQLPrinter(new SymbolPrinter(functions));
+    }
+
+    /**
+     * @return the key to cache the result of the sub-query, or null if the result of the sub-query must not be cached
+     */
+    @Nullable
+    public Key createKey(SelectSymbol selectSymbol, Row params) {
+        QueriedRelation relation = selectSymbol.relation();
+        Set<RelationName> relations = new HashSet<>();
+        if (!CacheableRelationVisitor.INSTANCE.process(relation, relations) || relations.isEmpty()) {
+            return null;
+        }
+        String subQuery;
+        try {
+            subQuery = sqlPrinter.format(relation);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return new Key(subQuery, params.materialize(), selectSymbol.getResultType(), relations);
+    }
+
+    /**
+     * @return the cached result, or null if there is none
+     */
+    @Nullable
+    public CachedResult get(Key key) {
+        return results.getIfPresent(key);
+    }
+
+    /**
+     * Returns the current generation; it must be retrieved before the sub-query is executed and passed to
+     * {@link #put(Key, Object, long)}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(Key key, @Nullable Object value, long generation) {
+        if (generation == this.generation.get()) {
+            results.put(key, new CachedResult(value));
+        }
+    }
+
+    /**
+     * Invalidates all entries which depend on a table the given statement writes to or refreshes.
+     * Must be called when the statement is planned.
+     */
+    public void onStatement(AnalyzedStatement statement) {
+        invalidate(statement);
+    }
+
+    /**
+     * Like {@link #onStatement(AnalyzedStatement)}, but must be called once the execution of the statement has
+     * completed. Sub-queries executed while the statement was running may have read the data from before the
+     * write or refresh and cached it under the generation of {@link #onStatement(AnalyzedStatement)}.
+     */
+    public void onStatementCompleted(AnalyzedStatement statement) {
+        invalidate(statement);
+    }
+
+    private void invalidate(AnalyzedStatement statement) {
+        if (!statement.isWriteOperation()) {
+            return;
+        }
+        Set<RelationName> writtenRelations = writtenRelations(statement);
+        generation.incrementAndGet();
+        if (writtenRelations == null) {
+            results.invalidateAll();
+        } else {
+            results.asMap().keySet().removeIf(key -> !Collections.disjoint(key.relations, writtenRelations));
+        }
+    }
+
+    @Override
+    public void clusterChanged(ClusterChangedEvent event) {
+        if (event.metaDataChanged()) {
+            generation.incrementAndGet();
+            results.invalidateAll();
+        }
+    }
+
+    /**
+     * @return the tables the statement modifies or null if they're unknown
+     */
+    @Nullable
+    private static Set<RelationName> writtenRelations(AnalyzedStatement statement) {
+        if (statement instanceof AbstractInsertAnalyzedStatement) {
+            return Collections.singleton(((AbstractInsertAnalyzedStatement) statement).tableInfo().ident());
+        }
+        if (statement instanceof InsertFromSubQueryAnalyzedStatement) {
+            return Collections.singleton(((InsertFromSubQueryAnalyzedStatement) statement).tableInfo().ident());
+        }
+        if (statement instanceof AnalyzedUpdateStatement) {
+            return Collections.singleton(((AnalyzedUpdateStatement) statement).table().tableInfo().ident());
+        }
+        if (statement instanceof AnalyzedDeleteStatement) {
+            return Collections.singleton(((AnalyzedDeleteStatement) statement).relation().tableInfo().ident());
+        }
+        if (statement instanceof CopyFromAnalyzedStatement) {
+            return Collections.singleton(((CopyFromAnalyzedStatement) statement).table().ident());
+        }
+        if (statement instanceof RefreshTableAnalyzedStatement) {
+            Set<RelationName> relations = new HashSet<>();
+            for (String indexName : ((RefreshTableAnalyzedStatement) statement).indexNames()) {
+                relations.add(RelationName.fromIndexName(indexName));
+            }
+            return relations;
+        }
+        return null;
+    }
+
+    public static final class CachedResult {
+
+        @Nullable
+        private final Object value;
+
+        private CachedResult(@Nullable Object value) {
+            this.value = value;
+        }
+
+        @Nullable
+        public Object value() {
+            return value;
+        }
+    }
+
+    public static final class Key {
+
+        private final String subQuery;
+        private final Object[] params;
+        private final SelectSymbol.ResultType resultType;
+        private final Set<RelationName> relations;
+
+        private Key(String subQuery, Object[] params, SelectSymbol.ResultType resultType, Set<RelationName> relations) {
+            this.subQuery = subQuery;
+            this.params = params;
+            this.resultType = resultType;
+            this.relations = relations;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return resultType == key.resultType &&
+                   subQuery.equals(key.subQuery) &&
+                   Arrays.deepEquals(params, key.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * subQuery.hashCode() + Arrays.deepHashCode(params)) + resultType.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return subQuery + " " + Arrays.deepToString(params);
+        }
+    }
+
+    /**
+     * Collects the tables of a relation and returns false if the relation is not cacheable:
+     * It must only consist of user tables and must not contain any non-deterministic functions.
+     */
+    private static class CacheableRelationVisitor extends AnalyzedRelationVisitor<Set<RelationName>, Boolean> {
+
+        private static final CacheableRelationVisitor INSTANCE = new CacheableRelationVisitor();
+
+        @Override
+        protected Boolean visitAnalyzedRelation(AnalyzedRelation relation, Set<RelationName> relations) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitDocTableRelation(DocTableRelation relation, Set<RelationName> relations) {
+            relations.add(relation.tableInfo().ident());
+            return true;
+        }
+
+        @Override
+        public Boolean visitQueriedTable(QueriedTable<?> queriedTable, Set<RelationName> relations) {
+            return isCacheable(queriedTable, relations) && process(queriedTable.tableRelation(), relations);
+        }
+
+        @Override
+        public Boolean visitQueriedSelectRelation(QueriedSelectRelation relation, Set<RelationName> relations) {
+            return isCacheable(relation, relations) && process(relation.subRelation(), relations);
+        }
+
+        @Override
+        public Boolean visitMultiSourceSelect(MultiSourceSelect mss, Set<RelationName> relations) {
+            if (!isCacheable(mss, relations)) {
+                return false;
+            }
+            for (JoinPair joinPair : mss.joinPairs()) {
+                Symbol condition = joinPair.condition();
+                if (condition != null && !isCacheable(condition, relations)) {
+                    return false;
+                }
+            }
+            for (AnalyzedRelation source : mss.sources().values()) {
+                if (!process(source, relations)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Boolean visitUnionSelect(UnionSelect unionSelect, Set<RelationName> relations) {
+            return process(unionSelect.left(), relations) && process(unionSelect.right(), relations);
+        }
+
+        @Override
+        public Boolean visitOrderedLimitedRelation(OrderedLimitedRelation relation, Set<RelationName> relations) {
+            return isCacheable(relation, relations) && process(relation.childRelation(), relations);
+        }
+
+        @Override
+        public Boolean visitView(AnalyzedView analyzedView, Set<RelationName> relations) {
+            return process(analyzedView.relation(), relations);
+        }
+
+        private boolean isCacheable(QueriedRelation relation, Set<RelationName> relations) {
+            boolean[] cacheable = new boolean[] { true };
+            relation.visitSymbols(symbol -> cacheable[0] &= isCacheable(symbol, relations));
+            return cacheable[0];
+        }
+
+        private boolean isCacheable(Symbol symbol, Set<RelationName> relations) {
+            return !SymbolVisitors.any(
+                s -> (s instanceof Function && !((Function) s).info().isDeterministic())
+                     || (s instanceof SelectSymbol && !process(((SelectSymbol) s).relation(), relations)),
+                symbol);
+        }
+    }
+}
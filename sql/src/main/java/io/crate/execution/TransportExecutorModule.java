@@ -22,6 +22,8 @@
 
 package io.crate.execution;
 
+import io.crate.execution.ddl.stats.TransportFetchSampleNodeAction;
+import io.crate.execution.ddl.stats.TransportPublishColumnStatsAction;
 import io.crate.execution.ddl.tables.TransportCreateTableAction;
 import io.crate.execution.ddl.tables.TransportDropTableAction;
 import io.crate.execution.ddl.tables.TransportOpenCloseTableOrPartitionAction;
@@ -64,5 +66,7 @@ public class TransportExecutorModule extends AbstractModule {
         bind(TransportDropTableAction.class).asEagerSingleton();
         bind(TransportCreateViewAction.class).asEagerSingleton();
         bind(TransportDropViewAction.class).asEagerSingleton();
+        bind(TransportPublishColumnStatsAction.class).asEagerSingleton();
+        bind(TransportFetchSampleNodeAction.class).asEagerSingleton();
     }
 }
@@ -0,0 +1,130 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.ddl.stats;
+
+import io.crate.expression.symbol.Symbols;
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.Reference;
+import io.crate.metadata.RelationName;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.transport.TransportRequest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request to sample the rows of the primary shards of a table which are located on a node.
+ */
+public final class FetchSampleRequest extends TransportRequest {
+
+    private RelationName relationName;
+    private String[] indices;
+    private List<ColumnIdent> partitionedBy;
+    private List<Reference> columns;
+    private int numSamples;
+    private long tableNumDocs;
+
+    /**
+     * @param numSamples   the number of rows to sample from the whole table
+     * @param tableNumDocs the number of rows of the table, used to distribute the samples over the shards
+     *                     according to their size; -1 if unknown.
+     */
+    public FetchSampleRequest(RelationName relationName,
+                              String[] indices,
+                              List<ColumnIdent> partitionedBy,
+                              List<Reference> columns,
+                              int numSamples,
+                              long tableNumDocs) {
+        this.relationName = relationName;
+        this.indices = indices;
+        this.partitionedBy = partitionedBy;
+        this.columns = columns;
+        this.numSamples = numSamples;
+        this.tableNumDocs = tableNumDocs;
+    }
+
+    FetchSampleRequest() {
+    }
+
+    public RelationName relationName() {
+        return relationName;
+    }
+
+    public String[] indices() {
+        return indices;
+    }
+
+    public List<ColumnIdent> partitionedBy() {
+        return partitionedBy;
+    }
+
+    public List<Reference> columns() {
+        return columns;
+    }
+
+    public int numSamples() {
+        return numSamples;
+    }
+
+    public long tableNumDocs() {
+        return tableNumDocs;
+    }
+
+    @Override
+    public void readFrom(StreamInput in) throws IOException {
+        super.readFrom(in);
+        relationName = new RelationName(in);
+        indices = in.readStringArray();
+        int numPartitionedBy = in.readVInt();
+        partitionedBy = new ArrayList<>(numPartitionedBy);
+        for (int i = 0; i < numPartitionedBy; i++) {
+            partitionedBy.add(new ColumnIdent(in));
+        }
+        int numColumns = in.readVInt();
+        columns = new ArrayList<>(numColumns);
+        for (int i = 0; i < numColumns; i++) {
+            columns.add((Reference) Symbols.fromStream(in));
+        }
+        numSamples = in.readVInt();
+        tableNumDocs = in.readLong();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        relationName.writeTo(out);
+        out.writeStringArray(indices);
+        out.writeVInt(partitionedBy.size());
+        for (ColumnIdent column : partitionedBy) {
+            column.writeTo(out);
+        }
+        out.writeVInt(columns.size());
+        for (Reference column : columns) {
+            Symbols.toStream(column, out);
+        }
+        out.writeVInt(numSamples);
+        out.writeLong(tableNumDocs);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.ddl.stats;
+
+import io.crate.Streamer;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.transport.TransportResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class FetchSampleResponse extends TransportResponse {
+
+    private List<DataType> types;
+    private List<Object[]> rows;
+
+    public FetchSampleResponse(List<DataType> types, List<Object[]> rows) {
+        this.types = types;
+        this.rows = rows;
+    }
+
+    FetchSampleResponse() {
+    }
+
+    public List<Object[]> rows() {
+        return rows;
+    }
+
+    @Override
+    public void readFrom(StreamInput in) throws IOException {
+        super.readFrom(in);
+        int numColumns = in.readVInt();
+        types = new ArrayList<>(numColumns);
+        Streamer[] streamers = new Streamer[numColumns];
+        for (int i = 0; i < numColumns; i++) {
+            DataType type = DataTypes.fromStream(in);
+            types.add(type);
+            streamers[i] = type.streamer();
+        }
+        int numRows = in.readVInt();
+        rows = new ArrayList<>(numRows);
+        for (int i = 0; i < numRows; i++) {
+            Object[] row = new Object[numColumns];
+            for (int j = 0; j < numColumns; j++) {
+                row[j] = streamers[j].readValueFrom(in);
+            }
+            rows.add(row);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeVInt(types.size());
+        Streamer[] streamers = new Streamer[types.size()];
+        for (int i = 0; i < types.size(); i++) {
+            DataType type = types.get(i);
+            DataTypes.toStream(type, out);
+            streamers[i] = type.streamer();
+        }
+        out.writeVInt(rows.size());
+        for (Object[] row : rows) {
+            for (int j = 0; j < streamers.length; j++) {
+                streamers[j].writeValueTo(out, row[j]);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.ddl.stats;
+
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.stats.ColumnStats;
+import org.elasticsearch.action.ActionRequestValidationException;
+import org.elasticsearch.action.support.master.MasterNodeRequest;
+import org.elasticsearch.cluster.ack.AckedRequest;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.unit.TimeValue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.elasticsearch.action.support.master.AcknowledgedRequest.DEFAULT_ACK_TIMEOUT;
+
+public final class PublishColumnStatsRequest extends MasterNodeRequest<PublishColumnStatsRequest> implements AckedRequest {
+
+    private Map<RelationName, Map<ColumnIdent, ColumnStats>> statsByTable;
+
+    public PublishColumnStatsRequest(Map<RelationName, Map<ColumnIdent, ColumnStats>> statsByTable) {
+        this.statsByTable = statsByTable;
+    }
+
+    PublishColumnStatsRequest() {
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        return null;
+    }
+
+    public Map<RelationName, Map<ColumnIdent, ColumnStats>> statsByTable() {
+        return statsByTable;
+    }
+
+    @Override
+    public TimeValue ackTimeout() {
+        return DEFAULT_ACK_TIMEOUT;
+    }
+
+    @Override
+    public void readFrom(StreamInput in) throws IOException {
+        super.readFrom(in);
+        int numTables = in.readVInt();
+        statsByTable = new HashMap<>(numTables);
+        for (int i = 0; i < numTables; i++) {
+            RelationName relationName = new RelationName(in);
+            int numColumns = in.readVInt();
+            Map<ColumnIdent, ColumnStats> statsByColumn = new HashMap<>(numColumns);
+            for (int j = 0; j < numColumns; j++) {
+                statsByColumn.put(new ColumnIdent(in), new ColumnStats(in));
+            }
+            statsByTable.put(relationName, statsByColumn);
+        }
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeVInt(statsByTable.size());
+        for (Map.Entry<RelationName, Map<ColumnIdent, ColumnStats>> table : statsByTable.entrySet()) {
+            table.getKey().writeTo(out);
+            out.writeVInt(table.getValue().size());
+            for (Map.Entry<ColumnIdent, ColumnStats> column : table.getValue().entrySet()) {
+                column.getKey().writeTo(out);
+                column.getValue().writeTo(out);
+            }
+        }
+    }
+}
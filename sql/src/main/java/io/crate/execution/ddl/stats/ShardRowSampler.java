@@ -0,0 +1,163 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.ddl.stats;
+
+import io.crate.execution.engine.collect.collectors.CollectorFieldsVisitor;
+import io.crate.expression.reference.doc.lucene.CollectorContext;
+import io.crate.expression.reference.doc.lucene.LuceneCollectorExpression;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.util.Bits;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Reads the values of randomly chosen documents of a shard.
+ * <p>
+ * Only the chosen documents are read, so the cost of sampling a shard is bound by the number of samples and not by
+ * the number of documents in the shard. Only the live docs bitsets of segments with deletions are scanned
+ * to find the chosen live documents.
+ * </p>
+ */
+final class ShardRowSampler {
+
+    private ShardRowSampler() {
+    }
+
+    /**
+     * @return up to {@code numSamples} rows of randomly chosen live documents of the reader.
+     *         Each row contains the values of the expressions.
+     */
+    static List<Object[]> sample(IndexReader reader,
+                                 int numSamples,
+                                 Random random,
+                                 CollectorContext collectorContext,
+                                 List<? extends LuceneCollectorExpression<?>> expressions) throws IOException {
+        int numDocs = reader.numDocs();
+        if (numSamples <= 0 || numDocs == 0) {
+            return Collections.emptyList();
+        }
+        // choose among the live documents only, the n-th live document is looked up per leaf below
+        int[] liveDocIdxs = randomDocIds(numDocs, numSamples, random);
+
+        for (LuceneCollectorExpression<?> expression : expressions) {
+            expression.startCollect(collectorContext);
+        }
+        CollectorFieldsVisitor visitor = collectorContext.visitor();
+        List<Object[]> rows = new ArrayList<>(liveDocIdxs.length);
+        int sampleIdx = 0;
+        int leafLiveDocIdxBase = 0;
+        for (LeafReaderContext leaf : reader.leaves()) {
+            LeafReader leafReader = leaf.reader();
+            int leafNumDocs = leafReader.numDocs();
+            if (sampleIdx == liveDocIdxs.length) {
+                break;
+            }
+            if (liveDocIdxs[sampleIdx] >= leafLiveDocIdxBase + leafNumDocs) {
+                leafLiveDocIdxBase += leafNumDocs;
+                continue;
+            }
+            for (LuceneCollectorExpression<?> expression : expressions) {
+                expression.setNextReader(leaf);
+            }
+            Bits liveDocs = leafReader.getLiveDocs();
+            int liveDocIdx = leafLiveDocIdxBase - 1;
+            for (int doc = 0; doc < leafReader.maxDoc() && sampleIdx < liveDocIdxs.length; doc++) {
+                if (liveDocs == null) {
+                    // no deletions, the n-th live document is the n-th document
+                    doc = liveDocIdxs[sampleIdx] - leafLiveDocIdxBase;
+                    if (doc >= leafNumDocs) {
+                        break;
+                    }
+                    liveDocIdx = liveDocIdxs[sampleIdx];
+                } else if (liveDocs.get(doc)) {
+                    liveDocIdx++;
+                    if (liveDocIdx != liveDocIdxs[sampleIdx]) {
+                        continue;
+                    }
+                } else {
+                    continue;
+                }
+                rows.add(readRow(leafReader, doc, visitor, expressions));
+                sampleIdx++;
+            }
+            leafLiveDocIdxBase += leafNumDocs;
+        }
+        return rows;
+    }
+
+    private static Object[] readRow(LeafReader reader,
+                                    int doc,
+                                    CollectorFieldsVisitor visitor,
+                                    List<? extends LuceneCollectorExpression<?>> expressions) throws IOException {
+        if (visitor.required()) {
+            visitor.reset();
+            reader.document(doc, visitor);
+        }
+        Object[] row = new Object[expressions.size()];
+        for (int i = 0; i < row.length; i++) {
+            LuceneCollectorExpression<?> expression = expressions.get(i);
+            expression.setNextDocId(doc);
+            row[i] = expression.value();
+        }
+        return row;
+    }
+
+    /**
+     * Chooses {@code numDocIds} distinct doc ids out of {@code [0, maxDoc)} using Floyd's algorithm.
+     *
+     * @return the chosen doc ids in ascending order, as doc values can only be read in this order.
+     *         All doc ids if {@code numDocIds >= maxDoc}.
+     */
+    static int[] randomDocIds(int maxDoc, int numDocIds, Random random) {
+        if (numDocIds >= maxDoc) {
+            int[] docIds = new int[maxDoc];
+            for (int i = 0; i < maxDoc; i++) {
+                docIds[i] = i;
+            }
+            return docIds;
+        }
+        Set<Integer> chosen = new HashSet<>(numDocIds);
+        for (int i = maxDoc - numDocIds; i < maxDoc; i++) {
+            int docId = random.nextInt(i + 1);
+            if (chosen.add(docId) == false) {
+                chosen.add(i);
+            }
+        }
+        int[] docIds = new int[numDocIds];
+        int idx = 0;
+        for (Integer docId : chosen) {
+            docIds[idx++] = docId;
+        }
+        Arrays.sort(docIds);
+        return docIds;
+    }
+}
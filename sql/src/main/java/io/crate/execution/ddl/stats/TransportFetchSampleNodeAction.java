@@ -0,0 +1,194 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.ddl.stats;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.crate.action.FutureActionListener;
+import io.crate.concurrent.CompletableFutures;
+import io.crate.execution.engine.collect.collectors.CollectorFieldsVisitor;
+import io.crate.execution.support.NodeAction;
+import io.crate.execution.support.NodeActionRequestHandler;
+import io.crate.execution.support.Transports;
+import io.crate.expression.reference.doc.lucene.CollectorContext;
+import io.crate.expression.reference.doc.lucene.LuceneCollectorExpression;
+import io.crate.expression.reference.doc.lucene.LuceneReferenceResolver;
+import io.crate.metadata.PartitionName;
+import io.crate.metadata.Reference;
+import io.crate.metadata.RowGranularity;
+import io.crate.types.DataType;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.action.ActionListenerResponseHandler;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.Randomness;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.index.IndexService;
+import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.shard.IndexShardState;
+import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Samples the rows of the primary shards of a table located on a node, see {@link ShardRowSampler}.
+ * The number of rows sampled per shard is proportional to the number of documents of the shard.
+ */
+@Singleton
+public class TransportFetchSampleNodeAction implements NodeAction<FetchSampleRequest, FetchSampleResponse> {
+
+    private static final String TRANSPORT_ACTION = "crate/sql/node/stats/sample";
+    private static final String EXECUTOR = ThreadPool.Names.SEARCH;
+
+    private final Transports transports;
+    private final ClusterService clusterService;
+    private final IndicesService indicesService;
+
+    @Inject
+    public TransportFetchSampleNodeAction(TransportService transportService,
+                                          Transports transports,
+                                          ClusterService clusterService,
+                                          IndicesService indicesService) {
+        this.transports = transports;
+        this.clusterService = clusterService;
+        this.indicesService = indicesService;
+
+        transportService.registerRequestHandler(
+            TRANSPORT_ACTION,
+            FetchSampleRequest::new,
+            EXECUTOR,
+            new NodeActionRequestHandler<>(this)
+        );
+    }
+
+    public void execute(String nodeId,
+                        FetchSampleRequest request,
+                        FutureActionListener<FetchSampleResponse, FetchSampleResponse> listener) {
+        transports.sendRequest(TRANSPORT_ACTION, nodeId, request, listener,
+            new ActionListenerResponseHandler<>(listener, FetchSampleResponse::new));
+    }
+
+    @Override
+    public CompletableFuture<FetchSampleResponse> nodeOperation(FetchSampleRequest request) {
+        List<Reference> columns = request.columns();
+        List<DataType> types = new ArrayList<>(columns.size());
+        for (Reference column : columns) {
+            types.add(column.valueType());
+        }
+        Random random = Randomness.get();
+        List<Object[]> rows = new ArrayList<>();
+        try {
+            for (String indexName : request.indices()) {
+                IndexMetaData indexMetaData = clusterService.state().metaData().index(indexName);
+                if (indexMetaData == null) {
+                    continue;
+                }
+                IndexService indexService = indicesService.indexService(indexMetaData.getIndex());
+                if (indexService == null) {
+                    continue;
+                }
+                for (IndexShard indexShard : indexService) {
+                    if (indexShard.routingEntry().primary() && indexShard.state() == IndexShardState.STARTED) {
+                        rows.addAll(sampleShard(request, indexService, indexShard, random));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            return CompletableFutures.failedFuture(e);
+        }
+        return CompletableFuture.completedFuture(new FetchSampleResponse(types, rows));
+    }
+
+    private static List<Object[]> sampleShard(FetchSampleRequest request,
+                                              IndexService indexService,
+                                              IndexShard indexShard,
+                                              Random random) throws IOException {
+        List<Reference> columns = request.columns();
+        LuceneReferenceResolver referenceResolver =
+            new LuceneReferenceResolver(indexService.mapperService()::fullName, indexShard.indexSettings());
+        List<LuceneCollectorExpression<?>> expressions = new ArrayList<>(columns.size());
+        List<BytesRef> partitionValues = null;
+        for (Reference column : columns) {
+            if (column.granularity() == RowGranularity.PARTITION) {
+                // partition values aren't stored in the documents, they are used as placeholders in the rows
+                if (partitionValues == null) {
+                    partitionValues = PartitionName.fromIndexOrTemplate(indexShard.shardId().getIndexName()).values();
+                }
+                expressions.add(null);
+            } else {
+                expressions.add(referenceResolver.getImplementation(column));
+            }
+        }
+        List<LuceneCollectorExpression<?>> docExpressions = new ArrayList<>(expressions);
+        docExpressions.removeIf(e -> e == null);
+        try (Engine.Searcher searcher = indexShard.acquireSearcher("column-stats-sample")) {
+            QueryShardContext queryShardContext = indexService.newQueryShardContext(
+                indexShard.shardId().id(), searcher.reader(), System::currentTimeMillis, null);
+            List<Object[]> docRows = ShardRowSampler.sample(
+                searcher.reader(),
+                numSamplesForShard(request.numSamples(), searcher.reader().numDocs(), request.tableNumDocs()),
+                random,
+                new CollectorContext(queryShardContext::getForField, new CollectorFieldsVisitor(docExpressions.size())),
+                docExpressions
+            );
+            if (partitionValues == null) {
+                return docRows;
+            }
+            List<Object[]> rows = new ArrayList<>(docRows.size());
+            for (Object[] docRow : docRows) {
+                Object[] row = new Object[columns.size()];
+                int docIdx = 0;
+                for (int i = 0; i < row.length; i++) {
+                    Reference column = columns.get(i);
+                    if (expressions.get(i) == null) {
+                        int partitionIdx = request.partitionedBy().indexOf(column.column());
+                        row[i] = column.valueType().value(partitionValues.get(partitionIdx));
+                    } else {
+                        row[i] = docRow[docIdx++];
+                    }
+                }
+                rows.add(row);
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Distributes the samples over the shards of a table according to the number of documents of the shards.
+     */
+    @VisibleForTesting
+    static int numSamplesForShard(int numSamples, int shardNumDocs, long tableNumDocs) {
+        if (tableNumDocs <= 0) {
+            return numSamples;
+        }
+        return (int) Math.min(numSamples, (long) Math.ceil((double) numSamples * shardNumDocs / tableNumDocs));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.ddl.stats;
+
+import io.crate.metadata.PartitionName;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.stats.ColumnStatsMetaData;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.support.ActionFilters;
+import org.elasticsearch.action.support.master.TransportMasterNodeAction;
+import org.elasticsearch.cluster.AckedClusterStateUpdateTask;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.block.ClusterBlockException;
+import org.elasticsearch.cluster.block.ClusterBlockLevel;
+import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.Priority;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportService;
+
+/**
+ * Stores the column statistics of one or more tables in the cluster state.
+ * Statistics of tables which no longer exist are dropped on each publish.
+ */
+public final class TransportPublishColumnStatsAction
+    extends TransportMasterNodeAction<PublishColumnStatsRequest, PublishColumnStatsResponse> {
+
+    @Inject
+    public TransportPublishColumnStatsAction(Settings settings,
+                                             TransportService transportService,
+                                             ClusterService clusterService,
+                                             ThreadPool threadPool,
+                                             ActionFilters actionFilters,
+                                             IndexNameExpressionResolver indexNameExpressionResolver) {
+        super(settings,
+            "crate/sql/stats/publish",
+            transportService,
+            clusterService,
+            threadPool,
+            actionFilters,
+            indexNameExpressionResolver,
+            PublishColumnStatsRequest::new);
+    }
+
+    @Override
+    protected String executor() {
+        return ThreadPool.Names.GENERIC;
+    }
+
+    @Override
+    protected PublishColumnStatsResponse newResponse() {
+        return new PublishColumnStatsResponse();
+    }
+
+    @Override
+    protected void masterOperation(PublishColumnStatsRequest request,
+                                   ClusterState state,
+                                   ActionListener<PublishColumnStatsResponse> listener) {
+        clusterService.submitStateUpdateTask("stats/publish",
+            new AckedClusterStateUpdateTask<PublishColumnStatsResponse>(Priority.NORMAL, request, listener) {
+
+                @Override
+                public ClusterState execute(ClusterState currentState) {
+                    MetaData metaData = currentState.metaData();
+                    ColumnStatsMetaData prevStats = metaData.custom(ColumnStatsMetaData.TYPE);
+                    ColumnStatsMetaData newStats = ColumnStatsMetaData.merge(
+                        prevStats,
+                        request.statsByTable(),
+                        relationName -> tableExists(relationName, metaData));
+                    return ClusterState.builder(currentState)
+                        .metaData(MetaData.builder(metaData).putCustom(ColumnStatsMetaData.TYPE, newStats).build())
+                        .build();
+                }
+
+                @Override
+                protected PublishColumnStatsResponse newResponse(boolean acknowledged) {
+                    return new PublishColumnStatsResponse(acknowledged);
+                }
+            });
+    }
+
+    private static boolean tableExists(RelationName relationName, MetaData metaData) {
+        return metaData.hasIndex(relationName.indexName())
+               || metaData.templates().containsKey(PartitionName.templateName(relationName.schema(), relationName.name()));
+    }
+
+    @Override
+    protected ClusterBlockException checkBlock(PublishColumnStatsRequest request, ClusterState state) {
+        return state.blocks().globalBlockedException(ClusterBlockLevel.METADATA_WRITE);
+    }
+}
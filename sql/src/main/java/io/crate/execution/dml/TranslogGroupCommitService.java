@@ -0,0 +1,199 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.dml;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.crate.plugin.IndexEventListenerProxy;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.shard.IndexEventListener;
+import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces the translog syncs of concurrent write requests on the same shard.
+ *
+ * <p>
+ * With the {@code request} translog durability every write request has to sync the translog before it responds.
+ * Instead of syncing right away, a request waits up to {@link #GROUP_COMMIT_MAX_DELAY_SETTING} for other requests
+ * on the same shard. A single sync up to the highest translog location then completes all of them.
+ * </p>
+ *
+ * The number of sync requests and of actual syncs per shard is exposed in {@code sys.shards}.
+ */
+@Singleton
+public class TranslogGroupCommitService {
+
+    public static final Setting<TimeValue> GROUP_COMMIT_MAX_DELAY_SETTING = Setting.timeSetting(
+        "node.sql.translog.group_commit_max_delay",
+        TimeValue.timeValueMillis(0),
+        TimeValue.timeValueMillis(0),
+        Setting.Property.NodeScope);
+
+    private final TimeValue maxDelay;
+    private final ThreadPool threadPool;
+    private final Map<ShardId, ShardGroupCommit> shards = new ConcurrentHashMap<>();
+
+    @Inject
+    public TranslogGroupCommitService(Settings settings,
+                                      ThreadPool threadPool,
+                                      IndexEventListenerProxy indexEventListenerProxy) {
+        this(GROUP_COMMIT_MAX_DELAY_SETTING.get(settings), threadPool);
+        indexEventListenerProxy.addLast(new IndexEventListener() {
+            @Override
+            public void beforeIndexShardClosed(ShardId shardId, @Nullable IndexShard indexShard, Settings indexSettings) {
+                shards.remove(shardId);
+            }
+        });
+    }
+
+    @VisibleForTesting
+    TranslogGroupCommitService(TimeValue maxDelay, ThreadPool threadPool) {
+        this.maxDelay = maxDelay;
+        this.threadPool = threadPool;
+    }
+
+    /**
+     * Syncs the translog of the shard at least up to the given location.
+     * The listener is called with the failure of the sync or with null once the location is durable.
+     */
+    public void sync(IndexShard indexShard, Translog.Location location, Consumer<Exception> listener) {
+        shards.computeIfAbsent(indexShard.shardId(), shardId -> new ShardGroupCommit())
+            .sync(indexShard, location, listener);
+    }
+
+    /**
+     * @return the number of sync requests and the number of syncs executed for them, null if the shard didn't
+     *         receive any sync request yet.
+     */
+    @Nullable
+    public Stats stats(ShardId shardId) {
+        ShardGroupCommit groupCommit = shards.get(shardId);
+        if (groupCommit == null) {
+            return null;
+        }
+        return new Stats(groupCommit.numRequests.get(), groupCommit.numSyncs.get());
+    }
+
+    @VisibleForTesting
+    void syncTranslog(IndexShard indexShard, Translog.Location location, Consumer<Exception> listener) {
+        indexShard.sync(location, listener);
+    }
+
+    public static class Stats {
+
+        private final long requests;
+        private final long syncs;
+
+        Stats(long requests, long syncs) {
+            this.requests = requests;
+            this.syncs = syncs;
+        }
+
+        public long requests() {
+            return requests;
+        }
+
+        public long syncs() {
+            return syncs;
+        }
+    }
+
+    private static class PendingSync {
+
+        private final Translog.Location location;
+        private final Consumer<Exception> listener;
+
+        PendingSync(Translog.Location location, Consumer<Exception> listener) {
+            this.location = location;
+            this.listener = listener;
+        }
+    }
+
+    private class ShardGroupCommit {
+
+        private final AtomicLong numRequests = new AtomicLong(0);
+        private final AtomicLong numSyncs = new AtomicLong(0);
+        private List<PendingSync> pendingSyncs = new ArrayList<>();
+
+        void sync(IndexShard indexShard, Translog.Location location, Consumer<Exception> listener) {
+            numRequests.incrementAndGet();
+            boolean isFirst;
+            synchronized (this) {
+                pendingSyncs.add(new PendingSync(location, listener));
+                isFirst = pendingSyncs.size() == 1;
+            }
+            if (isFirst == false) {
+                return;
+            }
+            if (maxDelay.millis() == 0) {
+                syncPending(indexShard);
+            } else {
+                try {
+                    threadPool.schedule(maxDelay, ThreadPool.Names.FLUSH, () -> syncPending(indexShard));
+                } catch (Exception e) {
+                    syncPending(indexShard);
+                }
+            }
+        }
+
+        private void syncPending(IndexShard indexShard) {
+            List<PendingSync> syncs;
+            synchronized (this) {
+                syncs = pendingSyncs;
+                pendingSyncs = new ArrayList<>();
+            }
+            Translog.Location maxLocation = syncs.get(0).location;
+            for (int i = 1; i < syncs.size(); i++) {
+                Translog.Location location = syncs.get(i).location;
+                if (location.compareTo(maxLocation) > 0) {
+                    maxLocation = location;
+                }
+            }
+            numSyncs.incrementAndGet();
+            Consumer<Exception> listener = e -> {
+                for (PendingSync sync : syncs) {
+                    sync.listener.accept(e);
+                }
+            };
+            try {
+                syncTranslog(indexShard, maxLocation, listener);
+            } catch (Exception e) {
+                listener.accept(e);
+            }
+        }
+    }
+}
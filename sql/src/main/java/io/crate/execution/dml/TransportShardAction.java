@@ -32,7 +32,9 @@ import io.crate.execution.ddl.SchemaUpdateClient;
 import io.crate.execution.jobs.kill.KillAllListener;
 import io.crate.execution.jobs.kill.KillableCallable;
 import io.crate.metadata.ColumnIdent;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.support.ActionFilters;
+import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.action.support.replication.TransportWriteAction;
 import org.elasticsearch.cluster.action.shard.ShardStateAction;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
@@ -41,8 +43,10 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.mapper.Mapper;
 import org.elasticsearch.index.mapper.Mapping;
 import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.translog.Translog;
 import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportResponse;
 import org.elasticsearch.transport.TransportService;
 
 import javax.annotation.Nullable;
@@ -50,6 +54,7 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
@@ -66,6 +71,7 @@ public abstract class TransportShardAction<Request extends ShardRequest<Request,
     private final Multimap<UUID, KillableCallable> activeOperations = Multimaps.synchronizedMultimap(HashMultimap.<UUID, KillableCallable>create());
 
     private final SchemaUpdateClient schemaUpdateClient;
+    private final TranslogGroupCommitService translogGroupCommit;
 
     protected TransportShardAction(Settings settings,
                                    String actionName,
@@ -77,11 +83,13 @@ public abstract class TransportShardAction<Request extends ShardRequest<Request,
                                    ShardStateAction shardStateAction,
                                    ActionFilters actionFilters,
                                    Supplier<Request> requestSupplier,
-                                   SchemaUpdateClient schemaUpdateClient) {
+                                   SchemaUpdateClient schemaUpdateClient,
+                                   TranslogGroupCommitService translogGroupCommit) {
         super(settings, actionName, transportService, clusterService, indicesService, threadPool, shardStateAction,
             actionFilters, indexNameExpressionResolver, requestSupplier, requestSupplier,ThreadPool.Names.BULK);
 
         this.schemaUpdateClient = schemaUpdateClient;
+        this.translogGroupCommit = translogGroupCommit;
     }
 
     @Override
@@ -156,6 +164,92 @@ public abstract class TransportShardAction<Request extends ShardRequest<Request,
         }
     }
 
+    /**
+     * Creates the result of the primary operation. If the translog has to be synced per request, the sync is done
+     * by the {@link TranslogGroupCommitService} together with the syncs of other requests on the same shard.
+     */
+    protected WritePrimaryResult<Request, ShardResponse> newPrimaryResult(Request request,
+                                                                          ShardResponse response,
+                                                                          @Nullable Translog.Location location,
+                                                                          IndexShard indexShard) {
+        if (syncWithGroupCommit(request, location, indexShard)) {
+            return new GroupCommitPrimaryResult(request, response, location, indexShard);
+        }
+        return new WritePrimaryResult<>(request, response, location, null, indexShard, logger);
+    }
+
+    protected WriteReplicaResult<Request> newReplicaResult(Request request,
+                                                           @Nullable Translog.Location location,
+                                                           IndexShard indexShard) {
+        if (syncWithGroupCommit(request, location, indexShard)) {
+            return new GroupCommitReplicaResult(request, location, indexShard);
+        }
+        return new WriteReplicaResult<>(request, location, null, indexShard, logger);
+    }
+
+    private static boolean syncWithGroupCommit(ShardRequest<?, ?> request,
+                                               @Nullable Translog.Location location,
+                                               IndexShard indexShard) {
+        // waiting for a refresh requires the location, leave it to the regular after write actions
+        return location != null &&
+               indexShard.getTranslogDurability() == Translog.Durability.REQUEST &&
+               request.getRefreshPolicy() != WriteRequest.RefreshPolicy.WAIT_UNTIL;
+    }
+
+    private class GroupCommitPrimaryResult extends WritePrimaryResult<Request, ShardResponse> {
+
+        private final CompletableFuture<Void> synced = new CompletableFuture<>();
+
+        GroupCommitPrimaryResult(Request request,
+                                 ShardResponse response,
+                                 Translog.Location location,
+                                 IndexShard indexShard) {
+            // no location is passed on, the translog sync is done by the group commit
+            super(request, response, null, null, indexShard, logger);
+            translogGroupCommit.sync(indexShard, location, e -> completeSync(synced, e));
+        }
+
+        @Override
+        public void respond(ActionListener<ShardResponse> listener) {
+            synced.whenComplete((r, t) -> {
+                if (t == null) {
+                    super.respond(listener);
+                } else {
+                    listener.onFailure((Exception) t);
+                }
+            });
+        }
+    }
+
+    private class GroupCommitReplicaResult extends WriteReplicaResult<Request> {
+
+        private final CompletableFuture<Void> synced = new CompletableFuture<>();
+
+        GroupCommitReplicaResult(Request request, Translog.Location location, IndexShard indexShard) {
+            super(request, null, null, indexShard, logger);
+            translogGroupCommit.sync(indexShard, location, e -> completeSync(synced, e));
+        }
+
+        @Override
+        public void respond(ActionListener<TransportResponse.Empty> listener) {
+            synced.whenComplete((r, t) -> {
+                if (t == null) {
+                    super.respond(listener);
+                } else {
+                    listener.onFailure((Exception) t);
+                }
+            });
+        }
+    }
+
+    private static void completeSync(CompletableFuture<Void> synced, @Nullable Exception e) {
+        if (e == null) {
+            synced.complete(null);
+        } else {
+            synced.completeExceptionally(e);
+        }
+    }
+
     protected abstract WritePrimaryResult<Request, ShardResponse> processRequestItems(IndexShard indexShard, Request request, AtomicBoolean killed) throws InterruptedException, IOException;
 
     protected abstract WriteReplicaResult<Request> processRequestItemsOnReplica(IndexShard indexShard, Request replicaRequest) throws IOException;
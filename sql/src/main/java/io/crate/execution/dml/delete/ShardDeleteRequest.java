@@ -23,10 +23,13 @@
 package io.crate.execution.dml.delete;
 
 import io.crate.execution.dml.ShardRequest;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.Symbols;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.index.shard.ShardId;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.UUID;
 
@@ -34,6 +37,13 @@ public class ShardDeleteRequest extends ShardRequest<ShardDeleteRequest, ShardDe
 
     private int skipFromLocation = -1;
 
+    /**
+     * Query selecting the documents to delete. It is executed on the primary shard, which adds an item for each
+     * matching document and removes the query again, so that replicas only receive the resolved items.
+     */
+    @Nullable
+    private Symbol query;
+
     public ShardDeleteRequest() {
     }
 
@@ -49,6 +59,16 @@ public class ShardDeleteRequest extends ShardRequest<ShardDeleteRequest, ShardDe
         return skipFromLocation;
     }
 
+    public ShardDeleteRequest query(@Nullable Symbol query) {
+        this.query = query;
+        return this;
+    }
+
+    @Nullable
+    public Symbol query() {
+        return query;
+    }
+
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         super.writeTo(out);
@@ -62,6 +82,12 @@ public class ShardDeleteRequest extends ShardRequest<ShardDeleteRequest, ShardDe
         } else {
             out.writeBoolean(false);
         }
+        if (query == null) {
+            out.writeBoolean(false);
+        } else {
+            out.writeBoolean(true);
+            Symbols.toStream(query, out);
+        }
     }
 
     @Override
@@ -72,6 +98,9 @@ public class ShardDeleteRequest extends ShardRequest<ShardDeleteRequest, ShardDe
         if (in.readBoolean()) {
             skipFromLocation = in.readVInt();
         }
+        if (in.readBoolean()) {
+            query = Symbols.fromStream(in);
+        }
     }
 
     @Override
@@ -23,9 +23,20 @@
 package io.crate.execution.dml.delete;
 
 import io.crate.exceptions.JobKilledException;
+import io.crate.exceptions.UnsupportedFeatureException;
 import io.crate.execution.ddl.SchemaUpdateClient;
 import io.crate.execution.dml.ShardResponse;
+import io.crate.execution.dml.TranslogGroupCommitService;
 import io.crate.execution.dml.TransportShardAction;
+import io.crate.execution.engine.collect.collectors.CollectorFieldsVisitor;
+import io.crate.execution.engine.collect.collectors.LuceneBatchIterator;
+import io.crate.expression.reference.doc.lucene.CollectorContext;
+import io.crate.expression.reference.doc.lucene.LuceneCollectorExpression;
+import io.crate.expression.reference.doc.lucene.LuceneReferenceResolver;
+import io.crate.lucene.LuceneQueryBuilder;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.doc.DocSysColumns;
+import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.action.support.ActionFilters;
 import org.elasticsearch.action.support.TransportActions;
 import org.elasticsearch.cluster.action.shard.ShardStateAction;
@@ -34,9 +45,11 @@ import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.inject.Singleton;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.IndexService;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.engine.VersionConflictEngineException;
+import org.elasticsearch.index.query.QueryShardContext;
 import org.elasticsearch.index.seqno.SequenceNumbers;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.translog.Translog;
@@ -45,6 +58,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportService;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static io.crate.exceptions.Exceptions.userFriendlyMessageInclNested;
@@ -54,6 +68,8 @@ public class TransportShardDeleteAction extends TransportShardAction<ShardDelete
 
     private static final String ACTION_NAME = "indices:crate/data/write/delete";
 
+    private final LuceneQueryBuilder luceneQueryBuilder;
+
     @Inject
     public TransportShardDeleteAction(Settings settings,
                                       TransportService transportService,
@@ -63,10 +79,13 @@ public class TransportShardDeleteAction extends TransportShardAction<ShardDelete
                                       ThreadPool threadPool,
                                       ShardStateAction shardStateAction,
                                       ActionFilters actionFilters,
-                                      SchemaUpdateClient schemaUpdateClient) {
+                                      SchemaUpdateClient schemaUpdateClient,
+                                      TranslogGroupCommitService translogGroupCommit,
+                                      LuceneQueryBuilder luceneQueryBuilder) {
         super(settings, ACTION_NAME, transportService, indexNameExpressionResolver,
             clusterService, indicesService, threadPool, shardStateAction, actionFilters, ShardDeleteRequest::new,
-            schemaUpdateClient);
+            schemaUpdateClient, translogGroupCommit);
+        this.luceneQueryBuilder = luceneQueryBuilder;
     }
 
     @Override
@@ -74,6 +93,16 @@ public class TransportShardDeleteAction extends TransportShardAction<ShardDelete
                                                                                         ShardDeleteRequest request,
                                                                                         AtomicBoolean killed) throws IOException {
         ShardResponse shardResponse = new ShardResponse();
+        if (request.query() != null) {
+            addItemsMatchingQuery(indexShard, request, killed);
+            if (killed.get()) {
+                // the matching documents may have been collected only partially.
+                // Nothing is deleted, neither on the primary nor on the replicas.
+                request.skipFromLocation(0);
+                shardResponse.failure(new InterruptedException(JobKilledException.MESSAGE));
+                return newPrimaryResult(request, shardResponse, null, indexShard);
+            }
+        }
         Translog.Location translogLocation = null;
         for (ShardDeleteRequest.Item item : request.items()) {
             int location = item.location();
@@ -126,7 +155,7 @@ public class TransportShardDeleteAction extends TransportShardAction<ShardDelete
             }
         }
 
-        return new WritePrimaryResult<>(request, shardResponse, translogLocation, null, indexShard, logger);
+        return newPrimaryResult(request, shardResponse, translogLocation, indexShard);
     }
 
     @Override
@@ -152,7 +181,51 @@ public class TransportShardDeleteAction extends TransportShardAction<ShardDelete
                 }
             }
         }
-        return new WriteReplicaResult<>(request, translogLocation, null, indexShard, logger);
+        return newReplicaResult(request, translogLocation, indexShard);
+    }
+
+    /**
+     * Adds an item for each document matching the query of the request. All matches are resolved using a single
+     * searcher, documents indexed or made visible afterwards are not deleted.
+     * The query is removed from the request afterwards, replicas only need to apply the deletes of the items.
+     */
+    private void addItemsMatchingQuery(IndexShard indexShard, ShardDeleteRequest request, AtomicBoolean killed) {
+        IndexService indexService = indicesService.indexServiceSafe(indexShard.shardId().getIndex());
+        request.items().clear();
+        try (Engine.Searcher searcher = indexShard.acquireSearcher("delete-by-query")) {
+            QueryShardContext queryShardContext = indexService.newQueryShardContext(
+                indexShard.shardId().id(), searcher.reader(), System::currentTimeMillis, null);
+            LuceneQueryBuilder.Context queryContext = luceneQueryBuilder.convert(
+                request.query(), indexService.mapperService(), queryShardContext, indexService.cache());
+            if (queryContext.minScore() != null) {
+                throw new UnsupportedFeatureException("Cannot delete by query with a minimum _score");
+            }
+            LuceneReferenceResolver referenceResolver =
+                new LuceneReferenceResolver(indexService.mapperService()::fullName, indexShard.indexSettings());
+            LuceneCollectorExpression<?> idExpression = referenceResolver.getImplementation(
+                DocSysColumns.forTable(RelationName.fromIndexName(request.index()), DocSysColumns.ID));
+            LuceneBatchIterator iterator = new LuceneBatchIterator(
+                searcher.searcher(),
+                queryContext.query(),
+                null,
+                false,
+                new CollectorContext(queryShardContext::getForField, new CollectorFieldsVisitor(1)),
+                null,
+                Collections.singletonList(idExpression),
+                Collections.singletonList(idExpression)
+            );
+            try {
+                int location = 0;
+                while (!killed.get() && iterator.moveNext()) {
+                    BytesRef id = (BytesRef) iterator.currentElement().get(0);
+                    request.add(location, new ShardDeleteRequest.Item(id.utf8ToString()));
+                    location++;
+                }
+            } finally {
+                iterator.close();
+            }
+        }
+        request.query(null);
     }
 
     private Engine.DeleteResult shardDeleteOperationOnPrimary(ShardDeleteRequest request, ShardDeleteRequest.Item item, IndexShard indexShard) throws IOException {
@@ -39,7 +39,9 @@ import org.elasticsearch.index.shard.ShardId;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 public class ShardUpsertRequest extends ShardRequest<ShardUpsertRequest, ShardUpsertRequest.Item> {
@@ -146,11 +148,6 @@ public class ShardUpsertRequest extends ShardRequest<ShardUpsertRequest, ShardUp
         return isRetry;
     }
 
-    @Override
-    public void onRetry() {
-        isRetry = true;
-    }
-
     @Override
     public void readFrom(StreamInput in) throws IOException {
         super.readFrom(in);
@@ -176,6 +173,46 @@ public class ShardUpsertRequest extends ShardRequest<ShardUpsertRequest, ShardUp
 
         int numItems = in.readVInt();
         readItems(in, numItems);
+        if (insertValuesStreamer != null) {
+            readInsertValues(in);
+        }
+    }
+
+    /**
+     * Insert values are streamed column-wise after the items, so that every value of a column is written by
+     * the same type streamer in one go. Only items which don't have a source yet carry their insert values,
+     * replicas only need the source built on the primary.
+     */
+    private void readInsertValues(StreamInput in) throws IOException {
+        List<Object[]> rows = new ArrayList<>(items.size());
+        for (Item item : items) {
+            if (item.insertValues != null) {
+                rows.add(item.insertValues);
+            }
+        }
+        for (int i = 0; i < insertValuesStreamer.length; i++) {
+            Streamer streamer = insertValuesStreamer[i];
+            for (int j = 0; j < rows.size(); j++) {
+                rows.get(j)[i] = streamer.readValueFrom(in);
+            }
+        }
+    }
+
+    private void writeInsertValues(StreamOutput out) throws IOException {
+        List<Object[]> rows = new ArrayList<>(items.size());
+        for (Item item : items) {
+            if (item.streamInsertValues()) {
+                assert item.insertValues.length == insertValuesStreamer.length
+                    : "number of insert values must match the number of insert columns";
+                rows.add(item.insertValues);
+            }
+        }
+        for (int i = 0; i < insertValuesStreamer.length; i++) {
+            Streamer streamer = insertValuesStreamer[i];
+            for (int j = 0; j < rows.size(); j++) {
+                streamer.writeValueTo(out, rows.get(j)[i]);
+            }
+        }
     }
 
     @Override
@@ -204,13 +241,30 @@ public class ShardUpsertRequest extends ShardRequest<ShardUpsertRequest, ShardUp
 
         out.writeVInt(items.size());
         for (Item item : items) {
-            item.writeTo(out, insertValuesStreamer);
+            item.writeTo(out);
+        }
+        if (insertValuesStreamer != null) {
+            writeInsertValues(out);
+        }
+    }
+
+    /**
+     * Sources built while executing this request on the primary are dropped on a retry,
+     * the retried request may be executed on a different primary which builds them again from the insert values.
+     */
+    @Override
+    public void onRetry() {
+        isRetry = true;
+        for (Item item : items) {
+            if (item.insertValues != null) {
+                item.source(null);
+            }
         }
     }
 
     @Override
     protected Item readItem(StreamInput input) throws IOException {
-        return new Item(input, insertValuesStreamer);
+        return new Item(input, insertValuesStreamer == null ? 0 : insertValuesStreamer.length);
     }
 
     @Override
@@ -289,7 +343,14 @@ public class ShardUpsertRequest extends ShardRequest<ShardUpsertRequest, ShardUp
             return insertValues;
         }
 
-        public Item(StreamInput in, @Nullable Streamer[] insertValueStreamers) throws IOException {
+        /**
+         * Insert values are only sent if the source hasn't been built yet, they are streamed column-wise by the request.
+         */
+        private boolean streamInsertValues() {
+            return insertValues != null && source == null;
+        }
+
+        Item(StreamInput in, int numInsertValues) throws IOException {
             super(in);
             if (in.readBoolean()) {
                 int assignmentsSize = in.readVInt();
@@ -298,20 +359,17 @@ public class ShardUpsertRequest extends ShardRequest<ShardUpsertRequest, ShardUp
                     updateAssignments[i] = Symbols.fromStream(in);
                 }
             }
-            int missingAssignmentsSize = in.readVInt();
-            if (missingAssignmentsSize > 0) {
-                assert insertValueStreamers != null : "streamers are required if reading insert values";
-                this.insertValues = new Object[missingAssignmentsSize];
-                for (int i = 0; i < missingAssignmentsSize; i++) {
-                    insertValues[i] = insertValueStreamers[i].readValueFrom(in);
-                }
+            if (in.readBoolean()) {
+                // values are read column-wise by the request once all items are read
+                insertValues = new Object[numInsertValues];
             }
             if (in.readBoolean()) {
                 source = in.readBytesReference();
             }
         }
 
-        public void writeTo(StreamOutput out, @Nullable Streamer[] insertValueStreamers) throws IOException {
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
             super.writeTo(out);
             if (updateAssignments != null) {
                 out.writeBoolean(true);
@@ -322,16 +380,7 @@ public class ShardUpsertRequest extends ShardRequest<ShardUpsertRequest, ShardUp
             } else {
                 out.writeBoolean(false);
             }
-            // Stream References
-            if (insertValues != null) {
-                assert insertValueStreamers != null : "streamers are required to stream insert values";
-                out.writeVInt(insertValues.length);
-                for (int i = 0; i < insertValues.length; i++) {
-                    insertValueStreamers[i].writeValueTo(out, insertValues[i]);
-                }
-            } else {
-                out.writeVInt(0);
-            }
+            out.writeBoolean(streamInsertValues());
 
             boolean sourceAvailable = source != null;
             out.writeBoolean(sourceAvailable);
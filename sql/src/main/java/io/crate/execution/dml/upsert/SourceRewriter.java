@@ -0,0 +1,303 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.dml.upsert;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+import org.elasticsearch.common.xcontent.json.JsonXContentParser;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies changes to a JSON source without parsing it into a map.
+ *
+ * <p>
+ * The source is streamed once: values of unchanged fields are skipped and later copied over byte by byte,
+ * only the changed values and the fields which are missing in the source are encoded.
+ * The semantics match {@link TransportShardUpsertAction#updateSourceByPaths(Map, Map)}:
+ * The keys of the changes are paths, the values overwrite the existing values (maps are not merged)
+ * and missing parent objects are created.
+ * </p>
+ * <p>
+ * {@link #extractValues(BytesReference, Collection)} reads the values of the columns an update refers to in the same
+ * way, so that the source doesn't have to be parsed into a map to evaluate assignments like {@code x = x + 1}.
+ * </p>
+ */
+final class SourceRewriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private SourceRewriter() {
+    }
+
+    /**
+     * @return the updated source or null if the changes can't be applied by rewriting the source, e.g. because the
+     *         source isn't JSON or a parent of a changed path isn't an object.
+     *         The caller must fall back to {@link TransportShardUpsertAction#updateSourceByPaths(Map, Map)} in that case.
+     */
+    @Nullable
+    static BytesReference updateByPaths(BytesReference source, Map<String, Object> changes) throws IOException {
+        Node changesTree = Node.fromPaths(changes);
+        if (changesTree == null || XContentFactory.xContentType(source) != XContentType.JSON) {
+            return null;
+        }
+        BytesRef bytes = source.toBytesRef();
+        List<Splice> splices = new ArrayList<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(bytes.bytes, bytes.offset, bytes.length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT || !rewriteObject(parser, changesTree, splices)) {
+                return null;
+            }
+        }
+        BytesStreamOutput out = new BytesStreamOutput(bytes.length + 64);
+        int pos = 0;
+        for (Splice splice : splices) {
+            out.writeBytes(bytes.bytes, bytes.offset + pos, splice.start - pos);
+            splice.replacement.writeTo(out);
+            pos = splice.end;
+        }
+        out.writeBytes(bytes.bytes, bytes.offset + pos, bytes.length - pos);
+        return out.bytes();
+    }
+
+    /**
+     * Reads the values of the given columns from a JSON source. The values of all other fields are skipped.
+     *
+     * @param paths the columns in dotted notation, e.g. {@code o.x}
+     * @return a map which only contains the values of the given columns, nested like the source, or null if the
+     *         source isn't JSON. The values are the same as those of the map the source is parsed into by
+     *         {@link org.elasticsearch.common.xcontent.XContentHelper#convertToMap(BytesReference, boolean, XContentType)},
+     *         so the columns can be looked up with
+     *         {@link org.elasticsearch.common.xcontent.support.XContentMapValues#extractValue(String, Map)}.
+     */
+    @Nullable
+    static Map<String, Object> extractValues(BytesReference source, Collection<String> paths) throws IOException {
+        if (XContentFactory.xContentType(source) != XContentType.JSON) {
+            return null;
+        }
+        Node pathsTree = Node.fromColumns(paths);
+        BytesRef bytes = source.toBytesRef();
+        try (XContentParser parser = new JsonXContentParser(
+            NamedXContentRegistry.EMPTY, JSON_FACTORY.createParser(bytes.bytes, bytes.offset, bytes.length))) {
+
+            if (parser.nextToken() != XContentParser.Token.START_OBJECT) {
+                return null;
+            }
+            return extractObject(parser, pathsTree);
+        }
+    }
+
+    /**
+     * Reads the referenced fields of the object the parser is positioned at.
+     * The parser is positioned at the END_OBJECT token afterwards.
+     */
+    private static Map<String, Object> extractObject(XContentParser parser, Node node) throws IOException {
+        Map<String, Object> values = new HashMap<>();
+        while (parser.nextToken() == XContentParser.Token.FIELD_NAME) {
+            String name = parser.currentName();
+            XContentParser.Token token = parser.nextToken();
+            Node child = node.children.get(name);
+            if (child == null) {
+                parser.skipChildren();
+            } else if (child.isLeaf == false && token == XContentParser.Token.START_OBJECT) {
+                values.put(name, extractObject(parser, child));
+            } else {
+                // either the whole value is referenced or the nested columns are looked up in a value which
+                // isn't an object (e.g. an array of objects); both need the complete value
+                values.put(name, readValue(parser, token));
+            }
+        }
+        return values;
+    }
+
+    @Nullable
+    private static Object readValue(XContentParser parser, XContentParser.Token token) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                return parser.map();
+
+            case START_ARRAY:
+                return parser.list();
+
+            default:
+                return parser.objectText();
+        }
+    }
+
+    /**
+     * Walks the fields of the object the parser is positioned at and registers the splices for the changes.
+     * The parser is positioned at the END_OBJECT token afterwards.
+     */
+    private static boolean rewriteObject(JsonParser parser, Node node, List<Splice> splices) throws IOException {
+        Set<String> matched = new HashSet<>();
+        boolean hasFields = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            hasFields = true;
+            String name = parser.getCurrentName();
+            JsonToken valueToken = parser.nextToken();
+            Node child = node.children.get(name);
+            if (child == null) {
+                parser.skipChildren();
+                continue;
+            }
+            matched.add(name);
+            if (child.isLeaf) {
+                int start = (int) parser.getTokenLocation().getByteOffset();
+                parser.skipChildren();
+                parser.finishToken();
+                int end = (int) parser.getCurrentLocation().getByteOffset();
+                splices.add(new Splice(start, end, encodeValue(child.value)));
+            } else if (valueToken == JsonToken.START_OBJECT) {
+                if (!rewriteObject(parser, child, splices)) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+        if (matched.size() < node.children.size()) {
+            int endObject = (int) parser.getTokenLocation().getByteOffset();
+            splices.add(new Splice(endObject, endObject, encodeMissingFields(node, matched, hasFields)));
+        }
+        return true;
+    }
+
+    private static BytesReference encodeValue(@Nullable Object value) throws IOException {
+        XContentBuilder builder = JsonXContent.contentBuilder();
+        builder.value(value);
+        return builder.bytes();
+    }
+
+    private static BytesReference encodeMissingFields(Node node, Set<String> matched, boolean hasFields) throws IOException {
+        XContentBuilder builder = JsonXContent.contentBuilder();
+        builder.startObject();
+        for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+            if (!matched.contains(entry.getKey())) {
+                writeField(builder, entry.getKey(), entry.getValue());
+            }
+        }
+        builder.endObject();
+        BytesReference object = builder.bytes();
+        // strip the enclosing braces, the fields are inserted into an existing object
+        BytesReference fields = object.slice(1, object.length() - 2);
+        if (!hasFields) {
+            return fields;
+        }
+        BytesStreamOutput out = new BytesStreamOutput(fields.length() + 1);
+        out.writeByte((byte) ',');
+        fields.writeTo(out);
+        return out.bytes();
+    }
+
+    private static void writeField(XContentBuilder builder, String name, Node node) throws IOException {
+        if (node.isLeaf) {
+            builder.field(name).value(node.value);
+        } else {
+            builder.startObject(name);
+            for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+                writeField(builder, entry.getKey(), entry.getValue());
+            }
+            builder.endObject();
+        }
+    }
+
+    private static final class Splice {
+
+        private final int start;
+        private final int end;
+        private final BytesReference replacement;
+
+        Splice(int start, int end, BytesReference replacement) {
+            this.start = start;
+            this.end = end;
+            this.replacement = replacement;
+        }
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        private boolean isLeaf = false;
+        private Object value;
+
+        /**
+         * @return the tree of the columns; a column which is the parent of another one covers it
+         */
+        static Node fromColumns(Collection<String> paths) {
+            Node root = new Node();
+            for (String path : paths) {
+                Node node = root;
+                for (String part : path.split("\\.")) {
+                    if (node.isLeaf) {
+                        break;
+                    }
+                    node = node.children.computeIfAbsent(part, k -> new Node());
+                }
+                node.isLeaf = true;
+                node.children.clear();
+            }
+            return root;
+        }
+
+        /**
+         * @return the tree of the changes or null if a path is both changed and the parent of another changed path
+         */
+        @Nullable
+        static Node fromPaths(Map<String, Object> changes) {
+            Node root = new Node();
+            for (Map.Entry<String, Object> change : changes.entrySet()) {
+                Node node = root;
+                for (String part : change.getKey().split("\\.")) {
+                    if (node.isLeaf) {
+                        return null;
+                    }
+                    node = node.children.computeIfAbsent(part, k -> new Node());
+                }
+                if (node.isLeaf || !node.children.isEmpty()) {
+                    return null;
+                }
+                node.isLeaf = true;
+                node.value = change.getValue();
+            }
+            return root;
+        }
+    }
+}
@@ -31,6 +31,7 @@ import io.crate.data.Input;
 import io.crate.data.Row;
 import io.crate.execution.ddl.SchemaUpdateClient;
 import io.crate.execution.dml.ShardResponse;
+import io.crate.execution.dml.TranslogGroupCommitService;
 import io.crate.execution.dml.TransportShardAction;
 import io.crate.execution.dml.upsert.ShardUpsertRequest.DuplicateKeyAction;
 import io.crate.execution.engine.collect.CollectExpression;
@@ -52,6 +53,7 @@ import io.crate.metadata.table.Operation;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.ElasticsearchGenerationException;
+import org.elasticsearch.ElasticsearchParseException;
 import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.action.support.ActionFilters;
 import org.elasticsearch.cluster.action.shard.ShardStateAction;
@@ -62,6 +64,7 @@ import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.lucene.uid.Versions;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.XContentBuilder;
@@ -127,9 +130,11 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
                                       ShardStateAction shardStateAction,
                                       Functions functions,
                                       Schemas schemas,
-                                      IndexNameExpressionResolver indexNameExpressionResolver) {
+                                      IndexNameExpressionResolver indexNameExpressionResolver,
+                                      TranslogGroupCommitService translogGroupCommit) {
         super(settings, ACTION_NAME, transportService, indexNameExpressionResolver, clusterService,
-            indicesService, threadPool, shardStateAction, actionFilters, ShardUpsertRequest::new, schemaUpdateClient);
+            indicesService, threadPool, shardStateAction, actionFilters, ShardUpsertRequest::new, schemaUpdateClient,
+            translogGroupCommit);
         this.schemas = schemas;
         this.inputFactory = new InputFactory(functions);
         tasksService.addListener(this);
@@ -148,6 +153,7 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
         }
 
         Translog.Location translogLocation = null;
+        BytesStreamOutput sourceBuffer = new BytesStreamOutput();
         for (ShardUpsertRequest.Item item : request.items()) {
             int location = item.location();
             if (killed.get()) {
@@ -164,7 +170,8 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
                     item,
                     indexShard,
                     item.insertValues() != null, // try insert first
-                    notUsedNonGeneratedColumns);
+                    notUsedNonGeneratedColumns,
+                    sourceBuffer);
                 if (translogLocation != null) {
                     shardResponse.add(location);
                 }
@@ -193,7 +200,7 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
                         (e instanceof VersionConflictEngineException)));
             }
         }
-        return new WritePrimaryResult<>(request, shardResponse, translogLocation, null, indexShard, logger);
+        return newPrimaryResult(request, shardResponse, translogLocation, indexShard);
     }
 
     @Override
@@ -221,7 +228,7 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
             );
             location = indexResult.getTranslogLocation();
         }
-        return new WriteReplicaResult<>(request, location, null, indexShard, logger);
+        return newReplicaResult(request, location, indexShard);
     }
 
     @Nullable
@@ -230,11 +237,13 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
                                         ShardUpsertRequest.Item item,
                                         IndexShard indexShard,
                                         boolean tryInsertFirst,
-                                        Collection<ColumnIdent> notUsedNonGeneratedColumns) throws Exception {
+                                        Collection<ColumnIdent> notUsedNonGeneratedColumns,
+                                        BytesStreamOutput sourceBuffer) throws Exception {
         VersionConflictEngineException lastException = null;
         for (int retryCount = 0; retryCount < MAX_RETRY_LIMIT; retryCount++) {
             try {
-                return indexItem(tableInfo, request, item, indexShard, tryInsertFirst, notUsedNonGeneratedColumns, retryCount > 0);
+                return indexItem(tableInfo, request, item, indexShard, tryInsertFirst, notUsedNonGeneratedColumns,
+                    retryCount > 0, sourceBuffer);
             } catch (VersionConflictEngineException e) {
                 lastException = e;
                 if (request.duplicateKeyAction() == DuplicateKeyAction.IGNORE) {
@@ -272,14 +281,15 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
                                           IndexShard indexShard,
                                           boolean tryInsertFirst,
                                           Collection<ColumnIdent> notUsedNonGeneratedColumns,
-                                          boolean isRetry) throws Exception {
+                                          boolean isRetry,
+                                          BytesStreamOutput sourceBuffer) throws Exception {
         long version;
         // try insert first without fetching the document
         if (tryInsertFirst) {
             // set version so it will fail if already exists (will be overwritten for updates, see below)
             version = Versions.MATCH_DELETED;
             try {
-                item.source(prepareInsert(tableInfo, notUsedNonGeneratedColumns, request, item));
+                item.source(prepareInsert(tableInfo, notUsedNonGeneratedColumns, request, item, sourceBuffer));
             } catch (IOException e) {
                 throw ExceptionsHelper.convertToElastic(e);
             }
@@ -389,7 +399,7 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
         GetResult getResult = getDocument(indexShard, request, item);
 
         List<Input<?>> updateInputs = resolveSymbols(
-            GetResultRefResolver.INSTANCE,
+            new SourceValuesResolver(),
             getResult,
             Arrays.asList(Preconditions.checkNotNull(item.updateAssignments(),
                 "Update assignments must not be null at this point.")),
@@ -426,6 +436,16 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
         // Currently the validation is done only for generated columns.
         processGeneratedColumns(tableInfo, pathsToUpdate, updatedGeneratedColumns, true, getResult);
 
+        BytesReference rewrittenSource;
+        try {
+            rewrittenSource = SourceRewriter.updateByPaths(getResult.internalSourceRef(), pathsToUpdate);
+        } catch (IOException e) {
+            throw new ElasticsearchGenerationException("Failed to update source with [" + pathsToUpdate + "]", e);
+        }
+        if (rewrittenSource != null) {
+            return new SourceAndVersion(rewrittenSource, getResult.getVersion());
+        }
+
         Tuple<XContentType, Map<String, Object>> sourceAndContent =
             XContentHelper.convertToMap(getResult.internalSourceRef(), false, XContentType.JSON);
         final XContentType updateSourceContentType = sourceAndContent.v1();
@@ -445,61 +465,69 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
     private BytesReference prepareInsert(DocTableInfo tableInfo,
                                          Collection<ColumnIdent> notUsedNonGeneratedColumns,
                                          ShardUpsertRequest request,
-                                         ShardUpsertRequest.Item item) throws IOException {
-
-        List<GeneratedReference> generatedReferencesWithValue = new ArrayList<>();
-        BytesReference source;
+                                         ShardUpsertRequest.Item item,
+                                         BytesStreamOutput sourceBuffer) throws IOException {
         Object[] insertValues = item.insertValues();
         Reference[] insertColumns = request.insertColumns();
         assert insertValues != null && insertColumns != null : "insertValues and insertColumns must not be null";
+        boolean evaluateGeneratedColumns = needsGeneratedColumnsEvaluation(tableInfo, insertColumns, request);
         if (request.isRawSourceInsert()) {
             assert insertValues.length > 0 : "empty insert values array";
-            source = new BytesArray((BytesRef) insertValues[0]);
+            if (evaluateGeneratedColumns == false) {
+                return new BytesArray((BytesRef) insertValues[0]);
+            }
         } else {
-            XContentBuilder builder = XContentFactory.jsonBuilder().startObject();
-
             // For direct inserts it is enough to have constraints validation on a handler.
             // validateConstraints() of ShardUpsertRequest should result in false in this case.
             if (request.validateConstraints()) {
                 ConstraintsValidator.validateConstraintsForNotUsedColumns(notUsedNonGeneratedColumns, tableInfo);
             }
+            for (int i = 0; i < insertValues.length; i++) {
+                ConstraintsValidator.validate(insertValues[i], insertColumns[i], tableInfo.notNullColumns());
+            }
+        }
 
+        // the buffer is re-used for all items of the request, the source is copied out of it with its exact size
+        sourceBuffer.reset();
+        XContentBuilder builder = XContentFactory.jsonBuilder(sourceBuffer);
+        if (evaluateGeneratedColumns) {
+            builder.map(processGeneratedColumnsOnInsert(tableInfo, insertColumns, insertValues,
+                request.isRawSourceInsert(), request.validateConstraints()));
+        } else {
+            builder.startObject();
             for (int i = 0; i < insertValues.length; i++) {
-                Object value = insertValues[i];
                 Reference ref = insertColumns[i];
-
-                ConstraintsValidator.validate(value, ref, tableInfo.notNullColumns());
-
                 if (ref.granularity() == RowGranularity.DOC) {
                     // don't include values for partitions in the _source
                     // ideally columns with partition granularity shouldn't be part of the request
-                    builder.field(ref.column().fqn(), value);
-                    if (ref instanceof GeneratedReference) {
-                        generatedReferencesWithValue.add((GeneratedReference) ref);
-                    }
+                    builder.field(ref.column().fqn(), insertValues[i]);
                 }
             }
             builder.endObject();
-            source = builder.bytes();
         }
+        builder.flush();
+        return new BytesArray(BytesReference.toBytes(sourceBuffer.bytes()));
+    }
 
+    private static boolean needsGeneratedColumnsEvaluation(DocTableInfo tableInfo,
+                                                           Reference[] insertColumns,
+                                                           ShardUpsertRequest request) {
+        int numGeneratedColumnsWithValue = 0;
+        if (request.isRawSourceInsert() == false) {
+            for (Reference ref : insertColumns) {
+                if (ref.granularity() == RowGranularity.DOC && ref instanceof GeneratedReference) {
+                    numGeneratedColumnsWithValue++;
+                }
+            }
+        }
         int generatedColumnSize = 0;
         for (GeneratedReference reference : tableInfo.generatedColumns()) {
             if (!tableInfo.partitionedByColumns().contains(reference)) {
                 generatedColumnSize++;
             }
         }
-
-        int numMissingGeneratedColumns = generatedColumnSize - generatedReferencesWithValue.size();
-        if (numMissingGeneratedColumns > 0 ||
-            (generatedReferencesWithValue.size() > 0 && request.validateConstraints())) {
-            // we need to evaluate some generated column expressions
-            Map<String, Object> sourceMap = processGeneratedColumnsOnInsert(tableInfo, request.insertColumns(),
-                item.insertValues(), request.isRawSourceInsert(), request.validateConstraints());
-            source = XContentFactory.jsonBuilder().map(sourceMap).bytes();
-        }
-
-        return source;
+        return generatedColumnSize > numGeneratedColumnsWithValue ||
+               (numGeneratedColumnsWithValue > 0 && request.validateConstraints());
     }
 
     private Map<String, Object> processGeneratedColumnsOnInsert(DocTableInfo tableInfo,
@@ -648,12 +676,54 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
         return columnsNotUsed;
     }
 
-    private static class GetResultOrGeneratedColumnsResolver extends GetResultRefResolver {
+    /**
+     * Resolves the columns of the document which is updated.
+     * The source is parsed once per {@link GetResult} and only the values of the columns which have been resolved
+     * are read, see {@link SourceRewriter#extractValues(BytesReference, Collection)}.
+     */
+    private static class SourceValuesResolver extends GetResultRefResolver {
+
+        private final Set<String> columns = new HashSet<>();
+        private GetResult parsedResult;
+        private Map<String, Object> sourceValues;
+
+        SourceValuesResolver() {
+            super(Collections.emptyList());
+        }
+
+        @Override
+        protected CollectExpression<GetResult, ?> sourceValue(Reference ref) {
+            String fqn = ref.column().fqn();
+            columns.add(fqn);
+            return NestableCollectExpression.forFunction(response -> {
+                if (response == null) {
+                    return null;
+                }
+                return ref.valueType().value(XContentMapValues.extractValue(fqn, sourceValues(response)));
+            });
+        }
+
+        private Map<String, Object> sourceValues(GetResult response) {
+            if (response != parsedResult) {
+                try {
+                    sourceValues = SourceRewriter.extractValues(response.internalSourceRef(), columns);
+                } catch (IOException e) {
+                    throw new ElasticsearchParseException("failed to parse source of document [{}]", e, response.getId());
+                }
+                if (sourceValues == null) {
+                    sourceValues = response.sourceAsMap();
+                }
+                parsedResult = response;
+            }
+            return sourceValues;
+        }
+    }
+
+    private static class GetResultOrGeneratedColumnsResolver extends SourceValuesResolver {
 
         private final Map<String, Object> updatedColumns;
 
         GetResultOrGeneratedColumnsResolver(Map<String, Object> updatedColumns) {
-            super(Collections.emptyList());
             this.updatedColumns = updatedColumns;
         }
 
@@ -21,15 +21,24 @@
 
 package io.crate.execution.engine.collect;
 
+import io.crate.analyze.QueryClause;
 import io.crate.data.BatchIterator;
+import io.crate.data.CollectingBatchIterator;
 import io.crate.data.Row;
 import io.crate.execution.TransportActionProvider;
+import io.crate.execution.dml.TranslogGroupCommitService;
+import io.crate.execution.dml.delete.ShardDeleteRequest;
 import io.crate.execution.dsl.phases.RoutedCollectPhase;
+import io.crate.execution.dsl.projection.DeleteProjection;
+import io.crate.execution.dsl.projection.Projection;
+import io.crate.execution.dsl.projection.Projections;
 import io.crate.execution.engine.collect.collectors.CollectorFieldsVisitor;
 import io.crate.execution.engine.collect.collectors.LuceneBatchIterator;
 import io.crate.execution.engine.collect.collectors.LuceneOrderedDocCollector;
 import io.crate.execution.engine.collect.collectors.OptimizeQueryForSearchAfter;
 import io.crate.execution.engine.collect.collectors.OrderedDocCollector;
+import io.crate.execution.engine.indexing.ShardDeleteByQueryExecutor;
+import io.crate.execution.engine.indexing.ShardingUpsertExecutor;
 import io.crate.execution.engine.sort.LuceneSortGenerator;
 import io.crate.execution.jobs.NodeJobsCounter;
 import io.crate.execution.jobs.SharedShardContext;
@@ -48,6 +57,7 @@ import org.apache.logging.log4j.Logger;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.index.IndexService;
 import org.elasticsearch.index.engine.Engine;
@@ -59,6 +69,7 @@ import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import javax.annotation.Nullable;
+import java.util.Collection;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -73,6 +84,9 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
     private final DocInputFactory docInputFactory;
     private final BigArrays bigArrays;
     private final FieldTypeLookup fieldTypeLookup;
+    private final ThreadPool threadPool;
+    private final Settings settings;
+    private final TransportActionProvider transportActionProvider;
 
     public LuceneShardCollectorProvider(Schemas schemas,
                                         LuceneQueryBuilder luceneQueryBuilder,
@@ -83,8 +97,10 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
                                         Settings settings,
                                         TransportActionProvider transportActionProvider,
                                         IndexShard indexShard,
-                                        BigArrays bigArrays) {
-        super(clusterService, nodeJobsCounter, ShardReferenceResolver.create(clusterService, schemas, indexShard),
+                                        BigArrays bigArrays,
+                                        TranslogGroupCommitService translogGroupCommit) {
+        super(clusterService, nodeJobsCounter,
+            ShardReferenceResolver.create(clusterService, schemas, translogGroupCommit, indexShard),
             functions, threadPool, settings, transportActionProvider, indexShard, bigArrays);
         this.luceneQueryBuilder = luceneQueryBuilder;
         this.functions = functions;
@@ -97,6 +113,9 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
             new LuceneReferenceResolver(fieldTypeLookup, indexShard.indexSettings())
         );
         this.bigArrays = bigArrays;
+        this.threadPool = threadPool;
+        this.settings = settings;
+        this.transportActionProvider = transportActionProvider;
     }
 
     @Override
@@ -139,6 +158,10 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
     @Nullable
     @Override
     protected BatchIterator<Row> getProjectionFusedIterator(RoutedCollectPhase normalizedPhase, CollectTask collectTask) {
+        BatchIterator<Row> deleteByQueryIterator = tryDeleteByQuery(normalizedPhase);
+        if (deleteByQueryIterator != null) {
+            return deleteByQueryIterator;
+        }
         return GroupByOptimizedIterator.tryOptimizeSingleStringKey(
             indexShard,
             luceneQueryBuilder,
@@ -151,6 +174,30 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
         );
     }
 
+    /**
+     * A delete projection only needs the ids of the matching documents to delete them. Instead of collecting the ids
+     * and sending them back to the shard, the query is sent and executed on the primary shard.
+     */
+    @Nullable
+    private BatchIterator<Row> tryDeleteByQuery(RoutedCollectPhase collectPhase) {
+        Collection<? extends Projection> shardProjections = Projections.shardProjections(collectPhase.projections());
+        if (shardProjections.size() != 1 || !(shardProjections.iterator().next() instanceof DeleteProjection)) {
+            return null;
+        }
+        if (!QueryClause.canMatch(collectPhase.where()) ||
+            Symbols.containsColumn(collectPhase.where(), DocSysColumns.SCORE)) {
+            return null;
+        }
+        ShardId shardId = indexShard.shardId();
+        TimeValue reqTimeout = ShardingUpsertExecutor.BULK_REQUEST_TIMEOUT_SETTING.setting().get(settings);
+        ShardDeleteByQueryExecutor executor = new ShardDeleteByQueryExecutor(
+            threadPool.scheduler(),
+            () -> new ShardDeleteRequest(shardId, collectPhase.jobId()).query(collectPhase.where()).timeout(reqTimeout),
+            transportActionProvider.transportShardDeleteAction()::execute
+        );
+        return CollectingBatchIterator.newInstance(() -> {}, executor::kill, executor::execute);
+    }
+
     @Override
     public OrderedDocCollector getOrderedCollector(RoutedCollectPhase phase,
                                                    SharedShardContext sharedShardContext,
@@ -67,7 +67,7 @@ public abstract class ShardCollectorProvider {
                            TransportActionProvider transportActionProvider,
                            IndexShard indexShard,
                            BigArrays bigArrays) {
-        this.inputFactory = new InputFactory(functions);
+        this.inputFactory = new InputFactory(functions, InputFactory.COMPILED_EXPRESSIONS_ENABLED_SETTING.get(settings));
         this.shardNormalizer = new EvaluatingNormalizer(
             functions,
             RowGranularity.SHARD,
@@ -43,5 +43,21 @@ public interface FileInput {
 
     InputStream getStream(URI uri) throws IOException;
 
+    /**
+     * @return the size of the file in bytes or -1 if it is unknown or if the file input
+     *         doesn't support reading from an arbitrary position (see {@link #getStream(URI, long)})
+     */
+    default long getSize(URI uri) throws IOException {
+        return -1L;
+    }
+
+    /**
+     * Returns a stream of the file starting at the given byte position.
+     * Only supported if {@link #getSize(URI)} returns a size.
+     */
+    default InputStream getStream(URI uri, long position) throws IOException {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " doesn't support reading from a position");
+    }
+
     boolean sharedStorageDefault();
 }
@@ -30,19 +30,17 @@ import io.crate.data.Input;
 import io.crate.data.Row;
 import io.crate.execution.dsl.phases.FileUriCollectPhase;
 import io.crate.expression.InputRow;
+import io.crate.expression.reference.file.SourceLineNumberExpression;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.logging.Loggers;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.SocketTimeoutException;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -63,11 +61,21 @@ public class FileReadingIterator implements BatchIterator<Row> {
 
     private static final Logger LOGGER = Loggers.getLogger(FileReadingIterator.class);
     private static final int MAX_SOCKET_TIMEOUT_RETRIES = 5;
+
+    /**
+     * Files on shared storage which are at least this large are split into byte ranges,
+     * one per reader, instead of being read as a whole by a single reader.
+     */
+    static final long MIN_SPLIT_SIZE_IN_BYTES = 64 * 1024;
+
     private final Map<String, FileInputFactory> fileInputFactories;
     private final Boolean shared;
     private final int numReaders;
     private final int readerNumber;
+    private final int numLocalReaders;
+    private final int localReaderNumber;
     private final boolean compressed;
+    private final boolean lineNumbersRequired;
 
     private static final Pattern HAS_GLOBS_PATTERN = Pattern.compile("(.*)[^\\\\]\\*.*");
     private static final Predicate<URI> MATCH_ALL_PREDICATE = (URI input) -> true;
@@ -79,7 +87,9 @@ public class FileReadingIterator implements BatchIterator<Row> {
     private Tuple<FileInput, UriWithGlob> currentInput = null;
     private Iterator<URI> currentInputIterator = null;
     private URI currentUri;
-    private BufferedReader currentReader = null;
+    private long currentRangeStart;
+    private long currentRangeEnd;
+    private LineReader currentReader = null;
     private long currentLineNumber;
     private final Row row;
     private LineProcessor lineProcessor;
@@ -92,6 +102,8 @@ public class FileReadingIterator implements BatchIterator<Row> {
                                 Boolean shared,
                                 int numReaders,
                                 int readerNumber,
+                                int numLocalReaders,
+                                int localReaderNumber,
                                 FileUriCollectPhase.InputFormat inputFormat) {
         this.compressed = compression != null && compression.equalsIgnoreCase("gzip");
         this.row = new InputRow(inputs);
@@ -99,8 +111,11 @@ public class FileReadingIterator implements BatchIterator<Row> {
         this.shared = shared;
         this.numReaders = numReaders;
         this.readerNumber = readerNumber;
+        this.numLocalReaders = numLocalReaders;
+        this.localReaderNumber = localReaderNumber;
         this.urisWithGlob = getUrisWithGlob(fileUris);
         this.collectorExpressions = collectorExpressions;
+        this.lineNumbersRequired = containsLineNumberExpression(collectorExpressions);
         this.inputFormat = inputFormat;
         initCollectorState();
     }
@@ -124,8 +139,39 @@ public class FileReadingIterator implements BatchIterator<Row> {
                                                  int numReaders,
                                                  int readerNumber,
                                                  FileUriCollectPhase.InputFormat inputFormat) {
+        return newInstance(fileUris, inputs, collectorExpressions, compression, fileInputFactories, shared,
+            numReaders, readerNumber, 1, 0, inputFormat);
+    }
+
+    /**
+     * @param numReaders number of nodes reading the files
+     * @param readerNumber number of this node within the readers
+     * @param numLocalReaders number of readers running concurrently on this node
+     * @param localReaderNumber number of this reader within the readers of this node
+     */
+    public static BatchIterator<Row> newInstance(Collection<String> fileUris,
+                                                 List<Input<?>> inputs,
+                                                 Iterable<LineCollectorExpression<?>> collectorExpressions,
+                                                 String compression,
+                                                 Map<String, FileInputFactory> fileInputFactories,
+                                                 Boolean shared,
+                                                 int numReaders,
+                                                 int readerNumber,
+                                                 int numLocalReaders,
+                                                 int localReaderNumber,
+                                                 FileUriCollectPhase.InputFormat inputFormat) {
         return new CloseAssertingBatchIterator<>(new FileReadingIterator(fileUris, inputs, collectorExpressions,
-            compression, fileInputFactories, shared, numReaders, readerNumber, inputFormat));
+            compression, fileInputFactories, shared, numReaders, readerNumber, numLocalReaders, localReaderNumber,
+            inputFormat));
+    }
+
+    private static boolean containsLineNumberExpression(Iterable<LineCollectorExpression<?>> collectorExpressions) {
+        for (LineCollectorExpression<?> expression : collectorExpressions) {
+            if (expression instanceof SourceLineNumberExpression) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void initCollectorState() {
@@ -149,12 +195,11 @@ public class FileReadingIterator implements BatchIterator<Row> {
     public boolean moveNext() {
         try {
             if (currentReader != null) {
-                String line = getLine(currentReader, currentLineNumber, 0);
-                if (line == null) {
+                if (!readLine(currentReader, currentLineNumber, 0)) {
                     closeCurrentReader();
                     return moveNext();
                 }
-                lineProcessor.process(line);
+                lineProcessor.process(currentReader.lineBuffer(), currentReader.lineOffset(), currentReader.lineLength());
                 return true;
             } else if (currentInputIterator != null && currentInputIterator.hasNext()) {
                 advanceToNextUri(currentInput.v1());
@@ -174,6 +219,21 @@ public class FileReadingIterator implements BatchIterator<Row> {
 
     private void advanceToNextUri(FileInput fileInput) throws IOException {
         currentUri = currentInputIterator.next();
+        long size = splittableSize(fileInput, currentUri);
+        if (size >= MIN_SPLIT_SIZE_IN_BYTES) {
+            // the file is split into one range per node and the range of this node into one range per local reader
+            boolean sharedStorage = isSharedStorage(fileInput);
+            int numNodes = numNodes(sharedStorage);
+            long nodeChunkSize = (size + numNodes - 1) / numNodes;
+            long nodeRangeStart = Math.min(size, nodeChunkSize * nodeNumber(sharedStorage));
+            long nodeRangeEnd = Math.min(size, nodeRangeStart + nodeChunkSize);
+            long chunkSize = (nodeRangeEnd - nodeRangeStart + numLocalReaders - 1) / numLocalReaders;
+            currentRangeStart = Math.min(nodeRangeEnd, nodeRangeStart + chunkSize * localReaderNumber);
+            currentRangeEnd = Math.min(nodeRangeEnd, currentRangeStart + chunkSize);
+        } else {
+            currentRangeStart = 0L;
+            currentRangeEnd = -1L;
+        }
         initCurrentReader(fileInput, currentUri);
     }
 
@@ -195,10 +255,21 @@ public class FileReadingIterator implements BatchIterator<Row> {
 
     private void initCurrentReader(FileInput fileInput, URI uri) throws IOException {
         lineProcessor.startWithUri(uri);
-        InputStream stream = fileInput.getStream(uri);
-        currentReader = createBufferedReader(stream);
+        if (currentRangeEnd < 0) {
+            currentReader = createLineReader(fileInput.getStream(uri));
+        } else {
+            InputStream stream = fileInput.getStream(uri, Math.max(0L, currentRangeStart - 1));
+            currentReader = createLineReader(new LineRangeInputStream(stream, currentRangeStart, currentRangeEnd));
+        }
         currentLineNumber = 0;
-        lineProcessor.readFirstLine(currentUri, inputFormat, currentReader);
+        if (currentRangeStart > 0) {
+            // the header (if any) is only contained in the first range
+            try (LineReader headerReader = createLineReader(fileInput.getStream(uri))) {
+                lineProcessor.readFirstLine(currentUri, inputFormat, headerReader);
+            }
+        } else {
+            lineProcessor.readFirstLine(currentUri, inputFormat, currentReader);
+        }
     }
 
     private void closeCurrentReader() {
@@ -212,18 +283,22 @@ public class FileReadingIterator implements BatchIterator<Row> {
         }
     }
 
-    private String getLine(BufferedReader reader, long startFrom, int retry) throws IOException {
-        String line = null;
+    /**
+     * Advances the reader to the next non-empty line
+     *
+     * @return false if there are no more lines
+     */
+    private boolean readLine(LineReader reader, long startFrom, int retry) throws IOException {
         try {
-            while ((line = reader.readLine()) != null) {
+            while (reader.readLine()) {
                 currentLineNumber++;
                 if (currentLineNumber < startFrom) {
                     continue;
                 }
-                if (line.length() == 0) {
+                if (reader.lineLength() == 0) {
                     continue;
                 }
-                break;
+                return true;
             }
         } catch (SocketTimeoutException e) {
             if (retry > MAX_SOCKET_TIMEOUT_RETRIES) {
@@ -234,7 +309,7 @@ public class FileReadingIterator implements BatchIterator<Row> {
                 long startLine = currentLineNumber + 1;
                 closeCurrentReader();
                 initCurrentReader(currentInput.v1(), currentUri);
-                return getLine(currentReader, startLine, retry + 1);
+                return readLine(currentReader, startLine, retry + 1);
             }
         } catch (Exception e) {
             URI uri = currentInput.v2().uri;
@@ -243,7 +318,7 @@ public class FileReadingIterator implements BatchIterator<Row> {
             LOGGER.info("Error during COPY FROM '{}'", e, uri.toString());
             rethrowUnchecked(e);
         }
-        return line;
+        return false;
     }
 
     @Override
@@ -351,15 +426,11 @@ public class FileReadingIterator implements BatchIterator<Row> {
         return new URLFileInput(fileUri);
     }
 
-    private BufferedReader createBufferedReader(InputStream inputStream) throws IOException {
-        BufferedReader reader;
+    private LineReader createLineReader(InputStream inputStream) throws IOException {
         if (compressed) {
-            reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(inputStream),
-                StandardCharsets.UTF_8));
-        } else {
-            reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+            return new LineReader(new GZIPInputStream(inputStream));
         }
-        return reader;
+        return new LineReader(inputStream);
     }
 
     private static List<URI> getUris(FileInput fileInput, URI fileUri, URI preGlobUri, Predicate<URI> uriPredicate) throws IOException {
@@ -376,14 +447,22 @@ public class FileReadingIterator implements BatchIterator<Row> {
 
     private Predicate<URI> generateUriPredicate(FileInput fileInput, @Nullable Predicate<URI> globPredicate) {
         Predicate<URI> moduloPredicate;
-        boolean sharedStorage = MoreObjects.firstNonNull(shared, fileInput.sharedStorageDefault());
-        if (sharedStorage) {
+        boolean sharedStorage = isSharedStorage(fileInput);
+        int numNodes = numNodes(sharedStorage);
+        int nodeNumber = nodeNumber(sharedStorage);
+        if (sharedStorage || numLocalReaders > 1) {
             moduloPredicate = input -> {
+                if (splittableSize(fileInput, input) >= MIN_SPLIT_SIZE_IN_BYTES) {
+                    // large files are read in parts by all readers
+                    return true;
+                }
                 int hash = input.hashCode();
                 if (hash == Integer.MIN_VALUE) {
                     hash = 0; // Math.abs(Integer.MIN_VALUE) == Integer.MIN_VALUE
                 }
-                return Math.abs(hash) % numReaders == readerNumber;
+                hash = Math.abs(hash);
+                // the files are assigned to the nodes first and the files of a node to its local readers
+                return hash % numNodes == nodeNumber && (hash / numNodes) % numLocalReaders == localReaderNumber;
             };
         } else {
             moduloPredicate = MATCH_ALL_PREDICATE;
@@ -395,6 +474,38 @@ public class FileReadingIterator implements BatchIterator<Row> {
         return moduloPredicate;
     }
 
+    private boolean isSharedStorage(FileInput fileInput) {
+        return MoreObjects.firstNonNull(shared, fileInput.sharedStorageDefault());
+    }
+
+    /**
+     * Files on shared storage are distributed across all nodes, other files are only read by this node.
+     * The share of a node is distributed across its local readers.
+     * The number of local readers may differ between the nodes, so it must not be used to split the files across nodes.
+     */
+    private int numNodes(boolean sharedStorage) {
+        return sharedStorage ? numReaders : 1;
+    }
+
+    private int nodeNumber(boolean sharedStorage) {
+        return sharedStorage ? readerNumber : 0;
+    }
+
+    /**
+     * @return the size of the file if it can be split into byte ranges read by different readers, otherwise -1
+     */
+    private long splittableSize(FileInput fileInput, URI uri) {
+        if (numNodes(isSharedStorage(fileInput)) * numLocalReaders < 2 || compressed || lineNumbersRequired) {
+            return -1L;
+        }
+        try {
+            return fileInput.getSize(uri);
+        } catch (IOException e) {
+            LOGGER.debug("Unable to retrieve size of {}, file will not be split", e, uri);
+            return -1L;
+        }
+    }
+
     private static class GlobPredicate implements Predicate<URI> {
         private final Pattern globPattern;
 
@@ -24,10 +24,9 @@ package io.crate.execution.engine.collect.files;
 import io.crate.execution.dsl.phases.FileUriCollectPhase;
 import io.crate.operation.collect.files.CSVLineParser;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 public class LineParser {
 
@@ -40,21 +39,25 @@ public class LineParser {
         JSON
     }
 
-    public void readFirstLine(URI currentUri, FileUriCollectPhase.InputFormat inputFormat, BufferedReader currentReader) throws IOException {
+    void readFirstLine(URI currentUri, FileUriCollectPhase.InputFormat inputFormat, LineReader currentReader) throws IOException {
         if (isInputCsv(inputFormat, currentUri)) {
             csvLineParser = new CSVLineParser();
-            csvLineParser.parseHeader(currentReader);
+            if (currentReader.readLine()) {
+                csvLineParser.parseHeader(currentReader.lineBuffer(), currentReader.lineOffset(), currentReader.lineLength());
+            } else {
+                csvLineParser.parseHeader(new byte[0], 0, 0);
+            }
             inputType = InputType.CSV;
         } else {
             inputType = InputType.JSON;
         }
     }
 
-    public byte[] getByteArray(String line) throws IOException {
+    public byte[] getByteArray(byte[] line, int offset, int length) throws IOException {
         if (inputType == InputType.CSV) {
-            return csvLineParser.parse(line);
+            return csvLineParser.parse(line, offset, length);
         } else {
-            return line.getBytes(StandardCharsets.UTF_8);
+            return Arrays.copyOfRange(line, offset, offset + length);
         }
     }
 
@@ -24,7 +24,6 @@ package io.crate.execution.engine.collect.files;
 import io.crate.execution.dsl.phases.FileUriCollectPhase.InputFormat;
 import io.crate.expression.reference.file.LineContext;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.net.URI;
 
@@ -44,13 +43,13 @@ public class LineProcessor {
         lineContext.currentUri(currentUri);
     }
 
-    void readFirstLine(URI currentUri, InputFormat inputFormat, BufferedReader currentReader) throws IOException {
+    void readFirstLine(URI currentUri, InputFormat inputFormat, LineReader currentReader) throws IOException {
         lineParser.readFirstLine(currentUri, inputFormat, currentReader);
     }
 
-    public void process(String line) throws IOException {
+    public void process(byte[] line, int offset, int length) throws IOException {
         lineContext.incrementCurrentLineNumber();
-        byte[] jsonByteArray = lineParser.getByteArray(line);
+        byte[] jsonByteArray = lineParser.getByteArray(line, offset, length);
         lineContext.rawSource(jsonByteArray);
     }
 
@@ -0,0 +1,109 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Exposes the lines of a file which start within the byte range {@code [start, end)}.
+ *
+ * The underlying stream must be positioned at {@code max(0, start - 1)}.
+ * If {@code start > 0} the (partial) line containing {@code start - 1} is skipped, as it belongs
+ * to the preceding range. The last line is read past {@code end} until its line terminator.
+ * This way the ranges of a file split into consecutive ranges cover every line exactly once.
+ */
+final class LineRangeInputStream extends InputStream {
+
+    private final InputStream in;
+    private final long end;
+    private long position;
+    private boolean done;
+
+    LineRangeInputStream(InputStream in, long start, long end) throws IOException {
+        this.in = new BufferedInputStream(in);
+        this.end = end;
+        if (start > 0) {
+            position = start - 1;
+            skipLine();
+        } else {
+            position = 0;
+        }
+        done = position >= end;
+    }
+
+    private void skipLine() throws IOException {
+        int b;
+        while ((b = in.read()) != -1) {
+            position++;
+            if (b == '\n') {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (done) {
+            return -1;
+        }
+        int b = in.read();
+        if (b == -1) {
+            done = true;
+            return -1;
+        }
+        if (b == '\n' && position >= end - 1) {
+            done = true;
+        }
+        position++;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (done) {
+            return -1;
+        }
+        int read = in.read(b, off, len);
+        if (read == -1) {
+            done = true;
+            return -1;
+        }
+        long firstCandidate = Math.max(0L, end - 1 - position);
+        for (long i = firstCandidate; i < read; i++) {
+            if (b[off + (int) i] == '\n') {
+                read = (int) i + 1;
+                done = true;
+                break;
+            }
+        }
+        position += read;
+        return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
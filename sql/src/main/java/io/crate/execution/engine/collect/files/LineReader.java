@@ -0,0 +1,146 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads lines from a stream without decoding them.
+ *
+ * Line boundaries ({@code \n}, {@code \r} or {@code \r\n}, like {@link java.io.BufferedReader#readLine()})
+ * are detected on the byte level and the content of the current line is exposed as a slice of a
+ * re-used buffer, which is only valid until the next call to {@link #readLine()}.
+ */
+final class LineReader implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private byte[] buffer;
+    private int position;
+    private int limit;
+    private boolean eof;
+    private boolean skipLF;
+
+    private int lineOffset;
+    private int lineLength;
+
+    LineReader(InputStream in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    LineReader(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Advances to the next line.
+     *
+     * @return false if the end of the stream has been reached
+     */
+    boolean readLine() throws IOException {
+        int scanned = 0;
+        while (true) {
+            if (skipLF) {
+                if (position == limit && !fill()) {
+                    return false;
+                }
+                if (buffer[position] == '\n') {
+                    position++;
+                }
+                skipLF = false;
+            }
+            for (int i = position + scanned; i < limit; i++) {
+                byte b = buffer[i];
+                if (b == '\n' || b == '\r') {
+                    lineOffset = position;
+                    lineLength = i - position;
+                    position = i + 1;
+                    skipLF = b == '\r';
+                    return true;
+                }
+            }
+            scanned = limit - position;
+            if (!fill()) {
+                if (position == limit) {
+                    return false;
+                }
+                lineOffset = position;
+                lineLength = limit - position;
+                position = limit;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Reads more data into the buffer, retaining the bytes which haven't been consumed yet.
+     *
+     * @return false if no more data is available
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        int remaining = limit - position;
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, remaining);
+        } else if (remaining == buffer.length) {
+            byte[] newBuffer = new byte[buffer.length << 1];
+            System.arraycopy(buffer, 0, newBuffer, 0, remaining);
+            buffer = newBuffer;
+        }
+        position = 0;
+        limit = remaining;
+        int read;
+        do {
+            read = in.read(buffer, limit, buffer.length - limit);
+        } while (read == 0);
+        if (read == -1) {
+            eof = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    byte[] lineBuffer() {
+        return buffer;
+    }
+
+    int lineOffset() {
+        return lineOffset;
+    }
+
+    int lineLength() {
+        return lineLength;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
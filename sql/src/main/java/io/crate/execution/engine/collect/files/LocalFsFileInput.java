@@ -85,6 +85,23 @@ public class LocalFsFileInput implements FileInput {
         return new FileInputStream(file);
     }
 
+    @Override
+    public long getSize(URI uri) throws IOException {
+        return Files.size(Paths.get(uri));
+    }
+
+    @Override
+    public InputStream getStream(URI uri, long position) throws IOException {
+        FileInputStream stream = new FileInputStream(new File(uri));
+        try {
+            stream.getChannel().position(position);
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+        return stream;
+    }
+
     @Override
     public boolean sharedStorageDefault() {
         return false;
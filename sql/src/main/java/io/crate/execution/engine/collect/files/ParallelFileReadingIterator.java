@@ -0,0 +1,278 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import io.crate.concurrent.CompletableFutures;
+import io.crate.data.ArrayRow;
+import io.crate.data.BatchIterator;
+import io.crate.data.Row;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.logging.Loggers;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.crate.exceptions.Exceptions.rethrowUnchecked;
+
+/**
+ * A BatchIterator which consumes multiple {@link FileReadingIterator}s concurrently.
+ *
+ * Each source is consumed by tasks running on the executor. A task reads, parses and materializes up to
+ * {@link #CHUNK_SIZE} rows and hands them over to the consumer using a lock-free queue.
+ * A source only reads its next chunk once the consumer has taken its previous one, so there are at most two chunks
+ * per source in memory and a slow consumer (e.g. indexing) throttles the readers.
+ *
+ * {@link #moveNext()} returns false if no chunk is ready, {@link #loadNextBatch()} completes once a chunk is ready
+ * or all sources are exhausted.
+ */
+public class ParallelFileReadingIterator implements BatchIterator<Row> {
+
+    private static final Logger LOGGER = Loggers.getLogger(ParallelFileReadingIterator.class);
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final int IDLE = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+
+    private final Source[] sources;
+    private final Executor executor;
+    private final Queue<Chunk> readyChunks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numActiveSources;
+    private final AtomicReference<CompletableFuture<Void>> pendingLoad = new AtomicReference<>(null);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>(null);
+    private final ArrayRow row = new ArrayRow();
+
+    private volatile boolean closed = false;
+    private boolean started = false;
+    private Chunk currentChunk = null;
+    private int idx = 0;
+
+    /**
+     * @param iterators sources which must be fully loaded (see {@link #allLoaded()}), like {@link FileReadingIterator}
+     * @param executor executor used to consume the sources, expected to deal with rejected tasks
+     */
+    public ParallelFileReadingIterator(List<BatchIterator<Row>> iterators, Executor executor) {
+        this.executor = executor;
+        this.sources = new Source[iterators.size()];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = new Source(iterators.get(i));
+        }
+        this.numActiveSources = new AtomicInteger(sources.length);
+    }
+
+    @Override
+    public Row currentElement() {
+        return row;
+    }
+
+    @Override
+    public void moveToStart() {
+        throw new UnsupportedOperationException("ParallelFileReadingIterator doesn't support moveToStart");
+    }
+
+    @Override
+    public boolean moveNext() {
+        raiseIfFailed();
+        start();
+        while (true) {
+            if (currentChunk != null) {
+                if (idx < currentChunk.rows.size()) {
+                    row.cells(currentChunk.rows.get(idx));
+                    idx++;
+                    return true;
+                }
+                currentChunk = null;
+            }
+            Chunk chunk = readyChunks.poll();
+            if (chunk == null) {
+                return false;
+            }
+            if (chunk.last == false) {
+                // read the next chunk of this source while the current one is consumed
+                chunk.source.resume();
+            }
+            currentChunk = chunk;
+            idx = 0;
+        }
+    }
+
+    private void raiseIfFailed() {
+        Throwable t = failure.get();
+        if (t != null) {
+            rethrowUnchecked(t);
+        }
+    }
+
+    private void start() {
+        if (started == false) {
+            started = true;
+            for (Source source : sources) {
+                source.resume();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Source source : sources) {
+            // running sources close themselves once their current chunk is read
+            if (source.state.compareAndSet(IDLE, DONE)) {
+                source.close();
+            }
+        }
+        readyChunks.clear();
+        currentChunk = null;
+    }
+
+    @Override
+    public CompletionStage<?> loadNextBatch() {
+        Throwable t = failure.get();
+        if (t != null) {
+            return CompletableFutures.failedFuture(t);
+        }
+        if (allLoaded()) {
+            return CompletableFutures.failedFuture(new IllegalStateException("BatchIterator already loaded"));
+        }
+        start();
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        pendingLoad.set(future);
+        // a chunk might have been added before the future was set
+        if (readyChunks.isEmpty() == false || numActiveSources.get() == 0 || failure.get() != null) {
+            signal();
+        }
+        return future;
+    }
+
+    private void signal() {
+        CompletableFuture<Void> future = pendingLoad.getAndSet(null);
+        if (future != null) {
+            future.complete(null);
+        }
+    }
+
+    @Override
+    public boolean allLoaded() {
+        return failure.get() == null
+               && numActiveSources.get() == 0
+               && readyChunks.isEmpty()
+               && (currentChunk == null || idx >= currentChunk.rows.size());
+    }
+
+    @Override
+    public void kill(@Nonnull Throwable throwable) {
+        failure.compareAndSet(null, throwable);
+        signal();
+    }
+
+    private static final class Chunk {
+
+        private final Source source;
+        private final List<Object[]> rows;
+        private final boolean last;
+
+        Chunk(Source source, List<Object[]> rows, boolean last) {
+            this.source = source;
+            this.rows = rows;
+            this.last = last;
+        }
+    }
+
+    private final class Source implements Runnable {
+
+        private final BatchIterator<Row> iterator;
+        private final AtomicInteger state = new AtomicInteger(IDLE);
+
+        Source(BatchIterator<Row> iterator) {
+            this.iterator = iterator;
+        }
+
+        void resume() {
+            if (closed == false && state.compareAndSet(IDLE, RUNNING)) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (closed) {
+                finish();
+                return;
+            }
+            try {
+                List<Object[]> rows = new ArrayList<>(CHUNK_SIZE);
+                boolean exhausted = false;
+                while (rows.size() < CHUNK_SIZE) {
+                    if (iterator.moveNext() == false) {
+                        assert iterator.allLoaded() : "source iterators must be fully loaded";
+                        exhausted = true;
+                        break;
+                    }
+                    rows.add(iterator.currentElement().materialize());
+                }
+                if (exhausted) {
+                    close();
+                    state.set(DONE);
+                    if (rows.isEmpty() == false) {
+                        readyChunks.add(new Chunk(this, rows, true));
+                    }
+                    numActiveSources.decrementAndGet();
+                } else {
+                    // must be idle before the consumer can take the chunk and resume this source
+                    state.set(IDLE);
+                    readyChunks.add(new Chunk(this, rows, false));
+                    if (closed && state.compareAndSet(IDLE, DONE)) {
+                        close();
+                    }
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+                finish();
+            }
+            signal();
+        }
+
+        private void finish() {
+            state.set(DONE);
+            close();
+            numActiveSources.decrementAndGet();
+        }
+
+        private void close() {
+            try {
+                iterator.close();
+            } catch (Exception e) {
+                LOGGER.warn("Unable to close file reading iterator", e);
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@
 package io.crate.execution.engine.collect.files;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
@@ -33,7 +34,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 
 public class S3FileInput implements FileInput {
@@ -43,6 +46,9 @@ public class S3FileInput implements FileInput {
 
     final S3ClientHelper clientBuilder;
 
+    // object sizes are part of the listing; remember them to avoid a metadata request per object
+    private final Map<URI, Long> sizes = new HashMap<>();
+
     public S3FileInput() {
         clientBuilder = new S3ClientHelper();
     }
@@ -75,6 +81,7 @@ public class S3FileInput implements FileInput {
             String key = summary.getKey();
             if (!key.endsWith("/")) {
                 URI keyUri = uri.resolve("/" + key);
+                sizes.put(keyUri, summary.getSize());
                 if (uriPredicate.test(keyUri)) {
                     uris.add(keyUri);
                     if (logger.isDebugEnabled()) {
@@ -98,6 +105,34 @@ public class S3FileInput implements FileInput {
         throw new IOException("Failed to load S3 URI: " + uri.toString());
     }
 
+    @Override
+    public long getSize(URI uri) throws IOException {
+        Long size = sizes.get(uri);
+        if (size != null) {
+            return size;
+        }
+        if (client == null) {
+            client = clientBuilder.client(uri);
+        }
+        size = client.getObjectMetadata(uri.getHost(), uri.getPath().substring(1)).getContentLength();
+        sizes.put(uri, size);
+        return size;
+    }
+
+    @Override
+    public InputStream getStream(URI uri, long position) throws IOException {
+        if (client == null) {
+            client = clientBuilder.client(uri);
+        }
+        S3Object object = client.getObject(
+            new GetObjectRequest(uri.getHost(), uri.getPath().substring(1)).withRange(position));
+
+        if (object != null) {
+            return object.getObjectContent();
+        }
+        throw new IOException("Failed to load S3 URI: " + uri.toString());
+    }
+
     @Override
     public boolean sharedStorageDefault() {
         return true;
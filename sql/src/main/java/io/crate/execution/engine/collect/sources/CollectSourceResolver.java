@@ -98,7 +98,7 @@ public class CollectSourceResolver {
             threadPool,
             settings,
             transportActionProvider,
-            new InputFactory(functions),
+            new InputFactory(functions, InputFactory.COMPILED_EXPRESSIONS_ENABLED_SETTING.get(settings)),
             normalizer,
             systemCollectSource::getRowUpdater,
             systemCollectSource::tableDefinition,
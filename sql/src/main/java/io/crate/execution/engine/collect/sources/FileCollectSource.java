@@ -30,6 +30,8 @@ import io.crate.execution.engine.collect.CollectTask;
 import io.crate.execution.engine.collect.files.FileInputFactory;
 import io.crate.execution.engine.collect.files.FileReadingIterator;
 import io.crate.execution.engine.collect.files.LineCollectorExpression;
+import io.crate.execution.engine.collect.files.ParallelFileReadingIterator;
+import io.crate.execution.support.ThreadPools;
 import io.crate.expression.InputFactory;
 import io.crate.expression.reference.file.FileLineReferenceResolver;
 import io.crate.expression.symbol.Symbol;
@@ -40,12 +42,21 @@ import io.crate.types.DataTypes;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.threadpool.ThreadPool;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.IntSupplier;
+
+import static io.crate.execution.support.ThreadPools.numIdleThreads;
 
 @Singleton
 public class FileCollectSource implements CollectSource {
@@ -53,23 +64,50 @@ public class FileCollectSource implements CollectSource {
     private final ClusterService clusterService;
     private final Map<String, FileInputFactory> fileInputFactoryMap;
     private final InputFactory inputFactory;
+    private final Executor executor;
+    private final IntSupplier availableThreads;
 
     @Inject
-    public FileCollectSource(Functions functions, ClusterService clusterService, Map<String, FileInputFactory> fileInputFactoryMap) {
+    public FileCollectSource(Settings settings,
+                             Functions functions,
+                             ClusterService clusterService,
+                             Map<String, FileInputFactory> fileInputFactoryMap,
+                             ThreadPool threadPool) {
         this.fileInputFactoryMap = fileInputFactoryMap;
         inputFactory = new InputFactory(functions);
         this.clusterService = clusterService;
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) threadPool.executor(ThreadPool.Names.SEARCH);
+        this.availableThreads = numIdleThreads(executor, EsExecutors.numberOfProcessors(settings));
+        this.executor = ThreadPools.fallbackOnRejection(executor);
     }
 
     @Override
     public BatchIterator<Row> getIterator(CollectPhase collectPhase, CollectTask collectTask, boolean supportMoveToStart) {
         FileUriCollectPhase fileUriCollectPhase = (FileUriCollectPhase) collectPhase;
+        List<String> fileUris = targetUriToStringList(fileUriCollectPhase.targetUri());
+        int readerNumber = getReaderNumber(fileUriCollectPhase.nodeIds(), clusterService.state().nodes().getLocalNodeId());
+
+        // reading and parsing is distributed across multiple iterators which are consumed concurrently
+        int numLocalReaders = supportMoveToStart ? 1 : availableThreads.getAsInt();
+        if (numLocalReaders == 1) {
+            return createIterator(fileUriCollectPhase, fileUris, readerNumber, 1, 0);
+        }
+        List<BatchIterator<Row>> iterators = new ArrayList<>(numLocalReaders);
+        for (int i = 0; i < numLocalReaders; i++) {
+            iterators.add(createIterator(fileUriCollectPhase, fileUris, readerNumber, numLocalReaders, i));
+        }
+        return new ParallelFileReadingIterator(iterators, executor);
+    }
+
+    private BatchIterator<Row> createIterator(FileUriCollectPhase fileUriCollectPhase,
+                                              List<String> fileUris,
+                                              int readerNumber,
+                                              int numLocalReaders,
+                                              int localReaderNumber) {
         InputFactory.Context<LineCollectorExpression<?>> ctx =
             inputFactory.ctxForRefs(FileLineReferenceResolver::getImplementation);
-        ctx.add(collectPhase.toCollect());
+        ctx.add(fileUriCollectPhase.toCollect());
 
-        List<String> fileUris;
-        fileUris = targetUriToStringList(fileUriCollectPhase.targetUri());
         return FileReadingIterator.newInstance(
             fileUris,
             ctx.topLevelInputs(),
@@ -78,7 +116,9 @@ public class FileCollectSource implements CollectSource {
             fileInputFactoryMap,
             fileUriCollectPhase.sharedStorage(),
             fileUriCollectPhase.nodeIds().size(),
-            getReaderNumber(fileUriCollectPhase.nodeIds(), clusterService.state().nodes().getLocalNodeId()),
+            readerNumber,
+            numLocalReaders,
+            localReaderNumber,
             fileUriCollectPhase.inputFormat()
         );
     }
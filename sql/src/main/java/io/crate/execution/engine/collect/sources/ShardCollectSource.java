@@ -37,6 +37,7 @@ import io.crate.data.Row;
 import io.crate.data.SentinelRow;
 import io.crate.exceptions.UnhandledServerException;
 import io.crate.execution.TransportActionProvider;
+import io.crate.execution.dml.TranslogGroupCommitService;
 import io.crate.execution.dsl.phases.CollectPhase;
 import io.crate.execution.dsl.phases.RoutedCollectPhase;
 import io.crate.execution.dsl.projection.Projections;
@@ -165,7 +166,8 @@ public class ShardCollectSource extends AbstractComponent implements CollectSour
                               SystemCollectSource systemCollectSource,
                               IndexEventListenerProxy indexEventListenerProxy,
                               BlobIndicesService blobIndicesService,
-                              BigArrays bigArrays) {
+                              BigArrays bigArrays,
+                              TranslogGroupCommitService translogGroupCommit) {
         super(settings);
         this.unassignedShardReferenceResolver = new StaticTableReferenceResolver<>(
             SysShardsTableInfo.unassignedShardsExpressions());
@@ -186,7 +188,8 @@ public class ShardCollectSource extends AbstractComponent implements CollectSour
             functions,
             luceneQueryBuilder,
             nodeJobsCounter,
-            bigArrays);
+            bigArrays,
+            translogGroupCommit);
         nodeNormalizer = new EvaluatingNormalizer(
             functions,
             RowGranularity.DOC,
@@ -200,7 +203,7 @@ public class ShardCollectSource extends AbstractComponent implements CollectSour
             threadPool,
             settings,
             transportActionProvider,
-            new InputFactory(functions),
+            new InputFactory(functions, InputFactory.COMPILED_EXPRESSIONS_ENABLED_SETTING.get(settings)),
             nodeNormalizer,
             systemCollectSource::getRowUpdater,
             systemCollectSource::tableDefinition,
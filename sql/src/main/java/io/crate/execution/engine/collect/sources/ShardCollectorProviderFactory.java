@@ -25,6 +25,7 @@ package io.crate.execution.engine.collect.sources;
 import io.crate.blob.v2.BlobIndicesService;
 import io.crate.blob.v2.BlobShard;
 import io.crate.execution.TransportActionProvider;
+import io.crate.execution.dml.TranslogGroupCommitService;
 import io.crate.execution.engine.collect.BlobShardCollectorProvider;
 import io.crate.execution.engine.collect.LuceneShardCollectorProvider;
 import io.crate.execution.engine.collect.ShardCollectorProvider;
@@ -53,6 +54,7 @@ public class ShardCollectorProviderFactory {
     private final NodeJobsCounter nodeJobsCounter;
     private final BigArrays bigArrays;
     private final Settings settings;
+    private final TranslogGroupCommitService translogGroupCommit;
 
     ShardCollectorProviderFactory(ClusterService clusterService,
                                   Settings settings,
@@ -63,7 +65,8 @@ public class ShardCollectorProviderFactory {
                                   Functions functions,
                                   LuceneQueryBuilder luceneQueryBuilder,
                                   NodeJobsCounter nodeJobsCounter,
-                                  BigArrays bigArrays) {
+                                  BigArrays bigArrays,
+                                  TranslogGroupCommitService translogGroupCommit) {
         this.settings = settings;
         this.schemas = schemas;
         this.clusterService = clusterService;
@@ -74,6 +77,7 @@ public class ShardCollectorProviderFactory {
         this.luceneQueryBuilder = luceneQueryBuilder;
         this.nodeJobsCounter = nodeJobsCounter;
         this.bigArrays = bigArrays;
+        this.translogGroupCommit = translogGroupCommit;
     }
 
     public ShardCollectorProvider create(IndexShard indexShard) {
@@ -99,7 +103,8 @@ public class ShardCollectorProviderFactory {
                 settings,
                 transportActionProvider,
                 indexShard,
-                bigArrays);
+                bigArrays,
+                translogGroupCommit);
         }
     }
 }
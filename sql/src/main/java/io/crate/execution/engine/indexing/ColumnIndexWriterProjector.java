@@ -117,7 +117,7 @@ public class ColumnIndexWriterProjector implements Projector {
             indexNameResolver,
             autoCreateIndices,
             transportActionProvider.transportShardUpsertAction()::execute,
-            transportActionProvider.transportBulkCreateIndicesAction(),
+            transportActionProvider.transportBulkCreateIndicesAction()::execute,
             tableSettings,
             UpsertResultContext.forRowCount()
         );
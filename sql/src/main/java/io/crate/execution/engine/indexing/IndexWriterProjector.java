@@ -126,7 +126,7 @@ public class IndexWriterProjector implements Projector {
             indexNameResolver,
             autoCreateIndices,
             shardUpsertAction,
-            transportCreatePartitionsAction,
+            transportCreatePartitionsAction::execute,
             tableSettings,
             upsertResultContext
         );
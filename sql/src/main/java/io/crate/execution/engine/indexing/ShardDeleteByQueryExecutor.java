@@ -0,0 +1,98 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.indexing;
+
+import io.crate.action.LimitedExponentialBackoff;
+import io.crate.data.Row;
+import io.crate.data.Row1;
+import io.crate.execution.dml.ShardResponse;
+import io.crate.execution.dml.delete.ShardDeleteRequest;
+import io.crate.execution.support.RetryListener;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.bulk.BackoffPolicy;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Deletes the documents of a shard matching a query without collecting their ids.
+ * <p>
+ * The query is sent within a single {@link ShardDeleteRequest} and executed on the primary shard, which deletes
+ * all documents matching the query in one searcher snapshot and replicates the deletes of the resolved ids.
+ * The result is a single row containing the number of deleted documents.
+ */
+public class ShardDeleteByQueryExecutor {
+
+    private static final BackoffPolicy BACKOFF_POLICY = LimitedExponentialBackoff.limitedExponential(1000);
+
+    private final ScheduledExecutorService scheduler;
+    private final Supplier<ShardDeleteRequest> requestFactory;
+    private final BiConsumer<ShardDeleteRequest, ActionListener<ShardResponse>> operation;
+
+    private volatile Throwable killed;
+
+    public ShardDeleteByQueryExecutor(ScheduledExecutorService scheduler,
+                                      Supplier<ShardDeleteRequest> requestFactory,
+                                      BiConsumer<ShardDeleteRequest, ActionListener<ShardResponse>> transportAction) {
+        this.scheduler = scheduler;
+        this.requestFactory = requestFactory;
+        this.operation = transportAction;
+    }
+
+    public CompletableFuture<Iterable<Row>> execute() {
+        CompletableFuture<Iterable<Row>> result = new CompletableFuture<>();
+        if (killed != null) {
+            result.completeExceptionally(killed);
+            return result;
+        }
+        ActionListener<ShardResponse> listener = ActionListener.wrap(
+            response -> onResponse(response, result),
+            result::completeExceptionally
+        );
+        // a retried request must execute the query again, the primary replaces the query by the matching items
+        operation.accept(
+            requestFactory.get(),
+            new RetryListener<>(scheduler, l -> operation.accept(requestFactory.get(), l), listener, BACKOFF_POLICY)
+        );
+        return result;
+    }
+
+    public void kill(@Nonnull Throwable throwable) {
+        killed = throwable;
+    }
+
+    private void onResponse(ShardResponse response, CompletableFuture<Iterable<Row>> result) {
+        Exception failure = response.failure();
+        if (failure != null) {
+            result.completeExceptionally(failure);
+        } else if (killed != null) {
+            result.completeExceptionally(killed);
+        } else {
+            result.complete(Collections.singletonList(new Row1((long) response.successRowCount())));
+        }
+    }
+}
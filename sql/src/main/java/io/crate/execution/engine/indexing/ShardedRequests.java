@@ -43,6 +43,7 @@ public final class ShardedRequests<TReq extends ShardRequest<TReq, TItem>, TItem
     private final Function<ShardId, TReq> requestFactory;
 
     private int location = -1;
+    private long approximateBytesUsed = 0L;
 
     /**
      * @param requestFactory function to create a request
@@ -67,6 +68,28 @@ public final class ShardedRequests<TReq extends ShardRequest<TReq, TItem>, TItem
         rowSourceInfos.add(rowSourceInfo);
     }
 
+    /**
+     * Moves the items of the missing indices into new requests. This allows to execute the items of the existing
+     * shards right away and the other items once the indices are created.
+     */
+    ShardedRequests<TReq, TItem> takeItemsByMissingIndex() {
+        ShardedRequests<TReq, TItem> requests = new ShardedRequests<>(requestFactory);
+        requests.itemsByMissingIndex.putAll(itemsByMissingIndex);
+        itemsByMissingIndex.clear();
+        return requests;
+    }
+
+    void addBytesUsed(long bytes) {
+        approximateBytesUsed += bytes;
+    }
+
+    /**
+     * Returns the approximate size of the rows added to the requests.
+     */
+    long approximateBytesUsed() {
+        return approximateBytesUsed;
+    }
+
     void addFailedItem(BytesRef sourceUri, String readFailure, Long lineNumber) {
         List<ReadFailureAndLineNumber> itemsWithFailure = itemsWithFailureBySourceUri.computeIfAbsent(
             sourceUri, k -> new ArrayList<>());
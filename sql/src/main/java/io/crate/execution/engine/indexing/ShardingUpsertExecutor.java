@@ -22,16 +22,19 @@
 
 package io.crate.execution.engine.indexing;
 
+import com.google.common.annotations.VisibleForTesting;
 import io.crate.action.FutureActionListener;
 import io.crate.action.LimitedExponentialBackoff;
 import io.crate.data.BatchIterator;
 import io.crate.data.BatchIterators;
 import io.crate.data.Row;
+import io.crate.exceptions.SQLExceptions;
 import io.crate.execution.dml.ShardResponse;
 import io.crate.execution.dml.upsert.ShardUpsertRequest;
 import io.crate.execution.engine.collect.CollectExpression;
 import io.crate.execution.engine.collect.RowShardResolver;
 import io.crate.execution.jobs.NodeJobsCounter;
+import io.crate.execution.support.AIMDLimit;
 import io.crate.execution.support.RetryListener;
 import io.crate.settings.CrateSetting;
 import io.crate.types.DataTypes;
@@ -40,31 +43,36 @@ import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.admin.indices.create.CreatePartitionsRequest;
 import org.elasticsearch.action.admin.indices.create.CreatePartitionsResponse;
-import org.elasticsearch.action.admin.indices.create.TransportCreatePartitionsAction;
 import org.elasticsearch.action.bulk.BackoffPolicy;
 import org.elasticsearch.action.bulk.BulkRequestExecutor;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.index.shard.ShardId;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
-import static io.crate.execution.jobs.NodeJobsCounter.MAX_NODE_CONCURRENT_OPERATIONS;
 
 public class ShardingUpsertExecutor
     implements Function<BatchIterator<Row>, CompletableFuture<? extends Iterable<? extends Row>>> {
@@ -76,6 +84,21 @@ public class ShardingUpsertExecutor
     private static final BackoffPolicy BACKOFF_POLICY = LimitedExponentialBackoff.limitedExponential(1000);
     private static final Logger LOGGER = Loggers.getLogger(ShardingUpsertExecutor.class);
 
+    /**
+     * Bounds of the adaptive size of a bulk in bytes. Bulks are also limited by the number of rows ({@link #bulkSize}).
+     */
+    static final long INITIAL_BULK_SIZE_IN_BYTES = ByteSizeUnit.MB.toBytes(8);
+    static final long MIN_BULK_SIZE_IN_BYTES = ByteSizeUnit.KB.toBytes(512);
+    static final long MAX_BULK_SIZE_IN_BYTES = ByteSizeUnit.MB.toBytes(32);
+    private static final long BULK_SIZE_INCREMENT_IN_BYTES = ByteSizeUnit.MB.toBytes(1);
+    private static final long TARGET_BULK_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * Maximum number of bulks whose rows for missing partitions are held back until the partitions are created.
+     * Ingestion is paused once reached.
+     */
+    static final int MAX_BULKS_WAITING_FOR_PARTITIONS = 2;
+
     private final GroupRowsByShard<ShardUpsertRequest, ShardUpsertRequest.Item> grouper;
     private final NodeJobsCounter nodeJobsCounter;
     private final ScheduledExecutorService scheduler;
@@ -84,10 +107,27 @@ public class ShardingUpsertExecutor
     private final UUID jobId;
     private final Function<ShardId, ShardUpsertRequest> requestFactory;
     private final BulkRequestExecutor<ShardUpsertRequest> requestExecutor;
-    private final TransportCreatePartitionsAction createPartitionsAction;
+    private final BiConsumer<CreatePartitionsRequest, ActionListener<CreatePartitionsResponse>> createPartitionsAction;
     private final BulkShardCreationLimiter<ShardUpsertRequest, ShardUpsertRequest.Item> bulkShardCreationLimiter;
     private final UpsertResultCollector resultCollector;
-    private volatile boolean createPartitionsRequestOngoing = false;
+    private final AIMDLimit bulkSizeInBytes = new AIMDLimit(
+        INITIAL_BULK_SIZE_IN_BYTES,
+        MIN_BULK_SIZE_IN_BYTES,
+        MAX_BULK_SIZE_IN_BYTES,
+        size -> size + BULK_SIZE_INCREMENT_IN_BYTES,
+        TARGET_BULK_LATENCY_NANOS);
+    /**
+     * Partitions which are being created by index name. Rows of later bulks for these partitions wait for the same
+     * creation instead of issuing another request.
+     */
+    private final Map<String, CompletableFuture<?>> pendingPartitions = new ConcurrentHashMap<>();
+    private final AtomicInteger numBulksWaitingForPartitions = new AtomicInteger(0);
+
+    /**
+     * Partition creations are executed one after another to not exceed the number of new shards allowed by
+     * {@link BulkShardCreationLimiter} at once.
+     */
+    private CompletableFuture<?> lastPartitionCreation = CompletableFuture.completedFuture(null);
 
     ShardingUpsertExecutor(ClusterService clusterService,
                            NodeJobsCounter nodeJobsCounter,
@@ -102,7 +142,7 @@ public class ShardingUpsertExecutor
                            Supplier<String> indexNameResolver,
                            boolean autoCreateIndices,
                            BulkRequestExecutor<ShardUpsertRequest> requestExecutor,
-                           TransportCreatePartitionsAction createPartitionsAction,
+                           BiConsumer<CreatePartitionsRequest, ActionListener<CreatePartitionsResponse>> createPartitionsAction,
                            Settings tableSettings,
                            UpsertResultContext upsertResultContext) {
         this.nodeJobsCounter = nodeJobsCounter;
@@ -137,15 +177,32 @@ public class ShardingUpsertExecutor
         collectFailingItems(requests, upsertResults);
 
         if (requests.itemsByMissingIndex.isEmpty()) {
-            return execRequests(requests.itemsByShard, requests.rowSourceInfos, upsertResults);
+            return execBulk(requests, upsertResults);
         }
-        createPartitionsRequestOngoing = true;
-        return createPartitions(requests.itemsByMissingIndex)
-            .thenCompose(resp -> {
-                grouper.reResolveShardLocations(requests);
-                createPartitionsRequestOngoing = false;
-                return execRequests(requests.itemsByShard, requests.rowSourceInfos, upsertResults);
-            });
+        // rows for existing partitions don't need to wait until the missing partitions are created
+        ShardedRequests<ShardUpsertRequest, ShardUpsertRequest.Item> requestsForMissingIndices =
+            requests.takeItemsByMissingIndex();
+        CompletableFuture<UpsertResults> existingIndicesResult = requests.itemsByShard.isEmpty()
+            ? CompletableFuture.completedFuture(upsertResults)
+            : execBulk(requests, upsertResults);
+
+        numBulksWaitingForPartitions.incrementAndGet();
+        CompletableFuture<UpsertResults> missingIndicesResult =
+            createPartitions(requestsForMissingIndices.itemsByMissingIndex.keySet())
+                .whenComplete((r, t) -> numBulksWaitingForPartitions.decrementAndGet())
+                .thenCompose(resp -> {
+                    grouper.reResolveShardLocations(requestsForMissingIndices);
+                    return execBulk(requestsForMissingIndices, upsertResults);
+                });
+        return existingIndicesResult.thenCombine(missingIndicesResult, (r1, r2) -> upsertResults);
+    }
+
+    private CompletableFuture<UpsertResults> execBulk(ShardedRequests<ShardUpsertRequest, ShardUpsertRequest.Item> requests,
+                                                      UpsertResults upsertResults) {
+        long startNanos = System.nanoTime();
+        AtomicBoolean rejected = new AtomicBoolean(false);
+        return execRequests(requests.itemsByShard, requests.rowSourceInfos, upsertResults, rejected)
+            .whenComplete((r, f) -> bulkSizeInBytes.onCompleted(startNanos, System.nanoTime(), rejected.get()));
     }
 
     private static void collectFailingSourceUris(ShardedRequests<ShardUpsertRequest, ShardUpsertRequest.Item> requests,
@@ -167,7 +224,8 @@ public class ShardingUpsertExecutor
 
     private CompletableFuture<UpsertResults> execRequests(Map<ShardLocation, ShardUpsertRequest> itemsByShard,
                                                           List<RowSourceInfo> rowSourceInfos,
-                                                          final UpsertResults upsertResults) {
+                                                          final UpsertResults upsertResults,
+                                                          AtomicBoolean rejected) {
         if (itemsByShard.isEmpty()) {
             // could be that processing the source uri only results in errors, so no items per shard exists
             return CompletableFuture.completedFuture(upsertResults);
@@ -197,34 +255,93 @@ public class ShardingUpsertExecutor
                 scheduler,
                 l -> {
                     LOGGER.debug("Executing retry Listener for nodeId: {} request: {}", nodeId, request);
-                    requestExecutor.execute(request, l);
+                    execRequest(nodeId, request, l, rejected);
                 },
                 listener,
                 BACKOFF_POLICY
             );
-            requestExecutor.execute(request, listener);
+            execRequest(nodeId, request, listener, rejected);
         }
         return resultFuture;
     }
 
+    /**
+     * Executes the request and reports its latency and whether it got rejected, to adapt the number of
+     * concurrent requests towards the node and the bulk size.
+     */
+    private void execRequest(String nodeId,
+                             ShardUpsertRequest request,
+                             ActionListener<ShardResponse> listener,
+                             AtomicBoolean rejected) {
+        long startNanos = System.nanoTime();
+        requestExecutor.execute(request, ActionListener.wrap(
+            response -> {
+                nodeJobsCounter.onOperationCompleted(nodeId, startNanos, System.nanoTime(), false);
+                listener.onResponse(response);
+            },
+            e -> {
+                boolean isRejection = SQLExceptions.unwrap(e) instanceof EsRejectedExecutionException;
+                if (isRejection) {
+                    rejected.set(true);
+                }
+                nodeJobsCounter.onOperationCompleted(nodeId, startNanos, System.nanoTime(), isRejection);
+                listener.onFailure(e);
+            }
+        ));
+    }
+
 
-    private CompletableFuture<CreatePartitionsResponse> createPartitions(
-        Map<String, List<ShardedRequests.ItemAndRoutingAndSourceInfo<ShardUpsertRequest.Item>>> itemsByMissingIndex) {
-        FutureActionListener<CreatePartitionsResponse, CreatePartitionsResponse> listener = FutureActionListener.newInstance();
-        createPartitionsAction.execute(
-            new CreatePartitionsRequest(itemsByMissingIndex.keySet(), jobId), listener);
-        return listener;
+    /**
+     * Creates the missing partitions, joining the pending creation of partitions requested by previous bulks.
+     */
+    private CompletableFuture<?> createPartitions(Collection<String> indices) {
+        List<CompletableFuture<?>> creations = new ArrayList<>();
+        List<String> newIndices = new ArrayList<>();
+        CompletableFuture<CreatePartitionsResponse> creation = new CompletableFuture<>();
+        for (String index : indices) {
+            CompletableFuture<?> pendingCreation = pendingPartitions.putIfAbsent(index, creation);
+            if (pendingCreation == null) {
+                newIndices.add(index);
+            } else {
+                creations.add(pendingCreation);
+            }
+        }
+        if (newIndices.isEmpty() == false) {
+            creations.add(creation);
+            synchronized (this) {
+                lastPartitionCreation = lastPartitionCreation
+                    .handle((r, t) -> null) // a failed creation fails only the bulks waiting for it
+                    .thenCompose(ignored -> {
+                        FutureActionListener<CreatePartitionsResponse, CreatePartitionsResponse> listener =
+                            FutureActionListener.newInstance();
+                        createPartitionsAction.accept(new CreatePartitionsRequest(newIndices, jobId), listener);
+                        return listener;
+                    })
+                    .whenComplete((r, t) -> {
+                        for (String index : newIndices) {
+                            pendingPartitions.remove(index);
+                        }
+                        if (t == null) {
+                            creation.complete(r);
+                        } else {
+                            creation.completeExceptionally(t);
+                        }
+                    });
+            }
+        }
+        return CompletableFuture.allOf(creations.toArray(new CompletableFuture[0]));
     }
 
-    private boolean shouldPause(ShardedRequests<ShardUpsertRequest, ShardUpsertRequest.Item> requests) {
-        if (createPartitionsRequestOngoing) {
-            LOGGER.debug("partition creation in progress, will pause");
+    @VisibleForTesting
+    boolean shouldPause(ShardedRequests<ShardUpsertRequest, ShardUpsertRequest.Item> requests) {
+        if (numBulksWaitingForPartitions.get() >= MAX_BULKS_WAITING_FOR_PARTITIONS) {
+            LOGGER.debug("too many rows waiting for the creation of partitions, will pause");
             return true;
         }
 
         for (ShardLocation shardLocation : requests.itemsByShard.keySet()) {
             String requestNodeId = shardLocation.nodeId;
-            if (nodeJobsCounter.getInProgressJobsForNode(requestNodeId) >= MAX_NODE_CONCURRENT_OPERATIONS) {
+            if (nodeJobsCounter.getInProgressJobsForNode(requestNodeId) >= nodeJobsCounter.maxConcurrentOperations(requestNodeId)) {
                 LOGGER.debug("reached maximum concurrent operations for node {}", requestNodeId);
                 return true;
             }
@@ -235,8 +352,13 @@ public class ShardingUpsertExecutor
     @Override
     public CompletableFuture<? extends Iterable<Row>> apply(BatchIterator<Row> batchIterator) {
         BatchIterator<ShardedRequests<ShardUpsertRequest, ShardUpsertRequest.Item>> reqBatchIterator =
-            BatchIterators.partition(batchIterator, bulkSize, () -> new ShardedRequests<>(requestFactory), grouper,
-                bulkShardCreationLimiter);
+            BatchIterators.partition(
+                batchIterator,
+                bulkSize,
+                () -> new ShardedRequests<>(requestFactory),
+                this::addRow,
+                requests -> bulkShardCreationLimiter.test(requests)
+                            || requests.approximateBytesUsed() >= bulkSizeInBytes.get());
 
         BatchIteratorBackpressureExecutor<ShardedRequests<ShardUpsertRequest, ShardUpsertRequest.Item>, UpsertResults> executor =
             new BatchIteratorBackpressureExecutor<>(
@@ -253,6 +375,49 @@ public class ShardingUpsertExecutor
             .thenApply(upsertResults -> resultCollector.finisher().apply(upsertResults));
     }
 
+    private void addRow(ShardedRequests<ShardUpsertRequest, ShardUpsertRequest.Item> requests, Row row) {
+        grouper.accept(requests, row);
+        long bytes = 0L;
+        for (int i = 0; i < row.numColumns(); i++) {
+            bytes += estimateSize(row.get(i));
+        }
+        requests.addBytesUsed(bytes);
+    }
+
+    /**
+     * Cheap approximation of the size of a value once it is serialized as part of a request.
+     */
+    static long estimateSize(@Nullable Object value) {
+        if (value instanceof BytesRef) {
+            return ((BytesRef) value).length;
+        }
+        if (value instanceof String) {
+            return ((String) value).length();
+        }
+        if (value instanceof Map) {
+            long size = 0L;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection) {
+            long size = 0L;
+            for (Object item : (Collection<?>) value) {
+                size += estimateSize(item);
+            }
+            return size;
+        }
+        if (value instanceof Object[]) {
+            long size = 0L;
+            for (Object item : (Object[]) value) {
+                size += estimateSize(item);
+            }
+            return size;
+        }
+        return 8L;
+    }
+
     private class ShardResponseActionListener implements ActionListener<ShardResponse> {
         private final String operationNodeId;
         private final UpsertResultCollector.Accumulator resultAccumulator;
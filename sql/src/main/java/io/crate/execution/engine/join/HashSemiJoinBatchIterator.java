@@ -0,0 +1,272 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.join;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.cursors.IntCursor;
+import io.crate.data.BatchIterator;
+import io.crate.data.Row;
+import io.crate.data.UnsafeArrayRow;
+import io.crate.data.join.ElementCombiner;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+
+/**
+ * <pre>
+ *     Build Phase:
+ *     for (leftRow in left) {
+ *         calculate hash and put in Buffer (HashMap) until the blockSize is reached
+ *     }
+ *
+ *     Probe Phase:
+ *     for (rightRow in right) {
+ *         if (hash(rightRow) found in Buffer {
+ *             for (row in matchedInBuffer) {
+ *                 if (joinCondition matches) {
+ *                     mark row as matched
+ *                 }
+ *             }
+ *         }
+ *     }
+ *
+ *     Emit Phase:
+ *     for (row in Buffer) {
+ *         SEMI: emit(row) if row is marked as matched
+ *         ANTI: emit(row) if row is not marked as matched
+ *     }
+ * </pre>
+ * <p>
+ * Once all rows of a block are emitted, the right iterator is moved to start, the buffer is cleared and the next block
+ * is built from the next items of the left side. Repeat until the left side is all loaded and processed.
+ * <p>
+ * Each left row is emitted at most once and only the left row is emitted, the right side is only used to look up
+ * whether there is a matching row. In case of a SEMI join the probe phase is stopped as soon as all rows of the
+ * block have a match and the right side is fully loaded. If it isn't fully loaded yet, the remaining right rows are
+ * consumed without probing them.
+ */
+public class HashSemiJoinBatchIterator<R extends Row, C> implements BatchIterator<Row> {
+
+    private final RamAccountingBatchIterator<Row> left;
+    private final BatchIterator<R> right;
+    private final ElementCombiner<Row, R, C> combiner;
+    private final Predicate<C> joinCondition;
+    private final Function<Row, Integer> hashBuilderForLeft;
+    private final Function<R, Integer> hashBuilderForRight;
+    private final IntSupplier blockSizeSupplier;
+    private final boolean emitUnmatched;
+
+    private final IntObjectHashMap<IntArrayList> rowIdxByHash = new IntObjectHashMap<>();
+    private final List<Object[]> blockRows = new ArrayList<>();
+    private final BitSet matchedRows = new BitSet();
+    private final UnsafeArrayRow leftRow = new UnsafeArrayRow();
+
+    private BatchIterator<?> activeIt;
+    private int blockSize;
+    private int numMatchedRows = 0;
+    private boolean leftExhausted = false;
+    private boolean probing = false;
+
+    /**
+     * Position of the next buffered row to emit; -1 if the block isn't processed yet
+     */
+    private int emitPos = -1;
+
+    public HashSemiJoinBatchIterator(RamAccountingBatchIterator<Row> left,
+                                     BatchIterator<R> right,
+                                     ElementCombiner<Row, R, C> combiner,
+                                     Predicate<C> joinCondition,
+                                     Function<Row, Integer> hashBuilderForLeft,
+                                     Function<R, Integer> hashBuilderForRight,
+                                     IntSupplier blockSizeSupplier,
+                                     boolean emitUnmatched) {
+        this.left = left;
+        this.right = right;
+        this.combiner = combiner;
+        this.joinCondition = joinCondition;
+        this.hashBuilderForLeft = hashBuilderForLeft;
+        this.hashBuilderForRight = hashBuilderForRight;
+        this.blockSizeSupplier = blockSizeSupplier;
+        this.emitUnmatched = emitUnmatched;
+        this.activeIt = left;
+        recreateBuffer();
+    }
+
+    @Override
+    public Row currentElement() {
+        return leftRow;
+    }
+
+    @Override
+    public void moveToStart() {
+        left.moveToStart();
+        right.moveToStart();
+        activeIt = left;
+        leftExhausted = false;
+        recreateBuffer();
+        left.releaseAccountedRows();
+    }
+
+    @Override
+    public boolean moveNext() {
+        while (true) {
+            if (emitPos >= 0) {
+                if (emitNext()) {
+                    return true;
+                }
+                if (leftExhausted) {
+                    activeIt = left;
+                    return false;
+                }
+                right.moveToStart();
+                recreateBuffer();
+                left.releaseAccountedRows();
+            }
+            if (probing == false) {
+                if (buildBuffer() == false) {
+                    activeIt = left;
+                    return false;
+                }
+                probing = true;
+                activeIt = right;
+            }
+            if (probe() == false) {
+                return false;
+            }
+            probing = false;
+            emitPos = 0;
+        }
+    }
+
+    /**
+     * @return true if the buffer contains the rows of the next block,
+     *         false if the left side must be loaded or is fully processed.
+     */
+    private boolean buildBuffer() {
+        while (blockRows.size() < blockSize) {
+            if (left.moveNext() == false) {
+                if (left.allLoaded() == false) {
+                    return false;
+                }
+                leftExhausted = true;
+                break;
+            }
+            Row row = left.currentElement();
+            int hash = hashBuilderForLeft.apply(row);
+            IntArrayList rowIdxs = rowIdxByHash.get(hash);
+            if (rowIdxs == null) {
+                rowIdxs = new IntArrayList(1);
+                rowIdxByHash.put(hash, rowIdxs);
+            }
+            rowIdxs.add(blockRows.size());
+            blockRows.add(row.materialize());
+        }
+        return blockRows.isEmpty() == false;
+    }
+
+    /**
+     * @return true if all rows of the block have been probed, false if the right side needs to load the next batch.
+     */
+    private boolean probe() {
+        while (right.moveNext()) {
+            if (emitUnmatched == false && numMatchedRows == blockRows.size()) {
+                // the remaining right rows cannot change the result, they're only consumed to load the right side
+                continue;
+            }
+            IntArrayList rowIdxs = rowIdxByHash.get(hashBuilderForRight.apply(right.currentElement()));
+            if (rowIdxs == null) {
+                continue;
+            }
+            combiner.setRight(right.currentElement());
+            for (IntCursor rowIdx : rowIdxs) {
+                if (matchedRows.get(rowIdx.value)) {
+                    continue;
+                }
+                leftRow.cells(blockRows.get(rowIdx.value));
+                combiner.setLeft(leftRow);
+                if (joinCondition.test(combiner.currentElement())) {
+                    matchedRows.set(rowIdx.value);
+                    numMatchedRows++;
+                }
+            }
+            if (emitUnmatched == false && numMatchedRows == blockRows.size() && right.allLoaded()) {
+                // Every row of the block has a match, the remaining right rows cannot change the result.
+                // The right side must be loaded completely before it is moved to start, otherwise it would only repeat
+                // the rows loaded so far (e.g. a BatchPagingIterator) and the next blocks would miss the other rows.
+                return true;
+            }
+        }
+        return right.allLoaded();
+    }
+
+    private boolean emitNext() {
+        while (emitPos < blockRows.size()) {
+            int rowIdx = emitPos;
+            emitPos++;
+            if (matchedRows.get(rowIdx) != emitUnmatched) {
+                leftRow.cells(blockRows.get(rowIdx));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recreateBuffer() {
+        blockSize = Math.max(1, blockSizeSupplier.getAsInt());
+        rowIdxByHash.clear();
+        blockRows.clear();
+        matchedRows.clear();
+        numMatchedRows = 0;
+        probing = false;
+        emitPos = -1;
+    }
+
+    @Override
+    public void close() {
+        left.close();
+        right.close();
+    }
+
+    @Override
+    public CompletionStage<?> loadNextBatch() {
+        return activeIt.loadNextBatch();
+    }
+
+    @Override
+    public boolean allLoaded() {
+        return activeIt.allLoaded();
+    }
+
+    @Override
+    public void kill(@Nonnull Throwable throwable) {
+        left.kill(throwable);
+        right.kill(throwable);
+    }
+}
@@ -25,6 +25,7 @@ package io.crate.execution.engine.pipeline;
 import com.google.common.collect.Iterables;
 import io.crate.action.sql.SessionContext;
 import io.crate.breaker.RamAccountingContext;
+import io.crate.collections.Lists2;
 import io.crate.data.Input;
 import io.crate.data.Projector;
 import io.crate.data.Row;
@@ -198,8 +199,7 @@ public class ProjectionToProjectorVisitor
          * orderByIndices: [1]
          */
         InputFactory.Context<CollectExpression<Row, ?>> ctx = inputFactory.ctxForInputColumns();
-        ctx.add(projection.outputs());
-        ctx.add(projection.orderBy());
+        ctx.add(Lists2.concat(projection.outputs(), projection.orderBy()));
 
         int numOutputs = projection.outputs().size();
         List<Input<?>> inputs = ctx.topLevelInputs();
@@ -235,7 +235,7 @@ public class ProjectionToProjectorVisitor
 
     @Override
     public Projector visitEvalProjection(EvalProjection projection, Context context) {
-        InputFactory.Context<CollectExpression<Row, ?>> ctx = inputFactory.ctxForInputColumns(projection.outputs());
+        InputFactory.Context<CollectExpression<Row, ?>> ctx = inputFactory.ctxForCompiledInputColumns(projection.outputs());
         return new InputRowProjector(ctx.topLevelInputs(), ctx.expressions());
     }
 
@@ -150,7 +150,7 @@ public class JobSetup extends AbstractComponent {
         this.circuitBreakerService = circuitBreakerService;
         this.distributingConsumerFactory = distributingConsumerFactory;
         innerPreparer = new InnerPreparer();
-        inputFactory = new InputFactory(functions);
+        inputFactory = new InputFactory(functions, InputFactory.COMPILED_EXPRESSIONS_ENABLED_SETTING.get(settings));
         searchTp = threadPool.executor(ThreadPool.Names.SEARCH);
         EvaluatingNormalizer normalizer = EvaluatingNormalizer.functionOnlyNormalizer(functions);
         this.projectorFactory = new ProjectionToProjectorVisitor(
@@ -767,7 +767,8 @@ public class JobSetup extends AbstractComponent {
                 inputFactory,
                 breaker(),
                 phase.estimatedRowSizeForLeft(),
-                phase.numberOfRowsForLeft());
+                phase.numberOfRowsForLeft(),
+                phase.joinType());
             DistResultRXTask left = pageDownstreamContextForNestedLoop(
                 phase.phaseId(),
                 context,
@@ -22,17 +22,21 @@
 
 package io.crate.execution.jobs;
 
+import io.crate.execution.support.AIMDLimit;
 import org.elasticsearch.common.inject.Singleton;
 
 import javax.annotation.Nullable;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 
 /**
  * Counts how many operations issued from the current node are in progress across the cluster.
  * If the destination node cannot be determined, it counts the in progress operations towards the unknown node.
  * Note: one job can span multiple nodes.
+ *
+ * It also keeps an adaptive limit of concurrent operations per node, see {@link #maxConcurrentOperations(String)}.
  */
 @Singleton
 public class NodeJobsCounter {
@@ -42,6 +46,18 @@ public class NodeJobsCounter {
      */
     public static final long MAX_NODE_CONCURRENT_OPERATIONS = 5;
 
+    /**
+     * Upper bound of the adaptive limit of concurrent operations towards a node.
+     */
+    static final long MAX_NODE_CONCURRENT_OPERATIONS_LIMIT = 50;
+
+    /**
+     * Operations taking longer than this are considered a sign of an overloaded node.
+     */
+    static final long TARGET_OPERATION_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final Map<String, AIMDLimit> concurrencyLimitPerNode = new ConcurrentHashMap<>();
+
     private long unknownNodeCount = 0L;
     // Using single element long[] to avoid autoboxing
     private final Map<String, long[]> operationsCountPerNode = new ConcurrentHashMap<>();
@@ -83,6 +99,38 @@ public class NodeJobsCounter {
         }
     }
 
+    /**
+     * Returns the maximum number of concurrent operations which should be issued towards the given node.
+     * It starts at {@link #MAX_NODE_CONCURRENT_OPERATIONS} and adapts to the responses of the node
+     * reported using {@link #onOperationCompleted(String, long, long, boolean)}.
+     */
+    public long maxConcurrentOperations(@Nullable String nodeId) {
+        if (nodeId == null) {
+            return MAX_NODE_CONCURRENT_OPERATIONS;
+        }
+        AIMDLimit limit = concurrencyLimitPerNode.get(nodeId);
+        return limit == null ? MAX_NODE_CONCURRENT_OPERATIONS : limit.get();
+    }
+
+    /**
+     * Adapts the limit of concurrent operations towards a node.
+     *
+     * @param rejected true if the node rejected the operation because its queues are full
+     */
+    public void onOperationCompleted(@Nullable String nodeId, long startNanos, long endNanos, boolean rejected) {
+        if (nodeId == null) {
+            return;
+        }
+        concurrencyLimitPerNode
+            .computeIfAbsent(nodeId, k -> new AIMDLimit(
+                MAX_NODE_CONCURRENT_OPERATIONS,
+                1,
+                MAX_NODE_CONCURRENT_OPERATIONS_LIMIT,
+                limit -> limit + 1 / limit,
+                TARGET_OPERATION_LATENCY_NANOS))
+            .onCompleted(startNanos, endNanos, rejected);
+    }
+
     public long getInProgressJobsForNode(@Nullable String nodeId) {
         long count;
         if (nodeId == null) {
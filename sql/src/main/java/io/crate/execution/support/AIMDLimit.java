@@ -0,0 +1,72 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.support;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A limit which adapts to congestion using additive increase/multiplicative decrease (AIMD).
+ *
+ * The limit is increased after each operation which completed within the target latency and halved if an operation
+ * got rejected or took longer. Operations which started before the last decrease don't decrease the limit again,
+ * as they were issued under the previous limit.
+ */
+public final class AIMDLimit {
+
+    private final double min;
+    private final double max;
+    private final DoubleUnaryOperator increase;
+    private final long targetLatencyNanos;
+
+    private double limit;
+    private boolean decreased = false;
+    private long lastDecreaseNanos;
+
+    /**
+     * @param increase function computing the increased limit from the current limit
+     */
+    public AIMDLimit(double initial, double min, double max, DoubleUnaryOperator increase, long targetLatencyNanos) {
+        assert min <= initial && initial <= max : "initial limit must be within min and max";
+        this.min = min;
+        this.max = max;
+        this.increase = increase;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.limit = initial;
+    }
+
+    public synchronized long get() {
+        return (long) limit;
+    }
+
+    public synchronized void onCompleted(long startNanos, long endNanos, boolean rejected) {
+        if (rejected || endNanos - startNanos > targetLatencyNanos) {
+            if (decreased == false || startNanos - lastDecreaseNanos > 0) {
+                limit = Math.max(min, limit / 2);
+                decreased = true;
+                lastDecreaseNanos = endNanos;
+            }
+        } else {
+            limit = Math.min(max, increase.applyAsDouble(limit));
+        }
+    }
+}
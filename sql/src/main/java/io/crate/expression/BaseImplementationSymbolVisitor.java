@@ -60,7 +60,7 @@ public class BaseImplementationSymbolVisitor<C> extends SymbolVisitor<C, Input<?
             for (Symbol argument : function.arguments()) {
                 argumentInputs[i++] = process(argument, context);
             }
-            return new FunctionExpression<>(scalarImpl, argumentInputs);
+            return createInput(function, scalarImpl, argumentInputs);
         } else {
             throw new UnsupportedFeatureException(
                 String.format(
@@ -73,6 +73,13 @@ public class BaseImplementationSymbolVisitor<C> extends SymbolVisitor<C, Input<?
         }
     }
 
+    /**
+     * Creates the input which evaluates the (compiled) scalar of a function using the given argument inputs.
+     */
+    protected Input<?> createInput(Function function, Scalar<?, ?> scalar, Input<?>[] argumentInputs) {
+        return new FunctionExpression<>((Scalar) scalar, (Input[]) argumentInputs);
+    }
+
     @Override
     public Input<?> visitLiteral(Literal symbol, C context) {
         return symbol;
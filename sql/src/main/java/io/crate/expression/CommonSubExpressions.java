@@ -0,0 +1,160 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.expression;
+
+import com.carrotsearch.hppc.ObjectIntHashMap;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.SymbolVisitors;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Tracks functions which occur more than once within the symbols of an {@link InputFactory.Context}, e.g.
+ *
+ * <pre>
+ *     [ date_trunc('hour', in(0)), date_trunc('hour', in(0)) + 1 ]
+ * </pre>
+ *
+ * All occurrences of such a function share a single input which evaluates the function only once per row.
+ * The cached value is reset by a {@link CollectExpression} which is registered with the other expressions of the
+ * context, so it is invoked with every {@code setNextRow} call.
+ */
+final class CommonSubExpressions {
+
+    private final ObjectIntHashMap<Function> occurrences = new ObjectIntHashMap<>();
+    private final Map<Function, SharedInput<?>> sharedInputs = new HashMap<>();
+    private final List<SharedInput<?>> resetOnNextRow = new ArrayList<>();
+
+    /**
+     * Counts the deterministic functions within the symbol.
+     * The arguments of a repeated function are not counted again, as they're evaluated only as part of the shared input.
+     */
+    void count(Symbol symbol) {
+        if (!(symbol instanceof Function)) {
+            return;
+        }
+        Function function = (Function) symbol;
+        if (!isDeterministic(function)) {
+            for (Symbol argument : function.arguments()) {
+                count(argument);
+            }
+            return;
+        }
+        if (occurrences.addTo(function, 1) == 1) {
+            for (Symbol argument : function.arguments()) {
+                count(argument);
+            }
+        }
+    }
+
+    boolean isRepeated(Function function) {
+        return occurrences.get(function) > 1;
+    }
+
+    @Nullable
+    Input<?> get(Function function) {
+        return sharedInputs.get(function);
+    }
+
+    /**
+     * Wraps the input of a repeated function, so that the value is computed only once per row.
+     *
+     * @param registerExpression used to register the expression which resets the shared inputs,
+     *                           called once with the first shared input.
+     */
+    Input<?> share(Function function, Input<?> input, Consumer<CollectExpression<Row, ?>> registerExpression) {
+        SharedInput<?> sharedInput = new SharedInput<>(input);
+        sharedInputs.put(function, sharedInput);
+        if (resetOnNextRow.isEmpty()) {
+            registerExpression.accept(new ResetExpression(resetOnNextRow));
+        }
+        resetOnNextRow.add(sharedInput);
+        return sharedInput;
+    }
+
+    private static boolean isDeterministic(Function function) {
+        return !SymbolVisitors.any(
+            s -> s instanceof Function && !((Function) s).info().isDeterministic(), function);
+    }
+
+    static final class SharedInput<T> implements Input<T> {
+
+        private final Input<T> input;
+        private boolean computed = false;
+        private T value;
+
+        SharedInput(Input<T> input) {
+            this.input = input;
+        }
+
+        @Override
+        public T value() {
+            if (!computed) {
+                value = input.value();
+                computed = true;
+            }
+            return value;
+        }
+
+        void reset() {
+            computed = false;
+            value = null;
+        }
+
+        @Override
+        public String toString() {
+            return "Shared{" + input + '}';
+        }
+    }
+
+    private static final class ResetExpression implements CollectExpression<Row, Object> {
+
+        private final List<SharedInput<?>> sharedInputs;
+
+        ResetExpression(List<SharedInput<?>> sharedInputs) {
+            this.sharedInputs = sharedInputs;
+        }
+
+        @Override
+        public void setNextRow(Row row) {
+            //noinspection ForLoopReplaceableByForEach // invoked per row, avoids iterator allocation
+            for (int i = 0; i < sharedInputs.size(); i++) {
+                sharedInputs.get(i).reset();
+            }
+        }
+
+        @Override
+        public Object value() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,641 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.expression;
+
+import io.crate.data.Input;
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.operator.EqOperator;
+import io.crate.expression.operator.GtOperator;
+import io.crate.expression.operator.GteOperator;
+import io.crate.expression.operator.LtOperator;
+import io.crate.expression.operator.LteOperator;
+import io.crate.expression.operator.OrOperator;
+import io.crate.expression.predicate.IsNullPredicate;
+import io.crate.expression.predicate.NotPredicate;
+import io.crate.expression.scalar.arithmetic.ArithmeticFunctions;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.Scalar;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Creates specialized {@link Input}s for functions which are evaluated per row.
+ *
+ * <p>
+ * The generic {@link FunctionExpression} evaluates its arguments eagerly and dispatches through
+ * {@link Scalar#evaluate(Input[])}. For the most common operators in filters and projections this creates inputs which:
+ * </p>
+ * <ul>
+ *     <li>short-circuit AND / OR while keeping the three-valued logic</li>
+ *     <li>compare numeric values as primitives, with literal operands unboxed once</li>
+ *     <li>compute integer, long and double arithmetic (+, -, *, /, %) as primitives</li>
+ *     <li>fold deterministic functions with only literal arguments into a literal</li>
+ * </ul>
+ *
+ * Numeric inputs which are compiled implement {@link NumericInput}, so nested comparisons and arithmetic pass their
+ * values on as primitives: Values are only boxed where they're read from a row or column and where the result of the
+ * outermost arithmetic is returned. Boolean results aren't allocated as they're the cached {@link Boolean} instances.
+ * <p>
+ * All other functions fall back to the {@link FunctionExpression}.
+ */
+final class InputCompiler {
+
+    private InputCompiler() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static Input<?> compile(Function function, Scalar<?, ?> scalar, Input<?>[] args) {
+        if (function.info().isDeterministic() && allLiterals(args)) {
+            try {
+                return Literal.of(function.valueType(), ((Scalar) scalar).evaluate(args));
+            } catch (Exception e) {
+                // keep the failure at evaluation time, it must not be raised if no row is processed
+                return new FunctionExpression<>((Scalar) scalar, (Input[]) args);
+            }
+        }
+        String name = function.info().ident().name();
+        switch (name) {
+            case AndOperator.NAME:
+                return new AndInput((Input<Boolean>) args[0], (Input<Boolean>) args[1]);
+
+            case OrOperator.NAME:
+                return new OrInput((Input<Boolean>) args[0], (Input<Boolean>) args[1]);
+
+            case NotPredicate.NAME:
+                return new NotInput((Input<Boolean>) args[0]);
+
+            case IsNullPredicate.NAME:
+                return new IsNullInput(args[0]);
+
+            case ArithmeticFunctions.Names.ADD:
+            case ArithmeticFunctions.Names.SUBTRACT:
+            case ArithmeticFunctions.Names.MULTIPLY:
+            case ArithmeticFunctions.Names.DIVIDE:
+            case ArithmeticFunctions.Names.MODULUS:
+                Input<?> arithmetic = compileArithmetic(name, function.valueType(), args);
+                if (arithmetic != null) {
+                    return arithmetic;
+                }
+                break;
+
+            case EqOperator.NAME:
+            case LtOperator.NAME:
+            case LteOperator.NAME:
+            case GtOperator.NAME:
+            case GteOperator.NAME:
+                Input<?> comparison = compileNumericComparison(name, function.arguments(), args);
+                if (comparison != null) {
+                    return comparison;
+                }
+                break;
+
+            default:
+                break;
+        }
+        return new FunctionExpression<>((Scalar) scalar, (Input[]) args);
+    }
+
+    private static boolean allLiterals(Input<?>[] args) {
+        for (Input<?> arg : args) {
+            if (!(arg instanceof Literal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Input<?> compileNumericComparison(String name, List<Symbol> arguments, Input<?>[] args) {
+        DataType leftType = arguments.get(0).valueType();
+        if (!leftType.equals(arguments.get(1).valueType()) || !DataTypes.NUMERIC_PRIMITIVE_TYPES.contains(leftType)) {
+            return null;
+        }
+        NumericInput left = toNumericInput(args[0]);
+        NumericInput right = toNumericInput(args[1]);
+        if (left == null || right == null) {
+            // comparisons with null are always null
+            return Literal.of(DataTypes.BOOLEAN, null);
+        }
+        Comparison comparison = Comparison.of(name);
+        if (leftType.equals(DataTypes.DOUBLE) || leftType.equals(DataTypes.FLOAT)) {
+            return new DoubleComparison(left, right, comparison);
+        }
+        return new LongComparison(left, right, comparison);
+    }
+
+    private static Input<?> compileArithmetic(String name, DataType returnType, Input<?>[] args) {
+        boolean isInteger = returnType.equals(DataTypes.INTEGER);
+        boolean isDouble = returnType.equals(DataTypes.DOUBLE);
+        if (!isInteger && !isDouble && !returnType.equals(DataTypes.LONG)) {
+            // float arithmetic must be computed with float precision; it's rarely used and not specialized
+            return null;
+        }
+        NumericInput left = toNumericInput(args[0]);
+        NumericInput right = toNumericInput(args[1]);
+        if (left == null || right == null) {
+            // arithmetic with null is always null
+            return Literal.of(returnType, null);
+        }
+        Arithmetic arithmetic = Arithmetic.of(name);
+        if (isDouble) {
+            return new DoubleArithmetic(left, right, arithmetic);
+        }
+        return new IntegralArithmetic(left, right, arithmetic, isInteger);
+    }
+
+    /**
+     * @return the input as {@link NumericInput}; null if the input is a null literal
+     */
+    @Nullable
+    private static NumericInput toNumericInput(Input<?> input) {
+        if (input instanceof NumericInput) {
+            return (NumericInput) input;
+        }
+        if (input instanceof Literal) {
+            Number value = (Number) input.value();
+            return value == null ? null : new NumericConstant(value);
+        }
+        return new BoxedNumericInput(input);
+    }
+
+    /**
+     * A numeric value which can be read without boxing.
+     * The value read last is only valid if {@link #wasNull()} returns false right after reading it.
+     */
+    interface NumericInput {
+
+        long longValue();
+
+        double doubleValue();
+
+        boolean wasNull();
+    }
+
+    private enum Arithmetic {
+        ADD,
+        SUBTRACT,
+        MULTIPLY,
+        DIVIDE,
+        MODULUS;
+
+        static Arithmetic of(String name) {
+            switch (name) {
+                case ArithmeticFunctions.Names.ADD:
+                    return ADD;
+                case ArithmeticFunctions.Names.SUBTRACT:
+                    return SUBTRACT;
+                case ArithmeticFunctions.Names.MULTIPLY:
+                    return MULTIPLY;
+                case ArithmeticFunctions.Names.DIVIDE:
+                    return DIVIDE;
+                case ArithmeticFunctions.Names.MODULUS:
+                    return MODULUS;
+                default:
+                    throw new IllegalArgumentException("Not an arithmetic operator: " + name);
+            }
+        }
+
+        long apply(long left, long right) {
+            switch (this) {
+                case ADD:
+                    return left + right;
+                case SUBTRACT:
+                    return left - right;
+                case MULTIPLY:
+                    return left * right;
+                case DIVIDE:
+                    return left / right;
+                default:
+                    return left % right;
+            }
+        }
+
+        double apply(double left, double right) {
+            switch (this) {
+                case ADD:
+                    return left + right;
+                case SUBTRACT:
+                    return left - right;
+                case MULTIPLY:
+                    return left * right;
+                case DIVIDE:
+                    return left / right;
+                default:
+                    return left % right;
+            }
+        }
+    }
+
+    private enum Comparison {
+        EQ,
+        LT,
+        LTE,
+        GT,
+        GTE;
+
+        static Comparison of(String name) {
+            switch (name) {
+                case EqOperator.NAME:
+                    return EQ;
+                case LtOperator.NAME:
+                    return LT;
+                case LteOperator.NAME:
+                    return LTE;
+                case GtOperator.NAME:
+                    return GT;
+                case GteOperator.NAME:
+                    return GTE;
+                default:
+                    throw new IllegalArgumentException("Not a comparison operator: " + name);
+            }
+        }
+
+        boolean matches(int cmp) {
+            switch (this) {
+                case EQ:
+                    return cmp == 0;
+                case LT:
+                    return cmp < 0;
+                case LTE:
+                    return cmp <= 0;
+                case GT:
+                    return cmp > 0;
+                default:
+                    return cmp >= 0;
+            }
+        }
+    }
+
+    static final class AndInput implements Input<Boolean> {
+
+        private final Input<Boolean> left;
+        private final Input<Boolean> right;
+
+        AndInput(Input<Boolean> left, Input<Boolean> right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public Boolean value() {
+            Boolean leftValue = left.value();
+            if (Boolean.FALSE.equals(leftValue)) {
+                return false;
+            }
+            Boolean rightValue = right.value();
+            if (Boolean.FALSE.equals(rightValue)) {
+                return false;
+            }
+            if (leftValue == null || rightValue == null) {
+                return null;
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "And{" + left + ", " + right + '}';
+        }
+    }
+
+    static final class OrInput implements Input<Boolean> {
+
+        private final Input<Boolean> left;
+        private final Input<Boolean> right;
+
+        OrInput(Input<Boolean> left, Input<Boolean> right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public Boolean value() {
+            Boolean leftValue = left.value();
+            if (Boolean.TRUE.equals(leftValue)) {
+                return true;
+            }
+            Boolean rightValue = right.value();
+            if (Boolean.TRUE.equals(rightValue)) {
+                return true;
+            }
+            if (leftValue == null || rightValue == null) {
+                return null;
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "Or{" + left + ", " + right + '}';
+        }
+    }
+
+    static final class NotInput implements Input<Boolean> {
+
+        private final Input<Boolean> arg;
+
+        NotInput(Input<Boolean> arg) {
+            this.arg = arg;
+        }
+
+        @Override
+        public Boolean value() {
+            Boolean value = arg.value();
+            return value == null ? null : !value;
+        }
+
+        @Override
+        public String toString() {
+            return "Not{" + arg + '}';
+        }
+    }
+
+    static final class IsNullInput implements Input<Boolean> {
+
+        private final Input<?> arg;
+
+        IsNullInput(Input<?> arg) {
+            this.arg = arg;
+        }
+
+        @Override
+        public Boolean value() {
+            return arg.value() == null;
+        }
+
+        @Override
+        public String toString() {
+            return "IsNull{" + arg + '}';
+        }
+    }
+
+    static final class NumericConstant implements NumericInput {
+
+        private final Number value;
+        private final long longValue;
+        private final double doubleValue;
+
+        NumericConstant(Number value) {
+            this.value = value;
+            this.longValue = value.longValue();
+            this.doubleValue = value.doubleValue();
+        }
+
+        @Override
+        public long longValue() {
+            return longValue;
+        }
+
+        @Override
+        public double doubleValue() {
+            return doubleValue;
+        }
+
+        @Override
+        public boolean wasNull() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return value.toString();
+        }
+    }
+
+    static final class BoxedNumericInput implements NumericInput {
+
+        private final Input<?> input;
+        private boolean wasNull;
+
+        BoxedNumericInput(Input<?> input) {
+            this.input = input;
+        }
+
+        @Override
+        public long longValue() {
+            Number value = (Number) input.value();
+            wasNull = value == null;
+            return wasNull ? 0L : value.longValue();
+        }
+
+        @Override
+        public double doubleValue() {
+            Number value = (Number) input.value();
+            wasNull = value == null;
+            return wasNull ? 0.0 : value.doubleValue();
+        }
+
+        @Override
+        public boolean wasNull() {
+            return wasNull;
+        }
+
+        @Override
+        public String toString() {
+            return input.toString();
+        }
+    }
+
+    /**
+     * Arithmetic of integer or long values. Integer results overflow like the integer arithmetic of the scalar.
+     */
+    static final class IntegralArithmetic implements Input<Object>, NumericInput {
+
+        private final NumericInput left;
+        private final NumericInput right;
+        private final Arithmetic arithmetic;
+        private final boolean isInteger;
+        private boolean wasNull;
+
+        IntegralArithmetic(NumericInput left, NumericInput right, Arithmetic arithmetic, boolean isInteger) {
+            this.left = left;
+            this.right = right;
+            this.arithmetic = arithmetic;
+            this.isInteger = isInteger;
+        }
+
+        @Override
+        public long longValue() {
+            long leftValue = left.longValue();
+            if (left.wasNull()) {
+                wasNull = true;
+                return 0L;
+            }
+            long rightValue = right.longValue();
+            if (right.wasNull()) {
+                wasNull = true;
+                return 0L;
+            }
+            wasNull = false;
+            if (isInteger) {
+                return (int) arithmetic.apply((long) (int) leftValue, (long) (int) rightValue);
+            }
+            return arithmetic.apply(leftValue, rightValue);
+        }
+
+        @Override
+        public double doubleValue() {
+            return longValue();
+        }
+
+        @Override
+        public boolean wasNull() {
+            return wasNull;
+        }
+
+        @Override
+        public Object value() {
+            long value = longValue();
+            if (wasNull) {
+                return null;
+            }
+            if (isInteger) {
+                return (int) value;
+            }
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "Arithmetic{" + arithmetic + ", args=" + Arrays.asList(left, right) + '}';
+        }
+    }
+
+    static final class DoubleArithmetic implements Input<Double>, NumericInput {
+
+        private final NumericInput left;
+        private final NumericInput right;
+        private final Arithmetic arithmetic;
+        private boolean wasNull;
+
+        DoubleArithmetic(NumericInput left, NumericInput right, Arithmetic arithmetic) {
+            this.left = left;
+            this.right = right;
+            this.arithmetic = arithmetic;
+        }
+
+        @Override
+        public double doubleValue() {
+            double leftValue = left.doubleValue();
+            if (left.wasNull()) {
+                wasNull = true;
+                return 0.0;
+            }
+            double rightValue = right.doubleValue();
+            if (right.wasNull()) {
+                wasNull = true;
+                return 0.0;
+            }
+            wasNull = false;
+            return arithmetic.apply(leftValue, rightValue);
+        }
+
+        @Override
+        public long longValue() {
+            return (long) doubleValue();
+        }
+
+        @Override
+        public boolean wasNull() {
+            return wasNull;
+        }
+
+        @Override
+        public Double value() {
+            double value = doubleValue();
+            return wasNull ? null : value;
+        }
+
+        @Override
+        public String toString() {
+            return "Arithmetic{" + arithmetic + ", args=" + Arrays.asList(left, right) + '}';
+        }
+    }
+
+    static final class LongComparison implements Input<Boolean> {
+
+        private final NumericInput left;
+        private final NumericInput right;
+        private final Comparison comparison;
+
+        LongComparison(NumericInput left, NumericInput right, Comparison comparison) {
+            this.left = left;
+            this.right = right;
+            this.comparison = comparison;
+        }
+
+        @Override
+        public Boolean value() {
+            long leftValue = left.longValue();
+            if (left.wasNull()) {
+                return null;
+            }
+            long rightValue = right.longValue();
+            if (right.wasNull()) {
+                return null;
+            }
+            return comparison.matches(Long.compare(leftValue, rightValue));
+        }
+
+        @Override
+        public String toString() {
+            return "Cmp{" + comparison + ", args=" + Arrays.asList(left, right) + '}';
+        }
+    }
+
+    static final class DoubleComparison implements Input<Boolean> {
+
+        private final NumericInput left;
+        private final NumericInput right;
+        private final Comparison comparison;
+
+        DoubleComparison(NumericInput left, NumericInput right, Comparison comparison) {
+            this.left = left;
+            this.right = right;
+            this.comparison = comparison;
+        }
+
+        @Override
+        public Boolean value() {
+            double leftValue = left.doubleValue();
+            if (left.wasNull()) {
+                return null;
+            }
+            double rightValue = right.doubleValue();
+            if (right.wasNull()) {
+                return null;
+            }
+            return comparison.matches(Double.compare(leftValue, rightValue));
+        }
+
+        @Override
+        public String toString() {
+            return "Cmp{" + comparison + ", args=" + Arrays.asList(left, right) + '}';
+        }
+    }
+}
@@ -25,6 +25,7 @@ package io.crate.expression;
 import com.carrotsearch.hppc.IntObjectHashMap;
 import com.carrotsearch.hppc.IntObjectMap;
 import io.crate.expression.symbol.Aggregation;
+import io.crate.expression.symbol.Function;
 import io.crate.expression.symbol.InputColumn;
 import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.SymbolVisitor;
@@ -35,11 +36,14 @@ import io.crate.expression.reference.GatheringRefResolver;
 import io.crate.metadata.FunctionImplementation;
 import io.crate.metadata.Functions;
 import io.crate.metadata.Reference;
+import io.crate.metadata.Scalar;
 import io.crate.execution.engine.aggregation.AggregationFunction;
 import io.crate.execution.engine.collect.CollectExpression;
 import io.crate.execution.engine.collect.InputCollectExpression;
 import io.crate.expression.reference.ReferenceResolver;
+import org.elasticsearch.common.settings.Setting;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -73,10 +77,25 @@ import java.util.List;
  */
 public class InputFactory {
 
+    public static final Setting<Boolean> COMPILED_EXPRESSIONS_ENABLED_SETTING = Setting.boolSetting(
+        "node.sql.compiled_expressions.enabled",
+        true,
+        Setting.Property.NodeScope);
+
     private final Functions functions;
+    private final boolean compileInputColumns;
 
     public InputFactory(Functions functions) {
+        this(functions, true);
+    }
+
+    /**
+     * @param compileInputColumns if false, {@link #ctxForCompiledInputColumns()} falls back to
+     *                            {@link #ctxForInputColumns()}
+     */
+    public InputFactory(Functions functions, boolean compileInputColumns) {
         this.functions = functions;
+        this.compileInputColumns = compileInputColumns;
     }
 
     public <T extends Input<?>> Context<T> ctxForRefs(ReferenceResolver<? extends T> referenceResolver) {
@@ -89,7 +108,12 @@ public class InputFactory {
 
     public Context<CollectExpression<Row, ?>> ctxForInputColumns() {
         List<CollectExpression<Row, ?>> expressions = new ArrayList<>();
-        return new Context<>(expressions, new InputColumnVisitor(functions, expressions));
+        CommonSubExpressions commonSubExpressions = new CommonSubExpressions();
+        return new Context<>(
+            expressions,
+            Collections.emptyList(),
+            new InputColumnVisitor(functions, expressions, commonSubExpressions),
+            commonSubExpressions);
     }
 
     public Context<CollectExpression<Row, ?>> ctxForInputColumns(Iterable<? extends Symbol> symbols) {
@@ -98,13 +122,40 @@ public class InputFactory {
         return context;
     }
 
+    /**
+     * Like {@link #ctxForInputColumns()}, but functions are compiled into specialized inputs where possible.
+     * See {@link InputCompiler}
+     *
+     * Compilation can be disabled using {@link #COMPILED_EXPRESSIONS_ENABLED_SETTING}.
+     */
+    public Context<CollectExpression<Row, ?>> ctxForCompiledInputColumns() {
+        if (compileInputColumns == false) {
+            return ctxForInputColumns();
+        }
+        List<CollectExpression<Row, ?>> expressions = new ArrayList<>();
+        CommonSubExpressions commonSubExpressions = new CommonSubExpressions();
+        return new Context<>(
+            expressions,
+            Collections.emptyList(),
+            new CompilingInputColumnVisitor(functions, expressions, commonSubExpressions),
+            commonSubExpressions);
+    }
+
+    public Context<CollectExpression<Row, ?>> ctxForCompiledInputColumns(Iterable<? extends Symbol> symbols) {
+        Context<CollectExpression<Row, ?>> context = ctxForCompiledInputColumns();
+        context.add(symbols);
+        return context;
+    }
+
     public Context<CollectExpression<Row, ?>> ctxForAggregations() {
         List<CollectExpression<Row, ?>> expressions = new ArrayList<>();
         List<AggregationContext> aggregationContexts = new ArrayList<>();
+        CommonSubExpressions commonSubExpressions = new CommonSubExpressions();
         return new Context<>(
             expressions,
             aggregationContexts,
-            new AggregationVisitor(functions, expressions, aggregationContexts));
+            new AggregationVisitor(functions, expressions, aggregationContexts, commonSubExpressions),
+            commonSubExpressions);
     }
 
     public <T extends Input<?>> ContextInputAware<T> ctxForRefsWithInputCols(ReferenceResolver<? extends T> referenceResolver) {
@@ -124,17 +175,21 @@ public class InputFactory {
         private final List<AggregationContext> aggregationContexts;
         private final SymbolVisitor<?, Input<?>> visitor;
 
+        @Nullable
+        private final CommonSubExpressions commonSubExpressions;
 
         private Context(List<T> expressions,
                         List<AggregationContext> aggregationContexts,
-                        SymbolVisitor<?, Input<?>> visitor) {
+                        SymbolVisitor<?, Input<?>> visitor,
+                        @Nullable CommonSubExpressions commonSubExpressions) {
             this.expressions = expressions;
             this.aggregationContexts = aggregationContexts;
             this.visitor = visitor;
+            this.commonSubExpressions = commonSubExpressions;
         }
 
         private Context(List<T> expressions, SymbolVisitor<?, Input<?>> visitor) {
-            this(expressions, Collections.emptyList(), visitor);
+            this(expressions, Collections.emptyList(), visitor, null);
         }
 
         public List<Input<?>> topLevelInputs() {
@@ -149,8 +204,13 @@ public class InputFactory {
          * Create inputs for all symbols, The inputs will the added to {@link #topLevelInputs()}
          */
         public void add(Iterable<? extends Symbol> symbols) {
+            if (commonSubExpressions != null) {
+                for (Symbol symbol : symbols) {
+                    commonSubExpressions.count(symbol);
+                }
+            }
             for (Symbol symbol : symbols) {
-                Input<?> input = add(symbol);
+                Input<?> input = visitor.process(symbol, null);
                 if (input != null) {
                     topLevelInputs.add(input);
                 }
@@ -165,6 +225,9 @@ public class InputFactory {
          * </p>
          */
         public Input<?> add(Symbol symbol) {
+            if (commonSubExpressions != null) {
+                commonSubExpressions.count(symbol);
+            }
             return visitor.process(symbol, null);
         }
 
@@ -191,10 +254,26 @@ public class InputFactory {
 
         private final List<CollectExpression<Row, ?>> expressions;
         private final IntObjectMap<InputCollectExpression> inputCollectExpressions = new IntObjectHashMap<>();
+        private final CommonSubExpressions commonSubExpressions;
 
-        InputColumnVisitor(Functions functions, List<CollectExpression<Row, ?>> expressions) {
+        InputColumnVisitor(Functions functions,
+                           List<CollectExpression<Row, ?>> expressions,
+                           CommonSubExpressions commonSubExpressions) {
             super(functions);
             this.expressions = expressions;
+            this.commonSubExpressions = commonSubExpressions;
+        }
+
+        @Override
+        public Input<?> visitFunction(Function function, Void context) {
+            if (!commonSubExpressions.isRepeated(function)) {
+                return super.visitFunction(function, context);
+            }
+            Input<?> input = commonSubExpressions.get(function);
+            if (input == null) {
+                input = commonSubExpressions.share(function, super.visitFunction(function, context), expressions::add);
+            }
+            return input;
         }
 
         @Override
@@ -210,14 +289,29 @@ public class InputFactory {
         }
     }
 
+    private static class CompilingInputColumnVisitor extends InputColumnVisitor {
+
+        CompilingInputColumnVisitor(Functions functions,
+                                    List<CollectExpression<Row, ?>> expressions,
+                                    CommonSubExpressions commonSubExpressions) {
+            super(functions, expressions, commonSubExpressions);
+        }
+
+        @Override
+        protected Input<?> createInput(Function function, Scalar<?, ?> scalar, Input<?>[] argumentInputs) {
+            return InputCompiler.compile(function, scalar, argumentInputs);
+        }
+    }
+
     private static class AggregationVisitor extends InputColumnVisitor {
 
         private final List<AggregationContext> aggregationContexts;
 
         AggregationVisitor(Functions functions,
                            List<CollectExpression<Row, ?>> expressions,
-                           List<AggregationContext> aggregationContexts) {
-            super(functions, expressions);
+                           List<AggregationContext> aggregationContexts,
+                           CommonSubExpressions commonSubExpressions) {
+            super(functions, expressions, commonSubExpressions);
             this.aggregationContexts = aggregationContexts;
         }
 
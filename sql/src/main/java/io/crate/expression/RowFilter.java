@@ -44,7 +44,7 @@ public class RowFilter implements Predicate<Row> {
     }
 
     private RowFilter(InputFactory inputFactory, Symbol filterSymbol) {
-        InputFactory.Context<CollectExpression<Row, ?>> ctx = inputFactory.ctxForInputColumns();
+        InputFactory.Context<CollectExpression<Row, ?>> ctx = inputFactory.ctxForCompiledInputColumns();
         //noinspection unchecked
         filterCondition = (Input) ctx.add(filterSymbol);
         expressions = ctx.expressions();
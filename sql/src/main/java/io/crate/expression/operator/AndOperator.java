@@ -30,8 +30,10 @@ import io.crate.metadata.FunctionInfo;
 import io.crate.metadata.TransactionContext;
 import io.crate.types.DataTypes;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 
 public class AndOperator extends Operator<Boolean> {
 
@@ -125,6 +127,28 @@ public class AndOperator extends Operator<Boolean> {
         return new Function(INFO, ImmutableList.of(first, second));
     }
 
+    /**
+     * Splits a query into its conjuncts; the inverse of {@link #join(Iterable)}.
+     * <pre>
+     *     a AND (b AND c)  ->  [a, b, c]
+     * </pre>
+     */
+    public static List<Symbol> split(Symbol query) {
+        List<Symbol> parts = new ArrayList<>();
+        addConjuncts(query, parts);
+        return parts;
+    }
+
+    private static void addConjuncts(Symbol query, List<Symbol> parts) {
+        if (query instanceof Function && ((Function) query).info().ident().name().equals(NAME)) {
+            for (Symbol arg : ((Function) query).arguments()) {
+                addConjuncts(arg, parts);
+            }
+        } else {
+            parts.add(query);
+        }
+    }
+
     public static Symbol join(Iterable<? extends Symbol> symbols) {
         return join(symbols.iterator());
     }
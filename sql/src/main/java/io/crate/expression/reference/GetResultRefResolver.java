@@ -75,13 +75,21 @@ public class GetResultRefResolver implements ReferenceResolver<CollectExpression
                         getResp -> ref.valueType().value(
                             PartitionName.fromIndexOrTemplate(getResp.getIndex()).values().get(idx)));
                 }
-                return forFunction(response -> {
-                    if (response == null) {
-                        return null;
-                    }
-                    Map<String, Object> sourceAsMap = response.sourceAsMap();
-                    return ref.valueType().value(XContentMapValues.extractValue(fqn, sourceAsMap));
-                });
+                return sourceValue(ref);
         }
     }
+
+    /**
+     * @return an expression which extracts the value of the column from the source of the {@link GetResult}
+     */
+    protected CollectExpression<GetResult, ?> sourceValue(Reference ref) {
+        String fqn = ref.column().fqn();
+        return forFunction(response -> {
+            if (response == null) {
+                return null;
+            }
+            Map<String, Object> sourceAsMap = response.sourceAsMap();
+            return ref.valueType().value(XContentMapValues.extractValue(fqn, sourceAsMap));
+        });
+    }
 }
@@ -24,6 +24,7 @@ package io.crate.expression.reference.sys.node;
 
 import io.crate.Build;
 import io.crate.Version;
+import io.crate.action.sql.StatementCacheStats;
 import io.crate.monitor.ExtendedOsStats;
 import io.crate.protocols.ConnectionStats;
 import io.crate.types.DataTypes;
@@ -66,6 +67,7 @@ public class NodeStatsContext implements Streamable {
     private ThreadPoolStats threadPools;
     private HttpStats httpStats;
     private ConnectionStats psqlStats;
+    private StatementCacheStats statementCacheStats;
 
     private BytesRef osName;
     private BytesRef osArch;
@@ -196,6 +198,10 @@ public class NodeStatsContext implements Streamable {
         return psqlStats;
     }
 
+    public StatementCacheStats statementCacheStats() {
+        return statementCacheStats;
+    }
+
     public long openTransportConnections() {
         return openTransportConnections;
     }
@@ -268,6 +274,10 @@ public class NodeStatsContext implements Streamable {
         this.psqlStats = psqlStats;
     }
 
+    public void statementCacheStats(StatementCacheStats statementCacheStats) {
+        this.statementCacheStats = statementCacheStats;
+    }
+
     void openTransportConnections(long openTransportConnections) {
         this.openTransportConnections = openTransportConnections;
     }
@@ -299,6 +309,7 @@ public class NodeStatsContext implements Streamable {
         threadPools = in.readOptionalWriteable(ThreadPoolStats::new);
         httpStats = in.readOptionalWriteable(HttpStats::new);
         psqlStats = in.readOptionalWriteable(ConnectionStats::new);
+        statementCacheStats = in.readOptionalWriteable(StatementCacheStats::new);
         openTransportConnections = in.readLong();
 
         osName = DataTypes.STRING.readValueFrom(in);
@@ -342,6 +353,7 @@ public class NodeStatsContext implements Streamable {
         out.writeOptionalWriteable(threadPools);
         out.writeOptionalWriteable(httpStats);
         out.writeOptionalWriteable(psqlStats);
+        out.writeOptionalWriteable(statementCacheStats);
         out.writeLong(openTransportConnections);
 
         DataTypes.STRING.writeValueTo(out, osName);
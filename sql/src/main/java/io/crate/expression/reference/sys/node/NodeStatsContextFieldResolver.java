@@ -26,6 +26,8 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
 import io.crate.Build;
 import io.crate.Version;
+import io.crate.action.sql.StatementCache;
+import io.crate.action.sql.StatementCacheStats;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.sys.SysNodesTableInfo;
 import io.crate.monitor.ExtendedNodeInfo;
@@ -76,6 +78,7 @@ public class NodeStatsContextFieldResolver {
     private final Supplier<ConnectionStats> psqlStats;
     private final Supplier<TransportAddress> boundPostgresAddress;
     private final LongSupplier numOpenTransportConnections;
+    private final Supplier<StatementCacheStats> statementCacheStats;
     private final ProcessService processService;
     private final OsService osService;
     private final JvmService jvmService;
@@ -89,7 +92,8 @@ public class NodeStatsContextFieldResolver {
                                          TransportService transportService,
                                          ThreadPool threadPool,
                                          ExtendedNodeInfo extendedNodeInfo,
-                                         PostgresNetty postgresNetty) {
+                                         PostgresNetty postgresNetty,
+                                         StatementCache statementCache) {
         this(
             clusterService::localNode,
             nodeService.getMonitorService(),
@@ -105,7 +109,8 @@ public class NodeStatsContextFieldResolver {
                 }
                 return boundTransportAddress.publishAddress();
             },
-            () -> transportService.stats().getServerOpen()
+            () -> transportService.stats().getServerOpen(),
+            statementCache::stats
         );
     }
 
@@ -118,7 +123,8 @@ public class NodeStatsContextFieldResolver {
                                   ExtendedNodeInfo extendedNodeInfo,
                                   Supplier<ConnectionStats> psqlStats,
                                   Supplier<TransportAddress> boundPostgresAddress,
-                                  LongSupplier numOpenTransportConnections) {
+                                  LongSupplier numOpenTransportConnections,
+                                  Supplier<StatementCacheStats> statementCacheStats) {
         this.localNode = localNode;
         processService = monitorService.processService();
         osService = monitorService.osService();
@@ -131,6 +137,7 @@ public class NodeStatsContextFieldResolver {
         this.psqlStats = psqlStats;
         this.boundPostgresAddress = boundPostgresAddress;
         this.numOpenTransportConnections = numOpenTransportConnections;
+        this.statementCacheStats = statementCacheStats;
     }
 
     public NodeStatsContext forTopColumnIdents(Collection<ColumnIdent> topColumnIdents) {
@@ -237,6 +244,12 @@ public class NodeStatsContextFieldResolver {
                     nodeStatsContext.openTransportConnections(numOpenTransportConnections.getAsLong());
                 }
             })
+            .put(SysNodesTableInfo.Columns.STATEMENT_CACHE, new Consumer<NodeStatsContext>() {
+                @Override
+                public void accept(NodeStatsContext context) {
+                    context.statementCacheStats(statementCacheStats.get());
+                }
+            })
             .put(SysNodesTableInfo.Columns.OS, new Consumer<NodeStatsContext>() {
                 @Override
                 public void accept(NodeStatsContext context) {
@@ -0,0 +1,52 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.expression.reference.sys.shard;
+
+import io.crate.execution.dml.TranslogGroupCommitService;
+import io.crate.expression.NestableInput;
+import io.crate.expression.reference.NestedObjectExpression;
+import org.elasticsearch.index.shard.ShardId;
+
+import java.util.function.ToLongFunction;
+
+public class ShardTranslogGroupCommitExpression extends NestedObjectExpression {
+
+    private static final String REQUESTS = "requests";
+    private static final String SYNCS = "syncs";
+
+    public ShardTranslogGroupCommitExpression(TranslogGroupCommitService translogGroupCommit, ShardId shardId) {
+        childImplementations.put(REQUESTS, statsExpression(translogGroupCommit, shardId,
+            TranslogGroupCommitService.Stats::requests));
+        childImplementations.put(SYNCS, statsExpression(translogGroupCommit, shardId,
+            TranslogGroupCommitService.Stats::syncs));
+    }
+
+    private static NestableInput<Long> statsExpression(TranslogGroupCommitService translogGroupCommit,
+                                                       ShardId shardId,
+                                                       ToLongFunction<TranslogGroupCommitService.Stats> getValue) {
+        return () -> {
+            TranslogGroupCommitService.Stats stats = translogGroupCommit.stats(shardId);
+            return stats == null ? 0L : getValue.applyAsLong(stats);
+        };
+    }
+}
@@ -65,7 +65,11 @@ public class ReferenceToLiteralConverter implements Function<Reference, Symbol>
         this.values = values;
     }
 
-    private Symbol resolveReferenceValue(Reference reference) {
+    /**
+     * @return the value of the reference in the current {@link #values(Object[])}, converted to the type of the
+     *         reference; null if the reference isn't part of the insert columns.
+     */
+    public Object value(Reference reference) {
         assert values != null : "values must be set first";
 
         InputColumn inputColumn = referenceInputColumnMap.get(reference);
@@ -83,15 +87,14 @@ public class ReferenceToLiteralConverter implements Function<Reference, Symbol>
             } else {
                 value = values[inputColumn.index()];
             }
-            return Literal.of(dataType, dataType.value(value));
+            return dataType.value(value);
         }
-
-        DataType dataType = reference.valueType();
-        return Literal.of(dataType, dataType.value(null));
+        return reference.valueType().value(null);
     }
 
     @Override
     public Symbol apply(Reference reference) {
-        return resolveReferenceValue(reference);
+        DataType dataType = reference.valueType();
+        return Literal.of(dataType, value(reference));
     }
 }
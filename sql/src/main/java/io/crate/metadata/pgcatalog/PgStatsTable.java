@@ -0,0 +1,136 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.metadata.pgcatalog;
+
+import com.google.common.collect.ImmutableMap;
+import io.crate.action.sql.SessionContext;
+import io.crate.analyze.WhereClause;
+import io.crate.execution.engine.collect.NestableCollectExpression;
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.Routing;
+import io.crate.metadata.RoutingProvider;
+import io.crate.metadata.RowGranularity;
+import io.crate.metadata.expressions.RowCollectExpressionFactory;
+import io.crate.metadata.stats.ColumnStatsEntry;
+import io.crate.metadata.table.ColumnRegistrar;
+import io.crate.metadata.table.StaticTableInfo;
+import io.crate.types.ArrayType;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.cluster.ClusterState;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes the column statistics collected by {@code ANALYZE}, modelled after PostgreSQL's {@code pg_stats} view.
+ * Values of the most common values and histogram bounds are exposed as strings.
+ */
+public class PgStatsTable extends StaticTableInfo {
+
+    public static final RelationName IDENT = new RelationName(PgCatalogSchemaInfo.NAME, "pg_stats");
+
+    static class Columns {
+        static final ColumnIdent SCHEMANAME = new ColumnIdent("schemaname");
+        static final ColumnIdent TABLENAME = new ColumnIdent("tablename");
+        static final ColumnIdent ATTNAME = new ColumnIdent("attname");
+        static final ColumnIdent INHERITED = new ColumnIdent("inherited");
+        static final ColumnIdent NULL_FRAC = new ColumnIdent("null_frac");
+        static final ColumnIdent AVG_WIDTH = new ColumnIdent("avg_width");
+        static final ColumnIdent N_DISTINCT = new ColumnIdent("n_distinct");
+        static final ColumnIdent MOST_COMMON_VALS = new ColumnIdent("most_common_vals");
+        static final ColumnIdent MOST_COMMON_FREQS = new ColumnIdent("most_common_freqs");
+        static final ColumnIdent HISTOGRAM_BOUNDS = new ColumnIdent("histogram_bounds");
+    }
+
+    public static Map<ColumnIdent, RowCollectExpressionFactory<ColumnStatsEntry>> expressions() {
+        return ImmutableMap.<ColumnIdent, RowCollectExpressionFactory<ColumnStatsEntry>>builder()
+            .put(Columns.SCHEMANAME,
+                () -> NestableCollectExpression.objToBytesRef(e -> e.relationName().schema()))
+            .put(Columns.TABLENAME,
+                () -> NestableCollectExpression.objToBytesRef(e -> e.relationName().name()))
+            .put(Columns.ATTNAME,
+                () -> NestableCollectExpression.objToBytesRef(e -> e.column().sqlFqn()))
+            .put(Columns.INHERITED,
+                () -> NestableCollectExpression.forFunction(e -> false))
+            .put(Columns.NULL_FRAC,
+                () -> NestableCollectExpression.forFunction(e -> (float) e.stats().nullFraction()))
+            .put(Columns.AVG_WIDTH,
+                () -> NestableCollectExpression.forFunction(e -> (int) e.stats().averageSizeInBytes()))
+            .put(Columns.N_DISTINCT,
+                () -> NestableCollectExpression.forFunction(e -> (float) e.stats().approxDistinct()))
+            .put(Columns.MOST_COMMON_VALS,
+                () -> NestableCollectExpression.forFunction(e -> toStringArray(e.stats().mostCommonValues())))
+            .put(Columns.MOST_COMMON_FREQS,
+                () -> NestableCollectExpression.forFunction((ColumnStatsEntry e) -> {
+                    List<Double> frequencies = e.stats().mostCommonFrequencies();
+                    Float[] result = new Float[frequencies.size()];
+                    for (int i = 0; i < frequencies.size(); i++) {
+                        result[i] = frequencies.get(i).floatValue();
+                    }
+                    return result;
+                }))
+            .put(Columns.HISTOGRAM_BOUNDS,
+                () -> NestableCollectExpression.forFunction(e -> toStringArray(e.stats().histogram())))
+            .build();
+    }
+
+    private static BytesRef[] toStringArray(List<Object> values) {
+        BytesRef[] result = new BytesRef[values.size()];
+        for (int i = 0; i < values.size(); i++) {
+            result[i] = DataTypes.STRING.value(values.get(i));
+        }
+        return result;
+    }
+
+    PgStatsTable() {
+        super(IDENT, new ColumnRegistrar(IDENT, RowGranularity.DOC)
+                .register(Columns.SCHEMANAME, DataTypes.STRING)
+                .register(Columns.TABLENAME, DataTypes.STRING)
+                .register(Columns.ATTNAME, DataTypes.STRING)
+                .register(Columns.INHERITED, DataTypes.BOOLEAN)
+                .register(Columns.NULL_FRAC, DataTypes.FLOAT)
+                .register(Columns.AVG_WIDTH, DataTypes.INTEGER)
+                .register(Columns.N_DISTINCT, DataTypes.FLOAT)
+                .register(Columns.MOST_COMMON_VALS, new ArrayType(DataTypes.STRING))
+                .register(Columns.MOST_COMMON_FREQS, new ArrayType(DataTypes.FLOAT))
+                .register(Columns.HISTOGRAM_BOUNDS, new ArrayType(DataTypes.STRING)),
+            Collections.emptyList());
+    }
+
+    @Override
+    public RowGranularity rowGranularity() {
+        return RowGranularity.DOC;
+    }
+
+    @Override
+    public Routing getRouting(ClusterState clusterState,
+                              RoutingProvider routingProvider,
+                              WhereClause whereClause,
+                              RoutingProvider.ShardSelection shardSelection,
+                              SessionContext sessionContext) {
+        return Routing.forTableOnSingleNode(IDENT, clusterState.getNodes().getLocalNodeId());
+    }
+}
@@ -30,6 +30,7 @@ import io.crate.execution.engine.collect.stats.JobsLogService;
 import io.crate.execution.engine.indexing.ShardingUpsertExecutor;
 import io.crate.expression.NestableInput;
 import io.crate.expression.reference.NestedObjectExpression;
+import io.crate.planner.ColumnStatsService;
 import io.crate.planner.TableStatsService;
 import io.crate.settings.CrateSetting;
 import io.crate.settings.SharedSettings;
@@ -83,6 +84,7 @@ public final class CrateSettings implements ClusterStateListener {
             JobsLogService.STATS_OPERATIONS_LOG_SIZE_SETTING,
             JobsLogService.STATS_OPERATIONS_LOG_EXPIRATION_SETTING,
             TableStatsService.STATS_SERVICE_REFRESH_INTERVAL_SETTING,
+            ColumnStatsService.STATS_ANALYZE_INTERVAL_SETTING,
             CrateCircuitBreakerService.JOBS_LOG_CIRCUIT_BREAKER_LIMIT_SETTING,
             CrateCircuitBreakerService.JOBS_LOG_CIRCUIT_BREAKER_OVERHEAD_SETTING,
             CrateCircuitBreakerService.OPERATIONS_LOG_CIRCUIT_BREAKER_LIMIT_SETTING,
@@ -24,6 +24,7 @@ package io.crate.metadata.shard;
 import com.google.common.collect.ImmutableMap;
 import io.crate.exceptions.ResourceUnknownException;
 import io.crate.exceptions.UnhandledServerException;
+import io.crate.execution.dml.TranslogGroupCommitService;
 import io.crate.expression.NestableInput;
 import io.crate.expression.reference.LiteralNestableInput;
 import io.crate.expression.reference.ReferenceResolver;
@@ -38,6 +39,7 @@ import io.crate.expression.reference.sys.shard.ShardRelocatingNodeExpression;
 import io.crate.expression.reference.sys.shard.ShardRoutingStateExpression;
 import io.crate.expression.reference.sys.shard.ShardSizeExpression;
 import io.crate.expression.reference.sys.shard.ShardStateExpression;
+import io.crate.expression.reference.sys.shard.ShardTranslogGroupCommitExpression;
 import io.crate.metadata.IndexParts;
 import io.crate.metadata.MapBackedRefResolver;
 import io.crate.metadata.PartitionName;
@@ -64,6 +66,7 @@ public class ShardReferenceResolver {
 
     public static ReferenceResolver<NestableInput<?>> create(ClusterService clusterService,
                                                              Schemas schemas,
+                                                             TranslogGroupCommitService translogGroupCommit,
                                                              IndexShard indexShard) {
         ShardId shardId = indexShard.shardId();
         Index index = shardId.getIndex();
@@ -97,6 +100,8 @@ public class ShardReferenceResolver {
             SysShardsTableInfo.ReferenceIdents.MIN_LUCENE_VERSION,
             new ShardMinLuceneVersionExpression(indexShard));
         builder.put(SysShardsTableInfo.ReferenceIdents.RECOVERY, new ShardRecoveryExpression(indexShard));
+        builder.put(SysShardsTableInfo.ReferenceIdents.TRANSLOG_GROUP_COMMIT,
+            new ShardTranslogGroupCommitExpression(translogGroupCommit, shardId));
         builder.put(SysShardsTableInfo.ReferenceIdents.NODE, new NodeNestableInput(clusterService.localNode()));
         return new MapBackedRefResolver(builder.build());
     }
@@ -75,6 +75,7 @@ public class BlobShardReferenceResolver {
             SysShardsTableInfo.ReferenceIdents.MIN_LUCENE_VERSION,
             new ShardMinLuceneVersionExpression(indexShard));
         implementations.put(SysShardsTableInfo.ReferenceIdents.RECOVERY, new ShardRecoveryExpression(indexShard));
+        implementations.put(SysShardsTableInfo.ReferenceIdents.TRANSLOG_GROUP_COMMIT, new LiteralNestableInput<>(null));
         implementations.put(SysShardsTableInfo.ReferenceIdents.NODE, new NodeNestableInput(localNode));
         return new MapBackedRefResolver(implementations);
     }
@@ -0,0 +1,405 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.metadata.stats;
+
+import io.crate.Streamer;
+import io.crate.breaker.SizeEstimator;
+import io.crate.breaker.SizeEstimatorFactory;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Statistics of a single column, computed from a random sample of the rows of a table.
+ *
+ * <ul>
+ *     <li>nullFraction: fraction of the rows where the column is null</li>
+ *     <li>averageSizeInBytes: average size of the non-null values</li>
+ *     <li>approxDistinct: estimated number of distinct non-null values in the whole table</li>
+ *     <li>mostCommonValues/mostCommonFrequencies: values which occur more often than the average value and the
+ *     fraction of rows (including nulls) they occur in</li>
+ *     <li>histogram: bounds of equi-depth buckets over the values that are not part of the most common values</li>
+ * </ul>
+ */
+public final class ColumnStats implements Writeable {
+
+    static final int MAX_MOST_COMMON_VALUES = 100;
+    static final int MAX_HISTOGRAM_BUCKETS = 100;
+
+    private final DataType type;
+    private final double nullFraction;
+    private final double averageSizeInBytes;
+    private final double approxDistinct;
+    private final List<Object> mostCommonValues;
+    private final List<Double> mostCommonFrequencies;
+    private final List<Object> histogram;
+
+    public ColumnStats(DataType type,
+                       double nullFraction,
+                       double averageSizeInBytes,
+                       double approxDistinct,
+                       List<Object> mostCommonValues,
+                       List<Double> mostCommonFrequencies,
+                       List<Object> histogram) {
+        assert mostCommonValues.size() == mostCommonFrequencies.size()
+            : "Each most common value must have a frequency";
+        this.type = type;
+        this.nullFraction = nullFraction;
+        this.averageSizeInBytes = averageSizeInBytes;
+        this.approxDistinct = approxDistinct;
+        this.mostCommonValues = mostCommonValues;
+        this.mostCommonFrequencies = mostCommonFrequencies;
+        this.histogram = histogram;
+    }
+
+    public ColumnStats(StreamInput in) throws IOException {
+        type = DataTypes.fromStream(in);
+        nullFraction = in.readDouble();
+        averageSizeInBytes = in.readDouble();
+        approxDistinct = in.readDouble();
+        Streamer streamer = type.streamer();
+        int numMostCommon = in.readVInt();
+        mostCommonValues = new ArrayList<>(numMostCommon);
+        mostCommonFrequencies = new ArrayList<>(numMostCommon);
+        for (int i = 0; i < numMostCommon; i++) {
+            mostCommonValues.add(streamer.readValueFrom(in));
+            mostCommonFrequencies.add(in.readDouble());
+        }
+        int numBounds = in.readVInt();
+        histogram = new ArrayList<>(numBounds);
+        for (int i = 0; i < numBounds; i++) {
+            histogram.add(streamer.readValueFrom(in));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void writeTo(StreamOutput out) throws IOException {
+        DataTypes.toStream(type, out);
+        out.writeDouble(nullFraction);
+        out.writeDouble(averageSizeInBytes);
+        out.writeDouble(approxDistinct);
+        Streamer streamer = type.streamer();
+        out.writeVInt(mostCommonValues.size());
+        for (int i = 0; i < mostCommonValues.size(); i++) {
+            streamer.writeValueTo(out, mostCommonValues.get(i));
+            out.writeDouble(mostCommonFrequencies.get(i));
+        }
+        out.writeVInt(histogram.size());
+        for (Object bound : histogram) {
+            streamer.writeValueTo(out, bound);
+        }
+    }
+
+    /**
+     * Computes the statistics of a column out of a random sample of its values.
+     *
+     * @param samples  the sampled values, may contain nulls
+     * @param numDocs  the number of rows in the table the sample has been taken from;
+     *                 -1 if unknown, in which case the sample is assumed to cover the whole table
+     */
+    @SuppressWarnings("unchecked")
+    public static ColumnStats fromSample(DataType type, List<Object> samples, long numDocs) {
+        int sampleSize = samples.size();
+        if (sampleSize == 0) {
+            return new ColumnStats(type, 0.0, 0.0, 0.0, Collections.emptyList(), Collections.emptyList(),
+                Collections.emptyList());
+        }
+        SizeEstimator<Object> sizeEstimator = SizeEstimatorFactory.create(type);
+        ArrayList<Object> values = new ArrayList<>(sampleSize);
+        long totalBytes = 0;
+        for (Object sample : samples) {
+            if (sample != null) {
+                values.add(sample);
+                totalBytes += sizeEstimator.estimateSize(sample);
+            }
+        }
+        int numNulls = sampleSize - values.size();
+        double nullFraction = (double) numNulls / sampleSize;
+        if (values.isEmpty()) {
+            return new ColumnStats(type, nullFraction, 0.0, 0.0, Collections.emptyList(), Collections.emptyList(),
+                Collections.emptyList());
+        }
+        double averageSizeInBytes = (double) totalBytes / values.size();
+
+        Comparator<Object> comparator = type::compareValueTo;
+        values.sort(comparator);
+
+        // run-length encode the sorted values to get the frequency of each distinct value
+        ArrayList<Object> distinctValues = new ArrayList<>();
+        ArrayList<Integer> counts = new ArrayList<>();
+        int singletons = 0;
+        for (int i = 0; i < values.size(); ) {
+            Object value = values.get(i);
+            int j = i + 1;
+            while (j < values.size() && comparator.compare(value, values.get(j)) == 0) {
+                j++;
+            }
+            int count = j - i;
+            if (count == 1) {
+                singletons++;
+            }
+            distinctValues.add(value);
+            counts.add(count);
+            i = j;
+        }
+        double approxDistinct = estimateDistinct(
+            values.size(), distinctValues.size(), singletons, numDocs < 0 ? -1 : (long) (numDocs * (1.0 - nullFraction)));
+
+        List<Object> mostCommonValues = new ArrayList<>();
+        List<Double> mostCommonFrequencies = new ArrayList<>();
+        int[] order = mostCommonOrder(distinctValues.size(), counts, values.size(), singletons == 0);
+        boolean[] isMostCommon = new boolean[distinctValues.size()];
+        for (int idx : order) {
+            mostCommonValues.add(distinctValues.get(idx));
+            mostCommonFrequencies.add((double) counts.get(idx) / sampleSize);
+            isMostCommon[idx] = true;
+        }
+
+        ArrayList<Object> remaining = new ArrayList<>(values.size());
+        for (int i = 0; i < distinctValues.size(); i++) {
+            if (isMostCommon[i] == false) {
+                Object value = distinctValues.get(i);
+                for (int c = 0; c < counts.get(i); c++) {
+                    remaining.add(value);
+                }
+            }
+        }
+        return new ColumnStats(
+            type,
+            nullFraction,
+            averageSizeInBytes,
+            approxDistinct,
+            mostCommonValues,
+            mostCommonFrequencies,
+            equiDepthHistogram(remaining));
+    }
+
+    /**
+     * Duj1 estimator (Haas and Stokes) for the number of distinct values based on a sample.
+     *
+     * @param numValues   number of non-null values in the sample
+     * @param numDistinct number of distinct values in the sample
+     * @param singletons  number of values which occur exactly once in the sample
+     * @param totalValues number of non-null values in the table; -1 if unknown
+     */
+    static double estimateDistinct(int numValues, int numDistinct, int singletons, long totalValues) {
+        if (totalValues <= numValues || singletons == 0) {
+            // either the sample covers all rows or every value has been seen more than once;
+            // in both cases the sample is assumed to contain all distinct values
+            return numDistinct;
+        }
+        double n = numValues;
+        double estimate = (n * numDistinct) / (n - singletons + singletons * n / totalValues);
+        return Math.max(numDistinct, Math.min(estimate, totalValues));
+    }
+
+    /**
+     * @return the indices of the values which are considered most common, ordered by descending frequency
+     */
+    private static int[] mostCommonOrder(int numDistinct, List<Integer> counts, int numValues, boolean sampleHasAll) {
+        Integer[] indices = new Integer[numDistinct];
+        for (int i = 0; i < numDistinct; i++) {
+            indices[i] = i;
+        }
+        Arrays.sort(indices, (a, b) -> Integer.compare(counts.get(b), counts.get(a)));
+
+        int limit = Math.min(numDistinct, MAX_MOST_COMMON_VALUES);
+        if (sampleHasAll && numDistinct <= MAX_MOST_COMMON_VALUES) {
+            // the whole distribution fits into the most common values
+            int[] result = new int[numDistinct];
+            for (int i = 0; i < numDistinct; i++) {
+                result[i] = indices[i];
+            }
+            return result;
+        }
+        // like PostgreSQL: only keep values which are notably more common than the average value
+        double minCount = Math.max(2, 1.25 * numValues / numDistinct);
+        int numMostCommon = 0;
+        while (numMostCommon < limit && counts.get(indices[numMostCommon]) >= minCount) {
+            numMostCommon++;
+        }
+        int[] result = new int[numMostCommon];
+        for (int i = 0; i < numMostCommon; i++) {
+            result[i] = indices[i];
+        }
+        return result;
+    }
+
+    /**
+     * @param sortedValues sorted, non-null values
+     * @return the bounds of up to {@link #MAX_HISTOGRAM_BUCKETS} buckets which each contain roughly the same
+     *         number of values. Empty if there are not at least two distinct values.
+     */
+    static List<Object> equiDepthHistogram(List<Object> sortedValues) {
+        int numValues = sortedValues.size();
+        if (numValues < 2) {
+            return Collections.emptyList();
+        }
+        int numBuckets = Math.min(MAX_HISTOGRAM_BUCKETS, numValues - 1);
+        ArrayList<Object> bounds = new ArrayList<>(numBuckets + 1);
+        Object previous = null;
+        for (int i = 0; i <= numBuckets; i++) {
+            int pos = (int) ((long) i * (numValues - 1) / numBuckets);
+            Object bound = sortedValues.get(pos);
+            if (previous == null || previous.equals(bound) == false) {
+                bounds.add(bound);
+            }
+            previous = bound;
+        }
+        if (bounds.size() < 2) {
+            return Collections.emptyList();
+        }
+        return bounds;
+    }
+
+    public DataType type() {
+        return type;
+    }
+
+    public double nullFraction() {
+        return nullFraction;
+    }
+
+    public double averageSizeInBytes() {
+        return averageSizeInBytes;
+    }
+
+    public double approxDistinct() {
+        return approxDistinct;
+    }
+
+    public List<Object> mostCommonValues() {
+        return mostCommonValues;
+    }
+
+    public List<Double> mostCommonFrequencies() {
+        return mostCommonFrequencies;
+    }
+
+    public List<Object> histogram() {
+        return histogram;
+    }
+
+    void toXContent(XContentBuilder builder) throws IOException {
+        builder.startObject();
+        builder.field("type", type.id());
+        builder.field("null_fraction", nullFraction);
+        builder.field("avg_size", averageSizeInBytes);
+        builder.field("n_distinct", approxDistinct);
+        builder.startArray("most_common_values");
+        for (Object value : mostCommonValues) {
+            valueToXContent(builder, value);
+        }
+        builder.endArray();
+        builder.startArray("most_common_freqs");
+        for (Double frequency : mostCommonFrequencies) {
+            builder.value(frequency);
+        }
+        builder.endArray();
+        builder.startArray("histogram");
+        for (Object bound : histogram) {
+            valueToXContent(builder, bound);
+        }
+        builder.endArray();
+        builder.endObject();
+    }
+
+    private static void valueToXContent(XContentBuilder builder, Object value) throws IOException {
+        if (value instanceof BytesRef) {
+            builder.value(((BytesRef) value).utf8ToString());
+        } else {
+            builder.value(value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static ColumnStats fromMap(Map<String, Object> map) {
+        DataType type = DataTypes.fromId(((Number) map.get("type")).intValue());
+        List<Object> mostCommonValues = new ArrayList<>();
+        for (Object value : (List<Object>) map.get("most_common_values")) {
+            mostCommonValues.add(type.value(value));
+        }
+        List<Double> mostCommonFrequencies = new ArrayList<>();
+        for (Object frequency : (List<Object>) map.get("most_common_freqs")) {
+            mostCommonFrequencies.add(((Number) frequency).doubleValue());
+        }
+        List<Object> histogram = new ArrayList<>();
+        for (Object bound : (List<Object>) map.get("histogram")) {
+            histogram.add(type.value(bound));
+        }
+        return new ColumnStats(
+            type,
+            ((Number) map.get("null_fraction")).doubleValue(),
+            ((Number) map.get("avg_size")).doubleValue(),
+            ((Number) map.get("n_distinct")).doubleValue(),
+            mostCommonValues,
+            mostCommonFrequencies,
+            histogram
+        );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ColumnStats that = (ColumnStats) o;
+        return Double.compare(that.nullFraction, nullFraction) == 0 &&
+               Double.compare(that.averageSizeInBytes, averageSizeInBytes) == 0 &&
+               Double.compare(that.approxDistinct, approxDistinct) == 0 &&
+               type.equals(that.type) &&
+               mostCommonValues.equals(that.mostCommonValues) &&
+               mostCommonFrequencies.equals(that.mostCommonFrequencies) &&
+               histogram.equals(that.histogram);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, nullFraction, averageSizeInBytes, approxDistinct, mostCommonValues,
+            mostCommonFrequencies, histogram);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnStats{" +
+               "type=" + type +
+               ", nullFraction=" + nullFraction +
+               ", approxDistinct=" + approxDistinct +
+               ", mostCommonValues=" + mostCommonValues.size() +
+               ", histogramBounds=" + histogram.size() +
+               '}';
+    }
+}
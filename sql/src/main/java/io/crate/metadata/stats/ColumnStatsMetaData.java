@@ -0,0 +1,202 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.metadata.stats;
+
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.RelationName;
+import org.elasticsearch.ElasticsearchParseException;
+import org.elasticsearch.cluster.AbstractNamedDiffable;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentParser;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Column statistics of all analyzed tables, collected by {@code ANALYZE} or the periodic
+ * {@link io.crate.planner.ColumnStatsService} run.
+ */
+public class ColumnStatsMetaData extends AbstractNamedDiffable<MetaData.Custom> implements MetaData.Custom {
+
+    public static final String TYPE = "column_stats";
+
+    private final Map<RelationName, Map<ColumnIdent, ColumnStats>> statsByTable;
+
+    ColumnStatsMetaData(Map<RelationName, Map<ColumnIdent, ColumnStats>> statsByTable) {
+        this.statsByTable = statsByTable;
+    }
+
+    public ColumnStatsMetaData(StreamInput in) throws IOException {
+        int numTables = in.readVInt();
+        statsByTable = new HashMap<>(numTables);
+        for (int i = 0; i < numTables; i++) {
+            RelationName relationName = new RelationName(in);
+            int numColumns = in.readVInt();
+            Map<ColumnIdent, ColumnStats> statsByColumn = new HashMap<>(numColumns);
+            for (int j = 0; j < numColumns; j++) {
+                statsByColumn.put(new ColumnIdent(in), new ColumnStats(in));
+            }
+            statsByTable.put(relationName, statsByColumn);
+        }
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(statsByTable.size());
+        for (Map.Entry<RelationName, Map<ColumnIdent, ColumnStats>> table : statsByTable.entrySet()) {
+            table.getKey().writeTo(out);
+            out.writeVInt(table.getValue().size());
+            for (Map.Entry<ColumnIdent, ColumnStats> column : table.getValue().entrySet()) {
+                column.getKey().writeTo(out);
+                column.getValue().writeTo(out);
+            }
+        }
+    }
+
+    @Override
+    public EnumSet<MetaData.XContentContext> context() {
+        return EnumSet.of(MetaData.XContentContext.GATEWAY, MetaData.XContentContext.SNAPSHOT);
+    }
+
+    @Override
+    public String getWriteableName() {
+        return TYPE;
+    }
+
+    /*
+     * ColumnStatsMetaData XContent has the following structure:
+     *
+     * <pre>
+     *     {
+     *       "column_stats": {
+     *         "doc.t1": {
+     *           "x": {
+     *             "type": 9,
+     *             "null_fraction": 0.1,
+     *             "avg_size": 8.0,
+     *             "n_distinct": 120.0,
+     *             "most_common_values": [1, 2],
+     *             "most_common_freqs": [0.3, 0.2],
+     *             "histogram": [3, 20, 90, 300]
+     *           }
+     *         }
+     *       }
+     *     }
+     * </pre>
+     *
+     * <ul>
+     *     <li>"doc.t1" is the full qualified name of the table</li>
+     *     <li>"x" is the full qualified name of the column</li>
+     *     <li>value of "type" is the id of the data type of the column</li>
+     * </ul>
+     */
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject(TYPE);
+        for (Map.Entry<RelationName, Map<ColumnIdent, ColumnStats>> table : statsByTable.entrySet()) {
+            builder.startObject(table.getKey().fqn());
+            for (Map.Entry<ColumnIdent, ColumnStats> column : table.getValue().entrySet()) {
+                builder.field(column.getKey().fqn());
+                column.getValue().toXContent(builder);
+            }
+            builder.endObject();
+        }
+        builder.endObject();
+        return builder;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static ColumnStatsMetaData fromXContent(XContentParser parser) throws IOException {
+        Map<RelationName, Map<ColumnIdent, ColumnStats>> statsByTable = new HashMap<>();
+
+        if (parser.nextToken() == XContentParser.Token.FIELD_NAME && parser.currentName().equals(TYPE)) {
+            if (parser.nextToken() == XContentParser.Token.START_OBJECT) {
+                while (parser.nextToken() == XContentParser.Token.FIELD_NAME) {
+                    RelationName relationName = RelationName.fromIndexName(parser.currentName());
+                    if (parser.nextToken() == XContentParser.Token.START_OBJECT) {
+                        Map<ColumnIdent, ColumnStats> statsByColumn = new HashMap<>();
+                        for (Map.Entry<String, Object> column : parser.map().entrySet()) {
+                            statsByColumn.put(
+                                ColumnIdent.fromPath(column.getKey()),
+                                ColumnStats.fromMap((Map<String, Object>) column.getValue()));
+                        }
+                        statsByTable.put(relationName, statsByColumn);
+                    }
+                }
+            }
+            if (parser.nextToken() != XContentParser.Token.END_OBJECT) {
+                // each custom metadata is packed inside an object.
+                // each custom must move the parser to the end otherwise possible following customs won't be read
+                throw new ElasticsearchParseException("failed to parse column stats, expected an object token at the end");
+            }
+        }
+        return new ColumnStatsMetaData(statsByTable);
+    }
+
+    public Map<RelationName, Map<ColumnIdent, ColumnStats>> statsByTable() {
+        return Collections.unmodifiableMap(statsByTable);
+    }
+
+    public Map<ColumnIdent, ColumnStats> getStats(RelationName relationName) {
+        return statsByTable.getOrDefault(relationName, Collections.emptyMap());
+    }
+
+    /**
+     * @return A copy of the ColumnStatsMetaData with the stats of the given tables added (or replaced in case they
+     * already existed). Stats of tables which don't match {@code tableExists} are removed.
+     */
+    public static ColumnStatsMetaData merge(@Nullable ColumnStatsMetaData prevStats,
+                                            Map<RelationName, Map<ColumnIdent, ColumnStats>> newStats,
+                                            Predicate<RelationName> tableExists) {
+        HashMap<RelationName, Map<ColumnIdent, ColumnStats>> statsByTable = new HashMap<>();
+        if (prevStats != null) {
+            statsByTable.putAll(prevStats.statsByTable);
+        }
+        statsByTable.putAll(newStats);
+        statsByTable.keySet().removeIf(tableExists.negate());
+        return new ColumnStatsMetaData(statsByTable);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ColumnStatsMetaData that = (ColumnStatsMetaData) o;
+        return statsByTable.equals(that.statsByTable);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(statsByTable);
+    }
+}
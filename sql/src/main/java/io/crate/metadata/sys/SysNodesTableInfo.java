@@ -24,6 +24,7 @@ package io.crate.metadata.sys;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.crate.action.sql.SessionContext;
+import io.crate.action.sql.StatementCacheStats;
 import io.crate.analyze.WhereClause;
 import io.crate.execution.engine.collect.NestableCollectExpression;
 import io.crate.expression.reference.ObjectCollectExpression;
@@ -166,6 +167,13 @@ public class SysNodesTableInfo extends StaticTableInfo {
         static final ColumnIdent CONNECTIONS_TRANSPORT = ColumnIdent.getChild(CONNECTIONS, "transport");
         static final ColumnIdent CONNECTIONS_TRANSPORT_OPEN = ColumnIdent.getChild(CONNECTIONS_TRANSPORT, "open");
 
+        public static final ColumnIdent STATEMENT_CACHE = new ColumnIdent("statement_cache");
+        static final ColumnIdent STATEMENT_CACHE_SIZE = ColumnIdent.getChild(STATEMENT_CACHE, "size");
+        static final ColumnIdent STATEMENT_CACHE_HITS = ColumnIdent.getChild(STATEMENT_CACHE, "hits");
+        static final ColumnIdent STATEMENT_CACHE_MISSES = ColumnIdent.getChild(STATEMENT_CACHE, "misses");
+        static final ColumnIdent STATEMENT_CACHE_EVICTIONS = ColumnIdent.getChild(STATEMENT_CACHE, "evictions");
+        static final ColumnIdent STATEMENT_CACHE_HIT_RATE = ColumnIdent.getChild(STATEMENT_CACHE, "hit_rate");
+
         public static final ColumnIdent OS = new ColumnIdent(SYS_COL_OS);
         static final ColumnIdent OS_UPTIME = new ColumnIdent(SYS_COL_OS, ImmutableList.of("uptime"));
         static final ColumnIdent OS_TIMESTAMP = new ColumnIdent(SYS_COL_OS, ImmutableList.of("timestamp"));
@@ -376,9 +384,37 @@ public class SysNodesTableInfo extends StaticTableInfo {
                 }
             })
             .put(Columns.CONNECTIONS, SysNodesTableInfo::createConnectionsExpression)
+            .put(Columns.STATEMENT_CACHE, SysNodesTableInfo::createStatementCacheExpression)
             .build();
     }
 
+    private static ObjectCollectExpression<NodeStatsContext> createStatementCacheExpression() {
+        return new ObjectCollectExpression<>(
+            ImmutableMap.of(
+                Columns.STATEMENT_CACHE_SIZE.path().get(0),
+                NestableCollectExpression.<NodeStatsContext, StatementCacheStats>withNullableProperty(
+                    NodeStatsContext::statementCacheStats,
+                    StatementCacheStats::size),
+                Columns.STATEMENT_CACHE_HITS.path().get(0),
+                NestableCollectExpression.<NodeStatsContext, StatementCacheStats>withNullableProperty(
+                    NodeStatsContext::statementCacheStats,
+                    StatementCacheStats::hits),
+                Columns.STATEMENT_CACHE_MISSES.path().get(0),
+                NestableCollectExpression.<NodeStatsContext, StatementCacheStats>withNullableProperty(
+                    NodeStatsContext::statementCacheStats,
+                    StatementCacheStats::misses),
+                Columns.STATEMENT_CACHE_EVICTIONS.path().get(0),
+                NestableCollectExpression.<NodeStatsContext, StatementCacheStats>withNullableProperty(
+                    NodeStatsContext::statementCacheStats,
+                    StatementCacheStats::evictions),
+                Columns.STATEMENT_CACHE_HIT_RATE.path().get(0),
+                NestableCollectExpression.<NodeStatsContext, StatementCacheStats>withNullableProperty(
+                    NodeStatsContext::statementCacheStats,
+                    StatementCacheStats::hitRate)
+            )
+        );
+    }
+
     private static ObjectCollectExpression<NodeStatsContext> createConnectionsExpression() {
         return new ObjectCollectExpression<>(
             ImmutableMap.of(
@@ -490,6 +526,13 @@ public class SysNodesTableInfo extends StaticTableInfo {
                 .register(Columns.CONNECTIONS_TRANSPORT, DataTypes.OBJECT)
                 .register(Columns.CONNECTIONS_TRANSPORT_OPEN, DataTypes.LONG)
 
+                .register(Columns.STATEMENT_CACHE, DataTypes.OBJECT)
+                .register(Columns.STATEMENT_CACHE_SIZE, DataTypes.LONG)
+                .register(Columns.STATEMENT_CACHE_HITS, DataTypes.LONG)
+                .register(Columns.STATEMENT_CACHE_MISSES, DataTypes.LONG)
+                .register(Columns.STATEMENT_CACHE_EVICTIONS, DataTypes.LONG)
+                .register(Columns.STATEMENT_CACHE_HIT_RATE, DataTypes.DOUBLE)
+
                 .register(Columns.OS, DataTypes.OBJECT)
                 .register(Columns.OS_UPTIME, DataTypes.LONG)
                 .register(Columns.OS_TIMESTAMP, DataTypes.TIMESTAMP)
@@ -103,6 +103,12 @@ public class SysShardsTableInfo extends StaticTableInfo {
         static final ColumnIdent RECOVERY_SIZE_PERCENT =
             new ColumnIdent("recovery", ImmutableList.of("size", "percent"));
 
+        static final ColumnIdent TRANSLOG_GROUP_COMMIT = new ColumnIdent("translog_group_commit");
+        static final ColumnIdent TRANSLOG_GROUP_COMMIT_REQUESTS =
+            new ColumnIdent("translog_group_commit", ImmutableList.of("requests"));
+        static final ColumnIdent TRANSLOG_GROUP_COMMIT_SYNCS =
+            new ColumnIdent("translog_group_commit", ImmutableList.of("syncs"));
+
         static final ColumnIdent PATH = new ColumnIdent("path");
         static final ColumnIdent BLOB_PATH = new ColumnIdent("blob_path");
 
@@ -133,6 +139,8 @@ public class SysShardsTableInfo extends StaticTableInfo {
         public static final ReferenceIdent ROUTING_STATE = new ReferenceIdent(IDENT, Columns.ROUTING_STATE);
         public static final ReferenceIdent ORPHAN_PARTITION = new ReferenceIdent(IDENT, Columns.ORPHAN_PARTITION);
         public static final ReferenceIdent RECOVERY = new ReferenceIdent(IDENT, Columns.RECOVERY);
+        public static final ReferenceIdent TRANSLOG_GROUP_COMMIT =
+            new ReferenceIdent(IDENT, Columns.TRANSLOG_GROUP_COMMIT);
         public static final ReferenceIdent PATH = new ReferenceIdent(IDENT, Columns.PATH);
         public static final ReferenceIdent BLOB_PATH = new ReferenceIdent(IDENT, Columns.BLOB_PATH);
         public static final ReferenceIdent MIN_LUCENE_VERSION = new ReferenceIdent(IDENT, Columns.MIN_LUCENE_VERSION);
@@ -174,6 +182,17 @@ public class SysShardsTableInfo extends StaticTableInfo {
                     return this;
                 }
             })
+            .put(Columns.TRANSLOG_GROUP_COMMIT, () -> new NestableCollectExpression<UnassignedShard, Object>() {
+                @Override
+                public Object value() {
+                    return null;
+                }
+
+                @Override
+                public NestableInput getChild(String name) {
+                    return this;
+                }
+            })
             .put(Columns.PATH,
                 () -> NestableCollectExpression.objToBytesRef(r -> null))
             .put(Columns.BLOB_PATH,
@@ -231,6 +250,9 @@ public class SysShardsTableInfo extends StaticTableInfo {
                 .register(Columns.RECOVERY_FILES_REUSED, IntegerType.INSTANCE)
                 .register(Columns.RECOVERY_FILES_RECOVERED, IntegerType.INSTANCE)
                 .register(Columns.RECOVERY_FILES_PERCENT, FloatType.INSTANCE)
+                .register(Columns.TRANSLOG_GROUP_COMMIT, ObjectType.INSTANCE)
+                .register(Columns.TRANSLOG_GROUP_COMMIT_REQUESTS, LongType.INSTANCE)
+                .register(Columns.TRANSLOG_GROUP_COMMIT_SYNCS, LongType.INSTANCE)
                 .register(Columns.PATH, DataTypes.STRING)
                 .register(Columns.BLOB_PATH, DataTypes.STRING)
 
@@ -43,8 +43,12 @@ public class CSVLineParser {
         .readerWithTypedSchemaFor(String.class);
 
     public void parseHeader(BufferedReader currentReader) throws IOException {
-        String header = currentReader.readLine();
-        keyList = csvReader.readValues(header.getBytes(StandardCharsets.UTF_8)).readAll();
+        byte[] header = currentReader.readLine().getBytes(StandardCharsets.UTF_8);
+        parseHeader(header, 0, header.length);
+    }
+
+    public void parseHeader(byte[] header, int offset, int length) throws IOException {
+        keyList = csvReader.readValues(header, offset, length).readAll();
         Set<Object> keySet = new HashSet<>(keyList);
         keySet.remove("");
 
@@ -54,7 +58,12 @@ public class CSVLineParser {
     }
 
     public byte[] parse(String row) throws IOException {
-        MappingIterator<Object> iterator = csvReader.readValues(row.getBytes(StandardCharsets.UTF_8));
+        byte[] bytes = row.getBytes(StandardCharsets.UTF_8);
+        return parse(bytes, 0, bytes.length);
+    }
+
+    public byte[] parse(byte[] row, int offset, int length) throws IOException {
+        MappingIterator<Object> iterator = csvReader.readValues(row, offset, length);
         HashMap<Object, Object> csvAsMap = new HashMap<>();
         int i = 0;
         while (iterator.hasNext()) {
@@ -0,0 +1,255 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner;
+
+import com.carrotsearch.hppc.cursors.ObjectCursor;
+import com.google.common.annotations.VisibleForTesting;
+import io.crate.action.FutureActionListener;
+import io.crate.concurrent.CompletableFutures;
+import io.crate.execution.ddl.stats.FetchSampleRequest;
+import io.crate.execution.ddl.stats.FetchSampleResponse;
+import io.crate.execution.ddl.stats.PublishColumnStatsRequest;
+import io.crate.execution.ddl.stats.PublishColumnStatsResponse;
+import io.crate.execution.ddl.stats.TransportFetchSampleNodeAction;
+import io.crate.execution.ddl.stats.TransportPublishColumnStatsAction;
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.Reference;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.Schemas;
+import io.crate.metadata.doc.DocTableInfo;
+import io.crate.metadata.stats.ColumnStats;
+import io.crate.metadata.stats.ColumnStatsMetaData;
+import io.crate.metadata.table.Operation;
+import io.crate.metadata.table.SchemaInfo;
+import io.crate.metadata.table.TableInfo;
+import io.crate.settings.CrateSetting;
+import io.crate.types.DataTypes;
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.elasticsearch.cluster.ClusterStateListener;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.component.AbstractComponent;
+import org.elasticsearch.common.Randomness;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Collects column statistics by sampling the rows of tables and publishes them to the cluster state
+ * as {@link ColumnStatsMetaData}.
+ * <p>
+ * Each node samples randomly chosen documents of its primary shards, so the number of rows read is bound
+ * by {@link #SAMPLE_SIZE} per shard, independent of the size of the tables.
+ * </p>
+ * <p>
+ * Tables are analyzed on demand by {@code ANALYZE} and periodically (on the master node) based on
+ * {@link #analyzeInterval}. Every node keeps {@link TableStats} up to date with the published statistics.
+ * </p>
+ */
+@Singleton
+public class ColumnStatsService extends AbstractComponent implements Runnable, ClusterStateListener {
+
+    public static final CrateSetting<TimeValue> STATS_ANALYZE_INTERVAL_SETTING = CrateSetting.of(Setting.timeSetting(
+        "stats.analyze.interval", TimeValue.timeValueHours(24), Setting.Property.NodeScope, Setting.Property.Dynamic),
+        DataTypes.STRING);
+
+    @VisibleForTesting
+    static final int SAMPLE_SIZE = 30_000;
+
+    private final ClusterService clusterService;
+    private final ThreadPool threadPool;
+    private final TableStats tableStats;
+    private final Schemas schemas;
+    private final TransportPublishColumnStatsAction publishColumnStatsAction;
+    private final TransportFetchSampleNodeAction fetchSampleAction;
+
+    @VisibleForTesting
+    ThreadPool.Cancellable analyzeScheduledTask;
+    @VisibleForTesting
+    TimeValue analyzeInterval;
+
+    @Inject
+    public ColumnStatsService(Settings settings,
+                              ThreadPool threadPool,
+                              ClusterService clusterService,
+                              TableStats tableStats,
+                              Schemas schemas,
+                              TransportPublishColumnStatsAction publishColumnStatsAction,
+                              TransportFetchSampleNodeAction fetchSampleAction) {
+        super(settings);
+        this.threadPool = threadPool;
+        this.clusterService = clusterService;
+        this.tableStats = tableStats;
+        this.schemas = schemas;
+        this.publishColumnStatsAction = publishColumnStatsAction;
+        this.fetchSampleAction = fetchSampleAction;
+        analyzeInterval = STATS_ANALYZE_INTERVAL_SETTING.setting().get(settings);
+        analyzeScheduledTask = scheduleAnalyze(analyzeInterval);
+
+        clusterService.addListener(this);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(
+            STATS_ANALYZE_INTERVAL_SETTING.setting(), this::setAnalyzeInterval);
+    }
+
+    @Override
+    public void run() {
+        if (clusterService.localNode() == null || clusterService.state().nodes().isLocalNodeElectedMaster() == false) {
+            // the master node takes care of the periodic analysis, other nodes only receive the results
+            return;
+        }
+        analyzeAll().whenComplete((resp, t) -> {
+            if (t != null) {
+                logger.error("error analyzing tables", t);
+            }
+        });
+    }
+
+    @Override
+    public void clusterChanged(ClusterChangedEvent event) {
+        ColumnStatsMetaData prevStats = event.previousState().metaData().custom(ColumnStatsMetaData.TYPE);
+        ColumnStatsMetaData newStats = event.state().metaData().custom(ColumnStatsMetaData.TYPE);
+        if (newStats != null && newStats.equals(prevStats) == false) {
+            tableStats.updateColumnStats(newStats.statsByTable());
+        }
+    }
+
+    /**
+     * Analyzes all user tables which support {@link Operation#ANALYZE}.
+     */
+    public CompletableFuture<PublishColumnStatsResponse> analyzeAll() {
+        return analyze(analyzableTables());
+    }
+
+    private List<DocTableInfo> analyzableTables() {
+        ArrayList<DocTableInfo> tables = new ArrayList<>();
+        for (SchemaInfo schemaInfo : schemas) {
+            for (TableInfo tableInfo : schemaInfo.getTables()) {
+                if (tableInfo instanceof DocTableInfo
+                    && tableInfo.supportedOperations().contains(Operation.ANALYZE)) {
+                    tables.add((DocTableInfo) tableInfo);
+                }
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Samples the given tables one after another and publishes the resulting column statistics.
+     * Sampling a table reads only the sampled documents to keep the load on the cluster low.
+     */
+    public CompletableFuture<PublishColumnStatsResponse> analyze(List<DocTableInfo> tables) {
+        Map<RelationName, Map<ColumnIdent, ColumnStats>> statsByTable = new HashMap<>(tables.size());
+        CompletableFuture<Void> samplingDone = CompletableFuture.completedFuture(null);
+        for (DocTableInfo table : tables) {
+            List<Reference> columns = sampleColumns(table);
+            if (columns.isEmpty()) {
+                continue;
+            }
+            samplingDone = samplingDone.thenCompose(ignored -> sample(table, columns)
+                .thenAccept(stats -> statsByTable.put(table.ident(), stats)));
+        }
+        return samplingDone.thenCompose(ignored -> {
+            FutureActionListener<PublishColumnStatsResponse, PublishColumnStatsResponse> listener =
+                FutureActionListener.newInstance();
+            publishColumnStatsAction.execute(new PublishColumnStatsRequest(statsByTable), listener);
+            return listener;
+        });
+    }
+
+    private static List<Reference> sampleColumns(DocTableInfo table) {
+        return table.columns().stream()
+            .filter(ref -> DataTypes.isPrimitive(ref.valueType()))
+            .collect(Collectors.toList());
+    }
+
+    private CompletableFuture<Map<ColumnIdent, ColumnStats>> sample(DocTableInfo table, List<Reference> columns) {
+        long numDocs = tableStats.numDocs(table.ident());
+        FetchSampleRequest request = new FetchSampleRequest(
+            table.ident(), table.concreteIndices(), table.partitionedBy(), columns, SAMPLE_SIZE, numDocs);
+        List<CompletableFuture<FetchSampleResponse>> responses = new ArrayList<>();
+        for (ObjectCursor<DiscoveryNode> cursor : clusterService.state().nodes().getDataNodes().values()) {
+            FutureActionListener<FetchSampleResponse, FetchSampleResponse> listener = FutureActionListener.newInstance();
+            fetchSampleAction.execute(cursor.value.getId(), request, listener);
+            responses.add(listener);
+        }
+        return CompletableFutures.allAsList(responses).thenApply(nodeResponses -> {
+            List<Object[]> rows = mergeSamples(nodeResponses, SAMPLE_SIZE);
+            HashMap<ColumnIdent, ColumnStats> statsByColumn = new HashMap<>(columns.size());
+            for (int i = 0; i < columns.size(); i++) {
+                Reference column = columns.get(i);
+                List<Object> samples = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    samples.add(row[i]);
+                }
+                statsByColumn.put(column.column(), ColumnStats.fromSample(column.valueType(), samples, numDocs));
+            }
+            return statsByColumn;
+        });
+    }
+
+    /**
+     * Merges the samples of the nodes. The number of samples per shard is rounded up, so the merged samples
+     * are reduced to {@code sampleSize} randomly.
+     */
+    @VisibleForTesting
+    static List<Object[]> mergeSamples(List<FetchSampleResponse> responses, int sampleSize) {
+        List<Object[]> rows = new ArrayList<>();
+        for (FetchSampleResponse response : responses) {
+            rows.addAll(response.rows());
+        }
+        if (rows.size() > sampleSize) {
+            Collections.shuffle(rows, Randomness.get());
+            return rows.subList(0, sampleSize);
+        }
+        return rows;
+    }
+
+    private ThreadPool.Cancellable scheduleAnalyze(TimeValue newAnalyzeInterval) {
+        if (newAnalyzeInterval.millis() > 0) {
+            return threadPool.scheduleWithFixedDelay(
+                this,
+                newAnalyzeInterval,
+                ThreadPool.Names.GENERIC);
+        }
+        return null;
+    }
+
+    private void setAnalyzeInterval(TimeValue newAnalyzeInterval) {
+        if (analyzeScheduledTask != null) {
+            analyzeScheduledTask.cancel();
+        }
+        analyzeScheduledTask = scheduleAnalyze(newAnalyzeInterval);
+        analyzeInterval = newAnalyzeInterval;
+    }
+}
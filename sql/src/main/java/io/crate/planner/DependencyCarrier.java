@@ -23,6 +23,7 @@
 package io.crate.planner;
 
 import io.crate.action.sql.DCLStatementDispatcher;
+import io.crate.execution.SubQueryResultCache;
 import io.crate.execution.TransportActionProvider;
 import io.crate.execution.ddl.DDLStatementDispatcher;
 import io.crate.execution.ddl.tables.TransportDropTableAction;
@@ -57,6 +58,8 @@ public class DependencyCarrier {
     private final ProjectionBuilder projectionBuilder;
     private final TransportCreateViewAction createViewAction;
     private final TransportDropViewAction dropViewAction;
+    private final ColumnStatsService columnStatsService;
+    private final SubQueryResultCache subQueryResultCache;
 
     @Inject
     public DependencyCarrier(Settings settings,
@@ -69,7 +72,9 @@ public class DependencyCarrier {
                              DCLStatementDispatcher dclStatementDispatcher,
                              TransportDropTableAction transportDropTableAction,
                              TransportCreateViewAction createViewAction,
-                             TransportDropViewAction dropViewAction) {
+                             TransportDropViewAction dropViewAction,
+                             ColumnStatsService columnStatsService,
+                             SubQueryResultCache subQueryResultCache) {
         this.settings = settings;
         this.transportActionProvider = transportActionProvider;
         this.phasesTaskFactory = phasesTaskFactory;
@@ -82,6 +87,8 @@ public class DependencyCarrier {
         projectionBuilder = new ProjectionBuilder(functions);
         this.createViewAction = createViewAction;
         this.dropViewAction = dropViewAction;
+        this.columnStatsService = columnStatsService;
+        this.subQueryResultCache = subQueryResultCache;
     }
 
     public DDLStatementDispatcher ddlAction() {
@@ -139,4 +146,12 @@ public class DependencyCarrier {
     public TransportDropViewAction dropViewAction() {
         return dropViewAction;
     }
+
+    public ColumnStatsService columnStatsService() {
+        return columnStatsService;
+    }
+
+    public SubQueryResultCache subQueryResultCache() {
+        return subQueryResultCache;
+    }
 }
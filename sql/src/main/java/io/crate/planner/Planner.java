@@ -23,6 +23,7 @@
 package io.crate.planner;
 
 import com.google.common.base.Preconditions;
+import io.crate.analyze.AnalyzeStmt;
 import io.crate.analyze.AnalyzedBegin;
 import io.crate.analyze.AnalyzedCommit;
 import io.crate.analyze.AnalyzedDeleteStatement;
@@ -49,6 +50,7 @@ import io.crate.analyze.SetAnalyzedStatement;
 import io.crate.analyze.ShowCreateTableAnalyzedStatement;
 import io.crate.analyze.relations.QueriedRelation;
 import io.crate.exceptions.UnhandledServerException;
+import io.crate.execution.SubQueryResultCache;
 import io.crate.expression.symbol.Symbol;
 import io.crate.metadata.Functions;
 import io.crate.metadata.Reference;
@@ -95,14 +97,20 @@ public class Planner extends AnalyzedStatementVisitor<PlannerContext, Plan> {
     private final ClusterService clusterService;
     private final LogicalPlanner logicalPlanner;
     private final Functions functions;
+    private final SubQueryResultCache subQueryResultCache;
 
     private String[] awarenessAttributes;
 
 
     @Inject
-    public Planner(Settings settings, ClusterService clusterService, Functions functions, TableStats tableStats) {
+    public Planner(Settings settings,
+                   ClusterService clusterService,
+                   Functions functions,
+                   TableStats tableStats,
+                   SubQueryResultCache subQueryResultCache) {
         this.clusterService = clusterService;
         this.functions = functions;
+        this.subQueryResultCache = subQueryResultCache;
         this.logicalPlanner = new LogicalPlanner(functions, tableStats);
 
         this.awarenessAttributes =
@@ -131,9 +139,18 @@ public class Planner extends AnalyzedStatementVisitor<PlannerContext, Plan> {
      * @return plan
      */
     public Plan plan(AnalyzedStatement analyzedStatement, PlannerContext plannerContext) {
+        subQueryResultCache.onStatement(analyzedStatement);
         return process(analyzedStatement, plannerContext);
     }
 
+    /**
+     * Must be called once the execution of a statement planned with {@link #plan(AnalyzedStatement, PlannerContext)}
+     * has completed, successfully or not.
+     */
+    public void onStatementCompleted(AnalyzedStatement analyzedStatement) {
+        subQueryResultCache.onStatementCompleted(analyzedStatement);
+    }
+
     @Override
     protected Plan visitAnalyzedStatement(AnalyzedStatement analyzedStatement, PlannerContext context) {
         throw new UnsupportedOperationException(String.format(Locale.ENGLISH,
@@ -316,6 +333,11 @@ public class Planner extends AnalyzedStatementVisitor<PlannerContext, Plan> {
         return new DropViewPlan(dropViewStmt);
     }
 
+    @Override
+    public Plan visitAnalyzeStmt(AnalyzeStmt analyzeStmt, PlannerContext context) {
+        return new AnalyzePlan(analyzeStmt);
+    }
+
     private LegacyUpsertById processInsertStatement(InsertFromValuesAnalyzedStatement analysis, PlannerContext context) {
         String[] onDuplicateKeyAssignmentsColumns = null;
         if (analysis.onDuplicateKeyAssignmentsColumns().size() > 0) {
@@ -47,6 +47,12 @@ public class SubqueryPlanner {
         return visitor.subQueries;
     }
 
+    public Map<LogicalPlan, SelectSymbol> planSubQueries(Symbol symbol) {
+        Visitor visitor = new Visitor();
+        visitor.accept(symbol);
+        return visitor.subQueries;
+    }
+
     private void planSubquery(SelectSymbol selectSymbol, Map<LogicalPlan, SelectSymbol> subQueries) {
         LogicalPlan subPlan = planSubSelects.apply(selectSymbol);
         subQueries.put(subPlan, selectSymbol);
@@ -25,21 +25,58 @@ package io.crate.planner;
 import com.carrotsearch.hppc.ObjectObjectHashMap;
 import com.carrotsearch.hppc.ObjectObjectMap;
 import com.google.common.annotations.VisibleForTesting;
+import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.RelationName;
+import io.crate.metadata.stats.ColumnStats;
+import io.crate.metadata.stats.ColumnStatsEntry;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
 
 /**
- * Holds table statistics that are updated periodically by {@link TableStatsService}.
+ * Holds table statistics that are updated periodically by {@link TableStatsService}
+ * and column statistics which are updated by {@link ColumnStatsService}.
  */
 public class TableStats {
 
     private static final Stats EMPTY_STATS = new Stats();
 
     private volatile ObjectObjectMap<RelationName, Stats> tableStats = new ObjectObjectHashMap<>(0);
+    private volatile Map<RelationName, Map<ColumnIdent, ColumnStats>> columnStats = Collections.emptyMap();
 
     public void updateTableStats(ObjectObjectMap<RelationName, Stats> tableStats) {
         this.tableStats = tableStats;
     }
 
+    public void updateColumnStats(Map<RelationName, Map<ColumnIdent, ColumnStats>> columnStats) {
+        this.columnStats = columnStats;
+    }
+
+    /**
+     * Returns the statistics of a column as collected by the last {@code ANALYZE} run.
+     * Returns null if the table hasn't been analyzed yet or if the column has no statistics.
+     */
+    @Nullable
+    public ColumnStats columnStats(RelationName relationName, ColumnIdent column) {
+        Map<ColumnIdent, ColumnStats> statsByColumn = columnStats.get(relationName);
+        return statsByColumn == null ? null : statsByColumn.get(column);
+    }
+
+    /**
+     * Returns the statistics of all analyzed columns.
+     */
+    public Iterable<ColumnStatsEntry> columnStatsEntries() {
+        ArrayList<ColumnStatsEntry> entries = new ArrayList<>();
+        for (Map.Entry<RelationName, Map<ColumnIdent, ColumnStats>> table : columnStats.entrySet()) {
+            for (Map.Entry<ColumnIdent, ColumnStats> column : table.getValue().entrySet()) {
+                entries.add(new ColumnStatsEntry(table.getKey(), column.getKey(), column.getValue()));
+            }
+        }
+        return entries;
+    }
+
     /**
      * Returns the number of docs a table has.
      * <p>
@@ -30,6 +30,8 @@ import io.crate.analyze.relations.QueriedRelation;
 import io.crate.metadata.Functions;
 import io.crate.metadata.TransactionContext;
 
+import java.util.function.ToLongFunction;
+
 public final class OptimizingRewriter {
 
     private final Functions functions;
@@ -40,19 +42,27 @@ public final class OptimizingRewriter {
 
     /**
      * Return the relation as is or a re-written relation
+     *
+     * @param estimateNumRows used to estimate the number of rows returned by subqueries
      */
-    public QueriedRelation optimize(QueriedRelation relation, TransactionContext transactionContext) {
-        return new Visitor(new SemiJoins(functions), transactionContext).process(relation, null);
+    public QueriedRelation optimize(QueriedRelation relation,
+                                    TransactionContext transactionContext,
+                                    ToLongFunction<QueriedRelation> estimateNumRows) {
+        return new Visitor(new SemiJoins(functions), transactionContext, estimateNumRows).process(relation, null);
     }
 
     private static class Visitor extends AnalyzedRelationVisitor<Void, QueriedRelation> {
 
         private final SemiJoins semiJoins;
         private final TransactionContext transactionContext;
+        private final ToLongFunction<QueriedRelation> estimateNumRows;
 
-        public Visitor(SemiJoins semiJoins, TransactionContext transactionContext) {
+        public Visitor(SemiJoins semiJoins,
+                       TransactionContext transactionContext,
+                       ToLongFunction<QueriedRelation> estimateNumRows) {
             this.semiJoins = semiJoins;
             this.transactionContext = transactionContext;
+            this.estimateNumRows = estimateNumRows;
         }
 
         @Override
@@ -76,10 +86,12 @@ public final class OptimizingRewriter {
         }
 
         private QueriedRelation maybeApplySemiJoinRewrite(QueriedRelation queriedRelation) {
-            if (!transactionContext.sessionContext().getSemiJoinsRewriteEnabled()) {
-                return queriedRelation;
+            QueriedRelation rewrite;
+            if (transactionContext.sessionContext().getSemiJoinsRewriteEnabled()) {
+                rewrite = semiJoins.tryRewrite(queriedRelation, transactionContext);
+            } else {
+                rewrite = semiJoins.tryRewriteLargeSubQueries(queriedRelation, transactionContext, estimateNumRows);
             }
-            QueriedRelation rewrite = semiJoins.tryRewrite(queriedRelation, transactionContext);
             if (rewrite == null) {
                 return queriedRelation;
             }
@@ -46,6 +46,7 @@ import io.crate.expression.symbol.SymbolVisitor;
 import io.crate.metadata.FunctionIdent;
 import io.crate.metadata.FunctionInfo;
 import io.crate.metadata.Functions;
+import io.crate.metadata.Reference;
 import io.crate.metadata.TransactionContext;
 import io.crate.metadata.table.Operation;
 import io.crate.planner.node.dql.join.JoinType;
@@ -59,6 +60,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 
 import static io.crate.analyze.expressions.ExpressionAnalyzer.cast;
 import static io.crate.expression.operator.Operators.LOGICAL_OPERATORS;
@@ -66,6 +69,12 @@ import static io.crate.expression.scalar.cast.CastFunctionResolver.isCastFunctio
 
 final class SemiJoins {
 
+    /**
+     * Subqueries which are expected to return at least this many rows are executed as join instead of materializing
+     * their result as array literal for a {@code = ANY} query.
+     */
+    static final long MIN_ROWS_FOR_JOIN = 10_000L;
+
     private final RelationNormalizer relationNormalizer;
 
     SemiJoins(Functions functions) {
@@ -92,12 +101,34 @@ final class SemiJoins {
      */
     @Nullable
     QueriedRelation tryRewrite(QueriedRelation rel, TransactionContext transactionCtx) {
+        return tryRewrite(rel, transactionCtx, candidates -> true);
+    }
+
+    /**
+     * Like {@link #tryRewrite(QueriedRelation, TransactionContext)}, but the rewrite is only done if
+     * at least one of the subqueries is expected to return {@link #MIN_ROWS_FOR_JOIN} or more rows.
+     * For small results it's cheaper to keep the {@code = ANY} query with the materialized subquery result.
+     *
+     * A {@code NOT IN} subquery is only rewritten if neither the left side nor the subquery output can be null,
+     * because an ANTI join doesn't have the semantics of {@code NOT IN} for null values.
+     */
+    @Nullable
+    QueriedRelation tryRewriteLargeSubQueries(QueriedRelation rel,
+                                              TransactionContext transactionCtx,
+                                              ToLongFunction<QueriedRelation> estimateNumRows) {
+        return tryRewrite(rel, transactionCtx, candidates -> isJoinBeneficial(candidates, estimateNumRows));
+    }
+
+    @Nullable
+    private QueriedRelation tryRewrite(QueriedRelation rel,
+                                       TransactionContext transactionCtx,
+                                       Predicate<List<Candidate>> shouldRewrite) {
         WhereClause where = rel.where();
         if (!where.hasQuery()) {
             return null;
         }
         List<Candidate> rewriteCandidates = gatherRewriteCandidates(where.query());
-        if (rewriteCandidates.isEmpty()) {
+        if (rewriteCandidates.isEmpty() || !shouldRewrite.test(rewriteCandidates)) {
             return null;
         }
         AnalyzedRelation sourceRel = getSource(rel);
@@ -147,6 +178,26 @@ final class SemiJoins {
         return (QueriedRelation) relationNormalizer.normalize(mss, transactionCtx);
     }
 
+    @VisibleForTesting
+    static boolean isJoinBeneficial(List<Candidate> candidates, ToLongFunction<QueriedRelation> estimateNumRows) {
+        for (Candidate candidate : candidates) {
+            if (candidate.joinType == JoinType.ANTI && candidate.isNullable()) {
+                return false;
+            }
+        }
+        for (Candidate candidate : candidates) {
+            if (estimateNumRows.applyAsLong(candidate.subQuery.relation()) >= MIN_ROWS_FOR_JOIN) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isNullable(Symbol symbol) {
+        symbol = unwrapCast(symbol);
+        return !(symbol instanceof Reference) || ((Reference) symbol).isNullable();
+    }
+
     @Nullable
     private static AnalyzedRelation getSource(QueriedRelation rel) {
         if (rel instanceof QueriedTable) {
@@ -226,6 +277,14 @@ final class SemiJoins {
         protected Function getAnyOpFunction() {
             return function;
         }
+
+        /**
+         * @return true if the left side or the output of the subquery may contain null values
+         */
+        boolean isNullable() {
+            return SemiJoins.isNullable(getAnyOpFunction().arguments().get(0))
+                   || SemiJoins.isNullable(subQuery.relation().querySpec().outputs().get(0));
+        }
     }
 
     @VisibleForTesting
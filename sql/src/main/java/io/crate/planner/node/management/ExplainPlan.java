@@ -50,6 +50,7 @@ import io.crate.planner.statement.CopyStatementPlanner;
 import io.crate.profile.ProfilingContext;
 import io.crate.profile.Timer;
 import org.elasticsearch.common.collect.MapBuilder;
+import org.elasticsearch.threadpool.ThreadPool;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
@@ -107,7 +108,8 @@ public class ExplainPlan implements Plan {
             if (plan.dependencies().isEmpty()) {
                 UUID jobId = plannerContext.jobId();
                 BaseResultReceiver resultReceiver = new BaseResultReceiver();
-                RowConsumer noopRowConsumer = new RowConsumerToResultReceiver(resultReceiver, 0);
+                RowConsumer noopRowConsumer = new RowConsumerToResultReceiver(
+                    resultReceiver, 0, executor.threadPool().executor(ThreadPool.Names.SEARCH));
 
                 Timer timer = context.createTimer(Phase.Execute.name());
                 timer.start();
@@ -89,7 +89,7 @@ class Collect extends ZeroInputPlan {
 
     private static final String COLLECT_PHASE_NAME = "collect";
     final QueriedTable relation;
-    WhereClause where;
+    final WhereClause where;
 
     final TableInfo tableInfo;
     private final long numExpectedRows;
@@ -103,10 +103,21 @@ class Collect extends ZeroInputPlan {
             toCollect,
             where,
             usedColumns,
-            tableStats.numDocs(relation.tableRelation().tableInfo().ident()),
+            estimateRows(relation.tableRelation().tableInfo().ident(), where, tableStats),
             tableStats.estimatedSizePerRow(relation.tableRelation().tableInfo().ident()));
     }
 
+    /**
+     * @return the number of rows of the table which are expected to match the where clause; -1 if unknown.
+     */
+    static long estimateRows(RelationName relationName, WhereClause where, TableStats tableStats) {
+        if (where.noMatch()) {
+            return 0L;
+        }
+        long numDocs = tableStats.numDocs(relationName);
+        return SelectivityEstimator.estimateRows(numDocs, where.hasQuery() ? where.query() : null, tableStats);
+    }
+
     private Collect(QueriedTable relation,
                     List<Symbol> toCollect,
                     WhereClause where,
@@ -264,19 +275,27 @@ class Collect extends ZeroInputPlan {
         }
     }
 
-    private RoutedCollectPhase createPhase(PlannerContext plannerContext, Row params, SubQueryResults subQueryResults) {
-        SessionContext sessionContext = plannerContext.transactionContext().sessionContext();
-        // bind all parameters and possible subQuery values and re-analyze the query
-        // (could result in a NO_MATCH, routing could've changed, etc).
-        // the <p>where</p> instance variable must be overwritten as the plan creation of outer operators relies on it
-        // (e.g. GroupHashAggregate will build different plans based on the collect routing)
-        where = WhereClauseAnalyzer.bindAndAnalyze(
+    /**
+     * Binds all parameters and possible subQuery values and re-analyzes the query
+     * (could result in a NO_MATCH, routing could've changed, etc).
+     * <p>
+     * The bound where clause must not be stored in this operator: A plan can be executed several times, also
+     * concurrently, with different parameters (see {@link io.crate.action.sql.StatementCache}).
+     * Outer operators which rely on it (e.g. GroupHashAggregate) must bind it themselves.
+     */
+    WhereClause boundWhere(PlannerContext plannerContext, Row params, SubQueryResults subQueryResults) {
+        return WhereClauseAnalyzer.bindAndAnalyze(
             where,
             params,
             subQueryResults,
             relation.tableRelation(),
             plannerContext.functions(),
             plannerContext.transactionContext());
+    }
+
+    private RoutedCollectPhase createPhase(PlannerContext plannerContext, Row params, SubQueryResults subQueryResults) {
+        SessionContext sessionContext = plannerContext.transactionContext().sessionContext();
+        WhereClause where = boundWhere(plannerContext, params, subQueryResults);
         SubQueryAndParamBinder binder = new SubQueryAndParamBinder(params, subQueryResults);
         List<Symbol> boundOutputs = Lists2.copyAndReplace(outputs, binder);
 
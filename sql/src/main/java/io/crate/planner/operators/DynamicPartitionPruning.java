@@ -0,0 +1,225 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.operators;
+
+import io.crate.analyze.QueriedTable;
+import io.crate.analyze.QuerySpec;
+import io.crate.analyze.relations.AnalyzedRelation;
+import io.crate.analyze.relations.QueriedRelation;
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.operator.EqOperator;
+import io.crate.expression.operator.any.AnyOperators;
+import io.crate.expression.symbol.Field;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.SelectSymbol;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.FunctionIdent;
+import io.crate.metadata.FunctionInfo;
+import io.crate.metadata.Reference;
+import io.crate.metadata.doc.DocTableInfo;
+import io.crate.metadata.table.TableInfo;
+import io.crate.planner.SubqueryPlanner;
+import io.crate.planner.TableStats;
+import io.crate.planner.node.dql.join.JoinType;
+import io.crate.types.ArrayType;
+import io.crate.types.DataTypes;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Restricts the partitions of a partitioned table which are collected for a join, based on the values of the
+ * partition column in the filtered relation it is joined with.
+ *
+ * <pre>
+ *     SELECT * FROM facts f JOIN days d ON f.day = d.day WHERE d.month = 7
+ * </pre>
+ *
+ * If `facts` is partitioned by `day`, the `facts` side of the join is planned as if it were
+ *
+ * <pre>
+ *     SELECT * FROM facts f WHERE f.day = ANY(SELECT d.day FROM days d WHERE d.month = 7 GROUP BY d.day)
+ * </pre>
+ *
+ * The sub-query is a dependency of a {@link MultiPhase} and therefore executed before the join.
+ * Once its result is bound, the routing of the collect phase only contains the shards of the matching partitions.
+ */
+final class DynamicPartitionPruning {
+
+    /**
+     * Upper limit of the estimated number of rows of the filtered relation.
+     * The values of its join column are materialized into an array, so this must only be used for selective filters.
+     */
+    static final long MAX_SOURCE_ROWS = 10_000L;
+
+    private DynamicPartitionPruning() {
+    }
+
+    /**
+     * @param targetPlan   the plan of the {@code target} relation
+     * @param targetIsLeft true if the target is the left side of the join
+     * @return the targetPlan with a partition filter on top of it, or the unchanged targetPlan if
+     *         partitions cannot be pruned.
+     */
+    static LogicalPlan maybeApply(LogicalPlan targetPlan,
+                                  QueriedRelation target,
+                                  boolean targetIsLeft,
+                                  JoinType joinType,
+                                  @Nullable Symbol joinCondition,
+                                  SubqueryPlanner subqueryPlanner,
+                                  TableStats tableStats) {
+        if (joinCondition == null || !canPrune(joinType, targetIsLeft) || !isPartitionedTableScan(target)) {
+            return targetPlan;
+        }
+        DocTableInfo table = (DocTableInfo) ((QueriedTable<?>) target).tableRelation().tableInfo();
+        List<Symbol> filters = new ArrayList<>();
+        for (Symbol part : AndOperator.split(joinCondition)) {
+            Symbol filter = partitionFilter(part, target, table, tableStats);
+            if (filter != null) {
+                filters.add(filter);
+            }
+        }
+        if (filters.isEmpty()) {
+            return targetPlan;
+        }
+        Symbol query = AndOperator.join(filters);
+        Map<LogicalPlan, SelectSymbol> subQueries = subqueryPlanner.planSubQueries(query);
+        return MultiPhase.create(Filter.create(targetPlan, query), subQueries);
+    }
+
+    /**
+     * Rows of the target which don't have a join partner may only be removed if the target isn't the
+     * row preserving side of an outer join or the left side of an anti join.
+     */
+    private static boolean canPrune(JoinType joinType, boolean targetIsLeft) {
+        switch (joinType) {
+            case INNER:
+            case SEMI:
+                return true;
+
+            case LEFT:
+            case ANTI:
+                return !targetIsLeft;
+
+            case RIGHT:
+                return targetIsLeft;
+
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isPartitionedTableScan(QueriedRelation relation) {
+        if (!isTableScan(relation)) {
+            return false;
+        }
+        TableInfo tableInfo = ((QueriedTable<?>) relation).tableRelation().tableInfo();
+        return tableInfo instanceof DocTableInfo && ((DocTableInfo) tableInfo).isPartitioned();
+    }
+
+    private static boolean isTableScan(QueriedRelation relation) {
+        return relation instanceof QueriedTable
+               && relation.groupBy().isEmpty()
+               && !relation.hasAggregates()
+               && relation.having() == null
+               && relation.limit() == null
+               && relation.offset() == null;
+    }
+
+    /**
+     * Creates `targetPartitionCol = ANY(SELECT sourceCol FROM source WHERE ... GROUP BY sourceCol)`
+     * if the condition is `targetPartitionCol = sourceCol` and the source relation is filtered and selective.
+     */
+    @Nullable
+    private static Symbol partitionFilter(Symbol condition,
+                                          QueriedRelation target,
+                                          DocTableInfo table,
+                                          TableStats tableStats) {
+        if (!(condition instanceof Function)) {
+            return null;
+        }
+        Function function = (Function) condition;
+        if (!function.info().ident().name().equals(EqOperator.NAME)) {
+            return null;
+        }
+        List<Symbol> args = function.arguments();
+        if (!(args.get(0) instanceof Field) || !(args.get(1) instanceof Field)) {
+            return null;
+        }
+        Field targetField;
+        Field sourceField;
+        if (((Field) args.get(0)).relation() == target) {
+            targetField = (Field) args.get(0);
+            sourceField = (Field) args.get(1);
+        } else if (((Field) args.get(1)).relation() == target) {
+            targetField = (Field) args.get(1);
+            sourceField = (Field) args.get(0);
+        } else {
+            return null;
+        }
+        Symbol targetSymbol = target.outputs().get(targetField.index());
+        if (!(targetSymbol instanceof Reference)
+            || !table.partitionedBy().contains(((Reference) targetSymbol).column())) {
+            return null;
+        }
+        AnalyzedRelation sourceRelation = sourceField.relation();
+        if (sourceRelation == target || !(sourceRelation instanceof QueriedRelation)) {
+            return null;
+        }
+        QueriedRelation source = (QueriedRelation) sourceRelation;
+        if (!isSelectiveTableScan(source, tableStats)) {
+            return null;
+        }
+        Symbol sourceSymbol = source.outputs().get(sourceField.index());
+        if (!sourceSymbol.valueType().equals(targetSymbol.valueType())) {
+            return null;
+        }
+        QuerySpec querySpec = new QuerySpec()
+            .outputs(Collections.singletonList(sourceSymbol))
+            .where(source.where())
+            .groupBy(Collections.singletonList(sourceSymbol));
+        ArrayType arrayType = new ArrayType(sourceSymbol.valueType());
+        SelectSymbol selectSymbol = new SelectSymbol(
+            new QueriedTable<>(((QueriedTable<?>) source).tableRelation(), querySpec),
+            arrayType,
+            SelectSymbol.ResultType.SINGLE_COLUMN_MULTIPLE_VALUES
+        );
+        FunctionInfo anyEqInfo = new FunctionInfo(
+            new FunctionIdent(AnyOperators.Names.EQ, Arrays.asList(targetField.valueType(), arrayType)),
+            DataTypes.BOOLEAN);
+        return new Function(anyEqInfo, Arrays.asList(targetField, selectSymbol));
+    }
+
+    private static boolean isSelectiveTableScan(QueriedRelation relation, TableStats tableStats) {
+        if (!isTableScan(relation) || !relation.where().hasQuery()) {
+            return false;
+        }
+        QueriedTable<?> table = (QueriedTable<?>) relation;
+        long estimatedRows = Collect.estimateRows(table.tableRelation().tableInfo().ident(), table.where(), tableStats);
+        return estimatedRows >= 0 && estimatedRows <= MAX_SOURCE_ROWS;
+    }
+}
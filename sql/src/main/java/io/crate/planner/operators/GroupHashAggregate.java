@@ -89,7 +89,7 @@ public class GroupHashAggregate extends OneInputPlan {
             executionPlan = Merge.ensureOnHandler(executionPlan, plannerContext);
         }
         List<Symbol> sourceOutputs = source.outputs();
-        if (shardsContainAllGroupKeyValues()) {
+        if (shardsContainAllGroupKeyValues(plannerContext, params, subQueryResults)) {
             GroupProjection groupProjection = projectionBuilder.groupProjection(
                 sourceOutputs,
                 groupKeys,
@@ -170,12 +170,14 @@ public class GroupHashAggregate extends OneInputPlan {
      * @return true if it's guaranteed that a group-key-value doesn't occur in more than 1 shard.
      *         Each shard has "group or row authority"
      */
-    private boolean shardsContainAllGroupKeyValues() {
+    private boolean shardsContainAllGroupKeyValues(PlannerContext plannerContext,
+                                                   Row params,
+                                                   SubQueryResults subQueryResults) {
         return source instanceof Collect &&
                ((Collect) source).tableInfo instanceof DocTableInfo &&
                GroupByConsumer.groupedByClusteredColumnOrPrimaryKeys(
                    ((DocTableInfo) ((Collect) source).tableInfo),
-                   ((Collect) source).where,
+                   ((Collect) source).boundWhere(plannerContext, params, subQueryResults),
                    groupKeys);
     }
 
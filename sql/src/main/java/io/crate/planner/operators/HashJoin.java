@@ -60,6 +60,7 @@ import static io.crate.planner.operators.LogicalPlanner.NO_LIMIT;
 
 class HashJoin extends TwoInputPlan {
 
+    private final JoinType joinType;
     private final Symbol joinCondition;
     private final TableStats tableStats;
     @VisibleForTesting
@@ -67,19 +68,24 @@ class HashJoin extends TwoInputPlan {
 
     HashJoin(LogicalPlan lhs,
              LogicalPlan rhs,
+             JoinType joinType,
              Symbol joinCondition,
              AnalyzedRelation concreteRelation,
              TableStats tableStats) {
         super(lhs, rhs, new ArrayList<>());
         this.concreteRelation = concreteRelation;
+        this.joinType = joinType;
         this.joinCondition = joinCondition;
         this.outputs.addAll(lhs.outputs());
-        this.outputs.addAll(rhs.outputs());
+        if (joinType == JoinType.INNER) {
+            // SEMI and ANTI joins only emit the rows of the left side
+            this.outputs.addAll(rhs.outputs());
+        }
         this.tableStats = tableStats;
     }
 
     JoinType joinType() {
-        return JoinType.INNER;
+        return joinType;
     }
 
     Symbol joinCondition() {
@@ -116,7 +122,8 @@ class HashJoin extends TwoInputPlan {
         boolean tablesSwitched = false;
         // We move smaller table to the right side since benchmarking
         // revealed that this improves performance in most cases.
-        if (lhs.numExpectedRows() < rhs.numExpectedRows()) {
+        // SEMI and ANTI joins cannot be inverted; the left side is always the one which is emitted.
+        if (joinType.supportsInversion() && lhs.numExpectedRows() < rhs.numExpectedRows()) {
             tablesSwitched = true;
             leftLogicalPlan = rhs;
             rightLogicalPlan = lhs;
@@ -153,6 +160,14 @@ class HashJoin extends TwoInputPlan {
             // are on the same node
             leftExecutionPlan.setDistributionInfo(DistributionInfo.DEFAULT_SAME_NODE);
             rightExecutionPlan.setDistributionInfo(DistributionInfo.DEFAULT_SAME_NODE);
+        } else if (isDistributed
+                   && !joinExecutionNodes.isEmpty()
+                   && isBroadcastCheaper(leftLogicalPlan, rightLogicalPlan, joinExecutionNodes.size())) {
+            // Run the join distributed on all nodes of the left relation; Only the (small) right side is
+            // broadcast to these nodes, the left side is joined where it has been collected.
+            leftExecutionPlan.setDistributionInfo(DistributionInfo.DEFAULT_SAME_NODE);
+            rightExecutionPlan.setDistributionInfo(DistributionInfo.DEFAULT_BROADCAST);
+            rightMerge = JoinOperations.buildMergePhaseForJoin(plannerContext, rightResultDesc, joinExecutionNodes);
         } else {
             if (isDistributed) {
                 // Run the join distributed by modulo distribution algorithm
@@ -180,6 +195,7 @@ class HashJoin extends TwoInputPlan {
             leftOutputs.size(),
             rightOutputs.size(),
             joinExecutionNodes,
+            joinType,
             InputColumns.create(joinCondition, joinOutputs),
             InputColumns.create(hashSymbols.v1(), new InputColumns.SourceSymbols(leftOutputs)),
             InputColumns.create(hashSymbols.v2(), new InputColumns.SourceSymbols(rightOutputs)),
@@ -198,6 +214,26 @@ class HashJoin extends TwoInputPlan {
         );
     }
 
+    /**
+     * Compares the amount of data which has to be sent over the network if the right side is broadcast to all
+     * nodes of the left side with the amount of data sent if both sides are re-distributed using modulo.
+     * <p>
+     * Broadcasting sends the right side to {@code numNodes - 1} other nodes while the left side stays local.
+     * Modulo distribution sends {@code (numNodes - 1) / numNodes} of both sides to other nodes.
+     * </p>
+     */
+    @VisibleForTesting
+    static boolean isBroadcastCheaper(LogicalPlan left, LogicalPlan right, int numNodes) {
+        long leftRows = left.numExpectedRows();
+        long rightRows = right.numExpectedRows();
+        if (leftRows < 0 || rightRows < 0) {
+            return false;
+        }
+        double leftBytes = (double) leftRows * Math.max(1L, left.estimatedRowSize());
+        double rightBytes = (double) rightRows * Math.max(1L, right.estimatedRowSize());
+        return rightBytes * numNodes < leftBytes + rightBytes;
+    }
+
     private Tuple<List<Symbol>, List<Symbol>> extractHashJoinSymbolsFromJoinSymbolsAndSplitPerSide(boolean switchedTables) {
         Map<AnalyzedRelation, List<Symbol>> hashJoinSymbols = HashJoinConditionSymbolsExtractor.extract(joinCondition);
 
@@ -217,17 +253,24 @@ class HashJoin extends TwoInputPlan {
 
     @Override
     protected LogicalPlan updateSources(LogicalPlan newLeftSource, LogicalPlan newRightSource) {
-        return new HashJoin(newLeftSource, newRightSource, joinCondition, concreteRelation, tableStats);
+        return new HashJoin(newLeftSource, newRightSource, joinType, joinCondition, concreteRelation, tableStats);
     }
 
     @Override
     public long numExpectedRows() {
-        // We don't have any cardinality estimates, so just take the bigger table
-        return Math.max(lhs.numExpectedRows(), rhs.numExpectedRows());
+        if (joinType != JoinType.INNER) {
+            // each row of the left side is emitted at most once
+            return lhs.numExpectedRows();
+        }
+        return SelectivityEstimator.estimateJoinRows(
+            lhs.numExpectedRows(), rhs.numExpectedRows(), joinCondition, tableStats);
     }
 
     @Override
     public long estimatedRowSize() {
+        if (joinType != JoinType.INNER) {
+            return lhs.estimatedRowSize();
+        }
         return lhs.estimatedRowSize() + rhs.estimatedRowSize();
     }
 
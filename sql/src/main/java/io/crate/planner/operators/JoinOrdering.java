@@ -24,13 +24,19 @@ package io.crate.planner.operators;
 
 import com.carrotsearch.hppc.ObjectIntHashMap;
 import com.google.common.annotations.VisibleForTesting;
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.symbol.Symbol;
+import io.crate.planner.TableStats;
 import io.crate.sql.tree.QualifiedName;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -39,9 +45,121 @@ import java.util.Set;
  */
 final class JoinOrdering {
 
+    /**
+     * Upper bound for the number of relations for which all left-deep join trees are enumerated.
+     * The enumeration is in O(2^n * n), so this keeps the planning time in the range of milliseconds.
+     */
+    static final int MAX_RELATIONS_FOR_COST_BASED_ORDERING = 10;
+
     private JoinOrdering() {
     }
 
+    /**
+     * Returns the order of the relations which results in the left-deep join tree with the lowest cost.
+     * The cost of a tree is the sum of the estimated number of rows of all intermediate join results.
+     * <p>
+     * Returns null if the number of relations exceeds {@link #MAX_RELATIONS_FOR_COST_BASED_ORDERING}.
+     * </p>
+     *
+     * @param relations       all relations, e.g. [t1, t2, t3]
+     * @param expectedRows    the estimated number of rows of each relation after filters have been applied
+     * @param joinConditions  the conditions joining two relations, e.g. {{t1, t2}: t1.id = t2.id}
+     */
+    @Nullable
+    static Collection<QualifiedName> orderByCost(List<QualifiedName> relations,
+                                                 Map<QualifiedName, Long> expectedRows,
+                                                 Map<? extends Set<QualifiedName>, Symbol> joinConditions,
+                                                 TableStats tableStats) {
+        int numRelations = relations.size();
+        if (numRelations > MAX_RELATIONS_FOR_COST_BASED_ORDERING) {
+            return null;
+        }
+        int numSubsets = 1 << numRelations;
+        double[] costs = new double[numSubsets];
+        long[] rows = new long[numSubsets];
+        int[] lastRelation = new int[numSubsets];
+        for (int subset = 1; subset < numSubsets; subset++) {
+            costs[subset] = Double.MAX_VALUE;
+            lastRelation[subset] = -1;
+        }
+        for (int i = 0; i < numRelations; i++) {
+            int subset = 1 << i;
+            costs[subset] = 0.0;
+            rows[subset] = expectedRows.get(relations.get(i));
+            lastRelation[subset] = i;
+        }
+        for (int subset = 1; subset < numSubsets; subset++) {
+            if (lastRelation[subset] == -1 || Integer.bitCount(subset) == numRelations) {
+                continue;
+            }
+            for (int next = 0; next < numRelations; next++) {
+                int nextBit = 1 << next;
+                if ((subset & nextBit) != 0) {
+                    continue;
+                }
+                Symbol condition = joinCondition(relations, subset, next, joinConditions);
+                long nextRows = expectedRows.get(relations.get(next));
+                long joinedRows = condition == null
+                    ? saturatedMultiply(rows[subset], nextRows)
+                    : SelectivityEstimator.estimateJoinRows(rows[subset], nextRows, condition, tableStats);
+                double cost = costs[subset] + joinedRows;
+                int joined = subset | nextBit;
+                if (cost < costs[joined]) {
+                    costs[joined] = cost;
+                    rows[joined] = joinedRows;
+                    lastRelation[joined] = next;
+                }
+            }
+        }
+        QualifiedName[] order = new QualifiedName[numRelations];
+        int subset = numSubsets - 1;
+        for (int i = numRelations - 1; i >= 0; i--) {
+            int relation = lastRelation[subset];
+            order[i] = relations.get(relation);
+            subset &= ~(1 << relation);
+        }
+        List<QualifiedName> bestOrder = new ArrayList<>(numRelations);
+        Collections.addAll(bestOrder, order);
+        return bestOrder;
+    }
+
+    @Nullable
+    private static Symbol joinCondition(List<QualifiedName> relations,
+                                        int subset,
+                                        int next,
+                                        Map<? extends Set<QualifiedName>, Symbol> joinConditions) {
+        QualifiedName nextName = relations.get(next);
+        List<Symbol> conditions = new ArrayList<>();
+        for (Map.Entry<? extends Set<QualifiedName>, Symbol> entry : joinConditions.entrySet()) {
+            Set<QualifiedName> names = entry.getKey();
+            if (!names.contains(nextName)) {
+                continue;
+            }
+            boolean allOthersJoined = true;
+            for (QualifiedName name : names) {
+                int idx = relations.indexOf(name);
+                if (!name.equals(nextName) && (idx == -1 || (subset & (1 << idx)) == 0)) {
+                    allOthersJoined = false;
+                    break;
+                }
+            }
+            if (allOthersJoined) {
+                conditions.add(entry.getValue());
+            }
+        }
+        if (conditions.isEmpty()) {
+            return null;
+        }
+        return AndOperator.join(conditions);
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        if (a != 0 && b > Long.MAX_VALUE / a) {
+            return Long.MAX_VALUE;
+        }
+        return a * b;
+    }
+
     static Collection<QualifiedName> getOrderedRelationNames(Collection<QualifiedName> sourceRelations,
                                                              Set<? extends Set<QualifiedName>> explicitJoinConditions,
                                                              Set<? extends Set<QualifiedName>> implicitJoinConditions) {
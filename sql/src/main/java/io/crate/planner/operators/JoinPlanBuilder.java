@@ -24,7 +24,9 @@ package io.crate.planner.operators;
 
 import io.crate.action.sql.SessionContext;
 import io.crate.analyze.MultiSourceSelect;
+import io.crate.analyze.QueriedTable;
 import io.crate.analyze.WhereClause;
+import io.crate.analyze.relations.AnalyzedRelation;
 import io.crate.analyze.relations.JoinPair;
 import io.crate.analyze.relations.QueriedRelation;
 import io.crate.analyze.relations.QuerySplitter;
@@ -42,8 +44,11 @@ import io.crate.sql.tree.QualifiedName;
 import org.elasticsearch.common.util.set.Sets;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -101,11 +106,14 @@ public class JoinPlanBuilder implements LogicalPlan.Builder {
 
         Collection<QualifiedName> orderedRelationNames;
         if (mss.sources().size() > 2) {
-            orderedRelationNames = JoinOrdering.getOrderedRelationNames(
-                mss.sources().keySet(),
-                joinPairs.keySet(),
-                queryParts.keySet()
-            );
+            orderedRelationNames = orderByCost(joinPairs, queryParts, tableStats);
+            if (orderedRelationNames == null) {
+                orderedRelationNames = JoinOrdering.getOrderedRelationNames(
+                    mss.sources().keySet(),
+                    joinPairs.keySet(),
+                    queryParts.keySet()
+                );
+            }
         } else {
             orderedRelationNames = mss.sources().keySet();
         }
@@ -150,6 +158,10 @@ public class JoinPlanBuilder implements LogicalPlan.Builder {
             .build(tableStats, usedFromLeft);
         LogicalPlan rhsPlan = LogicalPlanner.plan(rhs, FetchMode.NEVER_CLEAR, subqueryPlanner, false, functions, txnCtx)
             .build(tableStats, usedFromRight);
+        lhsPlan = DynamicPartitionPruning.maybeApply(
+            lhsPlan, lhs, true, joinType, joinCondition, subqueryPlanner, tableStats);
+        rhsPlan = DynamicPartitionPruning.maybeApply(
+            rhsPlan, rhs, false, joinType, joinCondition, subqueryPlanner, tableStats);
         Symbol query = removeParts(queryParts, lhsName, rhsName);
         LogicalPlan joinPlan = createJoinPlan(
             lhsPlan,
@@ -187,6 +199,48 @@ public class JoinPlanBuilder implements LogicalPlan.Builder {
         return joinPlan;
     }
 
+    /**
+     * Orders the relations based on the estimated size of the intermediate join results.
+     *
+     * @return the ordered relation names or null if the cost based ordering cannot be applied because there are
+     *         outer joins, which must not be re-ordered, or because the number of rows of a relation is unknown.
+     */
+    @Nullable
+    private Collection<QualifiedName> orderByCost(Map<Set<QualifiedName>, JoinPair> joinPairs,
+                                                  Map<Set<QualifiedName>, Symbol> queryParts,
+                                                  TableStats tableStats) {
+        Map<Set<QualifiedName>, Symbol> joinConditions = new HashMap<>();
+        for (Map.Entry<Set<QualifiedName>, JoinPair> entry : joinPairs.entrySet()) {
+            JoinPair joinPair = entry.getValue();
+            if (joinPair.joinType() != JoinType.INNER && joinPair.joinType() != JoinType.CROSS) {
+                return null;
+            }
+            if (joinPair.condition() != null) {
+                joinConditions.put(entry.getKey(), joinPair.condition());
+            }
+        }
+        for (Map.Entry<Set<QualifiedName>, Symbol> entry : queryParts.entrySet()) {
+            if (entry.getKey().size() > 1) {
+                joinConditions.merge(entry.getKey(), entry.getValue(), (a, b) -> AndOperator.join(Arrays.asList(a, b)));
+            }
+        }
+        Map<QualifiedName, Long> expectedRows = new HashMap<>();
+        for (Map.Entry<QualifiedName, AnalyzedRelation> entry : mss.sources().entrySet()) {
+            AnalyzedRelation relation = entry.getValue();
+            if (!(relation instanceof QueriedTable)) {
+                return null;
+            }
+            QueriedTable<?> table = (QueriedTable<?>) relation;
+            long rows = Collect.estimateRows(table.tableRelation().tableInfo().ident(), table.where(), tableStats);
+            if (rows < 0) {
+                return null;
+            }
+            expectedRows.put(entry.getKey(), rows);
+        }
+        return JoinOrdering.orderByCost(
+            new ArrayList<>(mss.sources().keySet()), expectedRows, joinConditions, tableStats);
+    }
+
     private static LogicalPlan createJoinPlan(LogicalPlan lhsPlan,
                                               LogicalPlan rhsPlan,
                                               JoinType joinType,
@@ -201,6 +255,7 @@ public class JoinPlanBuilder implements LogicalPlan.Builder {
             return new HashJoin(
                 lhsPlan,
                 rhsPlan,
+                joinType,
                 joinCondition,
                 rhs,
                 tableStats);
@@ -212,7 +267,8 @@ public class JoinPlanBuilder implements LogicalPlan.Builder {
                 joinCondition,
                 !query.symbolType().isValueSymbol(),
                 orderByCanBePushedDown,
-                lhs);
+                lhs,
+                tableStats);
         }
     }
 
@@ -268,6 +324,8 @@ public class JoinPlanBuilder implements LogicalPlan.Builder {
 
         LogicalPlan nextPlan = LogicalPlanner.plan(nextRel, FetchMode.NEVER_CLEAR, subqueryPlanner, false, functions, txnCtx)
             .build(tableStats, usedFromNext);
+        nextPlan = DynamicPartitionPruning.maybeApply(
+            nextPlan, nextRel, false, type, condition, subqueryPlanner, tableStats);
 
         Symbol query = AndOperator.join(
             Stream.of(
@@ -61,6 +61,10 @@ class Limit extends OneInputPlan {
         );
     }
 
+    static LogicalPlan create(LogicalPlan source, Symbol limit, Symbol offset) {
+        return new Limit(source, limit, offset);
+    }
+
     private Limit(LogicalPlan source, Symbol limit, Symbol offset) {
         super(source);
         this.limit = limit;
@@ -101,6 +105,23 @@ class Limit extends OneInputPlan {
         return executionPlan;
     }
 
+    /**
+     * @return the number of rows a source has to provide at most to satisfy this limit,
+     *         or null if the limit is unknown until execution or there is no limit
+     */
+    @Nullable
+    Long maxRowsNeeded() {
+        if (limit instanceof Literal && offset instanceof Literal) {
+            Long limitValue = DataTypes.LONG.value(((Literal) limit).value());
+            Long offsetValue = DataTypes.LONG.value(((Literal) offset).value());
+            if (limitValue == null || limitValue == NO_LIMIT) {
+                return null;
+            }
+            return limitValue + firstNonNull(offsetValue, 0L);
+        }
+        return null;
+    }
+
     @Override
     protected LogicalPlan updateSource(LogicalPlan newSource, SymbolMapper mapper) {
         return new Limit(newSource, limit, offset);
@@ -179,6 +179,19 @@ public interface LogicalPlan extends Plan {
 
     List<Symbol> outputs();
 
+    /**
+     * @return the direct sources of this plan; empty if the plan has no sources
+     */
+    List<LogicalPlan> sources();
+
+    /**
+     * Creates a copy of this plan with the given sources.
+     * The new sources must produce the same outputs as the current sources.
+     *
+     * @param sources the new sources, in the same order as returned by {@link #sources()}
+     */
+    LogicalPlan replaceSources(List<LogicalPlan> sources);
+
     /**
      * Indicates if the operators which are added on top of this LogicalPlan should operate on a shard level.
      * Operating on a shard level increases parallelism.
@@ -62,7 +62,9 @@ import io.crate.planner.WhereClauseOptimizer;
 import io.crate.planner.consumer.FetchMode;
 import io.crate.planner.consumer.InsertFromSubQueryPlanner;
 import io.crate.planner.consumer.OptimizingRewriter;
+import io.crate.planner.optimizer.Optimizer;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -82,6 +84,15 @@ public class LogicalPlanner {
 
     public static final int NO_LIMIT = -1;
 
+    private static final Optimizer OPTIMIZER = new Optimizer(Arrays.asList(
+        new MergeFilters(),
+        new MoveFilterBeneathRelationBoundary(),
+        new MoveFilterBeneathUnion(),
+        new MoveFilterBeneathJoin(),
+        new MoveLimitBeneathOuterJoin(),
+        new RemoveRedundantFetchOrEval()
+    ));
+
     private final OptimizingRewriter optimizingRewriter;
     private final TableStats tableStats;
     private final SelectStatementPlanner selectStatementPlanner;
@@ -147,7 +158,8 @@ public class LogicalPlanner {
                             SubqueryPlanner subqueryPlanner,
                             FetchMode fetchMode) {
         TransactionContext transactionContext = plannerContext.transactionContext();
-        QueriedRelation relation = optimizingRewriter.optimize(queriedRelation, transactionContext);
+        QueriedRelation relation = optimizingRewriter.optimize(
+            queriedRelation, transactionContext, subRelation -> estimateNumRows(subRelation, plannerContext));
 
         LogicalPlan logicalPlan = plan(relation, fetchMode, subqueryPlanner, true, functions, transactionContext)
             .build(tableStats, new HashSet<>(relation.outputs()));
@@ -157,12 +169,20 @@ public class LogicalPlanner {
         return MultiPhase.createIfNeeded(optimizedPlan, relation, subqueryPlanner);
     }
 
+    private long estimateNumRows(QueriedRelation relation, PlannerContext plannerContext) {
+        SubqueryPlanner subqueryPlanner = new SubqueryPlanner(s -> planSubSelect(s, plannerContext));
+        return plan(relation, FetchMode.NEVER_CLEAR, subqueryPlanner, true, functions, plannerContext.transactionContext())
+            .build(tableStats, Collections.emptySet())
+            .numExpectedRows();
+    }
+
     /**
-     * Runs {@link LogicalPlan}.tryOptimize and returns an optimized plan.
+     * Applies the rules of the {@link Optimizer} and runs {@link LogicalPlan}.tryOptimize afterwards.
      * @param plan The original plan
      * @return The optimized plan or the original if optimizing is not possible
      */
     private static LogicalPlan tryOptimize(LogicalPlan plan) {
+        plan = OPTIMIZER.optimize(plan);
         LogicalPlan optimizedPlan = plan.tryOptimize(null, SymbolMapper.identity());
         if (optimizedPlan == null) {
             return plan;
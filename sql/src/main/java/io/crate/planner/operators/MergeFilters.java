@@ -0,0 +1,55 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.operators;
+
+import io.crate.expression.operator.AndOperator;
+import io.crate.planner.optimizer.Pattern;
+import io.crate.planner.optimizer.Rule;
+
+/**
+ * Combines two adjacent filters into one:
+ *
+ * <pre>
+ *     Filter[a]            Filter[a AND b]
+ *       |          -->        |
+ *     Filter[b]             source
+ *       |
+ *     source
+ * </pre>
+ */
+final class MergeFilters implements Rule<Filter> {
+
+    private final Pattern<Filter> pattern = Pattern.typeOf(Filter.class)
+        .with(filter -> filter.source instanceof Filter);
+
+    @Override
+    public Pattern<Filter> pattern() {
+        return pattern;
+    }
+
+    @Override
+    public LogicalPlan apply(Filter plan) {
+        Filter child = (Filter) plan.source;
+        return Filter.create(child.source, AndOperator.of(plan.query, child.query));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.operators;
+
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.symbol.FieldsVisitor;
+import io.crate.expression.symbol.RefVisitor;
+import io.crate.expression.symbol.Symbol;
+import io.crate.planner.node.dql.join.JoinType;
+import io.crate.planner.optimizer.Pattern;
+import io.crate.planner.optimizer.Rule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pushes the parts of a filter on top of a join which only refer to one side of the join beneath the join.
+ *
+ * <pre>
+ *     Filter[t1.x = 1 AND t1.x = t2.y]           Filter[t1.x = t2.y]
+ *       |                                          |
+ *     Join                               -->     Join
+ *     /   \                                     /    \
+ *   t1     t2                         Filter[t1.x = 1]  t2
+ *                                          |
+ *                                         t1
+ * </pre>
+ *
+ * Filters are never moved to the null-supplying side of an outer join,
+ * as that would turn filtered rows into null-extended rows instead of removing them.
+ */
+final class MoveFilterBeneathJoin implements Rule<Filter> {
+
+    private final Pattern<Filter> pattern = Pattern.typeOf(Filter.class)
+        .with(filter -> filter.source instanceof HashJoin || filter.source instanceof NestedLoopJoin);
+
+    @Override
+    public Pattern<Filter> pattern() {
+        return pattern;
+    }
+
+    @Override
+    public LogicalPlan apply(Filter plan) {
+        TwoInputPlan join = (TwoInputPlan) plan.source;
+        JoinType joinType = join instanceof HashJoin
+            ? ((HashJoin) join).joinType()
+            : ((NestedLoopJoin) join).joinType();
+        boolean canPushToLhs = !joinType.isOuter() || joinType == JoinType.LEFT;
+        boolean canPushToRhs = joinType == JoinType.INNER || joinType == JoinType.CROSS || joinType == JoinType.RIGHT;
+
+        List<Symbol> lhsParts = new ArrayList<>();
+        List<Symbol> rhsParts = new ArrayList<>();
+        List<Symbol> remainingParts = new ArrayList<>();
+        for (Symbol part : AndOperator.split(plan.query)) {
+            if (!containsColumn(part)) {
+                remainingParts.add(part);
+            } else if (canPushToLhs && OperatorUtils.isEvaluableFrom(part, join.lhs.outputs())) {
+                lhsParts.add(part);
+            } else if (canPushToRhs && OperatorUtils.isEvaluableFrom(part, join.rhs.outputs())) {
+                rhsParts.add(part);
+            } else {
+                remainingParts.add(part);
+            }
+        }
+        if (lhsParts.isEmpty() && rhsParts.isEmpty()) {
+            return null;
+        }
+        LogicalPlan lhs = lhsParts.isEmpty() ? join.lhs : Filter.create(join.lhs, AndOperator.join(lhsParts));
+        LogicalPlan rhs = rhsParts.isEmpty() ? join.rhs : Filter.create(join.rhs, AndOperator.join(rhsParts));
+        LogicalPlan newJoin = join.replaceSources(Arrays.asList(lhs, rhs));
+        if (remainingParts.isEmpty()) {
+            return newJoin;
+        }
+        return Filter.create(newJoin, AndOperator.join(remainingParts));
+    }
+
+    private static boolean containsColumn(Symbol symbol) {
+        boolean[] found = new boolean[] { false };
+        FieldsVisitor.visitFields(symbol, f -> found[0] = true);
+        RefVisitor.visitRefs(symbol, r -> found[0] = true);
+        return found[0];
+    }
+}
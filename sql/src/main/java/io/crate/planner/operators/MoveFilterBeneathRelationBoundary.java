@@ -0,0 +1,61 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.operators;
+
+import io.crate.planner.optimizer.Pattern;
+import io.crate.planner.optimizer.Rule;
+
+import java.util.Collections;
+
+/**
+ * Pushes a filter on top of a {@link RelationBoundary} beneath the boundary so that further rules
+ * can move it closer to the source of the relation:
+ *
+ * <pre>
+ *     Filter[x > 10]               Boundary
+ *       |                             |
+ *     Boundary            -->      Filter[x > 10]
+ *       |                             |
+ *     source                        source
+ * </pre>
+ */
+final class MoveFilterBeneathRelationBoundary implements Rule<Filter> {
+
+    private final Pattern<Filter> pattern = Pattern.typeOf(Filter.class)
+        .with(filter -> filter.source instanceof RelationBoundary
+                        && OperatorUtils.isEvaluableFrom(filter.query, filter.source.outputs()));
+
+    @Override
+    public Pattern<Filter> pattern() {
+        return pattern;
+    }
+
+    @Override
+    public LogicalPlan apply(Filter plan) {
+        RelationBoundary boundary = (RelationBoundary) plan.source;
+        LogicalPlan source = boundary.source;
+        LogicalPlan filter = Filter.create(
+            source, OperatorUtils.mapToSourceOutputs(plan.query, boundary.outputs(), source.outputs()));
+        return boundary.replaceSources(Collections.singletonList(filter));
+    }
+}
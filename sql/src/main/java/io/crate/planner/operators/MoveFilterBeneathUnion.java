@@ -0,0 +1,61 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.operators;
+
+import io.crate.planner.optimizer.Pattern;
+import io.crate.planner.optimizer.Rule;
+
+import java.util.Arrays;
+
+/**
+ * Pushes a filter on top of a union into both branches of the union:
+ *
+ * <pre>
+ *     Filter[x > 10]                 Union
+ *       |                           /     \
+ *     Union            -->    Filter[a > 10] Filter[b > 10]
+ *     /    \                     |              |
+ *   lhs     rhs                 lhs            rhs
+ * </pre>
+ *
+ * The outputs of a union correspond to the outputs of its branches by position.
+ */
+final class MoveFilterBeneathUnion implements Rule<Filter> {
+
+    private final Pattern<Filter> pattern = Pattern.typeOf(Filter.class)
+        .with(filter -> filter.source instanceof Union
+                        && OperatorUtils.isEvaluableFrom(filter.query, filter.source.outputs()));
+
+    @Override
+    public Pattern<Filter> pattern() {
+        return pattern;
+    }
+
+    @Override
+    public LogicalPlan apply(Filter plan) {
+        Union union = (Union) plan.source;
+        LogicalPlan lhs = Filter.create(union.lhs, OperatorUtils.mapToSourceOutputs(plan.query, union.outputs(), union.lhs.outputs()));
+        LogicalPlan rhs = Filter.create(union.rhs, OperatorUtils.mapToSourceOutputs(plan.query, union.outputs(), union.rhs.outputs()));
+        return union.replaceSources(Arrays.asList(lhs, rhs));
+    }
+}
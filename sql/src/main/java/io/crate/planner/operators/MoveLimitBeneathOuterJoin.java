@@ -0,0 +1,115 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.operators;
+
+import io.crate.expression.symbol.Literal;
+import io.crate.planner.node.dql.join.JoinType;
+import io.crate.planner.optimizer.Pattern;
+import io.crate.planner.optimizer.Rule;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Adds a limit of {@code limit + offset} to the preserved side of a left or right outer join.
+ *
+ * Every row of the preserved side results in at least one row of the join, so the first
+ * {@code limit + offset} rows of the preserved side are sufficient to produce the result:
+ *
+ * <pre>
+ *     Limit[10]                         Limit[10]
+ *       |                                  |
+ *     Order[t1.x]                       Order[t1.x]
+ *       |                                  |
+ *     NestedLoopJoin[LEFT]     -->      NestedLoopJoin[LEFT]
+ *     /     \                           /              \
+ *   t1       t2                     Limit[10]          t2
+ *                                      |
+ *                                   Order[t1.x]
+ *                                      |
+ *                                     t1
+ * </pre>
+ *
+ * An order is only moved along if it refers solely to the preserved side.
+ */
+final class MoveLimitBeneathOuterJoin implements Rule<Limit> {
+
+    private final Pattern<Limit> pattern = Pattern.typeOf(Limit.class)
+        .with(limit -> limit.maxRowsNeeded() != null);
+
+    @Override
+    public Pattern<Limit> pattern() {
+        return pattern;
+    }
+
+    @Override
+    public LogicalPlan apply(Limit limit) {
+        Literal<Long> maxRows = Literal.of(limit.maxRowsNeeded());
+        if (limit.source instanceof NestedLoopJoin) {
+            NestedLoopJoin join = (NestedLoopJoin) limit.source;
+            LogicalPlan newJoin = limitPreservedSide(join, null, maxRows);
+            if (newJoin == null) {
+                return null;
+            }
+            return limit.replaceSources(Collections.singletonList(newJoin));
+        }
+        if (limit.source instanceof Order && ((Order) limit.source).source instanceof NestedLoopJoin) {
+            Order order = (Order) limit.source;
+            LogicalPlan newJoin = limitPreservedSide((NestedLoopJoin) order.source, order, maxRows);
+            if (newJoin == null) {
+                return null;
+            }
+            return limit.replaceSources(Collections.singletonList(
+                order.replaceSources(Collections.singletonList(newJoin))));
+        }
+        return null;
+    }
+
+    @Nullable
+    private static LogicalPlan limitPreservedSide(NestedLoopJoin join, @Nullable Order order, Literal<Long> maxRows) {
+        boolean leftIsPreserved;
+        if (join.joinType() == JoinType.LEFT) {
+            leftIsPreserved = true;
+        } else if (join.joinType() == JoinType.RIGHT) {
+            leftIsPreserved = false;
+        } else {
+            return null;
+        }
+        LogicalPlan preserved = leftIsPreserved ? join.lhs : join.rhs;
+        if (preserved instanceof Limit) {
+            return null;
+        }
+        LogicalPlan source = preserved;
+        if (order != null) {
+            if (!preserved.outputs().containsAll(order.orderBy.orderBySymbols())) {
+                return null;
+            }
+            source = new Order(preserved, order.orderBy);
+        }
+        LogicalPlan limitedSide = Limit.create(source, maxRows, Literal.of(0L));
+        return join.replaceSources(leftIsPreserved
+            ? Arrays.asList(limitedSide, join.rhs)
+            : Arrays.asList(join.lhs, limitedSide));
+    }
+}
@@ -43,6 +43,7 @@ import io.crate.planner.ExecutionPlan;
 import io.crate.planner.PlannerContext;
 import io.crate.planner.PositionalOrderBy;
 import io.crate.planner.ResultDescription;
+import io.crate.planner.TableStats;
 import io.crate.planner.distribution.DistributionInfo;
 import io.crate.planner.node.dql.join.Join;
 import io.crate.planner.node.dql.join.JoinType;
@@ -71,6 +72,7 @@ class NestedLoopJoin extends TwoInputPlan {
     private final JoinType joinType;
     private final boolean orderByCanBePushedDown;
     private final boolean isFiltered;
+    private final TableStats tableStats;
 
     NestedLoopJoin(LogicalPlan lhs,
                    LogicalPlan rhs,
@@ -78,11 +80,13 @@ class NestedLoopJoin extends TwoInputPlan {
                    @Nullable Symbol joinCondition,
                    boolean isFiltered,
                    boolean orderByCanBePushedDown,
-                   AnalyzedRelation topMostLeftRelation) {
+                   AnalyzedRelation topMostLeftRelation,
+                   TableStats tableStats) {
         super(lhs, rhs, new ArrayList<>());
+        this.tableStats = tableStats;
         this.joinType = joinType;
         this.isFiltered = isFiltered || joinCondition != null;
-        if (joinType == JoinType.SEMI) {
+        if (joinType == JoinType.SEMI || joinType == JoinType.ANTI) {
             this.outputs.addAll(lhs.outputs());
         } else {
             this.outputs.addAll(lhs.outputs());
@@ -147,8 +151,8 @@ class NestedLoopJoin extends TwoInputPlan {
         boolean blockNlPossible = !isDistributed && isBlockNlPossible(left, right);
 
         if (joinType.supportsInversion() &&
-            (isDistributed && lhs.numExpectedRows() < rhs.numExpectedRows() && orderByFromLeft == null) ||
-            (blockNlPossible && lhs.numExpectedRows() > rhs.numExpectedRows())) {
+            ((isDistributed && lhs.numExpectedRows() < rhs.numExpectedRows() && orderByFromLeft == null) ||
+             (blockNlPossible && lhs.numExpectedRows() > rhs.numExpectedRows()))) {
             // 1) The right side is always broadcast-ed, so for performance reasons we switch the tables so that
             //    the right table is the smaller (numOfRows). If left relation has a pushed-down OrderBy that needs
             //    to be preserved, then the switch is not possible.
@@ -247,15 +251,19 @@ class NestedLoopJoin extends TwoInputPlan {
             joinCondition,
             isFiltered,
             orderByCanBePushedDown,
-            topMostLeftRelation);
+            topMostLeftRelation,
+            tableStats);
     }
 
     @Override
     public long numExpectedRows() {
         if (joinType == JoinType.CROSS) {
             return lhs.numExpectedRows() * rhs.numExpectedRows();
+        } else if (joinType == JoinType.INNER) {
+            return SelectivityEstimator.estimateJoinRows(
+                lhs.numExpectedRows(), rhs.numExpectedRows(), joinCondition, tableStats);
         } else {
-            // We don't have any cardinality estimates, so just take the bigger table
+            // Outer and semi joins emit at least the rows of one side, so just take the bigger table
             return Math.max(lhs.numExpectedRows(), rhs.numExpectedRows());
         }
     }
@@ -27,6 +27,7 @@ import io.crate.expression.symbol.SelectSymbol;
 import io.crate.expression.symbol.Symbol;
 
 import javax.annotation.Nullable;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -72,6 +73,17 @@ abstract class OneInputPlan extends LogicalPlanBase {
         return this;
     }
 
+    @Override
+    public List<LogicalPlan> sources() {
+        return Collections.singletonList(source);
+    }
+
+    @Override
+    public LogicalPlan replaceSources(List<LogicalPlan> sources) {
+        assert sources.size() == 1 : "A OneInputPlan must have exactly one source";
+        return updateSource(sources.get(0), SymbolMapper.identity());
+    }
+
     /**
      * If no other information available, return the source's number of rows.
      * @return The number of rows of the source plan.
@@ -24,13 +24,19 @@ package io.crate.planner.operators;
 
 import io.crate.expression.symbol.FieldReplacer;
 import io.crate.expression.symbol.FieldsVisitor;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.MappingSymbolVisitor;
+import io.crate.expression.symbol.ParameterSymbol;
 import io.crate.expression.symbol.RefReplacer;
 import io.crate.expression.symbol.RefVisitor;
+import io.crate.expression.symbol.SelectSymbol;
 import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.Symbols;
 import io.crate.collections.Lists2;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -116,4 +122,39 @@ final class OperatorUtils {
             return mapped;
         };
     }
+
+    /**
+     * @return true if {@code symbol} can be evaluated using only the {@code available} symbols.
+     *         Literals, parameters and sub-queries don't depend on any source and are always evaluable.
+     */
+    static boolean isEvaluableFrom(Symbol symbol, Collection<Symbol> available) {
+        if (available.contains(symbol)) {
+            return true;
+        }
+        if (symbol instanceof Literal || symbol instanceof ParameterSymbol || symbol instanceof SelectSymbol) {
+            return true;
+        }
+        if (symbol instanceof io.crate.expression.symbol.Function) {
+            for (Symbol arg : ((io.crate.expression.symbol.Function) symbol).arguments()) {
+                if (!isEvaluableFrom(arg, available)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Rewrites {@code symbol} which is based on {@code outputs} so that it is based on {@code sourceOutputs} instead.
+     * The outputs must correspond to the source outputs by position.
+     */
+    static Symbol mapToSourceOutputs(Symbol symbol, List<Symbol> outputs, List<Symbol> sourceOutputs) {
+        assert outputs.size() == sourceOutputs.size() : "outputs must correspond to the source outputs by position";
+        Map<Symbol, Symbol> mapping = new HashMap<>(outputs.size());
+        for (int i = 0; i < outputs.size(); i++) {
+            mapping.put(outputs.get(i), sourceOutputs.get(i));
+        }
+        return MappingSymbolVisitor.copy().process(symbol, mapping);
+    }
 }
@@ -0,0 +1,365 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.operators;
+
+import io.crate.analyze.relations.AnalyzedRelation;
+import io.crate.analyze.relations.QueriedRelation;
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.operator.EqOperator;
+import io.crate.expression.operator.GtOperator;
+import io.crate.expression.operator.GteOperator;
+import io.crate.expression.operator.LtOperator;
+import io.crate.expression.operator.LteOperator;
+import io.crate.expression.operator.OrOperator;
+import io.crate.expression.operator.any.AnyOperators;
+import io.crate.expression.predicate.IsNullPredicate;
+import io.crate.expression.predicate.NotPredicate;
+import io.crate.expression.symbol.Field;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.SymbolVisitor;
+import io.crate.metadata.Reference;
+import io.crate.metadata.stats.ColumnStats;
+import io.crate.planner.TableStats;
+import io.crate.types.DataType;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Estimates the fraction of rows which match a query, based on the column statistics collected by {@code ANALYZE}.
+ * <p>
+ * If there are no statistics for a column, default selectivities (taken from PostgreSQL) are used.
+ * </p>
+ */
+final class SelectivityEstimator {
+
+    static final double DEFAULT_EQ_SELECTIVITY = 0.005;
+    static final double DEFAULT_RANGE_SELECTIVITY = 1.0 / 3.0;
+    static final double DEFAULT_SELECTIVITY = 0.5;
+
+    private static final Visitor VISITOR = new Visitor();
+
+    private SelectivityEstimator() {
+    }
+
+    /**
+     * @return the estimated number of rows of a table with {@code numDocs} rows which match the query;
+     *         -1 if the number of rows of the table is unknown.
+     */
+    static long estimateRows(long numDocs, @Nullable Symbol query, TableStats tableStats) {
+        if (numDocs < 0 || query == null) {
+            return numDocs;
+        }
+        return Math.round(numDocs * selectivity(query, tableStats));
+    }
+
+    /**
+     * @return the estimated fraction of rows that match the query; a value between 0.0 and 1.0
+     */
+    static double selectivity(Symbol query, TableStats tableStats) {
+        Double selectivity = VISITOR.process(query, tableStats);
+        return selectivity == null ? DEFAULT_SELECTIVITY : clamp(selectivity);
+    }
+
+    /**
+     * Estimates the number of rows produced by an inner join of two relations.
+     * <p>
+     * Each equality between columns of the joined relations reduces the cross product of both sides by the number
+     * of distinct values of the side with more distinct values. If the number of distinct values is unknown
+     * for all join conditions the bigger side of the join is used as the estimate.
+     * </p>
+     */
+    static long estimateJoinRows(long lhsRows, long rhsRows, @Nullable Symbol joinCondition, TableStats tableStats) {
+        if (lhsRows < 0 || rhsRows < 0) {
+            return Math.max(lhsRows, rhsRows);
+        }
+        double selectivity = joinSelectivity(joinCondition, lhsRows, rhsRows, tableStats);
+        if (selectivity < 0) {
+            return Math.max(lhsRows, rhsRows);
+        }
+        return Math.max(1L, Math.round((double) lhsRows * rhsRows * selectivity));
+    }
+
+    /**
+     * @return the selectivity of the equi-join conditions or -1 if it is unknown
+     */
+    private static double joinSelectivity(@Nullable Symbol joinCondition,
+                                          long lhsRows,
+                                          long rhsRows,
+                                          TableStats tableStats) {
+        if (!(joinCondition instanceof Function)) {
+            return -1;
+        }
+        Function function = (Function) joinCondition;
+        String name = function.info().ident().name();
+        List<Symbol> args = function.arguments();
+        if (name.equals(AndOperator.NAME)) {
+            double left = joinSelectivity(args.get(0), lhsRows, rhsRows, tableStats);
+            double right = joinSelectivity(args.get(1), lhsRows, rhsRows, tableStats);
+            if (left < 0) {
+                return right;
+            }
+            return right < 0 ? left : left * right;
+        }
+        if (name.equals(EqOperator.NAME)) {
+            double leftDistinct = distinctValues(args.get(0), tableStats);
+            double rightDistinct = distinctValues(args.get(1), tableStats);
+            double maxDistinct = Math.max(
+                Math.min(leftDistinct, Math.max(lhsRows, rhsRows)),
+                Math.min(rightDistinct, Math.max(lhsRows, rhsRows)));
+            if (maxDistinct > 0) {
+                return 1.0 / maxDistinct;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the approximate number of distinct values of a column or -1 if unknown
+     */
+    private static double distinctValues(Symbol symbol, TableStats tableStats) {
+        Reference ref = resolveReference(symbol);
+        if (ref == null) {
+            return -1;
+        }
+        ColumnStats stats = tableStats.columnStats(ref.ident().tableIdent(), ref.column());
+        return stats == null ? -1 : stats.approxDistinct();
+    }
+
+    /**
+     * Resolves a field of a (queried) table to the underlying reference
+     */
+    @Nullable
+    private static Reference resolveReference(Symbol symbol) {
+        while (symbol instanceof Field) {
+            Field field = (Field) symbol;
+            AnalyzedRelation relation = field.relation();
+            if (!(relation instanceof QueriedRelation)) {
+                return null;
+            }
+            symbol = ((QueriedRelation) relation).outputs().get(field.index());
+        }
+        return symbol instanceof Reference ? (Reference) symbol : null;
+    }
+
+    private static double clamp(double selectivity) {
+        return Math.max(0.0, Math.min(1.0, selectivity));
+    }
+
+    private static class Visitor extends SymbolVisitor<TableStats, Double> {
+
+        @Override
+        public Double visitLiteral(Literal symbol, TableStats context) {
+            Object value = symbol.value();
+            if (value instanceof Boolean) {
+                return (Boolean) value ? 1.0 : 0.0;
+            }
+            return value == null ? 0.0 : null;
+        }
+
+        @Override
+        public Double visitFunction(Function function, TableStats tableStats) {
+            String name = function.info().ident().name();
+            List<Symbol> args = function.arguments();
+            if (name.equals(AnyOperators.Names.EQ)) {
+                return anyEqSelectivity(args, tableStats);
+            }
+            switch (name) {
+                case AndOperator.NAME:
+                    return selectivity(args.get(0), tableStats) * selectivity(args.get(1), tableStats);
+
+                case OrOperator.NAME:
+                    double left = selectivity(args.get(0), tableStats);
+                    double right = selectivity(args.get(1), tableStats);
+                    return left + right - left * right;
+
+                case NotPredicate.NAME:
+                    return 1.0 - selectivity(args.get(0), tableStats);
+
+                case IsNullPredicate.NAME:
+                    ColumnStats stats = columnStats(args.get(0), tableStats);
+                    return stats == null ? DEFAULT_EQ_SELECTIVITY : stats.nullFraction();
+
+                case EqOperator.NAME:
+                case GtOperator.NAME:
+                case GteOperator.NAME:
+                case LtOperator.NAME:
+                case LteOperator.NAME:
+                    return comparisonSelectivity(name, args, tableStats);
+
+                default:
+                    return null;
+            }
+        }
+
+        @Nullable
+        private static ColumnStats columnStats(Symbol symbol, TableStats tableStats) {
+            if (symbol instanceof Reference) {
+                Reference ref = (Reference) symbol;
+                return tableStats.columnStats(ref.ident().tableIdent(), ref.column());
+            }
+            return null;
+        }
+
+        private static double comparisonSelectivity(String name, List<Symbol> args, TableStats tableStats) {
+            Symbol column = args.get(0);
+            Symbol value = args.get(1);
+            boolean swapped = false;
+            if (!(column instanceof Reference) && value instanceof Reference) {
+                column = args.get(1);
+                value = args.get(0);
+                swapped = true;
+            }
+            boolean isEq = name.equals(EqOperator.NAME);
+            ColumnStats stats = columnStats(column, tableStats);
+            if (stats == null) {
+                return isEq ? DEFAULT_EQ_SELECTIVITY : DEFAULT_RANGE_SELECTIVITY;
+            }
+            Object literalValue = literalValue((Reference) column, value);
+            if (isEq) {
+                return eqSelectivity(stats, literalValue);
+            }
+            if (literalValue == null) {
+                return DEFAULT_RANGE_SELECTIVITY;
+            }
+            boolean lessThan = name.equals(LtOperator.NAME) || name.equals(LteOperator.NAME);
+            if (swapped) {
+                // 5 < x is equal to x > 5
+                lessThan = !lessThan;
+            }
+            return rangeSelectivity(stats, literalValue, lessThan);
+        }
+
+        private static double anyEqSelectivity(List<Symbol> args, TableStats tableStats) {
+            ColumnStats stats = columnStats(args.get(0), tableStats);
+            Symbol values = args.get(1);
+            if (!(values instanceof Literal) || ((Literal) values).value() == null) {
+                return stats == null ? DEFAULT_RANGE_SELECTIVITY : DEFAULT_EQ_SELECTIVITY;
+            }
+            double selectivity = 0.0;
+            for (Object value : AnyOperators.collectionValueToIterable(((Literal) values).value())) {
+                if (stats == null) {
+                    selectivity += DEFAULT_EQ_SELECTIVITY;
+                } else {
+                    selectivity += eqSelectivity(stats, convert(stats.type(), value));
+                }
+            }
+            return selectivity;
+        }
+
+        @Nullable
+        private static Object literalValue(Reference column, Symbol value) {
+            if (value instanceof Literal) {
+                return convert(column.valueType(), ((Literal) value).value());
+            }
+            return null;
+        }
+
+        @Nullable
+        private static Object convert(DataType type, Object value) {
+            try {
+                return type.value(value);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+        /**
+         * @param value the value to compare with or null if the value is unknown during planning
+         */
+        @SuppressWarnings("unchecked")
+        private static double eqSelectivity(ColumnStats stats, @Nullable Object value) {
+            List<Object> mostCommonValues = stats.mostCommonValues();
+            List<Double> mostCommonFrequencies = stats.mostCommonFrequencies();
+            double mostCommonTotal = 0.0;
+            for (int i = 0; i < mostCommonValues.size(); i++) {
+                if (value != null && stats.type().compareValueTo(value, mostCommonValues.get(i)) == 0) {
+                    return mostCommonFrequencies.get(i);
+                }
+                mostCommonTotal += mostCommonFrequencies.get(i);
+            }
+            // the value is not one of the most common values; assume an even distribution of the remaining values
+            double remainingDistinct = stats.approxDistinct() - mostCommonValues.size();
+            if (remainingDistinct < 1) {
+                return value == null ? 1.0 / Math.max(1.0, stats.approxDistinct()) : 0.0;
+            }
+            return (1.0 - stats.nullFraction() - mostCommonTotal) / remainingDistinct;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static double rangeSelectivity(ColumnStats stats, Object value, boolean lessThan) {
+            DataType type = stats.type();
+            List<Object> mostCommonValues = stats.mostCommonValues();
+            List<Double> mostCommonFrequencies = stats.mostCommonFrequencies();
+            double mostCommonTotal = 0.0;
+            double mostCommonMatching = 0.0;
+            for (int i = 0; i < mostCommonValues.size(); i++) {
+                double frequency = mostCommonFrequencies.get(i);
+                mostCommonTotal += frequency;
+                int cmp = type.compareValueTo(mostCommonValues.get(i), value);
+                if (lessThan ? cmp < 0 : cmp > 0) {
+                    mostCommonMatching += frequency;
+                }
+            }
+            double remaining = 1.0 - stats.nullFraction() - mostCommonTotal;
+            List<Object> histogram = stats.histogram();
+            if (histogram.size() < 2) {
+                return mostCommonValues.isEmpty() ? DEFAULT_RANGE_SELECTIVITY : mostCommonMatching;
+            }
+            double fractionBelow = fractionBelow(type, histogram, value);
+            return mostCommonMatching + remaining * (lessThan ? fractionBelow : 1.0 - fractionBelow);
+        }
+
+        /**
+         * @return the fraction of the values of an equi-depth histogram that are lower than the given value,
+         *         interpolated linearly within the bucket for numeric values
+         */
+        @SuppressWarnings("unchecked")
+        private static double fractionBelow(DataType type, List<Object> histogram, Object value) {
+            int numBuckets = histogram.size() - 1;
+            if (type.compareValueTo(value, histogram.get(0)) <= 0) {
+                return 0.0;
+            }
+            if (type.compareValueTo(value, histogram.get(numBuckets)) >= 0) {
+                return 1.0;
+            }
+            int bucket = 0;
+            while (type.compareValueTo(value, histogram.get(bucket + 1)) > 0) {
+                bucket++;
+            }
+            Object lower = histogram.get(bucket);
+            Object upper = histogram.get(bucket + 1);
+            double withinBucket = 0.5;
+            if (lower instanceof Number && upper instanceof Number && value instanceof Number) {
+                double lo = ((Number) lower).doubleValue();
+                double hi = ((Number) upper).doubleValue();
+                if (hi > lo) {
+                    withinBucket = (((Number) value).doubleValue() - lo) / (hi - lo);
+                }
+            }
+            return (bucket + withinBucket) / numBuckets;
+        }
+    }
+}
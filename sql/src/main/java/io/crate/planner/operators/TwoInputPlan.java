@@ -26,6 +26,7 @@ import io.crate.expression.symbol.Symbol;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -61,6 +62,17 @@ abstract class TwoInputPlan extends LogicalPlanBase {
         return this;
     }
 
+    @Override
+    public List<LogicalPlan> sources() {
+        return Arrays.asList(lhs, rhs);
+    }
+
+    @Override
+    public LogicalPlan replaceSources(List<LogicalPlan> sources) {
+        assert sources.size() == 2 : "A TwoInputPlan must have exactly two sources";
+        return updateSources(sources.get(0), sources.get(1));
+    }
+
     /**
      * Creates a new LogicalPlan with an updated source. This is necessary
      * when we collapse plans during plan building or "push down" plans
@@ -38,6 +38,17 @@ abstract class ZeroInputPlan extends LogicalPlanBase {
         super(outputs, Collections.emptyMap(), baseTables, Collections.emptyMap());
     }
 
+    @Override
+    public List<LogicalPlan> sources() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public LogicalPlan replaceSources(List<LogicalPlan> sources) {
+        assert sources.isEmpty() : "A ZeroInputPlan has no sources";
+        return this;
+    }
+
     @Override
     public LogicalPlan tryOptimize(@Nullable LogicalPlan pushDown, SymbolMapper mapper) {
         if (pushDown != null) {
@@ -0,0 +1,108 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.optimizer;
+
+import io.crate.planner.operators.LogicalPlan;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.logging.Loggers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies a set of {@link Rule}s to a {@link LogicalPlan} tree until none of the rules changes the tree anymore.
+ * <p>
+ * The tree is traversed top-down. On each node all rules are applied until none of them matches,
+ * then the sources of the node are optimized.
+ * </p>
+ */
+public class Optimizer {
+
+    private static final Logger LOGGER = Loggers.getLogger(Optimizer.class);
+
+    /**
+     * Safety net in case rules undo each other; the tree is usually stable after a few passes.
+     */
+    private static final int MAX_ITERATIONS = 100;
+
+    private final List<Rule<?>> rules;
+
+    public Optimizer(List<Rule<?>> rules) {
+        this.rules = rules;
+    }
+
+    public LogicalPlan optimize(LogicalPlan plan) {
+        LogicalPlan current = plan;
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            LogicalPlan optimized = optimizeTree(current);
+            if (optimized == current) {
+                return current;
+            }
+            current = optimized;
+        }
+        LOGGER.warn("Optimizer didn't reach a fixpoint after {} iterations", MAX_ITERATIONS);
+        return current;
+    }
+
+    private LogicalPlan optimizeTree(LogicalPlan plan) {
+        LogicalPlan node = applyRules(plan);
+        List<LogicalPlan> sources = node.sources();
+        List<LogicalPlan> newSources = new ArrayList<>(sources.size());
+        boolean sourcesChanged = false;
+        for (LogicalPlan source : sources) {
+            LogicalPlan newSource = optimizeTree(source);
+            sourcesChanged |= newSource != source;
+            newSources.add(newSource);
+        }
+        if (sourcesChanged) {
+            return node.replaceSources(newSources);
+        }
+        return node;
+    }
+
+    private LogicalPlan applyRules(LogicalPlan plan) {
+        LogicalPlan node = plan;
+        boolean changed;
+        int iterations = 0;
+        do {
+            changed = false;
+            for (Rule<?> rule : rules) {
+                LogicalPlan transformed = tryApply(rule, node);
+                if (transformed != null && transformed != node) {
+                    node = transformed;
+                    changed = true;
+                }
+            }
+            iterations++;
+        } while (changed && iterations < MAX_ITERATIONS);
+        return node;
+    }
+
+    private static <T extends LogicalPlan> LogicalPlan tryApply(Rule<T> rule, LogicalPlan node) {
+        T match = rule.pattern().match(node);
+        if (match == null) {
+            return null;
+        }
+        return rule.apply(match);
+    }
+}
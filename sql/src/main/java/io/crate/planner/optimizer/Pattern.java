@@ -0,0 +1,73 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.optimizer;
+
+import io.crate.planner.operators.LogicalPlan;
+
+import javax.annotation.Nullable;
+import java.util.function.Predicate;
+
+/**
+ * Matches {@link LogicalPlan} nodes of a given type which satisfy optional additional conditions.
+ *
+ * <pre>
+ *     Pattern.typeOf(Filter.class)
+ *         .with(filter -> filter.source instanceof Union)
+ * </pre>
+ */
+public final class Pattern<T extends LogicalPlan> {
+
+    private final Class<T> type;
+    private final Predicate<? super T> predicate;
+
+    public static <T extends LogicalPlan> Pattern<T> typeOf(Class<T> type) {
+        return new Pattern<>(type, x -> true);
+    }
+
+    private Pattern(Class<T> type, Predicate<? super T> predicate) {
+        this.type = type;
+        this.predicate = predicate;
+    }
+
+    /**
+     * @return a pattern which additionally requires the plan to satisfy the given predicate
+     */
+    public Pattern<T> with(Predicate<? super T> additionalPredicate) {
+        Predicate<? super T> current = this.predicate;
+        return new Pattern<>(type, x -> current.test(x) && additionalPredicate.test(x));
+    }
+
+    /**
+     * @return the plan casted to the type of the pattern if it matches, otherwise null
+     */
+    @Nullable
+    public T match(LogicalPlan plan) {
+        if (type.isInstance(plan)) {
+            T typedPlan = type.cast(plan);
+            if (predicate.test(typedPlan)) {
+                return typedPlan;
+            }
+        }
+        return null;
+    }
+}
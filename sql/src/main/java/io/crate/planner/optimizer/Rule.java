@@ -0,0 +1,48 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.optimizer;
+
+import io.crate.planner.operators.LogicalPlan;
+
+import javax.annotation.Nullable;
+
+/**
+ * A rewrite rule of the {@link Optimizer}.
+ * <p>
+ * A rule is applied to every {@link LogicalPlan} node matching its {@link #pattern()}.
+ * It either returns an equivalent plan which is expected to execute more efficiently or null if it cannot be applied.
+ * </p>
+ * Rules must make progress on each application (e.g. move an operator further down the tree or merge operators)
+ * to ensure that applying the rules repeatedly terminates.
+ */
+public interface Rule<T extends LogicalPlan> {
+
+    Pattern<T> pattern();
+
+    /**
+     * @param plan a plan matching {@link #pattern()}
+     * @return the rewritten plan or null if the rule is not applicable
+     */
+    @Nullable
+    LogicalPlan apply(T plan);
+}
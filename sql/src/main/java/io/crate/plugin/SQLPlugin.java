@@ -24,18 +24,22 @@ package io.crate.plugin;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import io.crate.action.sql.SQLOperations;
+import io.crate.action.sql.StatementCache;
 import io.crate.analyze.repositories.RepositorySettingsModule;
 import io.crate.auth.AuthSettings;
 import io.crate.breaker.CircuitBreakerModule;
 import io.crate.cluster.gracefulstop.DecommissionAllocationDecider;
 import io.crate.cluster.gracefulstop.DecommissioningService;
+import io.crate.execution.SubQueryResultCache;
 import io.crate.execution.TransportExecutorModule;
+import io.crate.execution.dml.TranslogGroupCommitService;
 import io.crate.execution.engine.aggregation.impl.AggregationImplModule;
 import io.crate.execution.engine.collect.CollectOperationModule;
 import io.crate.execution.engine.collect.files.FileCollectModule;
 import io.crate.execution.jobs.JobModule;
 import io.crate.execution.jobs.TasksService;
 import io.crate.execution.jobs.transport.NodeDisconnectJobMonitorService;
+import io.crate.expression.InputFactory;
 import io.crate.expression.operator.OperatorModule;
 import io.crate.expression.predicate.PredicateModule;
 import io.crate.expression.reference.sys.check.SysChecksModule;
@@ -55,6 +59,7 @@ import io.crate.metadata.pgcatalog.PgCatalogModule;
 import io.crate.metadata.rule.ingest.IngestRulesMetaData;
 import io.crate.metadata.settings.AnalyzerSettings;
 import io.crate.metadata.settings.CrateSettings;
+import io.crate.metadata.stats.ColumnStatsMetaData;
 import io.crate.metadata.sys.MetaDataSysModule;
 import io.crate.metadata.upgrade.IndexTemplateUpgrader;
 import io.crate.metadata.upgrade.MetaDataIndexUpgrader;
@@ -138,6 +143,11 @@ public class SQLPlugin extends Plugin implements ActionPlugin, MapperPlugin, Clu
         List<Setting<?>> settings = new ArrayList<>();
         settings.add(AnalyzerSettings.CUSTOM_ANALYSIS_SETTING_GROUP);
         settings.add(SQLOperations.NODE_READ_ONLY_SETTING);
+        settings.add(StatementCache.STATEMENT_CACHE_SIZE_SETTING);
+        settings.add(InputFactory.COMPILED_EXPRESSIONS_ENABLED_SETTING);
+        settings.add(SubQueryResultCache.SUBQUERY_CACHE_SIZE_SETTING);
+        settings.add(SubQueryResultCache.SUBQUERY_CACHE_TTL_SETTING);
+        settings.add(TranslogGroupCommitService.GROUP_COMMIT_MAX_DELAY_SETTING);
 
         // Postgres settings are node settings
         settings.add(PostgresNetty.PSQL_ENABLED_SETTING.setting());
@@ -254,6 +264,11 @@ public class SQLPlugin extends Plugin implements ActionPlugin, MapperPlugin, Clu
             ViewsMetaData.TYPE,
             ViewsMetaData::new
         ));
+        entries.add(new NamedWriteableRegistry.Entry(
+            MetaData.Custom.class,
+            ColumnStatsMetaData.TYPE,
+            ColumnStatsMetaData::new
+        ));
         entries.add(new NamedWriteableRegistry.Entry(
             NamedDiff.class,
             UserDefinedFunctionsMetaData.TYPE,
@@ -269,6 +284,11 @@ public class SQLPlugin extends Plugin implements ActionPlugin, MapperPlugin, Clu
             ViewsMetaData.TYPE,
             in -> ViewsMetaData.readDiffFrom(MetaData.Custom.class, ViewsMetaData.TYPE, in)
         ));
+        entries.add(new NamedWriteableRegistry.Entry(
+            NamedDiff.class,
+            ColumnStatsMetaData.TYPE,
+            in -> ColumnStatsMetaData.readDiffFrom(MetaData.Custom.class, ColumnStatsMetaData.TYPE, in)
+        ));
         if (userExtension != null) {
             entries.addAll(userExtension.getNamedWriteables());
         }
@@ -293,6 +313,11 @@ public class SQLPlugin extends Plugin implements ActionPlugin, MapperPlugin, Clu
             new ParseField(ViewsMetaData.TYPE),
             ViewsMetaData::fromXContent
         ));
+        entries.add(new NamedXContentRegistry.Entry(
+            MetaData.Custom.class,
+            new ParseField(ColumnStatsMetaData.TYPE),
+            ColumnStatsMetaData::fromXContent
+        ));
         if (userExtension != null) {
             entries.addAll(userExtension.getNamedXContent());
         }
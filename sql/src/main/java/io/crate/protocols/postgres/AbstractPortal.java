@@ -23,6 +23,7 @@
 package io.crate.protocols.postgres;
 
 import io.crate.action.sql.SessionContext;
+import io.crate.action.sql.StatementCache;
 import io.crate.analyze.Analyzer;
 import io.crate.planner.DependencyCarrier;
 
@@ -33,10 +34,15 @@ abstract class AbstractPortal implements Portal {
     final SessionContext sessionContext;
     boolean synced = false;
 
-    AbstractPortal(String name, Analyzer analyzer, DependencyCarrier executor, boolean isReadOnly, SessionContext sessionContext) {
+    AbstractPortal(String name,
+                   Analyzer analyzer,
+                   StatementCache statementCache,
+                   DependencyCarrier executor,
+                   boolean isReadOnly,
+                   SessionContext sessionContext) {
         this.name = name;
         this.sessionContext = sessionContext;
-        portalContext = new PortalContext(analyzer, executor, isReadOnly);
+        portalContext = new PortalContext(analyzer, statementCache, executor, isReadOnly);
     }
 
     AbstractPortal(String name, SessionContext sessionContext, PortalContext portalContext) {
@@ -62,11 +68,16 @@ abstract class AbstractPortal implements Portal {
     static class PortalContext {
 
         private final Analyzer analyzer;
+        private final StatementCache statementCache;
         private final DependencyCarrier executor;
         private final boolean isReadOnly;
 
-        private PortalContext(Analyzer analyzer, DependencyCarrier executor, boolean isReadOnly) {
+        private PortalContext(Analyzer analyzer,
+                              StatementCache statementCache,
+                              DependencyCarrier executor,
+                              boolean isReadOnly) {
             this.analyzer = analyzer;
+            this.statementCache = statementCache;
             this.executor = executor;
             this.isReadOnly = isReadOnly;
         }
@@ -75,6 +86,10 @@ abstract class AbstractPortal implements Portal {
             return analyzer;
         }
 
+        StatementCache getStatementCache() {
+            return statementCache;
+        }
+
         DependencyCarrier getExecutor() {
             return executor;
         }
@@ -48,6 +48,7 @@ import io.crate.planner.operators.SubQueryResults;
 import io.crate.sql.tree.Statement;
 import io.crate.types.DataType;
 import org.elasticsearch.common.Randomness;
+import org.elasticsearch.threadpool.ThreadPool;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
@@ -164,8 +165,9 @@ class BatchPortal extends AbstractPortal {
             );
             Plan plan;
             String stmt = queries.get(i);
+            AnalyzedStatement analyzedStatement = analyzedStatements.get(i);
             try {
-                plan = planner.plan(analyzedStatements.get(i), plannerContext);
+                plan = planner.plan(analyzedStatement, plannerContext);
             } catch (Throwable t) {
                 jobsLogs.logPreExecutionFailure(jobId, stmt, SQLExceptions.messageOf(t), sessionContext.user());
                 throw t;
@@ -177,9 +179,11 @@ class BatchPortal extends AbstractPortal {
 
             resultReceiver.completionFuture()
                 .whenComplete(jobsLogsUpdateListener)
+                .whenComplete((result, t) -> planner.onStatementCompleted(analyzedStatement))
                 .whenComplete(completionCallback);
 
-            RowConsumer consumer = new RowConsumerToResultReceiver(resultReceiver, 0);
+            RowConsumer consumer = new RowConsumerToResultReceiver(
+                resultReceiver, 0, portalContext.getExecutor().threadPool().executor(ThreadPool.Names.SEARCH));
             plan.execute(
                 portalContext.getExecutor(),
                 plannerContext,
@@ -170,7 +170,9 @@ class BulkPortal extends AbstractPortal {
         StatementClassifier.Classification classification = StatementClassifier.classify(plan);
         jobsLogs.logExecutionStart(jobId, query, sessionContext.user(), classification);
         synced = true;
-        return executeBulk(portalContext.getExecutor(), plan, plannerContext, jobId, jobsLogs, bulkParams);
+        AnalyzedStatement executedStatement = analyzedStatement;
+        return executeBulk(portalContext.getExecutor(), plan, plannerContext, jobId, jobsLogs, bulkParams)
+            .whenComplete((result, t) -> planner.onStatementCompleted(executedStatement));
     }
 
     private CompletableFuture<Void> executeBulk(DependencyCarrier executor,
@@ -285,42 +285,49 @@ public class Messages {
      * <p>
      * ByteN
      * The value of the column, in the format indicated by the associated format code. n is the above length.
+     * <p>
+     * The message is appended to the buffer, which may already contain other messages.
      */
-    static void sendDataRow(Channel channel, Row row, List<? extends DataType> columnTypes, @Nullable FormatCodes.FormatCode[] formatCodes) {
+    static void writeDataRow(ByteBuf buffer, Row row, List<? extends DataType> columnTypes, @Nullable FormatCodes.FormatCode[] formatCodes) {
         int length = 4 + 2;
         assert columnTypes.size() == row.numColumns()
             : "Number of columns in the row must match number of columnTypes. Row: " + row + " types: " + columnTypes;
 
-        ByteBuf buffer = channel.alloc().buffer();
-        buffer.writeByte('D');
-        buffer.writeInt(0); // will be set at the end
-        buffer.writeShort(row.numColumns());
-
-        for (int i = 0; i < row.numColumns(); i++) {
-            DataType dataType = columnTypes.get(i);
-            PGType pgType = PGTypes.get(dataType);
-            Object value = row.get(i);
-            if (value == null) {
-                buffer.writeInt(-1);
-                length += 4;
-            } else {
-                FormatCodes.FormatCode formatCode = FormatCodes.getFormatCode(formatCodes, i);
-                switch (formatCode) {
-                    case TEXT:
-                        length += pgType.writeAsText(buffer, value);
-                        break;
-                    case BINARY:
-                        length += pgType.writeAsBinary(buffer, value);
-                        break;
-
-                    default:
-                        throw new AssertionError("Unrecognized formatCode: " + formatCode);
+        int startIdx = buffer.writerIndex();
+        try {
+            buffer.writeByte('D');
+            buffer.writeInt(0); // will be set at the end
+            buffer.writeShort(row.numColumns());
+
+            for (int i = 0; i < row.numColumns(); i++) {
+                DataType dataType = columnTypes.get(i);
+                PGType pgType = PGTypes.get(dataType);
+                Object value = row.get(i);
+                if (value == null) {
+                    buffer.writeInt(-1);
+                    length += 4;
+                } else {
+                    FormatCodes.FormatCode formatCode = FormatCodes.getFormatCode(formatCodes, i);
+                    switch (formatCode) {
+                        case TEXT:
+                            length += pgType.writeAsText(buffer, value);
+                            break;
+                        case BINARY:
+                            length += pgType.writeAsBinary(buffer, value);
+                            break;
+
+                        default:
+                            throw new AssertionError("Unrecognized formatCode: " + formatCode);
+                    }
                 }
             }
-        }
 
-        buffer.setInt(1, length);
-        channel.write(buffer);
+            buffer.setInt(startIdx + 1, length);
+        } catch (Throwable t) {
+            // the buffer may already contain other rows, a partially written row would corrupt them
+            buffer.writerIndex(startIdx);
+            throw t;
+        }
     }
 
     static void writeCString(ByteBuf buffer, byte[] valBytes) {
@@ -27,14 +27,23 @@ import io.crate.data.Row;
 import io.crate.exceptions.SQLExceptions;
 import io.crate.auth.user.ExceptionAuthorizedValidator;
 import io.crate.types.DataType;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 class ResultSetReceiver extends BaseResultReceiver {
 
+    /**
+     * DataRow messages are collected in one buffer which is written and flushed to the channel once it contains
+     * at least this many bytes.
+     */
+    static final int DATA_ROWS_FLUSH_THRESHOLD = 16 * 1024;
+
     private final String query;
     private final Channel channel;
     private final ExceptionAuthorizedValidator exceptionAuthorizedValidator;
@@ -45,6 +54,12 @@ class ResultSetReceiver extends BaseResultReceiver {
 
     private long rowCount = 0;
 
+    @Nullable
+    private ByteBuf dataRows;
+
+    @Nullable
+    private CompletableFuture<?> backpressure;
+
     ResultSetReceiver(String query,
                       Channel channel,
                       ExceptionAuthorizedValidator exceptionAuthorizedValidator,
@@ -60,11 +75,42 @@ class ResultSetReceiver extends BaseResultReceiver {
     @Override
     public void setNextRow(Row row) {
         rowCount++;
-        Messages.sendDataRow(channel, row, columnTypes, formatCodes);
+        if (dataRows == null) {
+            // allocate some headroom so that the buffer usually doesn't have to grow before reaching the threshold
+            dataRows = channel.alloc().buffer(2 * DATA_ROWS_FLUSH_THRESHOLD);
+        }
+        Messages.writeDataRow(dataRows, row, columnTypes, formatCodes);
+        if (dataRows.readableBytes() >= DATA_ROWS_FLUSH_THRESHOLD) {
+            writeDataRows();
+        }
+    }
+
+    @Nullable
+    @Override
+    public CompletableFuture<?> backpressure() {
+        CompletableFuture<?> future = backpressure;
+        backpressure = null;
+        return future;
+    }
+
+    private void writeDataRows() {
+        if (dataRows == null) {
+            return;
+        }
+        ChannelFuture writeFuture = channel.writeAndFlush(dataRows);
+        dataRows = null;
+        if (!channel.isWritable()) {
+            // the client doesn't keep up with reading the results; pause until the rows are written to the socket
+            // to avoid buffering the whole result in the outbound buffer of the channel
+            CompletableFuture<Void> written = new CompletableFuture<>();
+            writeFuture.addListener(f -> written.complete(null));
+            backpressure = written;
+        }
     }
 
     @Override
     public void batchFinished() {
+        writeDataRows();
         Messages.sendPortalSuspended(channel);
         Messages.sendReadyForQuery(channel);
     }
@@ -72,8 +118,10 @@ class ResultSetReceiver extends BaseResultReceiver {
     @Override
     public void allFinished(boolean interrupted) {
         if (interrupted) {
+            releaseDataRows();
             super.allFinished(true);
         } else {
+            writeDataRows();
             Messages.sendCommandComplete(channel, query, rowCount).addListener(f -> super.allFinished(false));
         }
     }
@@ -81,6 +129,14 @@ class ResultSetReceiver extends BaseResultReceiver {
     @Override
     public void fail(@Nonnull Throwable throwable) {
         final Throwable t =  SQLExceptions.createSQLActionException(throwable, exceptionAuthorizedValidator);
+        writeDataRows();
         Messages.sendErrorResponse(channel, t).addListener(f -> super.fail(t));
     }
+
+    private void releaseDataRows() {
+        if (dataRows != null) {
+            dataRows.release();
+            dataRows = null;
+        }
+    }
 }
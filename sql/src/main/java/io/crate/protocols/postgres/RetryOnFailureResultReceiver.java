@@ -38,6 +38,7 @@ import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.transport.ConnectTransportException;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
@@ -77,6 +78,12 @@ public class RetryOnFailureResultReceiver implements ResultReceiver {
         delegate.setNextRow(row);
     }
 
+    @Nullable
+    @Override
+    public CompletableFuture<?> backpressure() {
+        return delegate.backpressure();
+    }
+
     @Override
     public void batchFinished() {
         delegate.batchFinished();
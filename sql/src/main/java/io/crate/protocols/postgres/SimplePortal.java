@@ -25,9 +25,11 @@ package io.crate.protocols.postgres;
 import io.crate.action.sql.ResultReceiver;
 import io.crate.action.sql.RowConsumerToResultReceiver;
 import io.crate.action.sql.SessionContext;
+import io.crate.action.sql.StatementCache;
 import io.crate.analyze.Analysis;
 import io.crate.analyze.AnalyzedStatement;
 import io.crate.analyze.Analyzer;
+import io.crate.analyze.ParamTypeHints;
 import io.crate.analyze.ParameterContext;
 import io.crate.analyze.relations.AnalyzedRelation;
 import io.crate.collections.Lists2;
@@ -47,12 +49,15 @@ import io.crate.planner.operators.StatementClassifier;
 import io.crate.planner.operators.SubQueryResults;
 import io.crate.sql.tree.Statement;
 import io.crate.types.DataType;
+import io.crate.types.DataTypes;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.common.Randomness;
 import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.threadpool.ThreadPool;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -76,13 +81,18 @@ public class SimplePortal extends AbstractPortal {
     private int defaultLimit;
     private Row rowParams;
     private TransactionContext transactionContext;
+    @Nullable
+    private StatementCache.Key planCacheKey;
+    @Nullable
+    private StatementCache.CachedPlan cachedPlan;
 
     public SimplePortal(String name,
                         Analyzer analyzer,
+                        StatementCache statementCache,
                         DependencyCarrier executor,
                         boolean isReadOnly,
                         SessionContext sessionContext) {
-        super(name, analyzer, executor, isReadOnly, sessionContext);
+        super(name, analyzer, statementCache, executor, isReadOnly, sessionContext);
         this.defaultLimit = sessionContext.defaultLimit();
     }
 
@@ -133,8 +143,10 @@ public class SimplePortal extends AbstractPortal {
             if (portalContext.isReadOnly()) { // Cannot have a batch operation in read only mode
                 throw new ReadOnlyException();
             }
+            // an analyzed statement which is shared via the statement cache must not be planned again
+            AnalyzedStatement previousStatement = planCacheKey == null ? this.analyzedStatement : boundAnalyze();
             BatchPortal portal = new BatchPortal(
-                name, this.query, this.analyzedStatement, outputTypes, resultReceiver, this.params, sessionContext, portalContext);
+                name, this.query, previousStatement, outputTypes, resultReceiver, this.params, sessionContext, portalContext);
             return portal.bind(statementName, query, statement, analyzedStatement, params, resultFormatCodes);
         }
 
@@ -146,12 +158,24 @@ public class SimplePortal extends AbstractPortal {
         if (transactionContext == null) {
             transactionContext = new TransactionContext(sessionContext);
         }
-        if (analyzedStatement == null || analyzedStatement.isUnboundPlanningSupported() == false) {
-            Analysis analysis = portalContext.getAnalyzer().boundAnalyze(
-                statement,
-                transactionContext,
-                new ParameterContext(rowParams, Collections.emptyList()));
-            analyzedStatement = analysis.analyzedStatement();
+        this.planCacheKey = null;
+        this.cachedPlan = null;
+        if (analyzedStatement == null && portalContext.getStatementCache().supportsPlanCaching(statement)) {
+            List<DataType> paramTypes = new ArrayList<>(params.size());
+            for (Object param : params) {
+                paramTypes.add(DataTypes.guessType(param));
+            }
+            planCacheKey = new StatementCache.Key(query, paramTypes, sessionContext);
+            cachedPlan = portalContext.getStatementCache().getPlan(planCacheKey);
+            if (cachedPlan == null) {
+                analyzedStatement = portalContext.getAnalyzer().unboundAnalyze(
+                    statement, sessionContext, new ParamTypeHints(paramTypes));
+            } else {
+                analyzedStatement = cachedPlan.analyzedStatement();
+            }
+            sessionContext.ensureStatementAuthorized(analyzedStatement);
+        } else if (analyzedStatement == null || analyzedStatement.isUnboundPlanningSupported() == false) {
+            analyzedStatement = boundAnalyze();
         }
         if (analyzedStatement instanceof AnalyzedRelation) {
             AnalyzedRelation rootRelation = (AnalyzedRelation) analyzedStatement;
@@ -191,7 +215,7 @@ public class SimplePortal extends AbstractPortal {
         );
         Plan plan;
         try {
-            plan = planner.plan(analyzedStatement, plannerContext);
+            plan = plan(planner, plannerContext);
         } catch (Throwable t) {
             jobsLogs.logPreExecutionFailure(jobId, query, SQLExceptions.messageOf(t), sessionContext.user());
             throw t;
@@ -214,11 +238,14 @@ public class SimplePortal extends AbstractPortal {
 
         jobsLogs.logExecutionStart(jobId, query, sessionContext.user(), StatementClassifier.classify(plan));
         JobsLogsUpdateListener jobsLogsUpdateListener = new JobsLogsUpdateListener(jobId, jobsLogs);
+        AnalyzedStatement executedStatement = analyzedStatement;
         CompletableFuture<?> completableFuture = resultReceiver.completionFuture()
-            .whenComplete(jobsLogsUpdateListener);
+            .whenComplete(jobsLogsUpdateListener)
+            .whenComplete((result, t) -> planner.onStatementCompleted(executedStatement));
 
         if (!resumeIfSuspended()) {
-            consumer = new RowConsumerToResultReceiver(resultReceiver, maxRows);
+            consumer = new RowConsumerToResultReceiver(
+                resultReceiver, maxRows, dependencyCarrier.threadPool().executor(ThreadPool.Names.SEARCH));
             plan.execute(
                 dependencyCarrier,
                 plannerContext,
@@ -231,10 +258,31 @@ public class SimplePortal extends AbstractPortal {
         return completableFuture;
     }
 
+    private Plan plan(Planner planner, PlannerContext plannerContext) {
+        if (cachedPlan != null) {
+            if (maxRows == 0) {
+                return cachedPlan.plan();
+            }
+            // plans are only cached for maxRows=0 and the cached analysis must not be planned again
+            return planner.plan(boundAnalyze(), plannerContext);
+        }
+        Plan plan = planner.plan(analyzedStatement, plannerContext);
+        if (planCacheKey != null && maxRows == 0) {
+            portalContext.getStatementCache().putPlan(planCacheKey, analyzedStatement, plan);
+        }
+        return plan;
+    }
+
+    private AnalyzedStatement boundAnalyze() {
+        Analysis analysis = portalContext.getAnalyzer().boundAnalyze(
+            statement,
+            transactionContext,
+            new ParameterContext(rowParams, Collections.emptyList()));
+        return analysis.analyzedStatement();
+    }
+
     private void retryQuery(Planner planner, UUID jobId) {
-        Analysis analysis = portalContext
-            .getAnalyzer()
-            .boundAnalyze(statement, transactionContext, new ParameterContext(rowParams, Collections.emptyList()));
+        AnalyzedStatement retryStatement = boundAnalyze();
         RoutingProvider routingProvider = new RoutingProvider(Randomness.get().nextInt(), planner.getAwarenessAttributes());
         PlannerContext plannerContext = new PlannerContext(
             planner.currentClusterState(),
@@ -245,7 +293,7 @@ public class SimplePortal extends AbstractPortal {
             defaultLimit,
             maxRows
         );
-        Plan plan = planner.plan(analysis.analyzedStatement(), plannerContext);
+        Plan plan = planner.plan(retryStatement, plannerContext);
         plan.execute(
             portalContext.getExecutor(),
             plannerContext,
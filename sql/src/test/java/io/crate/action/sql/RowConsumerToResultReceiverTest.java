@@ -31,6 +31,8 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -61,7 +63,7 @@ public class RowConsumerToResultReceiverTest {
             }
         };
         RowConsumerToResultReceiver batchConsumer =
-            new RowConsumerToResultReceiver(resultReceiver, 0);
+            new RowConsumerToResultReceiver(resultReceiver, 0, Runnable::run);
 
         batchConsumer.accept(batchSimulatingIterator, null);
         resultReceiver.completionFuture().get(10, TimeUnit.SECONDS);
@@ -73,9 +75,66 @@ public class RowConsumerToResultReceiverTest {
     @Test
     public void testExceptionOnAllLoadedCallIsForwardedToResultReceiver() throws Exception {
         BaseResultReceiver resultReceiver = new BaseResultReceiver();
-        RowConsumerToResultReceiver consumer = new RowConsumerToResultReceiver(resultReceiver, 0);
+        RowConsumerToResultReceiver consumer = new RowConsumerToResultReceiver(resultReceiver, 0, Runnable::run);
 
         consumer.accept(FailingBatchIterator.failOnAllLoaded(), null);
         assertThat(resultReceiver.completionFuture().isCompletedExceptionally(), is(true));
     }
+
+    @Test
+    public void testConsumptionIsPausedUntilBackpressureFutureCompletesAndResumedOnTheExecutor() throws Exception {
+        CompletableFuture<Void> writable = new CompletableFuture<>();
+        List<Object[]> collectedRows = new ArrayList<>();
+        BaseResultReceiver resultReceiver = new BaseResultReceiver() {
+            @Override
+            public void setNextRow(Row row) {
+                collectedRows.add(row.materialize());
+            }
+
+            @Override
+            public CompletableFuture<?> backpressure() {
+                return collectedRows.size() == 3 ? writable : null;
+            }
+        };
+        List<Runnable> tasks = new ArrayList<>();
+        RowConsumerToResultReceiver consumer = new RowConsumerToResultReceiver(resultReceiver, 0, tasks::add);
+
+        consumer.accept(TestingBatchIterators.range(0, 10), null);
+        assertThat(collectedRows.size(), is(3));
+        assertThat(resultReceiver.completionFuture().isDone(), is(false));
+
+        // the thread releasing the backpressure (a network thread) must not consume the iterator
+        writable.complete(null);
+        assertThat(collectedRows.size(), is(3));
+        assertThat(tasks.size(), is(1));
+
+        tasks.get(0).run();
+        resultReceiver.completionFuture().get(10, TimeUnit.SECONDS);
+        assertThat(collectedRows.size(), is(10));
+    }
+
+    @Test
+    public void testConsumptionIsResumedOnTheCurrentThreadIfTheExecutorRejects() throws Exception {
+        CompletableFuture<Void> writable = new CompletableFuture<>();
+        List<Object[]> collectedRows = new ArrayList<>();
+        BaseResultReceiver resultReceiver = new BaseResultReceiver() {
+            @Override
+            public void setNextRow(Row row) {
+                collectedRows.add(row.materialize());
+            }
+
+            @Override
+            public CompletableFuture<?> backpressure() {
+                return collectedRows.size() == 3 ? writable : null;
+            }
+        };
+        RowConsumerToResultReceiver consumer = new RowConsumerToResultReceiver(resultReceiver, 0, task -> {
+            throw new RejectedExecutionException("rejected");
+        });
+
+        consumer.accept(TestingBatchIterators.range(0, 10), null);
+        writable.complete(null);
+        resultReceiver.completionFuture().get(10, TimeUnit.SECONDS);
+        assertThat(collectedRows.size(), is(10));
+    }
 }
@@ -23,6 +23,7 @@
 package io.crate.action.sql;
 
 import io.crate.analyze.AnalyzedStatement;
+import io.crate.analyze.Analyzer;
 import io.crate.analyze.ParamTypeHints;
 import io.crate.analyze.TableDefinitions;
 import io.crate.execution.engine.collect.stats.JobsLogs;
@@ -46,7 +47,11 @@ import java.util.function.Consumer;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class SessionTest extends CrateDummyClusterServiceUnitTest {
@@ -110,6 +115,7 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
         Session session = new Session(
             sqlExecutor.analyzer,
             sqlExecutor.planner,
+            new StatementCache(0),
             new JobsLogs(() -> false),
             false,
             executor,
@@ -219,6 +225,26 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
         assertThat(parameterTypes, is(new DataType[]{DataTypes.STRING, DataTypes.STRING}));
     }
 
+    @Test
+    public void testBindDoesNotAnalyzeForThePlanCacheIfStatementCacheIsDisabled() {
+        SQLExecutor sqlExecutor = SQLExecutor.builder(clusterService).build();
+        Analyzer analyzer = spy(sqlExecutor.analyzer);
+
+        Session session = new Session(
+            analyzer,
+            sqlExecutor.planner,
+            new StatementCache(0),
+            new JobsLogs(() -> false),
+            false,
+            mock(DependencyCarrier.class),
+            SessionContext.systemSessionContext());
+
+        session.parse("S_1", "select name from sys.cluster where name = ?", Collections.emptyList());
+        session.bind("Portal", "S_1", Collections.singletonList("foo"), null);
+
+        verify(analyzer, never()).unboundAnalyze(any(), any(), any());
+    }
+
     @Test
     public void testProperCleanupOnSessionClose() {
         SQLExecutor sqlExecutor = SQLExecutor.builder(clusterService).build();
@@ -227,6 +253,7 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
         Session session = new Session(
             sqlExecutor.analyzer,
             sqlExecutor.planner,
+            new StatementCache(0),
             new JobsLogs(() -> false),
             false,
             executor,
@@ -261,6 +288,7 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
         Session session = new Session(
             sqlExecutor.analyzer,
             sqlExecutor.planner,
+            new StatementCache(0),
             new JobsLogs(() -> false),
             false,
             executor,
@@ -287,6 +315,7 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
         Session session = new Session(
             sqlExecutor.analyzer,
             sqlExecutor.planner,
+            new StatementCache(0),
             new JobsLogs(() -> false),
             false,
             executor,
@@ -0,0 +1,117 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.action.sql;
+
+import com.google.common.collect.ImmutableList;
+import io.crate.analyze.AnalyzedStatement;
+import io.crate.planner.Plan;
+import io.crate.sql.parser.SqlParser;
+import io.crate.sql.tree.Statement;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.DataTypes;
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StatementCacheTest extends CrateUnitTest {
+
+    private static final String QUERY = "select name from sys.cluster where name = ?";
+
+    @Test
+    public void testPlanIsSharedBetweenSessionsWithSameProperties() {
+        StatementCache cache = new StatementCache(10);
+        StatementCache.Key key = new StatementCache.Key(
+            QUERY, ImmutableList.of(DataTypes.STRING), SessionContext.systemSessionContext());
+        assertThat(cache.getPlan(key), nullValue());
+
+        Plan plan = mock(Plan.class);
+        cache.putPlan(key, mock(AnalyzedStatement.class), plan);
+
+        StatementCache.Key otherSessionKey = new StatementCache.Key(
+            QUERY, ImmutableList.of(DataTypes.STRING), SessionContext.systemSessionContext());
+        assertThat(cache.getPlan(otherSessionKey).plan(), sameInstance(plan));
+
+        StatementCacheStats stats = cache.stats();
+        assertThat(stats.size(), is(1L));
+        assertThat(stats.hits(), is(1L));
+        assertThat(stats.misses(), is(1L));
+        assertThat(stats.hitRate(), is(0.5));
+    }
+
+    @Test
+    public void testPlanIsNotSharedIfParamTypesOrSessionPropertiesDiffer() {
+        StatementCache cache = new StatementCache(10);
+        cache.putPlan(
+            new StatementCache.Key(QUERY, ImmutableList.of(DataTypes.STRING), SessionContext.systemSessionContext()),
+            mock(AnalyzedStatement.class),
+            mock(Plan.class));
+
+        StatementCache.Key otherParamTypes = new StatementCache.Key(
+            QUERY, ImmutableList.of(DataTypes.LONG), SessionContext.systemSessionContext());
+        assertThat(cache.getPlan(otherParamTypes), nullValue());
+
+        SessionContext sessionContext = SessionContext.systemSessionContext();
+        sessionContext.setDefaultSchema("custom");
+        StatementCache.Key otherSchema = new StatementCache.Key(
+            QUERY, ImmutableList.of(DataTypes.STRING), sessionContext);
+        assertThat(cache.getPlan(otherSchema), nullValue());
+
+        sessionContext = SessionContext.systemSessionContext();
+        sessionContext.setHashJoinEnabled(false);
+        StatementCache.Key otherSettings = new StatementCache.Key(
+            QUERY, ImmutableList.of(DataTypes.STRING), sessionContext);
+        assertThat(cache.getPlan(otherSettings), nullValue());
+    }
+
+    @Test
+    public void testMetaDataChangeInvalidatesCache() {
+        StatementCache cache = new StatementCache(10);
+        StatementCache.Key key = new StatementCache.Key(
+            QUERY, ImmutableList.of(DataTypes.STRING), SessionContext.systemSessionContext());
+        cache.putPlan(key, mock(AnalyzedStatement.class), mock(Plan.class));
+        cache.putParsedStatement(QUERY, mock(Statement.class));
+
+        ClusterChangedEvent event = mock(ClusterChangedEvent.class);
+        when(event.metaDataChanged()).thenReturn(true);
+        cache.clusterChanged(event);
+
+        assertThat(cache.getPlan(key), nullValue());
+        assertThat(cache.getParsedStatement(QUERY), nullValue());
+        assertThat(cache.stats().size(), is(0L));
+    }
+
+    @Test
+    public void testDisabledCacheDoesNotSupportPlanCachingAndStoresNothing() {
+        StatementCache cache = new StatementCache(0);
+        assertThat(cache.supportsPlanCaching(SqlParser.createStatement(QUERY)), is(false));
+        assertThat(new StatementCache(10).supportsPlanCaching(SqlParser.createStatement(QUERY)), is(true));
+
+        cache.putParsedStatement(QUERY, mock(Statement.class));
+        assertThat(cache.getParsedStatement(QUERY), nullValue());
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.analyze;
+
+import io.crate.exceptions.OperationOnInaccessibleRelationException;
+import io.crate.exceptions.RelationUnknown;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.blob.BlobSchemaInfo;
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.testing.SQLExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class AnalyzeTableAnalyzerTest extends CrateDummyClusterServiceUnitTest {
+
+    private SQLExecutor e;
+
+    @Before
+    public void prepare() {
+        TestingBlobTableInfo myBlobsTableInfo = TableDefinitions.createBlobTable(
+            new RelationName(BlobSchemaInfo.NAME, "blobs"));
+        e = SQLExecutor.builder(clusterService).enableDefaultTables().addBlobTable(myBlobsTableInfo).build();
+    }
+
+    @Test
+    public void testAnalyzeAllTables() {
+        AnalyzeStmt analysis = e.analyze("analyze");
+        assertThat(analysis.table(), nullValue());
+    }
+
+    @Test
+    public void testAnalyzeTable() {
+        AnalyzeStmt analysis = e.analyze("analyze users");
+        assertThat(analysis.table().ident(), is(new RelationName("doc", "users")));
+    }
+
+    @Test
+    public void testAnalyzeUnknownTable() {
+        expectedException.expect(RelationUnknown.class);
+        e.analyze("analyze unknown");
+    }
+
+    @Test
+    public void testAnalyzeSystemTable() {
+        expectedException.expect(OperationOnInaccessibleRelationException.class);
+        expectedException.expectMessage("The relation \"sys.shards\" doesn't support or allow ANALYZE " +
+                                        "operations, as it is read-only.");
+        e.analyze("analyze sys.shards");
+    }
+
+    @Test
+    public void testAnalyzeBlobTable() {
+        expectedException.expect(OperationOnInaccessibleRelationException.class);
+        expectedException.expectMessage("The relation \"blob.blobs\" doesn't support or allow ANALYZE " +
+                                        "operations.");
+        e.analyze("analyze blob.blobs");
+    }
+}
@@ -1232,6 +1232,21 @@ public class InsertFromValuesAnalyzerTest extends CrateDummyClusterServiceUnitTe
         assertThat((BytesRef) values[2], is(new BytesRef("bar")));
     }
 
+    @Test
+    public void testInsertMultipleValuesWithGeneratedColumnsEvaluatesExpressionsPerRow() throws Exception {
+        InsertFromValuesAnalyzedStatement analysis = e.analyze(
+            "insert into generated_column (ts, \"user\") values " +
+            "('2015-11-18T11:11:00', {name='foo'}), ('2015-11-19T11:11:00', {name='baz'})");
+        assertThat(analysis.sourceMaps().size(), is(2));
+
+        Object[] firstValues = analysis.sourceMaps().get(0);
+        assertThat((Long) firstValues[2], is(1447804800000L));
+        assertThat((BytesRef) firstValues[3], is(new BytesRef("foobar")));
+        Object[] secondValues = analysis.sourceMaps().get(1);
+        assertThat((Long) secondValues[2], is(1447891200000L));
+        assertThat((BytesRef) secondValues[3], is(new BytesRef("bazbar")));
+    }
+
     @Test
     public void testInsertWithGeneratedColumnWithValueGiven() throws Exception {
         InsertFromValuesAnalyzedStatement analysis = e.analyze(
@@ -225,6 +225,7 @@ public class SelectStatementAnalyzerTest extends CrateDummyClusterServiceUnitTes
             "port",
             "process",
             "rest_url",
+            "statement_cache",
             "thread_pools",
             "version"
         ));
@@ -182,7 +182,8 @@ public class SetAnalyzerTest extends CrateDummyClusterServiceUnitTest {
                 "stats.jobs_log_persistent_filter",
                 "stats.operations_log_size",
                 "stats.operations_log_expiration",
-                "stats.service.interval")
+                "stats.service.interval",
+                "stats.analyze.interval")
         );
     }
 
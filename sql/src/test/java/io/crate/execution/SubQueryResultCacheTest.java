@@ -0,0 +1,167 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution;
+
+import io.crate.analyze.AnalyzedStatement;
+import io.crate.analyze.relations.QueriedRelation;
+import io.crate.data.Row;
+import io.crate.data.Row1;
+import io.crate.data.RowN;
+import io.crate.expression.symbol.SelectSymbol;
+import io.crate.expression.symbol.SymbolVisitors;
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.testing.SQLExecutor;
+import io.crate.testing.T3;
+import org.elasticsearch.common.unit.TimeValue;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class SubQueryResultCacheTest extends CrateDummyClusterServiceUnitTest {
+
+    private SQLExecutor e;
+    private SubQueryResultCache cache;
+
+    @Before
+    public void prepare() throws Exception {
+        e = SQLExecutor.builder(clusterService).addDocTable(T3.T1_INFO).addDocTable(T3.T2_INFO).build();
+        cache = new SubQueryResultCache(100, TimeValue.timeValueMinutes(10), e.functions());
+    }
+
+    private SelectSymbol subQuery(String statement, Object[] args) {
+        QueriedRelation relation = e.analyze(statement, args);
+        List<SelectSymbol> selectSymbols = new ArrayList<>();
+        relation.visitSymbols(s -> SymbolVisitors.any(
+            symbol -> symbol instanceof SelectSymbol && selectSymbols.add((SelectSymbol) symbol), s));
+        assertThat(selectSymbols.size(), is(1));
+        return selectSymbols.get(0);
+    }
+
+    private SubQueryResultCache.Key key(String statement, Row params) {
+        return cache.createKey(subQuery(statement, params.materialize()), params);
+    }
+
+    @Test
+    public void testSameSubQueryOfDifferentStatementsIsServedFromCache() {
+        SubQueryResultCache.Key key = key("select (select max(x) from t1)", Row.EMPTY);
+        cache.put(key, 10, cache.generation());
+
+        SubQueryResultCache.CachedResult result = cache.get(key("select * from t2 where y = (select max(x) from t1)", Row.EMPTY));
+        assertThat(result, notNullValue());
+        assertThat(result.value(), is(10));
+    }
+
+    @Test
+    public void testParametersArePartOfTheKey() {
+        String stmt = "select * from t2 where y = (select x from t1 where a = ?)";
+        cache.put(key(stmt, new Row1("foo")), 1, cache.generation());
+
+        assertThat(cache.get(key(stmt, new Row1("foo"))).value(), is(1));
+        assertThat(cache.get(key(stmt, new Row1("bar"))), nullValue());
+    }
+
+    @Test
+    public void testNullResultIsCached() {
+        SubQueryResultCache.Key key = key("select (select x from t1 where a = 'foo')", Row.EMPTY);
+        cache.put(key, null, cache.generation());
+
+        SubQueryResultCache.CachedResult result = cache.get(key);
+        assertThat(result, notNullValue());
+        assertThat(result.value(), nullValue());
+    }
+
+    @Test
+    public void testSubQueryWithNonDeterministicFunctionIsNotCached() {
+        assertThat(key("select (select x from t1 where x > random())", Row.EMPTY), nullValue());
+    }
+
+    @Test
+    public void testSubQueryOnSystemTableIsNotCached() {
+        assertThat(key("select (select name from sys.cluster)", Row.EMPTY), nullValue());
+    }
+
+    @Test
+    public void testWriteToTableInvalidatesDependingEntries() {
+        SubQueryResultCache.Key keyT1 = key("select (select max(x) from t1)", Row.EMPTY);
+        SubQueryResultCache.Key keyT2 = key("select (select max(y) from t2)", Row.EMPTY);
+        cache.put(keyT1, 1, cache.generation());
+        cache.put(keyT2, 2, cache.generation());
+
+        cache.onStatement(e.analyze("delete from t1 where x = 1"));
+
+        assertThat(cache.get(keyT1), nullValue());
+        assertThat(cache.get(keyT2).value(), is(2));
+    }
+
+    @Test
+    public void testReadDoesNotInvalidateEntries() {
+        SubQueryResultCache.Key key = key("select (select max(x) from t1)", Row.EMPTY);
+        cache.put(key, 1, cache.generation());
+
+        cache.onStatement(e.analyze("select * from t1"));
+
+        assertThat(cache.get(key).value(), is(1));
+    }
+
+    @Test
+    public void testResultOfSubQueryExecutedDuringInvalidationIsNotCached() {
+        SubQueryResultCache.Key key = key("select (select max(x) from t1)", Row.EMPTY);
+        long generation = cache.generation();
+
+        cache.onStatement(e.analyze("refresh table t1"));
+        cache.put(key, 1, generation);
+
+        assertThat(cache.get(key), nullValue());
+    }
+
+    @Test
+    public void testResultOfSubQueryExecutedDuringWriteIsNotCachedOnceWriteCompleted() {
+        SubQueryResultCache.Key key = key("select (select max(x) from t1)", Row.EMPTY);
+        AnalyzedStatement refresh = e.analyze("refresh table t1");
+
+        cache.onStatement(refresh);
+        // sub-queries which run while the refresh is executed may still read the data from before the refresh
+        cache.put(key, 1, cache.generation());
+        long generation = cache.generation();
+
+        cache.onStatementCompleted(refresh);
+        assertThat(cache.get(key), nullValue());
+
+        cache.put(key, 1, generation);
+        assertThat(cache.get(key), nullValue());
+    }
+
+    @Test
+    public void testArrayParametersAreComparedByValue() {
+        String stmt = "select * from t2 where y = (select x from t1 where x = any(?))";
+        cache.put(key(stmt, new RowN(new Object[] { new Object[] { 1, 2 } })), 1, cache.generation());
+
+        assertThat(cache.get(key(stmt, new RowN(new Object[] { new Object[] { 1, 2 } }))), notNullValue());
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.ddl.stats;
+
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.is;
+
+public class FetchSampleResponseTest extends CrateUnitTest {
+
+    @Test
+    public void testStreaming() throws Exception {
+        FetchSampleResponse response = new FetchSampleResponse(
+            Arrays.asList(DataTypes.LONG, DataTypes.STRING),
+            Arrays.asList(new Object[] { 1L, new BytesRef("a") }, new Object[] { null, null }));
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        response.writeTo(out);
+        StreamInput in = out.bytes().streamInput();
+        FetchSampleResponse response2 = new FetchSampleResponse();
+        response2.readFrom(in);
+
+        assertThat(response2.rows().size(), is(2));
+        assertThat(response2.rows().get(0), is(new Object[] { 1L, new BytesRef("a") }));
+        assertThat(response2.rows().get(1), is(new Object[] { null, null }));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.ddl.stats;
+
+import io.crate.execution.engine.collect.collectors.CollectorFieldsVisitor;
+import io.crate.expression.reference.doc.lucene.CollectorContext;
+import io.crate.expression.reference.doc.lucene.LongColumnReference;
+import io.crate.test.integration.CrateUnitTest;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class ShardRowSamplerTest extends CrateUnitTest {
+
+    private DirectoryReader reader;
+
+    @Before
+    public void createIndex() throws Exception {
+        IndexWriter iw = new IndexWriter(new RAMDirectory(), new IndexWriterConfig(new StandardAnalyzer()));
+        for (long i = 0; i < 1000; i++) {
+            Document doc = new Document();
+            doc.add(new NumericDocValuesField("x", i));
+            doc.add(new LongPoint("x", i));
+            iw.addDocument(doc);
+            if (i % 100 == 99) {
+                iw.commit(); // create several segments
+            }
+        }
+        // delete the documents with odd values
+        for (long i = 1; i < 1000; i += 2) {
+            iw.deleteDocuments(LongPoint.newExactQuery("x", i));
+        }
+        iw.commit();
+        reader = DirectoryReader.open(iw);
+    }
+
+    @After
+    public void closeReader() throws Exception {
+        reader.close();
+    }
+
+    private List<Object[]> sample(int numSamples) throws Exception {
+        return ShardRowSampler.sample(
+            reader,
+            numSamples,
+            new Random(randomLong()),
+            new CollectorContext(mappedFieldType -> null, new CollectorFieldsVisitor(0)),
+            Collections.singletonList(new LongColumnReference("x"))
+        );
+    }
+
+    @Test
+    public void testSampleContainsOnlyDistinctLiveDocuments() throws Exception {
+        List<Object[]> rows = sample(100);
+
+        assertThat(rows.size(), is(100));
+        Set<Long> values = new HashSet<>();
+        for (Object[] row : rows) {
+            long value = (long) row[0];
+            assertThat(value % 2, is(0L));
+            assertThat(values.add(value), is(true));
+        }
+    }
+
+    @Test
+    public void testSampleLargerThanNumberOfDocsContainsAllLiveDocuments() throws Exception {
+        List<Object[]> rows = sample(5000);
+
+        assertThat(rows.size(), is(500));
+    }
+
+    @Test
+    public void testRandomDocIdsAreDistinctAndSorted() throws Exception {
+        int[] docIds = ShardRowSampler.randomDocIds(1000, 200, new Random(randomLong()));
+
+        assertThat(docIds.length, is(200));
+        for (int i = 1; i < docIds.length; i++) {
+            assertThat(docIds[i - 1], lessThan(docIds[i]));
+        }
+        assertThat(docIds[docIds.length - 1], lessThan(1000));
+    }
+
+    @Test
+    public void testNumSamplesForShardIsProportionalToTheShardSize() throws Exception {
+        assertThat(TransportFetchSampleNodeAction.numSamplesForShard(30_000, 250, 1000), is(7500));
+        assertThat(TransportFetchSampleNodeAction.numSamplesForShard(30_000, 1000, 1_000_000), is(30));
+        assertThat(TransportFetchSampleNodeAction.numSamplesForShard(30_000, 10, -1), is(30_000));
+    }
+}
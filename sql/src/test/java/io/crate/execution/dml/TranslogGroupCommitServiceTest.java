@@ -0,0 +1,110 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.dml;
+
+import io.crate.test.integration.CrateUnitTest;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TranslogGroupCommitServiceTest extends CrateUnitTest {
+
+    private final ShardId shardId = new ShardId("t", "_na_", 0);
+    private final List<Translog.Location> syncedLocations = new ArrayList<>();
+    private final List<Consumer<Exception>> syncListeners = new ArrayList<>();
+
+    private TranslogGroupCommitService newGroupCommit(TimeValue maxDelay, ThreadPool threadPool) {
+        return new TranslogGroupCommitService(maxDelay, threadPool) {
+            @Override
+            void syncTranslog(IndexShard indexShard, Translog.Location location, Consumer<Exception> listener) {
+                syncedLocations.add(location);
+                syncListeners.add(listener);
+            }
+        };
+    }
+
+    private IndexShard mockIndexShard() {
+        IndexShard indexShard = mock(IndexShard.class);
+        when(indexShard.shardId()).thenReturn(shardId);
+        return indexShard;
+    }
+
+    @Test
+    public void testSyncsWithinMaxDelayAreCoalescedIntoOneSyncUpToTheHighestLocation() throws Exception {
+        ThreadPool threadPool = mock(ThreadPool.class);
+        IndexShard indexShard = mockIndexShard();
+        TranslogGroupCommitService groupCommit = newGroupCommit(TimeValue.timeValueMillis(5), threadPool);
+
+        List<Exception> results = new ArrayList<>();
+        groupCommit.sync(indexShard, new Translog.Location(1, 20, 10), results::add);
+        groupCommit.sync(indexShard, new Translog.Location(1, 40, 10), results::add);
+        groupCommit.sync(indexShard, new Translog.Location(1, 30, 10), results::add);
+
+        ArgumentCaptor<Runnable> scheduledSync = ArgumentCaptor.forClass(Runnable.class);
+        verify(threadPool, times(1))
+            .schedule(eq(TimeValue.timeValueMillis(5)), eq(ThreadPool.Names.FLUSH), scheduledSync.capture());
+        scheduledSync.getValue().run();
+
+        assertThat(syncedLocations, contains(new Translog.Location(1, 40, 10)));
+        assertThat(results.isEmpty(), is(true));
+
+        Exception failure = new Exception("sync failed");
+        syncListeners.get(0).accept(failure);
+        assertThat(results, contains(failure, failure, failure));
+
+        TranslogGroupCommitService.Stats stats = groupCommit.stats(shardId);
+        assertThat(stats.requests(), is(3L));
+        assertThat(stats.syncs(), is(1L));
+    }
+
+    @Test
+    public void testSyncWithoutMaxDelayIsExecutedRightAway() throws Exception {
+        ThreadPool threadPool = mock(ThreadPool.class);
+        IndexShard indexShard = mockIndexShard();
+        TranslogGroupCommitService groupCommit = newGroupCommit(TimeValue.timeValueMillis(0), threadPool);
+
+        assertThat(groupCommit.stats(shardId), nullValue());
+        groupCommit.sync(indexShard, new Translog.Location(1, 20, 10), e -> {});
+        groupCommit.sync(indexShard, new Translog.Location(1, 40, 10), e -> {});
+
+        assertThat(syncedLocations, contains(new Translog.Location(1, 20, 10), new Translog.Location(1, 40, 10)));
+        assertThat(groupCommit.stats(shardId).syncs(), is(2L));
+    }
+}
@@ -22,6 +22,7 @@
 
 package io.crate.execution.dml.delete;
 
+import io.crate.expression.symbol.Literal;
 import io.crate.test.integration.CrateUnitTest;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
@@ -32,6 +33,7 @@ import org.junit.Test;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
 
 public class ShardDeleteRequestTest extends CrateUnitTest {
 
@@ -53,4 +55,21 @@ public class ShardDeleteRequestTest extends CrateUnitTest {
 
         assertThat(request, equalTo(request2));
     }
+
+    @Test
+    public void testStreamingWithQuery() throws Exception {
+        ShardId shardId = new ShardId("test", UUIDs.randomBase64UUID(), 1);
+        ShardDeleteRequest request = new ShardDeleteRequest(shardId, UUID.randomUUID())
+            .query(Literal.BOOLEAN_TRUE);
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        request.writeTo(out);
+
+        StreamInput in = out.bytes().streamInput();
+        ShardDeleteRequest request2 = new ShardDeleteRequest();
+        request2.readFrom(in);
+
+        assertThat(request2.query(), is(Literal.BOOLEAN_TRUE));
+        assertThat(request2.items().size(), is(0));
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.dml.delete;
+
+import io.crate.execution.dml.ShardResponse;
+import io.crate.expression.operator.EqOperator;
+import io.crate.expression.symbol.Literal;
+import io.crate.integrationtests.SQLTransportIntegrationTest;
+import io.crate.metadata.Reference;
+import io.crate.metadata.ReferenceIdent;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.RowGranularity;
+import io.crate.types.DataTypes;
+import org.elasticsearch.index.shard.ShardId;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static io.crate.testing.TestingHelpers.printedTable;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class TransportShardDeleteActionByQueryTest extends SQLTransportIntegrationTest {
+
+    @Test
+    public void testDocumentsMatchingTheQueryAreDeletedOnTheShard() throws Exception {
+        execute("create table t (id int primary key, x int) clustered into 1 shards with (number_of_replicas = 0)");
+        ensureGreen();
+        execute("insert into t (id, x) values (1, 1), (2, 2), (3, 3), (4, 2)");
+        execute("refresh table t");
+
+        RelationName relationName = new RelationName(sqlExecutor.getDefaultSchema(), "t");
+        Reference x = new Reference(new ReferenceIdent(relationName, "x"), RowGranularity.DOC, DataTypes.INTEGER);
+        ShardDeleteRequest request = new ShardDeleteRequest(
+            new ShardId(resolveIndex(relationName.indexName()), 0), UUID.randomUUID())
+            .query(EqOperator.createFunction(x, Literal.of(2)));
+
+        ShardResponse shardResponse = internalCluster().getInstance(TransportShardDeleteAction.class)
+            .execute(request)
+            .actionGet();
+
+        assertThat(shardResponse.failure(), nullValue());
+        assertThat(shardResponse.successRowCount(), is(2));
+        execute("refresh table t");
+        execute("select id from t order by id");
+        assertThat(printedTable(response.rows()), is("1\n3\n"));
+    }
+}
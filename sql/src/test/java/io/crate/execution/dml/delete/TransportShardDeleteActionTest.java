@@ -24,13 +24,30 @@ package io.crate.execution.dml.delete;
 
 import io.crate.execution.ddl.SchemaUpdateClient;
 import io.crate.execution.dml.ShardResponse;
+import io.crate.execution.dml.TranslogGroupCommitService;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.lucene.LuceneQueryBuilder;
 import io.crate.metadata.RelationName;
 import io.crate.metadata.Schemas;
+import io.crate.metadata.doc.DocSysColumns;
+import io.crate.plugin.IndexEventListenerProxy;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.store.RAMDirectory;
 import org.elasticsearch.Version;
 import org.elasticsearch.action.support.ActionFilters;
 import org.elasticsearch.action.support.replication.TransportWriteAction;
 import org.elasticsearch.cluster.action.shard.ShardStateAction;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.UUIDs;
@@ -38,9 +55,13 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.IndexService;
 import org.elasticsearch.index.VersionType;
+import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.query.QueryShardContext;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.test.IndexSettingsModule;
 import org.elasticsearch.test.transport.MockTransportService;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.junit.Before;
@@ -49,14 +70,18 @@ import org.junit.Test;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 import static org.elasticsearch.mock.orig.Mockito.verify;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
@@ -65,6 +90,8 @@ public class TransportShardDeleteActionTest extends CrateDummyClusterServiceUnit
     private final static RelationName TABLE_IDENT = new RelationName(Schemas.DOC_SCHEMA_NAME, "characters");
 
     private TransportShardDeleteAction transportShardDeleteAction;
+    private LuceneQueryBuilder luceneQueryBuilder;
+    private IndexService indexService;
     private IndexShard indexShard;
     private String indexUUID;
 
@@ -72,11 +99,11 @@ public class TransportShardDeleteActionTest extends CrateDummyClusterServiceUnit
     public void prepare() throws Exception {
         indexUUID = UUIDs.randomBase64UUID();
         IndicesService indicesService = mock(IndicesService.class);
-        IndexService indexService = mock(IndexService.class);
+        indexService = mock(IndexService.class);
         when(indicesService.indexServiceSafe(new Index(TABLE_IDENT.indexName(), indexUUID))).thenReturn(indexService);
         indexShard = mock(IndexShard.class);
         when(indexService.getShard(0)).thenReturn(indexShard);
-
+        luceneQueryBuilder = mock(LuceneQueryBuilder.class);
 
         transportShardDeleteAction = new TransportShardDeleteAction(
             Settings.EMPTY,
@@ -88,7 +115,9 @@ public class TransportShardDeleteActionTest extends CrateDummyClusterServiceUnit
             mock(ThreadPool.class),
             mock(ShardStateAction.class),
             mock(ActionFilters.class),
-            mock(SchemaUpdateClient.class)
+            mock(SchemaUpdateClient.class),
+            new TranslogGroupCommitService(Settings.EMPTY, mock(ThreadPool.class), new IndexEventListenerProxy()),
+            luceneQueryBuilder
         );
     }
 
@@ -105,6 +134,78 @@ public class TransportShardDeleteActionTest extends CrateDummyClusterServiceUnit
         assertThat(request.skipFromLocation(), is(1));
     }
 
+    private void mockQueryMatchingAllDocuments(ShardId shardId) {
+        when(indexShard.shardId()).thenReturn(shardId);
+        when(indexShard.indexSettings()).thenReturn(IndexSettingsModule.newIndexSettings(
+            shardId.getIndex(), Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT).build()));
+        when(indexService.mapperService()).thenReturn(mock(MapperService.class));
+        when(indexService.newQueryShardContext(anyInt(), any(IndexReader.class), any(LongSupplier.class), any()))
+            .thenReturn(mock(QueryShardContext.class));
+        LuceneQueryBuilder.Context queryContext = mock(LuceneQueryBuilder.Context.class);
+        when(queryContext.query()).thenReturn(new MatchAllDocsQuery());
+        when(queryContext.minScore()).thenReturn(null);
+        when(luceneQueryBuilder.convert(any(Symbol.class), any(MapperService.class), any(QueryShardContext.class), any()))
+            .thenReturn(queryContext);
+    }
+
+    @Test
+    public void testKillWhileCollectingTheDocumentsMatchingTheQueryFailsTheRequest() throws Exception {
+        ShardId shardId = new ShardId(TABLE_IDENT.indexName(), indexUUID, 0);
+        mockQueryMatchingAllDocuments(shardId);
+
+        IndexWriter writer = new IndexWriter(new RAMDirectory(), new IndexWriterConfig(new KeywordAnalyzer()));
+        writer.addDocument(new Document());
+        writer.commit();
+        try (DirectoryReader reader = DirectoryReader.open(writer)) {
+            when(indexShard.acquireSearcher(anyString())).thenReturn(new Engine.Searcher("test", new IndexSearcher(reader)));
+            ShardDeleteRequest request = new ShardDeleteRequest(shardId, UUID.randomUUID()).query(Literal.BOOLEAN_TRUE);
+
+            TransportWriteAction.WritePrimaryResult<ShardDeleteRequest, ShardResponse> result =
+                transportShardDeleteAction.processRequestItems(indexShard, request, new AtomicBoolean(true));
+
+            // the matching documents may have been collected only partially, nothing must be deleted
+            assertThat(result.finalResponseIfSuccessful.failure(), instanceOf(InterruptedException.class));
+            assertThat(request.items().isEmpty(), is(true));
+            assertThat(request.skipFromLocation(), is(0));
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    public void testAllDocumentsMatchingTheQueryAreDeletedUsingASingleSearcher() throws Exception {
+        ShardId shardId = new ShardId(TABLE_IDENT.indexName(), indexUUID, 0);
+        mockQueryMatchingAllDocuments(shardId);
+        when(indexShard.applyDeleteOperationOnPrimary(
+            anyLong(), anyString(), anyString(), any(VersionType.class), any(Consumer.class)))
+            .thenReturn(new Engine.DeleteResult(2L, 1L, true));
+
+        IndexWriter writer = new IndexWriter(new RAMDirectory(), new IndexWriterConfig(new KeywordAnalyzer()));
+        int numDocs = 3;
+        for (int i = 0; i < numDocs; i++) {
+            Document document = new Document();
+            document.add(new StoredField(DocSysColumns.ID.name(), String.valueOf(i)));
+            writer.addDocument(document);
+        }
+        writer.commit();
+        try (DirectoryReader reader = DirectoryReader.open(writer)) {
+            when(indexShard.acquireSearcher(anyString())).thenReturn(new Engine.Searcher("test", new IndexSearcher(reader)));
+            ShardDeleteRequest request = new ShardDeleteRequest(shardId, UUID.randomUUID()).query(Literal.BOOLEAN_TRUE);
+
+            TransportWriteAction.WritePrimaryResult<ShardDeleteRequest, ShardResponse> result =
+                transportShardDeleteAction.processRequestItems(indexShard, request, new AtomicBoolean(false));
+
+            assertThat(result.finalResponseIfSuccessful.failure(), nullValue());
+            assertThat(result.finalResponseIfSuccessful.successRowCount(), is(numDocs));
+            assertThat(request.items().size(), is(numDocs));
+            assertThat(request.query(), nullValue());
+            verify(indexShard, times(1)).acquireSearcher(anyString());
+            verify(indexShard, never()).refresh(anyString());
+        } finally {
+            writer.close();
+        }
+    }
+
     @Test
     public void testReplicaOperationWillSkipItemsFromMarkedPositionOn() throws Exception {
         ShardId shardId = new ShardId(TABLE_IDENT.indexName(), indexUUID, 0);
@@ -34,14 +34,19 @@ import io.crate.test.integration.CrateUnitTest;
 import io.crate.types.DataTypes;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.index.shard.ShardId;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.arrayContaining;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 
 public class ShardUpsertRequestTest extends CrateUnitTest {
 
@@ -94,4 +99,56 @@ public class ShardUpsertRequestTest extends CrateUnitTest {
         assertThat(request, equalTo(request2));
     }
 
+    @Test
+    public void testStreamingSendsInsertValuesOnlyForItemsWithoutSource() throws Exception {
+        ShardId shardId = new ShardId("test", UUIDs.randomBase64UUID(), 1);
+        ShardUpsertRequest request = new ShardUpsertRequest.Builder(
+            DuplicateKeyAction.UPDATE_OR_FAIL,
+            false,
+            null,
+            new Reference[]{ID_REF, NAME_REF},
+            UUID.randomUUID(),
+            false
+        ).newRequest(shardId);
+
+        request.add(0, new ShardUpsertRequest.Item("1", null, new Object[]{1, new BytesRef("Arthur")}, null));
+        ShardUpsertRequest.Item itemWithSource =
+            new ShardUpsertRequest.Item("2", null, new Object[]{2, new BytesRef("Trillian")}, null);
+        itemWithSource.source(new BytesArray("{\"id\":2,\"name\":\"Trillian\"}"));
+        request.add(1, itemWithSource);
+        request.add(2, new ShardUpsertRequest.Item("3", null, new Object[]{3, null}, null));
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        request.writeTo(out);
+        ShardUpsertRequest request2 = new ShardUpsertRequest();
+        request2.readFrom(out.bytes().streamInput());
+
+        List<ShardUpsertRequest.Item> items = request2.items();
+        assertThat(items.get(0).insertValues(), arrayContaining(1, new BytesRef("Arthur")));
+        assertThat(items.get(0).source(), nullValue());
+        assertThat(items.get(1).insertValues(), nullValue());
+        assertThat(items.get(1).source().utf8ToString(), is("{\"id\":2,\"name\":\"Trillian\"}"));
+        assertThat(items.get(2).insertValues(), arrayContaining(3, null));
+    }
+
+    @Test
+    public void testRetryDropsSourcesBuiltFromInsertValues() throws Exception {
+        ShardUpsertRequest request = new ShardUpsertRequest.Builder(
+            DuplicateKeyAction.UPDATE_OR_FAIL,
+            false,
+            null,
+            new Reference[]{ID_REF, NAME_REF},
+            UUID.randomUUID(),
+            false
+        ).newRequest(new ShardId("test", UUIDs.randomBase64UUID(), 1));
+        ShardUpsertRequest.Item item =
+            new ShardUpsertRequest.Item("1", null, new Object[]{1, new BytesRef("Arthur")}, null);
+        item.source(new BytesArray("{\"id\":1,\"name\":\"Arthur\"}"));
+        request.add(0, item);
+
+        request.onRetry();
+
+        assertThat(request.isRetry(), is(true));
+        assertThat(item.source(), nullValue());
+    }
 }
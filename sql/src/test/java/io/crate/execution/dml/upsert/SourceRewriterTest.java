@@ -0,0 +1,151 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.dml.upsert;
+
+import io.crate.test.integration.CrateUnitTest;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.support.XContentMapValues;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class SourceRewriterTest extends CrateUnitTest {
+
+    private static String rewrite(String source, Map<String, Object> changes) throws Exception {
+        // use an offset into the array to make sure the offsets of the source are respected
+        byte[] bytes = ("###" + source + "###").getBytes(StandardCharsets.UTF_8);
+        BytesReference rewritten = SourceRewriter.updateByPaths(
+            new BytesArray(bytes, 3, bytes.length - 6), changes);
+        return rewritten == null ? null : rewritten.utf8ToString();
+    }
+
+    private static void assertSameAsMapUpdate(String source, Map<String, Object> changes) throws Exception {
+        Map<String, Object> expected = XContentHelper.convertToMap(new BytesArray(source), false, XContentType.JSON).v2();
+        TransportShardUpsertAction.updateSourceByPaths(expected, changes);
+
+        Map<String, Object> actual = XContentHelper.convertToMap(
+            new BytesArray(rewrite(source, changes)), false, XContentType.JSON).v2();
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void testUnchangedFieldsAreCopiedVerbatim() throws Exception {
+        String source = "{\"a\": 1.50, \"s\":\"h\\u00e9llo wörld\", \"counter\": 10, \"o\": {\"x\": [1, 2]}}";
+        assertThat(
+            rewrite(source, Collections.singletonMap("counter", 11)),
+            is("{\"a\": 1.50, \"s\":\"h\\u00e9llo wörld\", \"counter\": 11, \"o\": {\"x\": [1, 2]}}"));
+    }
+
+    @Test
+    public void testReplaceValuesOfAllTypes() throws Exception {
+        String source = "{\"n\":null,\"b\":true,\"s\":\"über\",\"d\":-1.5e3,\"o\":{\"x\":[1,{\"y\":2}]},\"l\":7}";
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("n", "foo");
+        changes.put("b", null);
+        changes.put("s", Arrays.asList(1, 2));
+        changes.put("d", 3);
+        changes.put("o", Collections.singletonMap("z", 1));
+        changes.put("l", false);
+        assertThat(
+            rewrite(source, changes),
+            is("{\"n\":\"foo\",\"b\":null,\"s\":[1,2],\"d\":3,\"o\":{\"z\":1},\"l\":false}"));
+    }
+
+    @Test
+    public void testUpdateNestedPaths() throws Exception {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("o.a", 5);
+        changes.put("o.inner.b", "x");
+        assertSameAsMapUpdate("{\"id\":1,\"o\":{\"a\":1,\"inner\":{\"b\":\"y\",\"c\":3}},\"z\":2}", changes);
+    }
+
+    @Test
+    public void testMissingFieldsAndParentsAreAdded() throws Exception {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("new", 1);
+        changes.put("o.x.y", 2);
+        changes.put("p.q", 3);
+        assertThat(
+            rewrite("{\"id\":1,\"o\":{}}", changes),
+            is("{\"id\":1,\"o\":{\"x\":{\"y\":2}},\"new\":1,\"p\":{\"q\":3}}"));
+        assertSameAsMapUpdate("{\"id\":1,\"o\":{}}", changes);
+        assertSameAsMapUpdate("{}", changes);
+    }
+
+    @Test
+    public void testNullOrNonObjectParentIsNotRewritten() throws Exception {
+        assertThat(rewrite("{\"o\":null}", Collections.singletonMap("o.x", 1)), nullValue());
+        assertThat(rewrite("{\"o\":[1]}", Collections.singletonMap("o.x", 1)), nullValue());
+    }
+
+    @Test
+    public void testChangeOfPathAndItsParentIsNotRewritten() throws Exception {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("o", Collections.singletonMap("x", 1));
+        changes.put("o.y", 2);
+        assertThat(rewrite("{\"o\":{}}", changes), nullValue());
+    }
+
+    @Test
+    public void testExtractValuesOnlyContainsTheReferencedColumns() throws Exception {
+        String source = "{\"counter\":10,\"s\":\"foo\",\"o\":{\"x\":1.5,\"y\":{\"z\":[1,2]},\"big\":\"...\"}}";
+        Map<String, Object> values = SourceRewriter.extractValues(
+            new BytesArray(source), Arrays.asList("counter", "o.y", "o.y.z", "missing"));
+
+        Map<String, Object> expectedO = new HashMap<>();
+        expectedO.put("y", Collections.singletonMap("z", Arrays.asList(1, 2)));
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("counter", 10);
+        expected.put("o", expectedO);
+        assertThat(values, is(expected));
+    }
+
+    @Test
+    public void testExtractValuesReturnsTheSameValuesAsTheSourceMap() throws Exception {
+        String source = "{\"n\":null,\"b\":true,\"s\":\"über\",\"d\":-1.5e3,\"l\":12345678901," +
+                        "\"o\":{\"x\":[1,{\"y\":2}],\"i\":{\"a\":\"b\"}},\"arr\":[{\"x\":1},{\"x\":2}]}";
+        Map<String, Object> sourceMap = XContentHelper.convertToMap(new BytesArray(source), false, XContentType.JSON).v2();
+        for (String column : Arrays.asList("n", "b", "s", "d", "l", "o", "o.x", "o.i.a", "arr.x", "o.x.y", "s.x")) {
+            Map<String, Object> values = SourceRewriter.extractValues(new BytesArray(source), Collections.singletonList(column));
+            assertThat(column, XContentMapValues.extractValue(column, values), is(XContentMapValues.extractValue(column, sourceMap)));
+        }
+    }
+
+    @Test
+    public void testExtractValuesOfNonJsonSourceReturnsNull() throws Exception {
+        BytesReference source = XContentFactory.smileBuilder().startObject().field("x", 1).endObject().bytes();
+        assertThat(SourceRewriter.extractValues(source, Collections.singletonList("x")), nullValue());
+    }
+}
@@ -25,6 +25,7 @@ package io.crate.execution.dml.upsert;
 import io.crate.exceptions.InvalidColumnNameException;
 import io.crate.execution.ddl.SchemaUpdateClient;
 import io.crate.execution.dml.ShardResponse;
+import io.crate.execution.dml.TranslogGroupCommitService;
 import io.crate.execution.dml.upsert.ShardUpsertRequest.DuplicateKeyAction;
 import io.crate.execution.jobs.TasksService;
 import io.crate.metadata.ColumnIdent;
@@ -40,6 +41,7 @@ import io.crate.metadata.doc.DocSysColumns;
 import io.crate.metadata.doc.DocTableInfo;
 import io.crate.metadata.table.Operation;
 import io.crate.metadata.table.TestingTableInfo;
+import io.crate.plugin.IndexEventListenerProxy;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.types.ArrayType;
 import io.crate.types.DataTypes;
@@ -54,6 +56,7 @@ import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.collect.MapBuilder;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.index.Index;
@@ -123,9 +126,11 @@ public class TransportShardUpsertActionTest extends CrateDummyClusterServiceUnit
                                                  ShardStateAction shardStateAction,
                                                  Functions functions,
                                                  Schemas schemas,
-                                                 IndexNameExpressionResolver indexNameExpressionResolver) {
+                                                 IndexNameExpressionResolver indexNameExpressionResolver,
+                                                 TranslogGroupCommitService translogGroupCommit) {
             super(settings, threadPool, clusterService, transportService, schemaUpdateClient, actionFilters,
-                tasksService, indicesService, shardStateAction, functions, schemas, indexNameExpressionResolver);
+                tasksService, indicesService, shardStateAction, functions, schemas, indexNameExpressionResolver,
+                translogGroupCommit);
         }
 
         @Override
@@ -135,7 +140,8 @@ public class TransportShardUpsertActionTest extends CrateDummyClusterServiceUnit
                                               IndexShard indexShard,
                                               boolean tryInsertFirst,
                                               Collection<ColumnIdent> notUsedNonGeneratedColumns,
-                                              boolean isRetry) throws ElasticsearchException {
+                                              boolean isRetry,
+                                              BytesStreamOutput sourceBuffer) throws ElasticsearchException {
             throw new VersionConflictEngineException(
                 indexShard.shardId(),
                 request.type(),
@@ -183,7 +189,8 @@ public class TransportShardUpsertActionTest extends CrateDummyClusterServiceUnit
             mock(ShardStateAction.class),
             functions,
             schemas,
-            mock(IndexNameExpressionResolver.class)
+            mock(IndexNameExpressionResolver.class),
+            new TranslogGroupCommitService(Settings.EMPTY, mock(ThreadPool.class), new IndexEventListenerProxy())
         );
     }
 
@@ -46,6 +46,7 @@ import java.io.FileOutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -55,6 +56,9 @@ import java.util.function.Supplier;
 import static io.crate.execution.dsl.phases.FileUriCollectPhase.InputFormat.CSV;
 import static io.crate.execution.dsl.phases.FileUriCollectPhase.InputFormat.JSON;
 import static io.crate.testing.TestingHelpers.createReference;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
 
 public class FileReadingIteratorTest extends CrateUnitTest {
 
@@ -162,7 +166,184 @@ public class FileReadingIteratorTest extends CrateUnitTest {
         tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
     }
 
+    @Test
+    public void testLargeJsonFileIsSplitAcrossReadersAndEveryLineIsReadOnce() throws Exception {
+        tempFilePath = createTempFile("tempfile", ".json");
+        tmpFile = tempFilePath.toFile();
+        List<String> expectedLines = new ArrayList<>();
+        try (OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(tmpFile), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < 5000; i++) {
+                String line = "{\"id\": " + i + ", \"name\": \"Ford Prefect " + i + "\"}";
+                expectedLines.add(line);
+                writer.write(line);
+                writer.write("\n");
+            }
+        }
+        assertThat(tmpFile.length(), greaterThan(FileReadingIterator.MIN_SPLIT_SIZE_IN_BYTES));
+        fileUri = tempFilePath.toUri().toString();
+
+        List<String> lines = new ArrayList<>();
+        int numReaders = 3;
+        for (int readerNumber = 0; readerNumber < numReaders; readerNumber++) {
+            List<String> readerLines = readAll(createBatchIterator(
+                Collections.singletonList(fileUri), null, JSON, true, numReaders, readerNumber));
+            assertThat(readerLines.isEmpty(), is(false));
+            lines.addAll(readerLines);
+        }
+        assertThat(lines, is(expectedLines));
+    }
+
+    @Test
+    public void testLargeCsvFileIsSplitAcrossReadersAndEachReaderUsesTheHeader() throws Exception {
+        tempFilePath = createTempFile("tempfile", ".csv");
+        tmpFile = tempFilePath.toFile();
+        List<String> expectedLines = new ArrayList<>();
+        try (OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(tmpFile), StandardCharsets.UTF_8)) {
+            writer.write("name,id\n");
+            for (int i = 0; i < 5000; i++) {
+                writer.write("Zaphod Beeblebrox " + i + "," + i + "\n");
+                expectedLines.add("{\"name\":\"Zaphod Beeblebrox " + i + "\",\"id\":\"" + i + "\"}");
+            }
+        }
+        assertThat(tmpFile.length(), greaterThan(FileReadingIterator.MIN_SPLIT_SIZE_IN_BYTES));
+        fileUri = tempFilePath.toUri().toString();
+
+        List<String> lines = new ArrayList<>();
+        int numReaders = 2;
+        for (int readerNumber = 0; readerNumber < numReaders; readerNumber++) {
+            lines.addAll(readAll(createBatchIterator(
+                Collections.singletonList(fileUri), null, CSV, true, numReaders, readerNumber)));
+        }
+        assertThat(lines, is(expectedLines));
+    }
+
+    @Test
+    public void testLargeFileIsNotSplitIfStorageIsNotShared() throws Exception {
+        tempFilePath = createTempFile("tempfile", ".json");
+        tmpFile = tempFilePath.toFile();
+        try (OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(tmpFile), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < 5000; i++) {
+                writer.write("{\"id\": " + i + ", \"name\": \"Ford Prefect " + i + "\"}\n");
+            }
+        }
+        fileUri = tempFilePath.toUri().toString();
+
+        List<String> lines = readAll(createBatchIterator(
+            Collections.singletonList(fileUri), null, JSON, false, 2, 1));
+        assertThat(lines.size(), is(5000));
+    }
+
+    @Test
+    public void testLargeFileOnNonSharedStorageIsSplitAcrossLocalReaders() throws Exception {
+        tempFilePath = createTempFile("tempfile", ".json");
+        tmpFile = tempFilePath.toFile();
+        List<String> expectedLines = new ArrayList<>();
+        try (OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(tmpFile), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < 5000; i++) {
+                String line = "{\"id\": " + i + ", \"name\": \"Ford Prefect " + i + "\"}";
+                expectedLines.add(line);
+                writer.write(line);
+                writer.write("\n");
+            }
+        }
+        fileUri = tempFilePath.toUri().toString();
+
+        List<String> lines = new ArrayList<>();
+        int numLocalReaders = 2;
+        for (int localReaderNumber = 0; localReaderNumber < numLocalReaders; localReaderNumber++) {
+            List<String> readerLines = readAll(createBatchIterator(
+                Collections.singletonList(fileUri), null, JSON, false, 3, 1, numLocalReaders, localReaderNumber));
+            assertThat(readerLines.isEmpty(), is(false));
+            lines.addAll(readerLines);
+        }
+        assertThat(lines, is(expectedLines));
+    }
+
+    @Test
+    public void testLargeFileIsReadExactlyOnceByNodesWithDifferentNumbersOfLocalReaders() throws Exception {
+        tempFilePath = createTempFile("tempfile", ".json");
+        tmpFile = tempFilePath.toFile();
+        List<String> expectedLines = new ArrayList<>();
+        try (OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(tmpFile), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < 5000; i++) {
+                String line = "{\"id\": " + i + ", \"name\": \"Ford Prefect " + i + "\"}";
+                expectedLines.add(line);
+                writer.write(line);
+                writer.write("\n");
+            }
+        }
+        assertThat(tmpFile.length(), greaterThan(FileReadingIterator.MIN_SPLIT_SIZE_IN_BYTES));
+        fileUri = tempFilePath.toUri().toString();
+
+        List<String> lines = new ArrayList<>();
+        int[] numLocalReadersPerNode = new int[] {1, 3};
+        for (int readerNumber = 0; readerNumber < numLocalReadersPerNode.length; readerNumber++) {
+            int numLocalReaders = numLocalReadersPerNode[readerNumber];
+            for (int localReaderNumber = 0; localReaderNumber < numLocalReaders; localReaderNumber++) {
+                lines.addAll(readAll(createBatchIterator(Collections.singletonList(fileUri), null, JSON, true,
+                    numLocalReadersPerNode.length, readerNumber, numLocalReaders, localReaderNumber)));
+            }
+        }
+        assertThat(lines, is(expectedLines));
+    }
+
+    @Test
+    public void testFilesAreReadExactlyOnceByNodesWithDifferentNumbersOfLocalReaders() throws Exception {
+        Path dir = createTempDir();
+        List<String> expectedLines = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String line = "{\"id\": " + i + "}";
+            expectedLines.add(line);
+            try (OutputStreamWriter writer = new OutputStreamWriter(
+                new FileOutputStream(dir.resolve("file" + i + ".json").toFile()), StandardCharsets.UTF_8)) {
+                writer.write(line);
+                writer.write("\n");
+            }
+        }
+        String globUri = dir.toUri().toString() + "*.json";
+
+        List<String> lines = new ArrayList<>();
+        int[] numLocalReadersPerNode = new int[] {2, 3};
+        for (int readerNumber = 0; readerNumber < numLocalReadersPerNode.length; readerNumber++) {
+            int numLocalReaders = numLocalReadersPerNode[readerNumber];
+            for (int localReaderNumber = 0; localReaderNumber < numLocalReaders; localReaderNumber++) {
+                lines.addAll(readAll(createBatchIterator(Collections.singletonList(globUri), null, JSON, true,
+                    numLocalReadersPerNode.length, readerNumber, numLocalReaders, localReaderNumber)));
+            }
+        }
+        assertThat(lines, containsInAnyOrder(expectedLines.toArray()));
+    }
+
+    private static List<String> readAll(BatchIterator<Row> iterator) {
+        List<String> lines = new ArrayList<>();
+        while (iterator.moveNext()) {
+            lines.add(((BytesRef) iterator.currentElement().get(0)).utf8ToString());
+        }
+        iterator.close();
+        return lines;
+    }
+
     private BatchIterator<Row> createBatchIterator(Collection<String> fileUris, String compression, FileUriCollectPhase.InputFormat format) {
+        return createBatchIterator(fileUris, compression, format, false, 1, 0);
+    }
+
+    private BatchIterator<Row> createBatchIterator(Collection<String> fileUris,
+                                                   String compression,
+                                                   FileUriCollectPhase.InputFormat format,
+                                                   boolean shared,
+                                                   int numReaders,
+                                                   int readerNumber) {
+        return createBatchIterator(fileUris, compression, format, shared, numReaders, readerNumber, 1, 0);
+    }
+
+    private BatchIterator<Row> createBatchIterator(Collection<String> fileUris,
+                                                   String compression,
+                                                   FileUriCollectPhase.InputFormat format,
+                                                   boolean shared,
+                                                   int numReaders,
+                                                   int readerNumber,
+                                                   int numLocalReaders,
+                                                   int localReaderNumber) {
         Reference raw = createReference("_raw", DataTypes.STRING);
         InputFactory.Context<LineCollectorExpression<?>> ctx =
             inputFactory.ctxForRefs(FileLineReferenceResolver::getImplementation);
@@ -175,9 +356,11 @@ public class FileReadingIteratorTest extends CrateUnitTest {
             compression,
             ImmutableMap.of(
                 LocalFsFileInputFactory.NAME, new LocalFsFileInputFactory()),
-            false,
-            1,
-            0,
+            shared,
+            numReaders,
+            readerNumber,
+            numLocalReaders,
+            localReaderNumber,
             format);
     }
 }
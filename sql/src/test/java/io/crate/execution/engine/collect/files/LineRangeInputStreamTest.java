@@ -0,0 +1,97 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import io.crate.test.integration.CrateUnitTest;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.is;
+
+public class LineRangeInputStreamTest extends CrateUnitTest {
+
+    private static final String CONTENT = "aaa\nbb\ncccc\nd\n";
+
+    private static String read(String content, long start, long end) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        InputStream in = new ByteArrayInputStream(bytes);
+        long skip = Math.max(0L, start - 1);
+        assertThat(in.skip(skip), is(skip));
+        try (InputStream rangeStream = new LineRangeInputStream(in, start, end)) {
+            StringBuilder sb = new StringBuilder();
+            // use small buffers to test the newline detection across reads
+            byte[] buffer = new byte[3];
+            int read;
+            while ((read = rangeStream.read(buffer, 0, buffer.length)) != -1) {
+                sb.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+            }
+            return sb.toString();
+        }
+    }
+
+    @Test
+    public void testRangeCoversWholeContent() throws Exception {
+        assertThat(read(CONTENT, 0, CONTENT.length()), is(CONTENT));
+    }
+
+    @Test
+    public void testRangeEndingWithinLineReadsThatLineCompletely() throws Exception {
+        assertThat(read(CONTENT, 0, 5), is("aaa\nbb\n"));
+    }
+
+    @Test
+    public void testRangeStartingWithinLineSkipsThatLine() throws Exception {
+        assertThat(read(CONTENT, 5, CONTENT.length()), is("cccc\nd\n"));
+    }
+
+    @Test
+    public void testRangeStartingAtLineStartIncludesThatLine() throws Exception {
+        assertThat(read(CONTENT, 4, 5), is("bb\n"));
+    }
+
+    @Test
+    public void testRangeWithoutLineStartIsEmpty() throws Exception {
+        assertThat(read(CONTENT, 8, 10), is(""));
+    }
+
+    @Test
+    public void testConsecutiveRangesCoverEveryLineOnce() throws Exception {
+        for (int chunkSize = 1; chunkSize <= CONTENT.length(); chunkSize++) {
+            StringBuilder sb = new StringBuilder();
+            for (int start = 0; start < CONTENT.length(); start += chunkSize) {
+                sb.append(read(CONTENT, start, Math.min(CONTENT.length(), start + chunkSize)));
+            }
+            assertThat(sb.toString(), is(CONTENT));
+        }
+    }
+
+    @Test
+    public void testLastLineWithoutLineTerminator() throws Exception {
+        String content = "aaa\nbb";
+        assertThat(read(content, 2, content.length()), is("bb"));
+    }
+}
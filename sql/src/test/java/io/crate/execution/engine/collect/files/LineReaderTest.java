@@ -0,0 +1,83 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import io.crate.test.integration.CrateUnitTest;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+
+public class LineReaderTest extends CrateUnitTest {
+
+    private static List<String> readLines(String content, int bufferSize) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (LineReader reader = new LineReader(
+            new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), bufferSize)) {
+            while (reader.readLine()) {
+                lines.add(new String(reader.lineBuffer(), reader.lineOffset(), reader.lineLength(), StandardCharsets.UTF_8));
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    public void testLinesAreSplitAtAllLineTerminators() throws Exception {
+        String content = "foo\nbar\r\nbaz\rqux";
+        for (int bufferSize = 1; bufferSize < content.length() + 2; bufferSize++) {
+            assertThat(readLines(content, bufferSize), is(Arrays.asList("foo", "bar", "baz", "qux")));
+        }
+    }
+
+    @Test
+    public void testEmptyLinesAreRetained() throws Exception {
+        assertThat(readLines("\n\r\n\nfoo\n", 4), is(Arrays.asList("", "", "", "foo")));
+    }
+
+    @Test
+    public void testTrailingLineTerminatorDoesNotCreateAnEmptyLine() throws Exception {
+        assertThat(readLines("foo\r\n", 16), is(Arrays.asList("foo")));
+        assertThat(readLines("foo\r", 16), is(Arrays.asList("foo")));
+    }
+
+    @Test
+    public void testEmptyStreamHasNoLines() throws Exception {
+        assertThat(readLines("", 16).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testLinesLongerThanTheBufferAreRead() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("äöü");
+        }
+        String longLine = sb.toString();
+        assertThat(readLines("a\n" + longLine + "\nb", 8), is(Arrays.asList("a", longLine, "b")));
+    }
+}
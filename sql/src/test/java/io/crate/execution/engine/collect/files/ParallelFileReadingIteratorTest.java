@@ -0,0 +1,115 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import io.crate.data.BatchIterator;
+import io.crate.data.BatchIterators;
+import io.crate.data.Row;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.testing.FailingBatchIterator;
+import io.crate.testing.TestingBatchIterators;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.is;
+
+public class ParallelFileReadingIteratorTest extends CrateUnitTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUpExecutor() {
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @After
+    public void shutdownExecutor() throws Exception {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testRowsOfAllSourcesAreConsumed() throws Exception {
+        int rowsPerSource = ParallelFileReadingIterator.CHUNK_SIZE * 2 + 10;
+        List<BatchIterator<Row>> sources = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            sources.add(TestingBatchIterators.range(i * rowsPerSource, (i + 1) * rowsPerSource));
+        }
+        sources.add(TestingBatchIterators.range(0, 0));
+        BatchIterator<Row> iterator = new ParallelFileReadingIterator(sources, executor);
+
+        List<Integer> values = BatchIterators.collect(
+            iterator, Collectors.mapping(row -> (Integer) row.get(0), Collectors.toList())).get(10, TimeUnit.SECONDS);
+        values.sort(Integer::compareTo);
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < rowsPerSource * 4; i++) {
+            expected.add(i);
+        }
+        assertThat(values, is(expected));
+        assertThat(iterator.allLoaded(), is(true));
+        iterator.close();
+    }
+
+    @Test
+    public void testFailureOfSourceIsPropagated() throws Exception {
+        List<BatchIterator<Row>> sources = Arrays.asList(
+            TestingBatchIterators.range(0, 5000),
+            new FailingBatchIterator<>(TestingBatchIterators.range(0, 5000), 1500)
+        );
+        BatchIterator<Row> iterator = new ParallelFileReadingIterator(sources, executor);
+
+        expectedException.expectMessage("Fail after 1500 moveNext calls");
+        try {
+            BatchIterators.collect(iterator, Collectors.counting()).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw (Exception) e.getCause();
+        } finally {
+            iterator.close();
+        }
+    }
+
+    @Test
+    public void testMoveNextWithoutLoadNextBatchReturnsOnlyReadyRows() throws Exception {
+        BatchIterator<Row> iterator = new ParallelFileReadingIterator(
+            Arrays.asList(TestingBatchIterators.range(0, 10)), Runnable::run);
+
+        // the direct executor reads the source on the first moveNext call
+        int rows = 0;
+        while (iterator.moveNext()) {
+            rows++;
+        }
+        assertThat(rows, is(10));
+        assertThat(iterator.allLoaded(), is(true));
+        iterator.close();
+    }
+}
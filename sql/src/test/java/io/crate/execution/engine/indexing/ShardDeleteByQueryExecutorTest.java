@@ -0,0 +1,123 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.indexing;
+
+import io.crate.data.Row;
+import io.crate.execution.dml.ShardResponse;
+import io.crate.execution.dml.delete.ShardDeleteRequest;
+import io.crate.expression.symbol.Literal;
+import io.crate.test.integration.CrateUnitTest;
+import org.elasticsearch.index.shard.ShardId;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+
+public class ShardDeleteByQueryExecutorTest extends CrateUnitTest {
+
+    private static ShardResponse response(int numDeleted) {
+        ShardResponse response = new ShardResponse();
+        for (int i = 0; i < numDeleted; i++) {
+            response.add(i);
+        }
+        return response;
+    }
+
+    private static ShardDeleteRequest newRequest() {
+        return new ShardDeleteRequest(new ShardId("t", "_na_", 0), UUID.randomUUID()).query(Literal.BOOLEAN_TRUE);
+    }
+
+    @Test
+    public void testSingleRequestIsSentAndDeletedRowsAreCounted() throws Exception {
+        List<ShardDeleteRequest> requests = new ArrayList<>();
+        ShardDeleteByQueryExecutor executor = new ShardDeleteByQueryExecutor(
+            mock(ScheduledExecutorService.class),
+            ShardDeleteByQueryExecutorTest::newRequest,
+            (request, listener) -> {
+                requests.add(request);
+                listener.onResponse(response(20_005));
+            }
+        );
+
+        Iterable<Row> result = executor.execute().get();
+
+        assertThat(requests.size(), is(1));
+        assertThat(result.iterator().next().get(0), is(20_005L));
+    }
+
+    @Test
+    public void testFailedItemsAreNotCounted() throws Exception {
+        ShardDeleteByQueryExecutor executor = new ShardDeleteByQueryExecutor(
+            mock(ScheduledExecutorService.class),
+            ShardDeleteByQueryExecutorTest::newRequest,
+            (request, listener) -> {
+                ShardResponse response = response(2);
+                response.add(2, new ShardResponse.Failure("2", "Document not found while deleting", false));
+                listener.onResponse(response);
+            }
+        );
+
+        Iterable<Row> result = executor.execute().get();
+
+        assertThat(result.iterator().next().get(0), is(2L));
+    }
+
+    @Test
+    public void testExecutorKilledWhileRequestIsRunningFails() throws Exception {
+        ShardDeleteByQueryExecutor[] executor = new ShardDeleteByQueryExecutor[1];
+        executor[0] = new ShardDeleteByQueryExecutor(
+            mock(ScheduledExecutorService.class),
+            ShardDeleteByQueryExecutorTest::newRequest,
+            (request, listener) -> {
+                executor[0].kill(new InterruptedException("killed"));
+                listener.onResponse(response(10));
+            }
+        );
+
+        expectedException.expectMessage("killed");
+        executor[0].execute().get();
+    }
+
+    @Test
+    public void testKilledExecutorDoesNotSendARequest() throws Exception {
+        List<ShardDeleteRequest> requests = new ArrayList<>();
+        ShardDeleteByQueryExecutor executor = new ShardDeleteByQueryExecutor(
+            mock(ScheduledExecutorService.class),
+            ShardDeleteByQueryExecutorTest::newRequest,
+            (request, listener) -> requests.add(request)
+        );
+        executor.kill(new InterruptedException("killed"));
+
+        expectedException.expectMessage("killed");
+        try {
+            executor.execute().get();
+        } finally {
+            assertThat(requests.size(), is(0));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.indexing;
+
+import io.crate.execution.dml.ShardRequest;
+import io.crate.test.integration.CrateUnitTest;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.index.shard.ShardId;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+public class ShardedRequestsTest extends CrateUnitTest {
+
+    private static class DummyShardRequest extends ShardRequest<DummyShardRequest, DummyRequestItem> {
+
+        DummyShardRequest(ShardId shardId) {
+            super(shardId, UUID.randomUUID());
+        }
+
+        @Override
+        protected DummyRequestItem readItem(StreamInput input) throws IOException {
+            return null;
+        }
+    }
+
+    private static class DummyRequestItem extends ShardRequest.Item {
+        DummyRequestItem(String id) {
+            super(id);
+        }
+    }
+
+    @Test
+    public void testTakeItemsByMissingIndexKeepsItemsOfExistingShards() throws Exception {
+        ShardedRequests<DummyShardRequest, DummyRequestItem> requests =
+            new ShardedRequests<>(DummyShardRequest::new);
+        requests.add(new DummyRequestItem("1"), "p1", null, RowSourceInfo.EMPTY_INSTANCE);
+        requests.add(new DummyRequestItem("2"), "p2", null, RowSourceInfo.EMPTY_INSTANCE);
+        requests.add(
+            new DummyRequestItem("3"),
+            new ShardLocation(new ShardId("t", "_na_", 0), "n1"),
+            RowSourceInfo.EMPTY_INSTANCE);
+
+        ShardedRequests<DummyShardRequest, DummyRequestItem> missing = requests.takeItemsByMissingIndex();
+
+        assertThat(requests.itemsByMissingIndex.isEmpty(), is(true));
+        assertThat(requests.itemsByShard.size(), is(1));
+        assertThat(missing.itemsByMissingIndex.keySet(), containsInAnyOrder("p1", "p2"));
+        assertThat(missing.itemsByMissingIndex.get("p1").get(0).item.id(), is("1"));
+        assertThat(missing.itemsByShard.isEmpty(), is(true));
+    }
+}
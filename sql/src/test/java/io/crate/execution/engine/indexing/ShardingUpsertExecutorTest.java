@@ -0,0 +1,151 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.indexing;
+
+import io.crate.execution.dml.upsert.ShardUpsertRequest;
+import io.crate.execution.jobs.NodeJobsCounter;
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.indices.create.CreatePartitionsRequest;
+import org.elasticsearch.action.admin.indices.create.CreatePartitionsResponse;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+
+public class ShardingUpsertExecutorTest extends CrateDummyClusterServiceUnitTest {
+
+    private final List<CreatePartitionsRequest> createPartitionsRequests = new ArrayList<>();
+    private final List<ActionListener<CreatePartitionsResponse>> createPartitionsListeners = new ArrayList<>();
+    private ShardingUpsertExecutor executor;
+
+    @Before
+    public void setUpExecutor() throws Exception {
+        executor = new ShardingUpsertExecutor(
+            clusterService,
+            new NodeJobsCounter(),
+            mock(ScheduledExecutorService.class),
+            Runnable::run,
+            100,
+            UUID.randomUUID(),
+            null,
+            id -> null,
+            shardId -> null,
+            Collections.emptyList(),
+            () -> null,
+            true,
+            (request, listener) -> {},
+            (request, listener) -> {
+                createPartitionsRequests.add(request);
+                createPartitionsListeners.add(listener);
+            },
+            Settings.EMPTY,
+            UpsertResultContext.forRowCount());
+    }
+
+    /**
+     * Creates requests whose rows belong to the given missing partitions.
+     * There are no rows, so nothing has to be resolved once the partitions are created.
+     */
+    private static ShardedRequests<ShardUpsertRequest, ShardUpsertRequest.Item> requestsForMissingPartitions(String... indices) {
+        ShardedRequests<ShardUpsertRequest, ShardUpsertRequest.Item> requests = new ShardedRequests<>(shardId -> null);
+        for (String index : indices) {
+            requests.itemsByMissingIndex.put(index, new ArrayList<>());
+        }
+        return requests;
+    }
+
+    @Test
+    public void testConcurrentBulksForTheSameMissingPartitionCreateItOnlyOnce() throws Exception {
+        CompletableFuture<UpsertResults> first = executor.execute(requestsForMissingPartitions("p1"));
+        CompletableFuture<UpsertResults> second = executor.execute(requestsForMissingPartitions("p1", "p2"));
+
+        assertThat(createPartitionsRequests.size(), is(1));
+        assertThat(createPartitionsRequests.get(0).indices(), contains("p1"));
+
+        // the creation of p2 is only started once the previous creation finished
+        createPartitionsListeners.get(0).onResponse(new CreatePartitionsResponse(true));
+        assertThat(first.isDone(), is(true));
+        assertThat(second.isDone(), is(false));
+        assertThat(createPartitionsRequests.size(), is(2));
+        assertThat(createPartitionsRequests.get(1).indices(), contains("p2"));
+
+        createPartitionsListeners.get(1).onResponse(new CreatePartitionsResponse(true));
+        assertThat(second.isDone(), is(true));
+        second.get();
+
+        // a partition is only pending until it got created
+        executor.execute(requestsForMissingPartitions("p1"));
+        assertThat(createPartitionsRequests.size(), is(3));
+        assertThat(createPartitionsRequests.get(2).indices(), contains("p1"));
+    }
+
+    @Test
+    public void testFailedPartitionCreationOnlyFailsTheBulksWaitingForIt() throws Exception {
+        CompletableFuture<UpsertResults> first = executor.execute(requestsForMissingPartitions("p1"));
+        CompletableFuture<UpsertResults> second = executor.execute(requestsForMissingPartitions("p1"));
+        CompletableFuture<UpsertResults> third = executor.execute(requestsForMissingPartitions("p2"));
+
+        createPartitionsListeners.get(0).onFailure(new IllegalStateException("dummy"));
+        assertThat(first.isCompletedExceptionally(), is(true));
+        assertThat(second.isCompletedExceptionally(), is(true));
+        try {
+            second.get();
+            fail("bulk waiting for the failed partition creation must fail");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+        }
+
+        assertThat(createPartitionsRequests.size(), is(2));
+        createPartitionsListeners.get(1).onResponse(new CreatePartitionsResponse(true));
+        assertThat(third.isDone(), is(true));
+        third.get();
+    }
+
+    @Test
+    public void testIngestionIsPausedWhileTooManyBulksWaitForPartitions() throws Exception {
+        ShardedRequests<ShardUpsertRequest, ShardUpsertRequest.Item> nextBulk = new ShardedRequests<>(shardId -> null);
+        assertThat(executor.shouldPause(nextBulk), is(false));
+
+        for (int i = 0; i < ShardingUpsertExecutor.MAX_BULKS_WAITING_FOR_PARTITIONS; i++) {
+            assertThat(executor.shouldPause(nextBulk), is(false));
+            executor.execute(requestsForMissingPartitions("p" + i));
+        }
+        assertThat(executor.shouldPause(nextBulk), is(true));
+
+        createPartitionsListeners.get(0).onResponse(new CreatePartitionsResponse(true));
+        assertThat(executor.shouldPause(nextBulk), is(false));
+    }
+}
@@ -114,4 +114,30 @@ public class HashInnerJoinBatchIteratorBehaviouralTest {
         List<Object[]> result = consumer.getResult();
         assertThat(result, contains(new Object[]{2, 2}, new Object[]{4, 4}));
     }
+
+    @Test
+    public void testRightRowsNotContainedInTheBlockAreSkippedInEveryBlock() throws Exception {
+        BatchSimulatingIterator<Row> leftSimulatingIterator = new BatchSimulatingIterator<>(
+            TestingBatchIterators.ofValues(Arrays.asList(1, 2, 3, 4, 5, 6)), 2, 3, null);
+        RamAccountingBatchIterator<Row> leftIterator = new RamAccountingBatchIterator<>(
+            leftSimulatingIterator,
+            mock(RowAccounting.class));
+        BatchSimulatingIterator<Row> rightIterator = new BatchSimulatingIterator<>(
+            TestingBatchIterators.ofValues(Arrays.asList(7, 2, 8, 6, 9, 3, 10)), 3, 3, null);
+
+        BatchIterator<Row> batchIterator = new HashInnerJoinBatchIterator<>(
+            leftIterator,
+            rightIterator,
+            new CombinedRow(1, 1),
+            row -> Objects.equals(row.get(0), row.get(1)),
+            row -> Objects.hash(row.get(0)),
+            row -> Objects.hash(row.get(0)),
+            () -> 2
+        );
+
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(batchIterator, null);
+        List<Object[]> result = consumer.getResult();
+        assertThat(result, contains(new Object[]{2, 2}, new Object[]{3, 3}, new Object[]{6, 6}));
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.join;
+
+import io.crate.breaker.RowAccounting;
+import io.crate.data.BatchIterator;
+import io.crate.data.Row;
+import io.crate.data.Row1;
+import io.crate.data.join.CombinedRow;
+import io.crate.execution.engine.distribution.merge.BatchPagingIterator;
+import io.crate.execution.engine.distribution.merge.KeyIterable;
+import io.crate.execution.engine.distribution.merge.PassThroughPagingIterator;
+import io.crate.testing.TestingBatchIterators;
+import io.crate.testing.TestingRowConsumer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.Mockito.mock;
+
+public class HashSemiJoinBatchIteratorBehaviouralTest {
+
+    @Test
+    public void testSemiJoinLoadsAllPagesOfTheRightSideIfABlockIsMatchedEarly() throws Exception {
+        RamAccountingBatchIterator<Row> left = new RamAccountingBatchIterator<>(
+            TestingBatchIterators.ofValues(Arrays.asList(1, 2)), mock(RowAccounting.class));
+        BatchIterator<Row> right = pagedIterator(Arrays.asList(
+            Collections.singletonList(1),
+            Collections.singletonList(5),
+            Collections.singletonList(2)));
+
+        BatchIterator<Row> batchIterator = new HashSemiJoinBatchIterator<>(
+            left,
+            right,
+            new CombinedRow(1, 1),
+            row -> Objects.equals(row.get(0), row.get(1)),
+            row -> Objects.hash(row.get(0)),
+            row -> Objects.hash(row.get(0)),
+            () -> 1,
+            false
+        );
+
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(batchIterator, null);
+        List<Object[]> result = consumer.getResult();
+
+        // the first block (1) is matched by the first page of the right side,
+        // the second block (2) can only be matched if the right side has been loaded completely before.
+        assertThat(result, contains(new Object[]{1}, new Object[]{2}));
+    }
+
+    /**
+     * Creates a BatchPagingIterator which, like the receiving side of a distributed join, only repeats the pages
+     * which have been loaded once it is moved to start.
+     */
+    private static BatchIterator<Row> pagedIterator(List<List<Integer>> pages) {
+        PassThroughPagingIterator<Integer, Row> pagingIterator = PassThroughPagingIterator.repeatable();
+        Iterator<List<Integer>> pagesIt = pages.iterator();
+        pagingIterator.merge(Collections.singletonList(new KeyIterable<>(0, toRows(pagesIt.next()))));
+        AtomicReference<BatchPagingIterator<Integer>> batchPagingIterator = new AtomicReference<>();
+        batchPagingIterator.set(new BatchPagingIterator<>(
+            pagingIterator,
+            exhaustedIt -> {
+                pagingIterator.merge(Collections.singletonList(new KeyIterable<>(0, toRows(pagesIt.next()))));
+                batchPagingIterator.get().completeLoad(null);
+                return true;
+            },
+            () -> pagesIt.hasNext() == false,
+            () -> {
+            }
+        ));
+        return batchPagingIterator.get();
+    }
+
+    private static Iterable<Row> toRows(List<Integer> values) {
+        return values.stream().map(Row1::new).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.join;
+
+import com.carrotsearch.randomizedtesting.RandomizedRunner;
+import com.carrotsearch.randomizedtesting.annotations.Name;
+import com.carrotsearch.randomizedtesting.annotations.ParametersFactory;
+import com.carrotsearch.randomizedtesting.annotations.ThreadLeakScope;
+import io.crate.breaker.RowAccounting;
+import io.crate.data.BatchIterator;
+import io.crate.data.Row;
+import io.crate.data.join.CombinedRow;
+import io.crate.testing.BatchIteratorTester;
+import io.crate.testing.BatchSimulatingIterator;
+import io.crate.testing.TestingBatchIterators;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static com.carrotsearch.randomizedtesting.RandomizedTest.$;
+import static org.mockito.Mockito.mock;
+
+@RunWith(RandomizedRunner.class)
+@ThreadLeakScope(ThreadLeakScope.Scope.NONE)
+public class HashSemiJoinBatchIteratorTest {
+
+    private final Supplier<RamAccountingBatchIterator<Row>> leftIterator;
+    private final Supplier<BatchIterator<Row>> rightIterator;
+    private final List<Object[]> expectedSemiJoinResult;
+    private final List<Object[]> expectedAntiJoinResult;
+
+    private static Predicate<Row> getCol0EqCol1JoinCondition() {
+        return row -> Objects.equals(row.get(0), row.get(1));
+    }
+
+    private static Function<Row, Integer> getHash() {
+        return row -> Objects.hash(row.get(0));
+    }
+
+    private static Function<Row, Integer> getHashWithCollisions() {
+        return row -> (Integer) row.get(0) % 3;
+    }
+
+    public HashSemiJoinBatchIteratorTest(@SuppressWarnings("unused") @Name("dataSetName") String testName,
+                                         @Name("dataForLeft") Supplier<RamAccountingBatchIterator<Row>> leftIterator,
+                                         @Name("dataForRight") Supplier<BatchIterator<Row>> rightIterator,
+                                         @Name("expectedSemiJoinResult") List<Object[]> expectedSemiJoinResult,
+                                         @Name("expectedAntiJoinResult") List<Object[]> expectedAntiJoinResult) {
+        this.leftIterator = leftIterator;
+        this.rightIterator = rightIterator;
+        this.expectedSemiJoinResult = expectedSemiJoinResult;
+        this.expectedAntiJoinResult = expectedAntiJoinResult;
+    }
+
+    @ParametersFactory
+    public static Iterable<Object[]> testParameters() {
+        List<Object[]> semiResultForUniqueValues = Arrays.asList(
+            new Object[] { 2 }, new Object[] { 3 }, new Object[] { 4 });
+        List<Object[]> antiResultForUniqueValues = Arrays.asList(
+            new Object[] { 0 }, new Object[] { 1 });
+        List<Object[]> semiResultForDuplicateValues = Arrays.asList(
+            new Object[] { 1 }, new Object[] { 2 }, new Object[] { 2 }, new Object[] { 3 },
+            new Object[] { 4 }, new Object[] { 4 });
+        List<Object[]> antiResultForDuplicateValues = Arrays.asList(
+            new Object[] { 0 }, new Object[] { 0 });
+
+        return Arrays.asList(
+            $("UniqueValues-plain",
+              (Supplier<RamAccountingBatchIterator<Row>>) () -> of(TestingBatchIterators.range(0, 5)),
+              (Supplier<BatchIterator<Row>>) () -> TestingBatchIterators.range(2, 6),
+              semiResultForUniqueValues,
+              antiResultForUniqueValues),
+            $("UniqueValues-batchedSource",
+              (Supplier<RamAccountingBatchIterator<Row>>) () -> of(
+                  new BatchSimulatingIterator<>(TestingBatchIterators.range(0, 5), 2, 2, null)),
+              (Supplier<BatchIterator<Row>>) () ->
+                  new BatchSimulatingIterator<>(TestingBatchIterators.range(2, 6), 2, 2, null),
+              semiResultForUniqueValues,
+              antiResultForUniqueValues),
+            $("DuplicateValues-plain",
+              (Supplier<RamAccountingBatchIterator<Row>>) () -> of(
+                  TestingBatchIterators.ofValues(Arrays.asList(0, 0, 1, 2, 2, 3, 4, 4))),
+              (Supplier<BatchIterator<Row>>) () ->
+                  TestingBatchIterators.ofValues(Arrays.asList(1, 1, 2, 3, 4, 4, 5, 5, 6)),
+              semiResultForDuplicateValues,
+              antiResultForDuplicateValues),
+            $("DuplicateValues-batchedSource",
+              (Supplier<RamAccountingBatchIterator<Row>>) () -> of(
+                  new BatchSimulatingIterator<>(
+                      TestingBatchIterators.ofValues(Arrays.asList(0, 0, 1, 2, 2, 3, 4, 4)), 2, 4, null)),
+              (Supplier<BatchIterator<Row>>) () -> new BatchSimulatingIterator<>(
+                  TestingBatchIterators.ofValues(Arrays.asList(1, 1, 2, 3, 4, 4, 5, 5, 6)), 2, 4, null),
+              semiResultForDuplicateValues,
+              antiResultForDuplicateValues),
+            $("EmptyRight",
+              (Supplier<RamAccountingBatchIterator<Row>>) () -> of(TestingBatchIterators.range(0, 3)),
+              (Supplier<BatchIterator<Row>>) () -> TestingBatchIterators.range(0, 0),
+              Arrays.asList(),
+              Arrays.asList(new Object[] { 0 }, new Object[] { 1 }, new Object[] { 2 })));
+    }
+
+    private static RamAccountingBatchIterator<Row> of(BatchIterator<Row> batchIterator) {
+        return new RamAccountingBatchIterator<>(batchIterator, mock(RowAccounting.class));
+    }
+
+    private Supplier<BatchIterator<Row>> joinSupplier(Function<Row, Integer> hash, int blockSize, boolean anti) {
+        return () -> new HashSemiJoinBatchIterator<>(
+            leftIterator.get(),
+            rightIterator.get(),
+            new CombinedRow(1, 1),
+            getCol0EqCol1JoinCondition(),
+            hash,
+            hash,
+            () -> blockSize,
+            anti
+        );
+    }
+
+    @Test
+    public void testSemiHashJoin() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(joinSupplier(getHash(), 5, false));
+        tester.verifyResultAndEdgeCaseBehaviour(expectedSemiJoinResult);
+    }
+
+    @Test
+    public void testSemiHashJoinWithHashCollisions() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(joinSupplier(getHashWithCollisions(), 5, false));
+        tester.verifyResultAndEdgeCaseBehaviour(expectedSemiJoinResult);
+    }
+
+    @Test
+    public void testSemiHashJoinWithBlockSizeSmallerThanDataSet() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(joinSupplier(getHash(), 1, false));
+        tester.verifyResultAndEdgeCaseBehaviour(expectedSemiJoinResult);
+    }
+
+    @Test
+    public void testAntiHashJoin() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(joinSupplier(getHash(), 5, true));
+        tester.verifyResultAndEdgeCaseBehaviour(expectedAntiJoinResult);
+    }
+
+    @Test
+    public void testAntiHashJoinWithHashCollisions() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(joinSupplier(getHashWithCollisions(), 5, true));
+        tester.verifyResultAndEdgeCaseBehaviour(expectedAntiJoinResult);
+    }
+
+    @Test
+    public void testAntiHashJoinWithBlockSizeSmallerThanDataSet() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(joinSupplier(getHash(), 3, true));
+        tester.verifyResultAndEdgeCaseBehaviour(expectedAntiJoinResult);
+    }
+}
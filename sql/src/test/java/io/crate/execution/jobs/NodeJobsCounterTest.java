@@ -74,4 +74,21 @@ public class NodeJobsCounterTest extends CrateUnitTest {
             fail("Did not expect unregistering a job for a null node to fail but got: " + e.getMessage());
         }
     }
+
+    @Test
+    public void testMaxConcurrentOperationsAdaptsToRejections() {
+        assertThat(nodeJobsCounter.maxConcurrentOperations("node1"), is(NodeJobsCounter.MAX_NODE_CONCURRENT_OPERATIONS));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            nodeJobsCounter.onOperationCompleted("node1", start, start + 1000, false);
+        }
+        long increasedLimit = nodeJobsCounter.maxConcurrentOperations("node1");
+        assertThat(increasedLimit > NodeJobsCounter.MAX_NODE_CONCURRENT_OPERATIONS, is(true));
+
+        long rejectedStart = System.nanoTime();
+        nodeJobsCounter.onOperationCompleted("node1", rejectedStart, rejectedStart + 1000, true);
+        assertThat(nodeJobsCounter.maxConcurrentOperations("node1") < increasedLimit, is(true));
+        assertThat(nodeJobsCounter.maxConcurrentOperations("node2"), is(NodeJobsCounter.MAX_NODE_CONCURRENT_OPERATIONS));
+    }
 }
@@ -0,0 +1,71 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.support;
+
+import io.crate.test.integration.CrateUnitTest;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+
+public class AIMDLimitTest extends CrateUnitTest {
+
+    private static final long TARGET_LATENCY = 100L;
+
+    private static AIMDLimit newLimit() {
+        return new AIMDLimit(10, 2, 12, limit -> limit + 1, TARGET_LATENCY);
+    }
+
+    @Test
+    public void testLimitIsIncreasedUpToMaxIfOperationsAreFast() {
+        AIMDLimit limit = newLimit();
+        long start = System.nanoTime();
+        limit.onCompleted(start, start + 10, false);
+        assertThat(limit.get(), is(11L));
+        limit.onCompleted(start, start + 10, false);
+        limit.onCompleted(start, start + 10, false);
+        assertThat(limit.get(), is(12L));
+    }
+
+    @Test
+    public void testLimitIsHalvedOnRejectionAndSlowOperationsDownToMin() {
+        AIMDLimit limit = newLimit();
+        long start = System.nanoTime();
+        limit.onCompleted(start, start + 10, true);
+        assertThat(limit.get(), is(5L));
+        limit.onCompleted(start + 20, start + 20 + TARGET_LATENCY + 1, false);
+        assertThat(limit.get(), is(2L));
+        limit.onCompleted(start + 200, start + 210, true);
+        assertThat(limit.get(), is(2L));
+    }
+
+    @Test
+    public void testOperationsStartedBeforeLastDecreaseDoNotDecreaseAgain() {
+        AIMDLimit limit = newLimit();
+        long start = System.nanoTime();
+        limit.onCompleted(start + 5, start + 10, true);
+        assertThat(limit.get(), is(5L));
+        // started before the decrease at start + 10
+        limit.onCompleted(start + 6, start + 11, true);
+        assertThat(limit.get(), is(5L));
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.expression;
+
+import com.google.common.collect.ImmutableMap;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.execution.dsl.projection.builder.InputColumns;
+import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.expression.scalar.arithmetic.ArithmeticFunctions;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.FunctionInfo;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.testing.SqlExpressions;
+import io.crate.testing.T3;
+import org.apache.lucene.util.BytesRef;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+public class InputCompilerTest extends CrateUnitTest {
+
+    private final SqlExpressions expressions = new SqlExpressions(ImmutableMap.of(T3.T1, T3.TR_1), T3.TR_1);
+    private final InputFactory inputFactory = new InputFactory(expressions.functions());
+    private final List<Symbol> sourceSymbols = Arrays.asList(
+        expressions.asSymbol("a"),
+        expressions.asSymbol("x"),
+        expressions.asSymbol("i"));
+
+    private static final Object[][] ROWS = new Object[][] {
+        new Object[] { new BytesRef("foo"), 1, 1 },
+        new Object[] { new BytesRef("bar"), 2, null },
+        new Object[] { null, null, 3 },
+        new Object[] { new BytesRef("foo"), -4, 2 },
+        new Object[] { null, null, null },
+    };
+
+    private Symbol asInputColumnSymbol(String expression) {
+        return InputColumns.create(expressions.asSymbol(expression), sourceSymbols);
+    }
+
+    private Input<?> compile(String expression) {
+        return inputFactory.ctxForCompiledInputColumns().add(asInputColumnSymbol(expression));
+    }
+
+    private void assertCompiledMatchesInterpreted(String expression) {
+        Symbol symbol = asInputColumnSymbol(expression);
+        InputFactory.Context<CollectExpression<Row, ?>> interpreted = inputFactory.ctxForInputColumns();
+        Input<?> interpretedInput = interpreted.add(symbol);
+        InputFactory.Context<CollectExpression<Row, ?>> compiled = inputFactory.ctxForCompiledInputColumns();
+        Input<?> compiledInput = compiled.add(symbol);
+
+        for (Object[] cells : ROWS) {
+            Row row = new RowN(cells);
+            for (CollectExpression<Row, ?> collectExpression : interpreted.expressions()) {
+                collectExpression.setNextRow(row);
+            }
+            for (CollectExpression<Row, ?> collectExpression : compiled.expressions()) {
+                collectExpression.setNextRow(row);
+            }
+            assertThat(
+                expression + " for " + Arrays.toString(cells),
+                compiledInput.value(),
+                is(interpretedInput.value()));
+        }
+    }
+
+    @Test
+    public void testCompiledExpressionsReturnSameResultsAsInterpretedExpressions() {
+        assertCompiledMatchesInterpreted("x > 1");
+        assertCompiledMatchesInterpreted("1 < x");
+        assertCompiledMatchesInterpreted("x >= i");
+        assertCompiledMatchesInterpreted("x = i");
+        assertCompiledMatchesInterpreted("x <= 1.5");
+        assertCompiledMatchesInterpreted("x <= 2 and i is null");
+        assertCompiledMatchesInterpreted("x < 2 or i > 2");
+        assertCompiledMatchesInterpreted("not (x = 1)");
+        assertCompiledMatchesInterpreted("a = 'foo'");
+        assertCompiledMatchesInterpreted("x + 1 > i");
+        assertCompiledMatchesInterpreted("x = 1 or (i = 3 and a is null)");
+        assertCompiledMatchesInterpreted("x > 0 and i > 0 and a = 'foo'");
+        assertCompiledMatchesInterpreted("abs(x) * 2");
+        assertCompiledMatchesInterpreted("x * 2147483647");
+        assertCompiledMatchesInterpreted("x - i * 2 > 0");
+        assertCompiledMatchesInterpreted("x / i");
+        assertCompiledMatchesInterpreted("x % i");
+        assertCompiledMatchesInterpreted("cast(x as double) + 1.5");
+        assertCompiledMatchesInterpreted("cast(x as double) / 2.0 >= cast(i as double)");
+        assertCompiledMatchesInterpreted("x + null");
+    }
+
+    @Test
+    public void testNumericComparisonIsSpecialized() {
+        assertThat(compile("x > 1"), instanceOf(InputCompiler.LongComparison.class));
+        assertThat(compile("1 > x"), instanceOf(InputCompiler.LongComparison.class));
+        assertThat(compile("x = i"), instanceOf(InputCompiler.LongComparison.class));
+        assertThat(compile("cast(x as double) + 1.5 > 2.0"), instanceOf(InputCompiler.DoubleComparison.class));
+    }
+
+    @Test
+    public void testArithmeticIsSpecialized() {
+        assertThat(compile("x + 1"), instanceOf(InputCompiler.IntegralArithmetic.class));
+        assertThat(compile("x * i - 2"), instanceOf(InputCompiler.IntegralArithmetic.class));
+        assertThat(compile("cast(x as double) + 1.5"), instanceOf(InputCompiler.DoubleArithmetic.class));
+    }
+
+    @Test
+    public void testNestedArithmeticAndComparisonPassPrimitiveValues() {
+        Input<?> input = compile("x * 2 + i > 3");
+        assertThat(input.toString(), is(
+            "Cmp{GT, args=[Arithmetic{ADD, args=[Arithmetic{MULTIPLY, args=[Input{pos=1}, 2]}, Input{pos=2}]}, 3]}"));
+    }
+
+    @Test
+    public void testUnsupportedFunctionFallsBackToFunctionExpression() {
+        assertThat(compile("a = 'foo'"), instanceOf(FunctionExpression.class));
+        assertThat(compile("abs(x)"), instanceOf(FunctionExpression.class));
+    }
+
+    @Test
+    public void testDeterministicFunctionWithLiteralArgumentsIsFolded() {
+        Function add = ArithmeticFunctions.of(
+            ArithmeticFunctions.Names.ADD,
+            Literal.of(1),
+            Literal.of(2),
+            FunctionInfo.DETERMINISTIC_AND_COMPARISON_REPLACEMENT);
+        Input<?> input = inputFactory.ctxForCompiledInputColumns().add(add);
+        assertThat(input, instanceOf(Literal.class));
+        assertThat(input.value(), is(3));
+    }
+
+    @Test
+    public void testAndAndOrShortCircuit() {
+        Input<Boolean> failing = () -> {
+            throw new AssertionError("must not be evaluated");
+        };
+        assertThat(new InputCompiler.AndInput(Literal.of(false), failing).value(), is(false));
+        assertThat(new InputCompiler.OrInput(Literal.of(true), failing).value(), is(true));
+    }
+
+    @Test
+    public void testCompilationCanBeDisabled() {
+        InputFactory interpretingInputFactory = new InputFactory(expressions.functions(), false);
+        Input<?> input = interpretingInputFactory.ctxForCompiledInputColumns().add(asInputColumnSymbol("x > 1"));
+        assertThat(input, instanceOf(FunctionExpression.class));
+    }
+}
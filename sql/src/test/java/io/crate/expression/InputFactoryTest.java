@@ -162,6 +162,45 @@ public class InputFactoryTest extends CrateUnitTest {
         assertThat((Integer) keyInputs.get(1).value(), is(12));  // 2 + 10
     }
 
+    @Test
+    public void testRepeatedFunctionIsEvaluatedOncePerRow() throws Exception {
+        // select y + 10, y + 10 ...
+        Function add = ArithmeticFunctions.of(
+            ArithmeticFunctions.Names.ADD,
+            new InputColumn(1, DataTypes.INTEGER),
+            Literal.of(10),
+            FunctionInfo.DETERMINISTIC_AND_COMPARISON_REPLACEMENT);
+
+        InputFactory.Context<CollectExpression<Row, ?>> ctx = factory.ctxForInputColumns();
+        ctx.add(Arrays.asList(add, add));
+
+        List<Input<?>> inputs = ctx.topLevelInputs();
+        assertThat(inputs.get(0), sameInstance(inputs.get(1)));
+
+        // collectExpressions: [ in1, resetSharedInputs ]
+        assertThat(ctx.expressions().size(), is(2));
+
+        for (Object[] cells : new Object[][] { {1L, 2}, {1L, 3} }) {
+            RowN row = new RowN(cells);
+            for (CollectExpression<Row, ?> expression : ctx.expressions()) {
+                expression.setNextRow(row);
+            }
+            assertThat(inputs.get(0).value(), is((int) cells[1] + 10));
+        }
+    }
+
+    @Test
+    public void testNonDeterministicFunctionIsNotShared() throws Exception {
+        Symbol random = expressions.asSymbol("random()");
+
+        InputFactory.Context<CollectExpression<Row, ?>> ctx = factory.ctxForInputColumns();
+        ctx.add(Arrays.asList(random, random));
+
+        List<Input<?>> inputs = ctx.topLevelInputs();
+        assertThat(inputs.get(0), not(sameInstance(inputs.get(1))));
+        assertThat(ctx.expressions().size(), is(0));
+    }
+
     @Test
     public void testCompiled() throws Exception {
         Function function = (Function) expressions.normalize(expressions.asSymbol("a like 'f%'"));
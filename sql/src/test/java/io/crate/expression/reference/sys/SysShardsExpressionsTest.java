@@ -22,6 +22,7 @@
 package io.crate.expression.reference.sys;
 
 import com.google.common.collect.ImmutableMap;
+import io.crate.execution.dml.TranslogGroupCommitService;
 import io.crate.expression.NestableInput;
 import io.crate.expression.reference.NestedObjectExpression;
 import io.crate.expression.reference.ReferenceResolver;
@@ -40,6 +41,7 @@ import io.crate.metadata.shard.ShardReferenceResolver;
 import io.crate.metadata.sys.SysSchemaInfo;
 import io.crate.metadata.sys.SysShardsTableInfo;
 import io.crate.metadata.table.ColumnPolicy;
+import io.crate.plugin.IndexEventListenerProxy;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.types.DataTypes;
 import io.crate.types.IntegerType;
@@ -61,7 +63,9 @@ import org.elasticsearch.index.shard.IndexShardState;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.shard.ShardPath;
 import org.elasticsearch.index.store.StoreStats;
+import org.elasticsearch.index.translog.Translog;
 import org.elasticsearch.indices.recovery.RecoveryState;
+import org.elasticsearch.threadpool.ThreadPool;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -85,6 +89,7 @@ import static org.mockito.Mockito.when;
 public class SysShardsExpressionsTest extends CrateDummyClusterServiceUnitTest {
 
     private ReferenceResolver<?> resolver;
+    private TranslogGroupCommitService translogGroupCommit;
     private String indexName = "wikipedia_de";
     private IndexShard indexShard;
     private Schemas schemas;
@@ -101,9 +106,12 @@ public class SysShardsExpressionsTest extends CrateDummyClusterServiceUnitTest {
             clusterService,
             new DocSchemaInfoFactory(new TestingDocTableInfoFactory(Collections.emptyMap()), (ident, state) -> null , functions, udfService)
         );
+        translogGroupCommit = new TranslogGroupCommitService(
+            Settings.EMPTY, mock(ThreadPool.class), new IndexEventListenerProxy());
         resolver = ShardReferenceResolver.create(
             clusterService,
             schemas,
+            translogGroupCommit,
             indexShard
         );
     }
@@ -240,6 +248,19 @@ public class SysShardsExpressionsTest extends CrateDummyClusterServiceUnitTest {
         assertThat(shardExpression.value(), nullValue());
     }
 
+    @Test
+    public void testTranslogGroupCommit() throws Exception {
+        Reference refInfo = refInfo("sys.shards.translog_group_commit", DataTypes.OBJECT, RowGranularity.SHARD);
+        NestableInput<Map<String, Object>> shardExpression =
+            (NestableInput<Map<String, Object>>) resolver.getImplementation(refInfo);
+        assertThat(shardExpression.value().get("requests"), is(0L));
+
+        translogGroupCommit.sync(indexShard, new Translog.Location(1, 0, 10), e -> {});
+        Map<String, Object> value = shardExpression.value();
+        assertThat(value.get("requests"), is(1L));
+        assertThat(value.get("syncs"), is(1L));
+    }
+
     @Test
     public void testTableNameOfPartition() throws Exception {
         // expression should return the real table name
@@ -23,6 +23,7 @@
 package io.crate.expression.reference.sys.node;
 
 import com.google.common.collect.ImmutableSet;
+import io.crate.action.sql.StatementCacheStats;
 import io.crate.execution.engine.collect.NestableCollectExpression;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.expressions.RowCollectExpressionFactory;
@@ -83,7 +84,8 @@ public class NodeStatsContextFieldResolverTest {
             new ExtendedNodeInfo(),
             () -> new ConnectionStats(2L, 4L),
             () -> postgresAddress,
-            () -> 12L
+            () -> 12L,
+            () -> new StatementCacheStats(3L, 8L, 2L, 1L)
         );
     }
 
@@ -145,6 +147,23 @@ public class NodeStatsContextFieldResolverTest {
         assertThat(open.value(), is(12L));
     }
 
+    @Test
+    public void testStatementCacheStatsCanBeRetrieved() {
+        NodeStatsContext statsContext = resolver.forTopColumnIdents(
+            Collections.singletonList(SysNodesTableInfo.Columns.STATEMENT_CACHE));
+        RowCollectExpressionFactory<NodeStatsContext> expressionFactory =
+            SysNodesTableInfo.expressions().get(SysNodesTableInfo.Columns.STATEMENT_CACHE);
+        NestableCollectExpression<NodeStatsContext, ?> expression = expressionFactory.create();
+
+        NestableCollectExpression hits = (NestableCollectExpression) expression.getChild("hits");
+        hits.setNextRow(statsContext);
+        assertThat(hits.value(), is(8L));
+
+        NestableCollectExpression hitRate = (NestableCollectExpression) expression.getChild("hit_rate");
+        hitRate.setNextRow(statsContext);
+        assertThat(hitRate.value(), is(0.8));
+    }
+
     @Test
     public void testColumnIdentsResolution() {
         NodeStatsContext context = resolver.forTopColumnIdents(ImmutableSet.of(
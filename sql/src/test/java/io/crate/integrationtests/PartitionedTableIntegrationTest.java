@@ -911,6 +911,35 @@ public class PartitionedTableIntegrationTest extends SQLTransportIntegrationTest
 
     }
 
+    @Test
+    public void testSelectWithSameStatementAndDifferentParametersUsesTheParametersOfEachExecution() throws Exception {
+        execute("create table quotes (id integer, quote string, timestamp timestamp) " +
+                "partitioned by(timestamp) with (number_of_replicas=0)");
+        ensureYellow();
+        execute("insert into quotes (id, quote, timestamp) values (?, ?, ?), (?, ?, ?), (?, ?, ?)",
+            new Object[]{
+                1, "Don't panic", 1395874800000L,
+                2, "Time is an illusion. Lunchtime doubly so", 1395961200000L,
+                3, "Now panic", 1395874800000L});
+        ensureYellow();
+        refresh();
+
+        // the plan of the statement is cached after the first execution and must be bound to the new parameters
+        execute("select id from quotes where timestamp = ? order by id", new Object[]{1395874800000L});
+        assertThat(printedTable(response.rows()), is("1\n3\n"));
+        execute("select id from quotes where timestamp = ? order by id", new Object[]{1395961200000L});
+        assertThat(printedTable(response.rows()), is("2\n"));
+        execute("select id from quotes where timestamp = ? order by id", new Object[]{1395874800000L});
+        assertThat(printedTable(response.rows()), is("1\n3\n"));
+
+        execute("select timestamp, count(*) from quotes where timestamp = ? group by timestamp",
+            new Object[]{1395874800000L});
+        assertThat(printedTable(response.rows()), is("1395874800000| 2\n"));
+        execute("select timestamp, count(*) from quotes where timestamp = ? group by timestamp",
+            new Object[]{1395961200000L});
+        assertThat(printedTable(response.rows()), is("1395961200000| 1\n"));
+    }
+
     @Test
     public void testDeleteFromPartitionedTableDeleteByPartitionAndQueryWithConjunction() throws Exception {
         execute("create table quotes (id integer, quote string, timestamp timestamp) " +
@@ -53,6 +53,13 @@ public class SessionSettingRegistryTest {
         assertBooleanNonEmptySetting(sessionContext, sessionContext::isHashJoinEnabled, applier, true);
     }
 
+    @Test
+    public void testSubQueryCacheSessionSetting() {
+        SessionContext sessionContext = new SessionContext(null, User.CRATE_USER, x -> {}, x -> {});
+        SessionSettingApplier applier = SessionSettingRegistry.getApplier(SessionSettingRegistry.SUBQUERY_CACHE_KEY);
+        assertBooleanNonEmptySetting(sessionContext, sessionContext::isSubQueryCacheEnabled, applier, false);
+    }
+
     private void assertBooleanNonEmptySetting(SessionContext sessionContext,
                                               Supplier<Boolean> contextBooleanSupplier,
                                               SessionSettingApplier applier,
@@ -0,0 +1,116 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.metadata.stats;
+
+import com.google.common.collect.ImmutableMap;
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.RelationName;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class ColumnStatsMetaDataTest extends CrateUnitTest {
+
+    private static final RelationName T1 = new RelationName("doc", "t1");
+    private static final RelationName T2 = new RelationName("my_schema", "t2");
+
+    private static ColumnStatsMetaData createMetaData() {
+        ColumnStats longStats = new ColumnStats(
+            DataTypes.LONG, 0.1, 8.0, 120.0,
+            Arrays.asList(1L, 2L), Arrays.asList(0.3, 0.2), Arrays.asList(3L, 20L, 90L, 300L));
+        ColumnStats stringStats = new ColumnStats(
+            DataTypes.STRING, 0.0, 5.5, 2.0,
+            Arrays.asList(new BytesRef("foo"), new BytesRef("bar")), Arrays.asList(0.7, 0.3), Collections.emptyList());
+        Map<RelationName, Map<ColumnIdent, ColumnStats>> statsByTable = ImmutableMap.of(
+            T1, ImmutableMap.of(new ColumnIdent("x"), longStats, new ColumnIdent("o", "name"), stringStats),
+            T2, ImmutableMap.of(new ColumnIdent("y"), longStats)
+        );
+        return new ColumnStatsMetaData(statsByTable);
+    }
+
+    @Test
+    public void testColumnStatsMetaDataStreaming() throws IOException {
+        ColumnStatsMetaData stats = createMetaData();
+        BytesStreamOutput out = new BytesStreamOutput();
+        stats.writeTo(out);
+
+        StreamInput in = out.bytes().streamInput();
+        ColumnStatsMetaData stats2 = new ColumnStatsMetaData(in);
+        assertEquals(stats, stats2);
+    }
+
+    @Test
+    public void testColumnStatsMetaDataToXContent() throws IOException {
+        XContentBuilder builder = XContentFactory.jsonBuilder();
+
+        // reflects the logic used to process custom metadata in the cluster state
+        builder.startObject();
+
+        ColumnStatsMetaData stats = createMetaData();
+        stats.toXContent(builder, ToXContent.EMPTY_PARAMS);
+        builder.endObject();
+
+        XContentParser parser = JsonXContent.jsonXContent.createParser(xContentRegistry(), builder.bytes());
+        parser.nextToken(); // start object
+        ColumnStatsMetaData stats2 = ColumnStatsMetaData.fromXContent(parser);
+        assertEquals(stats, stats2);
+
+        // a metadata custom must consume the surrounded END_OBJECT token, no token must be left
+        assertThat(parser.nextToken(), nullValue());
+    }
+
+    @Test
+    public void testMergeReplacesStatsOfAnalyzedTablesAndRemovesDroppedTables() {
+        ColumnStatsMetaData stats = createMetaData();
+        Map<ColumnIdent, ColumnStats> newT1Stats = ImmutableMap.of(
+            new ColumnIdent("x"),
+            ColumnStats.fromSample(DataTypes.LONG, Arrays.asList(1L, 2L, 3L), 3));
+        RelationName t3 = new RelationName("doc", "t3");
+
+        ColumnStatsMetaData merged = ColumnStatsMetaData.merge(
+            stats,
+            ImmutableMap.of(T1, newT1Stats, t3, Collections.emptyMap()),
+            relationName -> relationName.equals(T2) == false);
+
+        assertThat(merged.statsByTable().keySet(), containsInAnyOrder(T1, t3));
+        assertThat(merged.getStats(T1), is(newT1Stats));
+        assertThat(merged.getStats(T2).isEmpty(), is(true));
+    }
+}
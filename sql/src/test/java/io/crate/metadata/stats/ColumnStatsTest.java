@@ -0,0 +1,112 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.metadata.stats;
+
+import io.crate.breaker.SizeEstimator;
+import io.crate.breaker.SizeEstimatorFactory;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+public class ColumnStatsTest extends CrateUnitTest {
+
+    @Test
+    public void testStatsOfEmptySample() {
+        ColumnStats stats = ColumnStats.fromSample(DataTypes.INTEGER, Collections.emptyList(), 0);
+        assertThat(stats.nullFraction(), is(0.0));
+        assertThat(stats.approxDistinct(), is(0.0));
+        assertThat(stats.mostCommonValues().isEmpty(), is(true));
+        assertThat(stats.histogram().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testNullFractionAndAverageSize() {
+        List<Object> samples = Arrays.asList(new BytesRef("a"), null, new BytesRef("bbb"), null);
+        ColumnStats stats = ColumnStats.fromSample(DataTypes.STRING, samples, 4);
+        assertThat(stats.nullFraction(), is(0.5));
+        SizeEstimator<Object> sizeEstimator = SizeEstimatorFactory.create(DataTypes.STRING);
+        double expectedAvgSize =
+            (sizeEstimator.estimateSize(samples.get(0)) + sizeEstimator.estimateSize(samples.get(2))) / 2.0;
+        assertThat(stats.averageSizeInBytes(), is(expectedAvgSize));
+    }
+
+    @Test
+    public void testSampleWithFewDistinctValuesIsCoveredByMostCommonValues() {
+        List<Object> samples = Arrays.asList(
+            new BytesRef("a"), new BytesRef("b"), new BytesRef("a"), new BytesRef("a"), new BytesRef("b"));
+        ColumnStats stats = ColumnStats.fromSample(DataTypes.STRING, samples, 5);
+        assertThat(stats.approxDistinct(), is(2.0));
+        assertThat(stats.mostCommonValues(), contains(new BytesRef("a"), new BytesRef("b")));
+        assertThat(stats.mostCommonFrequencies(), contains(0.6, 0.4));
+        assertThat(stats.histogram().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testUniqueValuesResultInHistogramWithoutMostCommonValues() {
+        List<Object> samples = new ArrayList<>();
+        for (int i = 1000; i > 0; i--) {
+            samples.add(i);
+        }
+        ColumnStats stats = ColumnStats.fromSample(DataTypes.INTEGER, samples, 1000);
+        assertThat(stats.approxDistinct(), is(1000.0));
+        assertThat(stats.mostCommonValues().isEmpty(), is(true));
+        List<Object> histogram = stats.histogram();
+        assertThat(histogram.size(), is(ColumnStats.MAX_HISTOGRAM_BUCKETS + 1));
+        assertThat(histogram.get(0), is(1));
+        assertThat(histogram.get(histogram.size() - 1), is(1000));
+    }
+
+    @Test
+    public void testSkewedValuesAreMostCommonAndExcludedFromHistogram() {
+        List<Object> samples = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            samples.add(0);
+        }
+        for (int i = 1; i <= 500; i++) {
+            samples.add(i);
+        }
+        ColumnStats stats = ColumnStats.fromSample(DataTypes.INTEGER, samples, 1000);
+        assertThat(stats.mostCommonValues(), contains(0));
+        assertThat(stats.mostCommonFrequencies(), contains(0.5));
+        assertThat(stats.histogram().get(0), is(1));
+    }
+
+    @Test
+    public void testDistinctCountIsExtrapolatedIfSampleContainsSingletons() {
+        // sample of 100 values where every value occurs exactly once out of a table with 10000 rows
+        assertThat(ColumnStats.estimateDistinct(100, 100, 100, 10_000), is(10_000.0));
+        // all values have been seen more than once, the sample contains all distinct values
+        assertThat(ColumnStats.estimateDistinct(100, 10, 0, 10_000), is(10.0));
+        assertThat(ColumnStats.estimateDistinct(100, 55, 10, 10_000), closeTo(61.0, 0.1));
+    }
+}
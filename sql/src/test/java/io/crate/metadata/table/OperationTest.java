@@ -52,12 +52,13 @@ public class OperationTest extends CrateUnitTest {
                 .put(IndexMetaData.SETTING_BLOCKS_WRITE, true).build(), IndexMetaData.State.OPEN),
             containsInAnyOrder(Operation.READ, Operation.ALTER, Operation.ALTER_OPEN_CLOSE, Operation.ALTER_BLOCKS,
                 Operation.SHOW_CREATE, Operation.REFRESH, Operation.OPTIMIZE, Operation.COPY_TO,
-                Operation.CREATE_SNAPSHOT, Operation.ALTER_REROUTE));
+                Operation.CREATE_SNAPSHOT, Operation.ALTER_REROUTE, Operation.ANALYZE));
 
         assertThat(Operation.buildFromIndexSettingsAndState(Settings.builder()
                 .put(IndexMetaData.SETTING_BLOCKS_METADATA, true).build(), IndexMetaData.State.OPEN),
             containsInAnyOrder(Operation.READ, Operation.UPDATE, Operation.INSERT, Operation.DELETE, Operation.ALTER_BLOCKS,
-                Operation.ALTER_OPEN_CLOSE, Operation.REFRESH, Operation.SHOW_CREATE, Operation.OPTIMIZE, Operation.ALTER_REROUTE));
+                Operation.ALTER_OPEN_CLOSE, Operation.REFRESH, Operation.SHOW_CREATE, Operation.OPTIMIZE, Operation.ALTER_REROUTE,
+                Operation.ANALYZE));
     }
 
     @Test
@@ -72,7 +73,7 @@ public class OperationTest extends CrateUnitTest {
                 .put(IndexMetaData.SETTING_BLOCKS_WRITE, true)
                 .put(IndexMetaData.SETTING_BLOCKS_METADATA, true).build(), IndexMetaData.State.OPEN),
             containsInAnyOrder(Operation.READ, Operation.ALTER_OPEN_CLOSE, Operation.ALTER_BLOCKS, Operation.REFRESH,
-                Operation.SHOW_CREATE, Operation.OPTIMIZE, Operation.ALTER_REROUTE));
+                Operation.SHOW_CREATE, Operation.OPTIMIZE, Operation.ALTER_REROUTE, Operation.ANALYZE));
 
         assertThat(Operation.buildFromIndexSettingsAndState(Settings.builder()
                 .put(IndexMetaData.SETTING_BLOCKS_READ, true)
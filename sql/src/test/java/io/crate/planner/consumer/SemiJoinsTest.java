@@ -22,6 +22,7 @@
 
 package io.crate.planner.consumer;
 
+import com.carrotsearch.hppc.ObjectObjectHashMap;
 import io.crate.action.sql.SessionContext;
 import io.crate.analyze.MultiSourceSelect;
 import io.crate.analyze.QueriedTable;
@@ -32,6 +33,8 @@ import io.crate.expression.symbol.SelectSymbol;
 import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.format.SymbolPrinter;
 import io.crate.metadata.TransactionContext;
+import io.crate.metadata.RelationName;
+import io.crate.planner.TableStats;
 import io.crate.planner.node.dql.join.JoinType;
 import io.crate.planner.operators.LogicalPlan;
 import io.crate.sql.tree.QualifiedName;
@@ -173,4 +176,85 @@ public class SemiJoinsTest extends CrateDummyClusterServiceUnitTest {
         assertThat(mss.joinPairs().get(0).joinType(), is(JoinType.SEMI));
         assertThat(mss.joinPairs().get(1).joinType(), is(JoinType.ANTI));
     }
+
+    private SQLExecutor executorWithStats(long numDocsOfT2) throws Exception {
+        TableStats tableStats = new TableStats();
+        ObjectObjectHashMap<RelationName, TableStats.Stats> stats = new ObjectObjectHashMap<>();
+        stats.put(new RelationName("doc", "t1"), new TableStats.Stats(100_000L, 0));
+        stats.put(new RelationName("doc", "t2"), new TableStats.Stats(numDocsOfT2, 0));
+        tableStats.updateTableStats(stats);
+        return SQLExecutor.builder(clusterService)
+            .addTable("create table doc.t1 (id int not null, name string)")
+            .addTable("create table doc.t2 (id int not null, name string)")
+            .setTableStats(tableStats)
+            .build();
+    }
+
+    @Test
+    public void testLargeInSubqueryIsRewrittenToSemiHashJoin() throws Exception {
+        SQLExecutor e = executorWithStats(SemiJoins.MIN_ROWS_FOR_JOIN);
+        LogicalPlan logicalPlan = e.logicalPlan("select name from t1 where id in (select id from t2)");
+        assertThat(logicalPlan, isPlan(getFunctions(),
+            "RootBoundary[name]\n" +
+            "FetchOrEval[name]\n" +
+            "HashJoin[\n" +
+            "    Boundary[_fetchid, id]\n" +
+            "    Collect[doc.t1 | [_fetchid, id] | All]\n" +
+            "    --- SEMI ---\n" +
+            "    Boundary[id]\n" +
+            "    Boundary[id]\n" +
+            "    Collect[doc.t2 | [id] | All]\n" +
+            "]\n"));
+    }
+
+    @Test
+    public void testSmallInSubqueryIsNotRewritten() throws Exception {
+        SQLExecutor e = executorWithStats(SemiJoins.MIN_ROWS_FOR_JOIN - 1);
+        LogicalPlan logicalPlan = e.logicalPlan("select name from t1 where id in (select id from t2)");
+        assertThat(logicalPlan, isPlan(getFunctions(),
+            "RootBoundary[name]\n" +
+            "MultiPhase[\n" +
+            "    subQueries[\n" +
+            "        RootBoundary[id]\n" +
+            "        OrderBy['id' ASC NULLS LAST]\n" +
+            "        Collect[doc.t2 | [id] | All]\n" +
+            "    ]\n" +
+            "    FetchOrEval[name]\n" +
+            "    Collect[doc.t1 | [_fetchid] | (id = ANY(SelectSymbol{integer_array}))]\n" +
+            "]\n"));
+    }
+
+    @Test
+    public void testLargeNotInSubqueryOnNotNullColumnsIsRewrittenToAntiHashJoin() throws Exception {
+        SQLExecutor e = executorWithStats(SemiJoins.MIN_ROWS_FOR_JOIN);
+        LogicalPlan logicalPlan = e.logicalPlan("select name from t1 where id not in (select id from t2)");
+        assertThat(logicalPlan, isPlan(getFunctions(),
+            "RootBoundary[name]\n" +
+            "FetchOrEval[name]\n" +
+            "HashJoin[\n" +
+            "    Boundary[_fetchid, id]\n" +
+            "    Collect[doc.t1 | [_fetchid, id] | All]\n" +
+            "    --- ANTI ---\n" +
+            "    Boundary[id]\n" +
+            "    Boundary[id]\n" +
+            "    Collect[doc.t2 | [id] | All]\n" +
+            "]\n"));
+    }
+
+    @Test
+    public void testLargeNotInSubqueryOnNullableColumnIsNotRewritten() throws Exception {
+        SQLExecutor e = executorWithStats(SemiJoins.MIN_ROWS_FOR_JOIN);
+        LogicalPlan logicalPlan = e.logicalPlan("select id from t1 where name not in (select name from t2)");
+        assertThat(logicalPlan, isPlan(getFunctions(),
+            "RootBoundary[id]\n" +
+            "MultiPhase[\n" +
+            "    subQueries[\n" +
+            "        RootBoundary[name]\n" +
+            "        OrderBy['name' ASC NULLS LAST]\n" +
+            "        Collect[doc.t2 | [name] | All]\n" +
+            "    ]\n" +
+            "    FetchOrEval[id]\n" +
+            "    Collect[doc.t1 | [_fetchid] | (NOT (name = ANY(SelectSymbol{string_array})))]\n" +
+            "]\n"));
+    }
 }
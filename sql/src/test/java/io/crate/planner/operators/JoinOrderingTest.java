@@ -23,18 +23,29 @@
 package io.crate.planner.operators;
 
 import com.carrotsearch.hppc.ObjectIntHashMap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
+import io.crate.expression.symbol.Literal;
+import io.crate.planner.TableStats;
 import io.crate.sql.tree.QualifiedName;
 import io.crate.testing.T3;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 public class JoinOrderingTest {
@@ -80,4 +91,46 @@ public class JoinOrderingTest {
         );
         assertThat(qualifiedNames, contains(T3.T1, T3.T2, T3.T3));
     }
+
+    @Test
+    public void testOrderByCostJoinsSmallRelationsFirst() {
+        // SELECT * FROM t1, t2, t3 WHERE t1.id = t2.id AND t2.id = t3.id
+        Collection<QualifiedName> qualifiedNames = JoinOrdering.orderByCost(
+            Arrays.asList(T3.T1, T3.T2, T3.T3),
+            ImmutableMap.of(T3.T1, 100_000L, T3.T2, 1_000L, T3.T3, 10L),
+            ImmutableMap.of(
+                ImmutableSet.of(T3.T1, T3.T2), Literal.BOOLEAN_TRUE,
+                ImmutableSet.of(T3.T2, T3.T3), Literal.BOOLEAN_TRUE),
+            new TableStats()
+        );
+        assertThat(qualifiedNames, containsInAnyOrder(T3.T1, T3.T2, T3.T3));
+        assertThat(Iterables.getLast(qualifiedNames), is(T3.T1));
+    }
+
+    @Test
+    public void testOrderByCostPrefersCrossJoinOfSmallDimensionTables() {
+        // SELECT * FROM t1, t2, t3 WHERE t1.id = t3.a AND t2.id = t3.b
+        Collection<QualifiedName> qualifiedNames = JoinOrdering.orderByCost(
+            Arrays.asList(T3.T1, T3.T2, T3.T3),
+            ImmutableMap.of(T3.T1, 10L, T3.T2, 10L, T3.T3, 1_000_000L),
+            ImmutableMap.of(
+                ImmutableSet.of(T3.T1, T3.T3), Literal.BOOLEAN_TRUE,
+                ImmutableSet.of(T3.T2, T3.T3), Literal.BOOLEAN_TRUE),
+            new TableStats()
+        );
+        assertThat(Iterables.getLast(qualifiedNames), is(T3.T3));
+    }
+
+    @Test
+    public void testOrderByCostIsNotAppliedOnTooManyRelations() {
+        List<QualifiedName> relations = new ArrayList<>();
+        Map<QualifiedName, Long> expectedRows = new HashMap<>();
+        for (int i = 0; i <= JoinOrdering.MAX_RELATIONS_FOR_COST_BASED_ORDERING; i++) {
+            QualifiedName name = new QualifiedName("t" + i);
+            relations.add(name);
+            expectedRows.put(name, 10L);
+        }
+        assertThat(JoinOrdering.orderByCost(relations, expectedRows, Collections.emptyMap(), new TableStats()),
+            nullValue());
+    }
 }
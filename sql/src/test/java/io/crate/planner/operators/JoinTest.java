@@ -22,14 +22,19 @@
 
 package io.crate.planner.operators;
 
+import com.carrotsearch.hppc.IntIndexedContainer;
 import com.carrotsearch.hppc.ObjectObjectHashMap;
 import io.crate.analyze.MultiSourceSelect;
 import io.crate.analyze.TableDefinitions;
 import io.crate.data.Row;
 import io.crate.execution.dsl.phases.HashJoinPhase;
 import io.crate.execution.dsl.phases.NestedLoopPhase;
+import io.crate.execution.dsl.phases.RoutedCollectPhase;
+import io.crate.execution.dsl.projection.TopNProjection;
 import io.crate.execution.dsl.projection.builder.ProjectionBuilder;
+import io.crate.expression.symbol.SelectSymbol;
 import io.crate.metadata.Functions;
+import io.crate.metadata.PartitionName;
 import io.crate.metadata.Reference;
 import io.crate.metadata.RelationName;
 import io.crate.metadata.TransactionContext;
@@ -37,6 +42,8 @@ import io.crate.planner.ExecutionPlan;
 import io.crate.planner.PlannerContext;
 import io.crate.planner.SubqueryPlanner;
 import io.crate.planner.TableStats;
+import io.crate.planner.distribution.DistributionInfo;
+import io.crate.planner.distribution.DistributionType;
 import io.crate.planner.node.dql.Collect;
 import io.crate.planner.node.dql.QueryThenFetch;
 import io.crate.planner.node.dql.join.Join;
@@ -44,18 +51,26 @@ import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.testing.SQLExecutor;
 import io.crate.testing.T3;
 import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
 import org.hamcrest.Matchers;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 import static io.crate.testing.TestingHelpers.getFunctions;
 import static io.crate.testing.TestingHelpers.isSQL;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
 
 public class JoinTest extends CrateDummyClusterServiceUnitTest {
@@ -163,7 +178,9 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
         assertThat(((HashJoin) operator).concreteRelation.toString(), is("QueriedTable{DocTableRelation{doc.locations}}"));
 
         Join join = buildJoin(operator);
-        assertThat(join.joinPhase().leftMergePhase().inputTypes(), contains(DataTypes.LONG, DataTypes.LONG));
+        // the small right side is broadcast, the left side is joined on the nodes where it is collected
+        assertThat(join.joinPhase().leftMergePhase(), nullValue());
+        assertThat(join.left().resultDescription().streamOutputs(), contains(DataTypes.LONG, DataTypes.LONG));
         assertThat(join.joinPhase().rightMergePhase().inputTypes(), contains(DataTypes.LONG));
         assertThat(join.joinPhase().projections().get(0).outputs().toString(),
             is("[IC{0, long}, IC{1, long}, IC{2, long}]"));
@@ -187,12 +204,51 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
 
         Join join = buildJoin(operator);
         // Plans must be switched (left<->right)
-        assertThat(join.joinPhase().leftMergePhase().inputTypes(), Matchers.contains(DataTypes.LONG));
+        assertThat(join.joinPhase().leftMergePhase(), nullValue());
+        assertThat(join.left().resultDescription().streamOutputs(), Matchers.contains(DataTypes.LONG));
         assertThat(join.joinPhase().rightMergePhase().inputTypes(), Matchers.contains(DataTypes.LONG, DataTypes.LONG));
         assertThat(join.joinPhase().projections().get(0).outputs().toString(),
             is("[IC{1, long}, IC{2, long}, IC{0, long}]"));
     }
 
+    @Test
+    public void testHashJoin_SmallRightSideIsBroadcast() {
+        MultiSourceSelect mss = e.analyze("select users.name, locations.id " +
+                                          "from users " +
+                                          "join locations on users.id = locations.id");
+
+        TableStats tableStats = new TableStats();
+        ObjectObjectHashMap<RelationName, TableStats.Stats> rowCountByTable = new ObjectObjectHashMap<>();
+        rowCountByTable.put(TableDefinitions.USER_TABLE_IDENT, new TableStats.Stats(100_000, 0));
+        rowCountByTable.put(TableDefinitions.TEST_DOC_LOCATIONS_TABLE_IDENT, new TableStats.Stats(500, 0));
+        tableStats.updateTableStats(rowCountByTable);
+
+        Join join = plan(mss, tableStats);
+        assertThat(join.joinPhase().nodeIds(), is(join.left().resultDescription().nodeIds()));
+        assertThat(join.left().resultDescription().nodeIds().size(), Matchers.greaterThan(1));
+        assertThat(((RoutedCollectPhase) ((Collect) join.left()).collectPhase()).distributionInfo(), is(DistributionInfo.DEFAULT_SAME_NODE));
+        assertThat(((RoutedCollectPhase) ((Collect) join.right()).collectPhase()).distributionInfo(), is(DistributionInfo.DEFAULT_BROADCAST));
+        assertThat(join.joinPhase().leftMergePhase(), nullValue());
+        assertThat(join.joinPhase().rightMergePhase().nodeIds(), is(join.joinPhase().nodeIds()));
+    }
+
+    @Test
+    public void testHashJoin_SidesOfSimilarSizeAreModuloDistributed() {
+        MultiSourceSelect mss = e.analyze("select users.name, locations.id " +
+                                          "from users " +
+                                          "join locations on users.id = locations.id");
+
+        TableStats tableStats = new TableStats();
+        ObjectObjectHashMap<RelationName, TableStats.Stats> rowCountByTable = new ObjectObjectHashMap<>();
+        rowCountByTable.put(TableDefinitions.USER_TABLE_IDENT, new TableStats.Stats(1000, 0));
+        rowCountByTable.put(TableDefinitions.TEST_DOC_LOCATIONS_TABLE_IDENT, new TableStats.Stats(1000, 0));
+        tableStats.updateTableStats(rowCountByTable);
+
+        Join join = plan(mss, tableStats);
+        assertThat(((RoutedCollectPhase) ((Collect) join.left()).collectPhase()).distributionInfo().distributionType(), is(DistributionType.MODULO));
+        assertThat(((RoutedCollectPhase) ((Collect) join.right()).collectPhase()).distributionInfo().distributionType(), is(DistributionType.MODULO));
+    }
+
     @Test
     public void testMultipleHashJoins() {
         MultiSourceSelect mss = e.analyze("select * " +
@@ -227,6 +283,18 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
         assertThat(((Join)join.left()).joinPhase(), instanceOf(HashJoinPhase.class));
     }
 
+    @Test
+    public void testLeftJoinWithOrderByAndLimitCollectsOnlyLimitRowsOfLeftSide() {
+        ExecutionPlan plan = e.plan("select t1.a, t2.b from t1 left join t2 on t1.a = t2.b order by t1.a limit 10");
+        assertThat(plan, instanceOf(Join.class));
+        Join join = (Join) plan;
+        assertThat(join.left(), instanceOf(Collect.class));
+        RoutedCollectPhase leftCollectPhase = (RoutedCollectPhase) ((Collect) join.left()).collectPhase();
+        assertThat(leftCollectPhase.orderBy(), notNullValue());
+        assertThat(leftCollectPhase.projections(), contains(instanceOf(TopNProjection.class)));
+        assertThat(((TopNProjection) leftCollectPhase.projections().get(0)).limit(), is(10));
+    }
+
     @Test
     public void testBlockNestedLoopWhenTableSizeUnknownAndOneExecutionNode() {
         MultiSourceSelect mss = e.analyze("select * from t1, t4");
@@ -319,4 +387,82 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
         assertThat((((NestedLoopPhase) ((Join) ((QueryThenFetch) build).subPlan()).joinPhase())).blockNestedLoop,
             is(false));
     }
+
+    private static String factsPartition(String day) {
+        return new PartitionName(new RelationName("doc", "facts"), singletonList(new BytesRef(day))).asIndexName();
+    }
+
+    private SQLExecutor executorWithPartitionedFacts(TableStats tableStats) throws Exception {
+        return SQLExecutor.builder(clusterService)
+            .addPartitionedTable(
+                "create table facts (day timestamp, x int) partitioned by (day)",
+                factsPartition("1530403200000"),
+                factsPartition("1530489600000"),
+                factsPartition("1533081600000"))
+            .addTable("create table days (day timestamp, month int)")
+            .setTableStats(tableStats)
+            .build();
+    }
+
+    private static TableStats factsAndDaysStats() {
+        TableStats tableStats = new TableStats();
+        ObjectObjectHashMap<RelationName, TableStats.Stats> stats = new ObjectObjectHashMap<>();
+        stats.put(new RelationName("doc", "facts"), new TableStats.Stats(1_000_000, 0));
+        stats.put(new RelationName("doc", "days"), new TableStats.Stats(365, 0));
+        tableStats.updateTableStats(stats);
+        return tableStats;
+    }
+
+    private static Set<String> collectedIndices(ExecutionPlan plan) {
+        Set<String> indices = new HashSet<>();
+        for (Map<String, IntIndexedContainer> indicesOfNode :
+            ((RoutedCollectPhase) ((Collect) plan).collectPhase()).routing().locations().values()) {
+            indices.addAll(indicesOfNode.keySet());
+        }
+        return indices;
+    }
+
+    @Test
+    public void testPartitionsOfJoinedTableArePrunedUsingValuesOfFilteredSide() throws Exception {
+        TableStats tableStats = factsAndDaysStats();
+        e = executorWithPartitionedFacts(tableStats);
+        plannerCtx = e.getPlannerContext(clusterService.state());
+        MultiSourceSelect mss = e.analyze(
+            "select facts.day, days.month from facts join days on facts.day = days.day where days.month = 7");
+
+        LogicalPlan operator = new LogicalPlanner(functions, tableStats).plan(mss, plannerCtx);
+        assertThat(operator.dependencies().size(), is(1));
+        SelectSymbol selectSymbol = operator.dependencies().values().iterator().next();
+
+        SubQueryResults subQueryResults = new SubQueryResults(
+            Collections.singletonMap(selectSymbol, Arrays.asList(1530403200000L, 1530489600000L)));
+        ExecutionPlan plan = operator.build(
+            plannerCtx, projectionBuilder, -1, 0, null, null, Row.EMPTY, subQueryResults);
+        Join join = (Join) ((QueryThenFetch) plan).subPlan();
+        assertThat(collectedIndices(join.left()), containsInAnyOrder(
+            factsPartition("1530403200000"),
+            factsPartition("1530489600000")));
+        assertThat(collectedIndices(join.right()), contains("days"));
+    }
+
+    @Test
+    public void testPartitionsOfJoinedTableAreNotPrunedIfOtherSideIsNotFiltered() throws Exception {
+        TableStats tableStats = factsAndDaysStats();
+        e = executorWithPartitionedFacts(tableStats);
+        MultiSourceSelect mss = e.analyze("select facts.x from facts join days on facts.day = days.day");
+
+        LogicalPlan operator = createLogicalPlan(mss, tableStats);
+        assertThat(operator.dependencies().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testPartitionsOfPreservedSideOfOuterJoinAreNotPruned() throws Exception {
+        TableStats tableStats = factsAndDaysStats();
+        e = executorWithPartitionedFacts(tableStats);
+        MultiSourceSelect mss = e.analyze(
+            "select facts.x from facts left join days on facts.day = days.day and days.month = 7");
+
+        LogicalPlan operator = createLogicalPlan(mss, tableStats);
+        assertThat(operator.dependencies().isEmpty(), is(true));
+    }
 }
@@ -22,9 +22,15 @@
 
 package io.crate.planner.operators;
 
+import io.crate.analyze.AnalyzedStatement;
 import io.crate.analyze.OrderBy;
+import io.crate.analyze.ParamTypeHints;
 import io.crate.analyze.QueryClause;
 import io.crate.analyze.relations.QueriedRelation;
+import io.crate.data.Row1;
+import io.crate.execution.dsl.phases.RoutedCollectPhase;
+import io.crate.execution.dsl.projection.builder.ProjectionBuilder;
+import io.crate.execution.engine.pipeline.TopN;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.SelectSymbol;
 import io.crate.expression.symbol.Symbol;
@@ -35,19 +41,23 @@ import io.crate.planner.PlannerContext;
 import io.crate.planner.SubqueryPlanner;
 import io.crate.planner.TableStats;
 import io.crate.planner.consumer.FetchMode;
+import io.crate.sql.parser.SqlParser;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.testing.SQLExecutor;
+import io.crate.types.DataTypes;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.hamcrest.FeatureMatcher;
 import org.hamcrest.Matcher;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
 import static io.crate.testing.TestingHelpers.getFunctions;
+import static io.crate.testing.TestingHelpers.isSQL;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 
@@ -77,6 +87,31 @@ public class LogicalPlannerTest extends CrateDummyClusterServiceUnitTest {
                                 "Collect[.unnest | [col1] | All]\n"));
     }
 
+    @Test
+    public void testPlanCanBeBuiltMultipleTimesWithDifferentParameters() throws Exception {
+        AnalyzedStatement stmt = sqlExecutor.analyzer.unboundAnalyze(
+            SqlParser.createStatement("select x, count(*) from t1 where x = ? group by x"),
+            sqlExecutor.getSessionContext(),
+            new ParamTypeHints(Collections.singletonList(DataTypes.INTEGER)));
+        LogicalPlan plan = (LogicalPlan) sqlExecutor.planner.plan(
+            stmt, sqlExecutor.getPlannerContext(clusterService.state()));
+
+        // a cached plan is built for each execution, the parameters of previous executions must not be re-used
+        for (int x : new int[] { 1, 2 }) {
+            io.crate.planner.node.dql.Collect collect = (io.crate.planner.node.dql.Collect) plan.build(
+                sqlExecutor.getPlannerContext(clusterService.state()),
+                new ProjectionBuilder(sqlExecutor.functions()),
+                TopN.NO_LIMIT,
+                0,
+                null,
+                null,
+                new Row1(x),
+                SubQueryResults.EMPTY
+            );
+            assertThat(((RoutedCollectPhase) collect.collectPhase()).where(), isSQL("(doc.t1.x = " + x + ")"));
+        }
+    }
+
     @Test
     public void testQTFWithOrderBy() throws Exception {
         LogicalPlan plan = plan("select a, x from t1 order by a");
@@ -194,7 +229,6 @@ public class LogicalPlannerTest extends CrateDummyClusterServiceUnitTest {
                                 "OrderBy['x' ASC]\n" +
                                 "HashJoin[\n" +
                                 "    Boundary[_fetchid, x]\n" +
-                                "    FetchOrEval[_fetchid, x]\n" +
                                 "    Collect[doc.t1 | [_fetchid, x] | All]\n" +
                                 "    --- INNER ---\n" +
                                 "    Boundary[y]\n" +
@@ -256,8 +290,8 @@ public class LogicalPlannerTest extends CrateDummyClusterServiceUnitTest {
                                 "HashJoin[\n" +
                                 "    Boundary[i, a]\n" +
                                 "    FetchOrEval[i, a]\n" +
-                                "    Filter[(a > '50')]\n" +
                                 "    Boundary[a, i]\n" +
+                                "    Filter[(a > '50')]\n" +
                                 "    Limit[5;0]\n" +
                                 "    OrderBy['a' ASC]\n" +
                                 "    Collect[doc.t1 | [a, i] | All]\n" +
@@ -270,6 +304,77 @@ public class LogicalPlannerTest extends CrateDummyClusterServiceUnitTest {
 
     }
 
+    @Test
+    public void testFilterOnUnionIsPushedBeneathTheUnion() {
+        LogicalPlan plan = plan("select * from (select x from t1 union all select y from t2) u where x > 1");
+        assertThat(plan, isPlan("Boundary[x]\n" +
+                                "Union[\n" +
+                                "Boundary[x]\n" +
+                                "Collect[doc.t1 | [x] | (x > 1)]\n" +
+                                "---\n" +
+                                "Boundary[y]\n" +
+                                "Collect[doc.t2 | [y] | (y > 1)]\n" +
+                                "]\n"));
+    }
+
+    @Test
+    public void testFilterOnNullSupplyingSideOfOuterJoinIsNotPushedDown() {
+        LogicalPlan plan = plan("select t1.x, t2.y from t1 left join t2 on t1.x = t2.y " +
+                                "where coalesce(t2.y, 0) = 0 and t1.x > 1");
+        assertThat(plan, isPlan("Filter[(coalesce(y, 0) = 0)]\n" +
+                                "NestedLoopJoin[\n" +
+                                "    Boundary[x]\n" +
+                                "    Collect[doc.t1 | [x] | (x > 1)]\n" +
+                                "    --- LEFT ---\n" +
+                                "    Boundary[y]\n" +
+                                "    Collect[doc.t2 | [y] | All]\n" +
+                                "]\n"));
+    }
+
+    @Test
+    public void testOrderedLimitIsPushedToPreservedSideOfLeftJoin() {
+        LogicalPlan plan = plan("select t1.x, t2.y from t1 left join t2 on t1.x = t2.y order by t1.x limit 10");
+        assertThat(plan, isPlan("Limit[10;0]\n" +
+                                "OrderBy['x' ASC]\n" +
+                                "NestedLoopJoin[\n" +
+                                "    Limit[10;0]\n" +
+                                "    Boundary[x]\n" +
+                                "    OrderBy['x' ASC]\n" +
+                                "    Collect[doc.t1 | [x] | All]\n" +
+                                "    --- LEFT ---\n" +
+                                "    Boundary[y]\n" +
+                                "    Collect[doc.t2 | [y] | All]\n" +
+                                "]\n"));
+    }
+
+    @Test
+    public void testLimitIsPushedToPreservedSideOfRightJoin() {
+        LogicalPlan plan = plan("select t1.x, t2.y from t1 right join t2 on t1.x = t2.y limit 10 offset 5");
+        assertThat(plan, isPlan("Limit[10;5]\n" +
+                                "NestedLoopJoin[\n" +
+                                "    Boundary[x]\n" +
+                                "    Collect[doc.t1 | [x] | All]\n" +
+                                "    --- RIGHT ---\n" +
+                                "    Limit[15;0]\n" +
+                                "    Boundary[y]\n" +
+                                "    Collect[doc.t2 | [y] | All]\n" +
+                                "]\n"));
+    }
+
+    @Test
+    public void testLimitIsNotPushedIntoOuterJoinIfOrderedByNullSupplyingSide() {
+        LogicalPlan plan = plan("select t1.x, t2.y from t1 left join t2 on t1.x = t2.y order by t2.y limit 10");
+        assertThat(plan, isPlan("Limit[10;0]\n" +
+                                "OrderBy['y' ASC]\n" +
+                                "NestedLoopJoin[\n" +
+                                "    Boundary[x]\n" +
+                                "    Collect[doc.t1 | [x] | All]\n" +
+                                "    --- LEFT ---\n" +
+                                "    Boundary[y]\n" +
+                                "    Collect[doc.t2 | [y] | All]\n" +
+                                "]\n"));
+    }
+
     @Test
     public void testPlanOfJoinedViewsHasBoundaryWithViewOutputs() {
         LogicalPlan plan = plan("SELECT v2.x, v2.a, v3.x, v3.a " +
@@ -279,19 +384,13 @@ public class LogicalPlannerTest extends CrateDummyClusterServiceUnitTest {
         assertThat(plan, isPlan("FetchOrEval[x, a, x, a]\n" +
                                 "HashJoin[\n" +
                                 "    Boundary[_fetchid, x]\n" +
-                                "    FetchOrEval[_fetchid, x]\n" +
                                 "    Boundary[_fetchid, x]\n" +
-                                "    FetchOrEval[_fetchid, x]\n" +
                                 "    Boundary[_fetchid, x]\n" +
-                                "    FetchOrEval[_fetchid, x]\n" +
                                 "    Collect[doc.t1 | [_fetchid, x] | All]\n" +
                                 "    --- INNER ---\n" +
                                 "    Boundary[_fetchid, x]\n" +
-                                "    FetchOrEval[_fetchid, x]\n" +
                                 "    Boundary[_fetchid, x]\n" +
-                                "    FetchOrEval[_fetchid, x]\n" +
                                 "    Boundary[_fetchid, x]\n" +
-                                "    FetchOrEval[_fetchid, x]\n" +
                                 "    Collect[doc.t1 | [_fetchid, x] | All]\n" +
                                 "]\n"));
     }
@@ -0,0 +1,165 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.operators;
+
+import com.google.common.collect.ImmutableMap;
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.operator.EqOperator;
+import io.crate.expression.operator.GtOperator;
+import io.crate.expression.operator.LtOperator;
+import io.crate.expression.operator.OrOperator;
+import io.crate.expression.predicate.IsNullPredicate;
+import io.crate.expression.predicate.NotPredicate;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.Symbols;
+import io.crate.metadata.FunctionIdent;
+import io.crate.metadata.FunctionInfo;
+import io.crate.metadata.Reference;
+import io.crate.metadata.stats.ColumnStats;
+import io.crate.planner.TableStats;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.testing.TestingHelpers;
+import io.crate.types.DataTypes;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+public class SelectivityEstimatorTest extends CrateUnitTest {
+
+    private TableStats tableStats;
+    private Reference x;
+    private Reference y;
+
+    @Before
+    public void setUpStats() {
+        x = TestingHelpers.createReference("x", DataTypes.INTEGER);
+        y = TestingHelpers.createReference("y", DataTypes.INTEGER);
+
+        // x: 0..999 evenly distributed, every value appears once
+        List<Object> xSamples = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            xSamples.add(i);
+        }
+        // y: 10% null, 50% 1, 40% 2
+        List<Object> ySamples = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ySamples.add(i < 100 ? null : (i < 600 ? 1 : 2));
+        }
+        tableStats = new TableStats();
+        tableStats.updateColumnStats(ImmutableMap.of(
+            x.ident().tableIdent(),
+            ImmutableMap.of(
+                x.column(), ColumnStats.fromSample(DataTypes.INTEGER, xSamples, 1000),
+                y.column(), ColumnStats.fromSample(DataTypes.INTEGER, ySamples, 1000)
+            )
+        ));
+    }
+
+    private static Function fn(String name, Symbol... args) {
+        return new Function(
+            new FunctionInfo(new FunctionIdent(name, Symbols.typeView(Arrays.asList(args))), DataTypes.BOOLEAN),
+            Arrays.asList(args));
+    }
+
+    private double selectivity(Symbol query) {
+        return SelectivityEstimator.selectivity(query, tableStats);
+    }
+
+    @Test
+    public void testLiterals() {
+        assertThat(selectivity(Literal.BOOLEAN_TRUE), is(1.0));
+        assertThat(selectivity(Literal.BOOLEAN_FALSE), is(0.0));
+        assertThat(selectivity(Literal.NULL), is(0.0));
+    }
+
+    @Test
+    public void testEqUsesMostCommonValues() {
+        assertThat(selectivity(fn(EqOperator.NAME, y, Literal.of(1))), closeTo(0.5, 0.001));
+        assertThat(selectivity(fn(EqOperator.NAME, Literal.of(2), y)), closeTo(0.4, 0.001));
+    }
+
+    @Test
+    public void testEqOnUniqueColumn() {
+        assertThat(selectivity(fn(EqOperator.NAME, x, Literal.of(10))), closeTo(0.001, 0.0005));
+    }
+
+    @Test
+    public void testEqWithoutStatsUsesDefault() {
+        Reference z = TestingHelpers.createReference("z", DataTypes.INTEGER);
+        assertThat(selectivity(fn(EqOperator.NAME, z, Literal.of(10))),
+            is(SelectivityEstimator.DEFAULT_EQ_SELECTIVITY));
+        assertThat(selectivity(fn(GtOperator.NAME, z, Literal.of(10))),
+            is(SelectivityEstimator.DEFAULT_RANGE_SELECTIVITY));
+    }
+
+    @Test
+    public void testRangeUsesHistogram() {
+        assertThat(selectivity(fn(LtOperator.NAME, x, Literal.of(250))), closeTo(0.25, 0.02));
+        assertThat(selectivity(fn(GtOperator.NAME, x, Literal.of(900))), closeTo(0.1, 0.02));
+        // 900 < x is the same as x > 900
+        assertThat(selectivity(fn(LtOperator.NAME, Literal.of(900), x)), closeTo(0.1, 0.02));
+    }
+
+    @Test
+    public void testIsNullUsesNullFraction() {
+        assertThat(selectivity(fn(IsNullPredicate.NAME, y)), closeTo(0.1, 0.001));
+        assertThat(selectivity(fn(NotPredicate.NAME, fn(IsNullPredicate.NAME, y))), closeTo(0.9, 0.001));
+    }
+
+    @Test
+    public void testAndOr() {
+        Function yIsOne = fn(EqOperator.NAME, y, Literal.of(1));
+        Function xLow = fn(LtOperator.NAME, x, Literal.of(500));
+        assertThat(selectivity(fn(AndOperator.NAME, yIsOne, xLow)), closeTo(0.25, 0.02));
+        assertThat(selectivity(fn(OrOperator.NAME, yIsOne, xLow)), closeTo(0.75, 0.02));
+    }
+
+    @Test
+    public void testEstimateRows() {
+        assertThat(SelectivityEstimator.estimateRows(-1L, fn(EqOperator.NAME, y, Literal.of(1)), tableStats), is(-1L));
+        assertThat(SelectivityEstimator.estimateRows(2000L, fn(EqOperator.NAME, y, Literal.of(1)), tableStats), is(1000L));
+        assertThat(SelectivityEstimator.estimateRows(2000L, null, tableStats), is(2000L));
+    }
+
+    @Test
+    public void testEstimateJoinRowsUsesDistinctValues() {
+        // x has ~1000 distinct values; joining 1000 rows with 50 rows on x results in ~50 rows
+        Function joinCondition = fn(EqOperator.NAME, x, x);
+        assertThat(SelectivityEstimator.estimateJoinRows(1000L, 50L, joinCondition, tableStats), is(50L));
+    }
+
+    @Test
+    public void testEstimateJoinRowsWithoutStatsTakesBiggerSide() {
+        Reference z = TestingHelpers.createReference("z", DataTypes.INTEGER);
+        assertThat(SelectivityEstimator.estimateJoinRows(1000L, 50L, fn(EqOperator.NAME, z, z), tableStats), is(1000L));
+        assertThat(SelectivityEstimator.estimateJoinRows(-1L, 50L, fn(EqOperator.NAME, x, x), tableStats), is(50L));
+    }
+}
@@ -25,28 +25,29 @@ package io.crate.protocols.postgres;
 import io.crate.data.RowN;
 import io.crate.types.DataTypes;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 
 import static com.carrotsearch.randomizedtesting.RandomizedTest.$;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
 
 public class MessagesTest {
 
     @Test
     public void testNullValuesAddToLength() throws Exception {
-        EmbeddedChannel channel = new EmbeddedChannel();
-        Messages.sendDataRow(
-            channel,
+        ByteBuf buffer = Unpooled.buffer();
+        Messages.writeDataRow(
+            buffer,
             new RowN($(10, null)),
             Arrays.asList(DataTypes.INTEGER, DataTypes.STRING), null
         );
-        channel.flush();
-        ByteBuf buffer = channel.readOutbound();
 
         // message type
         assertThat((char) buffer.readByte(), is('D'));
@@ -56,6 +57,39 @@ public class MessagesTest {
         assertThat(buffer.readableBytes(), is(12)); // 16 - INT4 because the size was already read
     }
 
+    @Test
+    public void testDataRowsAreAppendedToBuffer() throws Exception {
+        ByteBuf buffer = Unpooled.buffer();
+        Messages.writeDataRow(buffer, new RowN($(10)), Collections.singletonList(DataTypes.INTEGER), null);
+        Messages.writeDataRow(buffer, new RowN($((Object) null)), Collections.singletonList(DataTypes.INTEGER), null);
+
+        assertThat((char) buffer.readByte(), is('D'));
+        assertThat(buffer.readInt(), is(4 + 2 + 4 + 2));
+        buffer.skipBytes(2 + 4 + 2);
+
+        assertThat((char) buffer.readByte(), is('D'));
+        assertThat(buffer.readInt(), is(4 + 2 + 4));
+        assertThat(buffer.readableBytes(), is(2 + 4));
+    }
+
+    @Test
+    public void testFailingDataRowIsNotLeftInTheBuffer() throws Exception {
+        ByteBuf buffer = Unpooled.buffer();
+        Messages.writeDataRow(buffer, new RowN($(10)), Collections.singletonList(DataTypes.INTEGER), null);
+        int writerIndex = buffer.writerIndex();
+
+        FormatCodes.FormatCode[] formatCodes = new FormatCodes.FormatCode[] { FormatCodes.FormatCode.BINARY };
+        try {
+            // the second value doesn't match the column type and fails to be written after the first one was written
+            Messages.writeDataRow(
+                buffer, new RowN($(20, "foo")), Arrays.asList(DataTypes.INTEGER, DataTypes.INTEGER), formatCodes);
+            fail("writing the data row must fail");
+        } catch (ClassCastException ignored) {
+        }
+
+        assertThat(buffer.writerIndex(), is(writerIndex));
+    }
+
     @Test
     public void testCommandCompleteWithWhitespace() throws Exception {
         final EmbeddedChannel channel = new EmbeddedChannel();
@@ -25,6 +25,7 @@ package io.crate.protocols.postgres;
 import io.crate.Version;
 import io.crate.action.sql.SQLOperations;
 import io.crate.action.sql.Session;
+import io.crate.action.sql.StatementCache;
 import io.crate.auth.AlwaysOKNullAuthentication;
 import io.crate.auth.Authentication;
 import io.crate.auth.AuthenticationMethod;
@@ -84,6 +85,7 @@ public class PostgresWireProtocolTest extends CrateDummyClusterServiceUnitTest {
         sqlOperations = new SQLOperations(
             e.analyzer,
             e.planner,
+            new StatementCache(0),
             () -> mock(DependencyCarrier.class),
             new JobsLogs(() -> true),
             Settings.EMPTY,
@@ -0,0 +1,66 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import io.crate.data.Row1;
+import io.crate.types.DataTypes;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class ResultSetReceiverTest {
+
+    @Test
+    public void testDataRowsAreWrittenInChunks() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ResultSetReceiver receiver = new ResultSetReceiver(
+            "select x from t", channel, t -> {}, Collections.singletonList(DataTypes.INTEGER), null);
+
+        // 'D' + length + number of columns + value length + "1"
+        int dataRowSize = 1 + 4 + 2 + 4 + 1;
+        int numRows = ResultSetReceiver.DATA_ROWS_FLUSH_THRESHOLD / dataRowSize + 1;
+        for (int i = 0; i < numRows; i++) {
+            receiver.setNextRow(new Row1(1));
+        }
+        assertThat(channel.outboundMessages().size(), is(1));
+        ByteBuf dataRows = channel.readOutbound();
+        assertThat(dataRows.readableBytes(), is(numRows * dataRowSize));
+        dataRows.release();
+
+        receiver.setNextRow(new Row1(1));
+        assertThat(channel.outboundMessages().size(), is(0));
+
+        receiver.allFinished(false);
+        dataRows = channel.readOutbound();
+        assertThat(dataRows.readableBytes(), is(dataRowSize));
+        dataRows.release();
+        ByteBuf commandComplete = channel.readOutbound();
+        assertThat((char) commandComplete.readByte(), is('C'));
+        commandComplete.release();
+    }
+}
@@ -49,6 +49,7 @@ import io.crate.auth.user.User;
 import io.crate.data.Row;
 import io.crate.data.RowN;
 import io.crate.data.Rows;
+import io.crate.execution.SubQueryResultCache;
 import io.crate.execution.ddl.RepositoryService;
 import io.crate.execution.dsl.projection.builder.ProjectionBuilder;
 import io.crate.execution.engine.pipeline.TopN;
@@ -111,6 +112,7 @@ import org.elasticsearch.common.compress.CompressedXContent;
 import org.elasticsearch.common.inject.ModulesBuilder;
 import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.env.Environment;
@@ -353,7 +355,8 @@ public class SQLExecutor {
                     Settings.EMPTY,
                     clusterService,
                     functions,
-                    tableStats
+                    tableStats,
+                    new SubQueryResultCache(0, TimeValue.ZERO, functions)
                 ),
                 relationAnalyzer,
                 new SessionContext(defaultSchema, user, s -> {}, t -> {}),